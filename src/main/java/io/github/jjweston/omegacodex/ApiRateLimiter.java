@@ -0,0 +1,185 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import tools.jackson.databind.JsonNode;
+
+import java.net.http.HttpHeaders;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class ApiRateLimiter
+{
+    private static final Pattern        durationPattern   = Pattern.compile( "(\\d+(?:\\.\\d+)?)(ms|h|m|s)" );
+    private static final Set< Integer > retryableStatuses = Set.of( 408, 429, 500, 502, 503, 504 );
+
+    private final int             maxAttempts;
+    private final long            baseBackoffMs;
+    private final long            maxBackoffMs;
+    private final OmegaCodexUtil  omegaCodexUtil;
+    private final RandomGenerator randomGenerator;
+
+    private long blockedUntilMs = 0;
+
+    ApiRateLimiter()
+    {
+        int  maxAttempts   = 6;
+        long baseBackoffMs = 1_000;
+        long maxBackoffMs  = 60_000;
+
+        this( maxAttempts, baseBackoffMs, maxBackoffMs, new OmegaCodexUtil(), RandomGenerator.getDefault() );
+    }
+
+    ApiRateLimiter( int maxAttempts, long baseBackoffMs, long maxBackoffMs,
+                    OmegaCodexUtil omegaCodexUtil, RandomGenerator randomGenerator )
+    {
+        if ( maxAttempts < 1 ) throw new IllegalArgumentException( "Max attempts must be positive." );
+        if ( baseBackoffMs < 1 ) throw new IllegalArgumentException( "Base backoff must be positive." );
+        if ( maxBackoffMs < baseBackoffMs )
+        {
+            throw new IllegalArgumentException( "Max backoff must not be less than base backoff." );
+        }
+        if ( omegaCodexUtil == null ) throw new IllegalArgumentException( "Omega Codex util must not be null." );
+        if ( randomGenerator == null ) throw new IllegalArgumentException( "Random generator must not be null." );
+
+        this.maxAttempts     = maxAttempts;
+        this.baseBackoffMs   = baseBackoffMs;
+        this.maxBackoffMs    = maxBackoffMs;
+        this.omegaCodexUtil  = omegaCodexUtil;
+        this.randomGenerator = randomGenerator;
+    }
+
+    synchronized long getDelayMs()
+    {
+        return Math.max( 0, this.blockedUntilMs - this.omegaCodexUtil.currentTimeMillis() );
+    }
+
+    synchronized void update( HttpHeaders headers )
+    {
+        if ( headers == null ) throw new IllegalArgumentException( "Headers must not be null." );
+
+        // requests are only held back once a limit is used up, so we run at the full rate the account allows
+        long nowMs = this.omegaCodexUtil.currentTimeMillis();
+        this.blockUntilReset( headers, "requests", nowMs );
+        this.blockUntilReset( headers, "tokens", nowMs );
+    }
+
+    boolean isRetryable( int statusCode, JsonNode responseNode, int attempt )
+    {
+        if ( attempt >= this.maxAttempts ) return false;
+        if ( !isRetryableStatus( statusCode )) return false;
+
+        // an exhausted quota also returns 429, but waiting will not fix it
+        return !responseNode.path( "error" ).path( "code" ).asString().equals( "insufficient_quota" );
+    }
+
+    static boolean isRetryableStatus( int statusCode )
+    {
+        return retryableStatuses.contains( statusCode );
+    }
+
+    synchronized long backOff( int attempt, HttpHeaders headers )
+    {
+        if ( attempt < 1 ) throw new IllegalArgumentException( "Attempt must be positive." );
+        if ( headers == null ) throw new IllegalArgumentException( "Headers must not be null." );
+
+        long nowMs = this.omegaCodexUtil.currentTimeMillis();
+
+        int  shift         = Math.min( attempt - 1, 30 );
+        long exponentialMs = Math.min( this.maxBackoffMs, this.baseBackoffMs << shift );
+        long jitteredMs    = ( exponentialMs / 2 ) + (long) ( this.randomGenerator.nextDouble() * exponentialMs / 2 );
+        long delayMs       = Math.max( jitteredMs, this.getRetryAfterMs( headers, nowMs ));
+
+        this.blockedUntilMs = Math.max( this.blockedUntilMs, nowMs + delayMs );
+        return delayMs;
+    }
+
+    private void blockUntilReset( HttpHeaders headers, String limitName, long nowMs )
+    {
+        Optional< String > remaining = headers.firstValue( "x-ratelimit-remaining-" + limitName );
+        Optional< String > reset     = headers.firstValue( "x-ratelimit-reset-" + limitName );
+        if (( remaining.isEmpty() ) || ( reset.isEmpty() )) return;
+
+        long remainingCount;
+        try { remainingCount = Long.parseLong( remaining.get().trim() ); }
+        catch ( NumberFormatException _ ) { return; }
+
+        if ( remainingCount > 0 ) return;
+
+        long resetMs = ApiRateLimiter.parseDuration( reset.get() );
+        if ( resetMs > 0 ) this.blockedUntilMs = Math.max( this.blockedUntilMs, nowMs + resetMs );
+    }
+
+    private long getRetryAfterMs( HttpHeaders headers, long nowMs )
+    {
+        Optional< String > retryAfterMs = headers.firstValue( "retry-after-ms" );
+        if ( retryAfterMs.isPresent() )
+        {
+            try { return Math.max( 0, (long) Double.parseDouble( retryAfterMs.get().trim() )); }
+            catch ( NumberFormatException _ ) { /* fall back to retry-after */ }
+        }
+
+        Optional< String > retryAfter = headers.firstValue( "retry-after" );
+        if ( retryAfter.isEmpty() ) return 0;
+
+        String value = retryAfter.get().trim();
+        try { return Math.max( 0, Long.parseLong( value ) * 1_000 ); }
+        catch ( NumberFormatException _ ) { /* may be an HTTP date */ }
+
+        try
+        {
+            ZonedDateTime retryTime = ZonedDateTime.parse( value, DateTimeFormatter.RFC_1123_DATE_TIME );
+            return Math.max( 0, retryTime.toInstant().toEpochMilli() - nowMs );
+        }
+        catch ( DateTimeParseException _ ) { return 0; }
+    }
+
+    static long parseDuration( String duration )
+    {
+        if ( duration == null ) throw new IllegalArgumentException( "Duration must not be null." );
+
+        Matcher matcher = durationPattern.matcher( duration.trim() );
+        double totalMs = 0;
+        int position = 0;
+
+        while ( matcher.find() )
+        {
+            if ( matcher.start() != position ) return -1;
+            position = matcher.end();
+
+            double value = Double.parseDouble( matcher.group( 1 ));
+            totalMs += switch ( matcher.group( 2 ))
+            {
+                case "h" -> value * 3_600_000;
+                case "m" -> value * 60_000;
+                case "s" -> value * 1_000;
+                default  -> value;
+            };
+        }
+
+        if (( position == 0 ) || ( position != duration.trim().length() )) return -1;
+        return (long) Math.ceil( totalMs );
+    }
+}
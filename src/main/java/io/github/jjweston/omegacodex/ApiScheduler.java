@@ -0,0 +1,142 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+class ApiScheduler
+{
+    private record PendingCall( long estimatedTokens, CompletableFuture< Void > future ) {}
+
+    private final TokenBucketRateLimiter tokenBucketRateLimiter;
+    private final double                 bulkReserveFraction;
+    private final OmegaCodexUtil         omegaCodexUtil;
+    private final Queue< PendingCall >   interactiveCalls;
+    private final Queue< PendingCall >   bulkCalls;
+
+    private long nextDispatchTime = Long.MAX_VALUE;
+
+    ApiScheduler( TokenBucketRateLimiter tokenBucketRateLimiter )
+    {
+        double bulkReserveFraction = 0.2;
+
+        this( tokenBucketRateLimiter, bulkReserveFraction, new OmegaCodexUtil() );
+    }
+
+    ApiScheduler( TokenBucketRateLimiter tokenBucketRateLimiter, double bulkReserveFraction,
+                  OmegaCodexUtil omegaCodexUtil )
+    {
+        if ( tokenBucketRateLimiter == null )
+        {
+            throw new IllegalArgumentException( "Token bucket rate limiter must not be null." );
+        }
+        if (( bulkReserveFraction < 0 ) || ( bulkReserveFraction >= 1 ))
+        {
+            throw new IllegalArgumentException( "Bulk reserve fraction must be at least 0 and less than 1." );
+        }
+        if ( omegaCodexUtil == null ) throw new IllegalArgumentException( "Omega Codex util must not be null." );
+
+        this.tokenBucketRateLimiter = tokenBucketRateLimiter;
+        this.bulkReserveFraction    = bulkReserveFraction;
+        this.omegaCodexUtil         = omegaCodexUtil;
+        this.interactiveCalls       = new ArrayDeque<>();
+        this.bulkCalls              = new ArrayDeque<>();
+    }
+
+    CompletableFuture< Void > schedule( ApiPriority priority, long estimatedTokens )
+    {
+        if ( priority == null ) throw new IllegalArgumentException( "Priority must not be null." );
+        if ( estimatedTokens < 0 ) throw new IllegalArgumentException( "Estimated tokens must not be negative." );
+
+        PendingCall pendingCall = new PendingCall( estimatedTokens, new CompletableFuture<>() );
+
+        synchronized ( this )
+        {
+            if ( priority == ApiPriority.INTERACTIVE ) this.interactiveCalls.add( pendingCall );
+            else this.bulkCalls.add( pendingCall );
+        }
+
+        this.dispatch();
+        return pendingCall.future();
+    }
+
+    void complete( long estimatedTokens, long actualTokens )
+    {
+        this.tokenBucketRateLimiter.reconcile( estimatedTokens, actualTokens );
+        this.dispatch();
+    }
+
+    synchronized int getPendingCount()
+    {
+        return this.interactiveCalls.size() + this.bulkCalls.size();
+    }
+
+    private void dispatch()
+    {
+        List< CompletableFuture< Void >> readyFutures = new ArrayList<>();
+
+        synchronized ( this )
+        {
+            while ( true )
+            {
+                // interactive calls always go first, and bulk calls leave part of the budget free for them
+                boolean     interactive = !this.interactiveCalls.isEmpty();
+                PendingCall pendingCall = interactive ? this.interactiveCalls.peek() : this.bulkCalls.peek();
+                if ( pendingCall == null ) break;
+
+                double reserveFraction = interactive ? 0 : this.bulkReserveFraction;
+                long delayMs = this.tokenBucketRateLimiter.getDelayMs( pendingCall.estimatedTokens(), reserveFraction );
+
+                if ( delayMs > 0 )
+                {
+                    this.scheduleDispatch( delayMs );
+                    break;
+                }
+
+                this.tokenBucketRateLimiter.reserve( pendingCall.estimatedTokens() );
+                if ( interactive ) this.interactiveCalls.remove();
+                else this.bulkCalls.remove();
+                readyFutures.add( pendingCall.future() );
+            }
+        }
+
+        for ( CompletableFuture< Void > future : readyFutures ) future.complete( null );
+    }
+
+    private void scheduleDispatch( long delayMs )
+    {
+        long dispatchTime = this.omegaCodexUtil.nanoTime() + ( delayMs * 1_000_000 );
+        if ( dispatchTime >= this.nextDispatchTime ) return;
+
+        this.nextDispatchTime = dispatchTime;
+        this.omegaCodexUtil.delayedExecutor( delayMs ).execute( () ->
+        {
+            synchronized ( this )
+            {
+                if ( this.nextDispatchTime == dispatchTime ) this.nextDispatchTime = Long.MAX_VALUE;
+            }
+
+            this.dispatch();
+        });
+    }
+}
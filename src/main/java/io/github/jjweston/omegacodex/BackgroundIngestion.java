@@ -0,0 +1,120 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.nio.file.Path;
+
+class BackgroundIngestion implements AutoCloseable
+{
+    private final MarkdownLoader          markdownLoader;
+    private final Path                    path;
+    private final EmbeddingCacheCompactor embeddingCacheCompactor;
+    private final QdrantService           qdrantService;
+    private final EmbeddingCacheService   embeddingCacheService;
+    private final OmegaCodexLogger        omegaCodexLogger;
+    private final Thread                  thread;
+
+    private volatile EmbeddingVectorArena embeddingVectorArena;
+    private volatile boolean              closed = false;
+
+    BackgroundIngestion( MarkdownLoader markdownLoader, Path path, EmbeddingCacheCompactor embeddingCacheCompactor,
+                         QdrantService qdrantService, EmbeddingCacheService embeddingCacheService )
+    {
+        this( markdownLoader, path, embeddingCacheCompactor, qdrantService, embeddingCacheService,
+              new OmegaCodexLogger() );
+    }
+
+    // ingestion runs on its own thread, so that queries are served while the corpus is still being embedded
+    BackgroundIngestion( MarkdownLoader markdownLoader, Path path, EmbeddingCacheCompactor embeddingCacheCompactor,
+                         QdrantService qdrantService, EmbeddingCacheService embeddingCacheService,
+                         OmegaCodexLogger omegaCodexLogger )
+    {
+        if ( markdownLoader == null ) throw new IllegalArgumentException( "Markdown loader must not be null." );
+        if ( path == null ) throw new IllegalArgumentException( "Path must not be null." );
+        if ( embeddingCacheCompactor == null )
+            throw new IllegalArgumentException( "Embedding cache compactor must not be null." );
+        if ( qdrantService == null ) throw new IllegalArgumentException( "Qdrant service must not be null." );
+        if ( embeddingCacheService == null )
+            throw new IllegalArgumentException( "Embedding cache service must not be null." );
+        if ( omegaCodexLogger == null ) throw new IllegalArgumentException( "Omega Codex logger must not be null." );
+
+        this.markdownLoader          = markdownLoader;
+        this.path                    = path;
+        this.embeddingCacheCompactor = embeddingCacheCompactor;
+        this.qdrantService           = qdrantService;
+        this.embeddingCacheService   = embeddingCacheService;
+        this.omegaCodexLogger        = omegaCodexLogger;
+        this.thread                  = Thread.ofVirtual().name( "background-ingestion" ).unstarted( this::ingest );
+
+        this.thread.start();
+    }
+
+    EmbeddingVectorArena getEmbeddingVectorArena()
+    {
+        return this.embeddingVectorArena;
+    }
+
+    public void close()
+    {
+        // the ingestion is cancelled and waited for, so the arena is never closed while it is still being loaded
+        this.closed = true;
+        this.thread.interrupt();
+
+        try { this.thread.join(); }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new OmegaCodexException( e );
+        }
+
+        EmbeddingVectorArena embeddingVectorArena = this.embeddingVectorArena;
+        this.embeddingVectorArena = null;
+        if ( embeddingVectorArena != null ) embeddingVectorArena.close();
+    }
+
+    private void ingest()
+    {
+        try
+        {
+            this.markdownLoader.load( this.path );
+            this.embeddingCacheCompactor.compact( this.qdrantService.getPointIds() );
+
+            // compaction has flushed the write-behind queue, so the count and the load see the same committed rows
+            int arenaCapacity = Math.toIntExact( Math.max( 1, this.embeddingCacheService.getEmbeddingCount() ));
+            EmbeddingVectorArena embeddingVectorArena =
+                    new EmbeddingVectorArena( this.embeddingCacheService.getEmbeddingModel(), arenaCapacity );
+
+            int loadedCount;
+            try { loadedCount = embeddingVectorArena.load( this.embeddingCacheService ); }
+            catch ( RuntimeException e )
+            {
+                embeddingVectorArena.close();
+                throw e;
+            }
+
+            // the arena is only published once it is fully loaded
+            this.embeddingVectorArena = embeddingVectorArena;
+            this.omegaCodexLogger.println( String.format( "Background Ingestion Complete, Loaded: %,d", loadedCount ));
+        }
+        catch ( RuntimeException e )
+        {
+            if ( !this.closed ) this.omegaCodexLogger.println( "Background Ingestion Failed: " + e );
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -31,7 +31,7 @@ class Embed
         String input = "Omega Codex is an AI assistant for developers.";
         System.out.println( "Input: " + input );
 
-        ImmutableDoubleArray vector = Embed.getEmbeddingVector( input );
+        ImmutableFloatArray vector = Embed.getEmbeddingVector( input );
         String vectorString = vector.toString();
 
         if ( vectorString.length() > vectorStringLimit )
@@ -42,14 +42,16 @@ class Embed
         System.out.println( "Vector: " + vectorString );
     }
 
-    private static ImmutableDoubleArray getEmbeddingVector( String input )
+    private static ImmutableFloatArray getEmbeddingVector( String input )
     {
         SQLiteConnectionFactory sqLiteConnectionFactory = new SQLiteConnectionFactory();
-        try ( Connection connection = sqLiteConnectionFactory.create() )
+        OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
+        EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
+        EmbeddingModel embeddingModel = embeddingApiService.getEmbeddingModel();
+
+        try ( Connection connection = sqLiteConnectionFactory.create();
+              EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection, embeddingModel ) )
         {
-            OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
-            EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection );
-            EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
             EmbeddingService embeddingService = new EmbeddingService( embeddingCacheService, embeddingApiService );
             return embeddingService.getEmbedding( input ).vector();
         }
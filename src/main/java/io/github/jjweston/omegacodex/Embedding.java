@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -18,7 +18,7 @@ limitations under the License.
 
 package io.github.jjweston.omegacodex;
 
-record Embedding( long id, ImmutableDoubleArray vector )
+record Embedding( long id, ImmutableFloatArray vector )
 {
     Embedding
     {
@@ -20,73 +20,162 @@ package io.github.jjweston.omegacodex;
 
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 class EmbeddingApiService
 {
+    private static final int maxDimensions = 1_536;
+
     private final String           taskName;
     private final String           apiEndpoint;
-    private final String           model;
+    private final EmbeddingModel   embeddingModel;
     private final int              inputLimit;
+    private final int              batchInputLimit;
+    private final int              batchTokenLimit;
     private final boolean          logApiSummary;
     private final boolean          logApiDetails;
     private final List< Pattern >  embeddedJsonPatterns;
+    private final Set< String >    responseFields;
+    private final VectorBlobCodec  vectorBlobCodec;
     private final OpenAiApiCaller  openAiApiCaller;
     private final OmegaCodexLogger omegaCodexLogger;
 
     EmbeddingApiService( OpenAiApiCaller openAiApiCaller )
     {
+        int     dimensions    = new Environment().getInt( "OMEGACODEX_EMBEDDING_DIMENSIONS", maxDimensions );
         boolean logApiSummary = false;
         boolean logApiDetails = false;
 
-        this( logApiSummary, logApiDetails, openAiApiCaller, new OmegaCodexLogger() );
+        this( dimensions, logApiSummary, logApiDetails, openAiApiCaller, new OmegaCodexLogger() );
     }
 
     EmbeddingApiService( boolean logApiSummary, boolean logApiDetails,
                          OpenAiApiCaller openAiApiCaller, OmegaCodexLogger omegaCodexLogger )
     {
+        this( maxDimensions, logApiSummary, logApiDetails, openAiApiCaller, omegaCodexLogger );
+    }
+
+    EmbeddingApiService( int dimensions, boolean logApiSummary, boolean logApiDetails,
+                         OpenAiApiCaller openAiApiCaller, OmegaCodexLogger omegaCodexLogger )
+    {
+        int batchInputLimit = 2_048;
+        int batchTokenLimit = 250_000;
+
+        this( dimensions, batchInputLimit, batchTokenLimit, logApiSummary, logApiDetails,
+              openAiApiCaller, omegaCodexLogger );
+    }
+
+    EmbeddingApiService( int dimensions, int batchInputLimit, int batchTokenLimit, boolean logApiSummary,
+                         boolean logApiDetails, OpenAiApiCaller openAiApiCaller, OmegaCodexLogger omegaCodexLogger )
+    {
+        // the model returns shortened vectors for any dimension count up to its native size
+        if (( dimensions < 1 ) || ( dimensions > maxDimensions ))
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Dimensions must be between 1 and %,d. Actual Dimensions: %,d", maxDimensions, dimensions ));
+        }
+        if ( batchInputLimit < 1 ) throw new IllegalArgumentException( "Batch input limit must be positive." );
+        if ( batchTokenLimit < 1 ) throw new IllegalArgumentException( "Batch token limit must be positive." );
         if ( openAiApiCaller == null ) throw new IllegalArgumentException( "OpenAI API caller must not be null." );
 
         this.taskName             = "Embedding API Call";
         this.apiEndpoint          = "https://api.openai.com/v1/embeddings";
-        this.model                = "text-embedding-3-small";
+        this.embeddingModel       = new EmbeddingModel( "text-embedding-3-small", dimensions );
         this.inputLimit           = 20_000;
+        this.batchInputLimit      = batchInputLimit;
+        this.batchTokenLimit      = batchTokenLimit;
         this.logApiSummary        = logApiSummary;
         this.logApiDetails        = logApiDetails;
         this.embeddedJsonPatterns = List.of();
+        this.responseFields       = Set.of( "data", "usage" );
+        this.vectorBlobCodec      = new VectorBlobCodec();
         this.openAiApiCaller      = openAiApiCaller;
         this.omegaCodexLogger     = omegaCodexLogger;
     }
 
-    ImmutableDoubleArray getEmbeddingVector( String input )
+    EmbeddingModel getEmbeddingModel()
     {
-        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
-        if ( input.isEmpty() ) throw new IllegalArgumentException( "Input must not be empty." );
+        return this.embeddingModel;
+    }
 
-        if ( input.length() > this.inputLimit )
-        {
-            String message = String.format(
-                    "Input length must not be greater than %,d. Actual Length: %,d", this.inputLimit, input.length() );
-            throw new IllegalArgumentException( message );
-        }
+    ImmutableFloatArray getEmbeddingVector( String input )
+    {
+        this.validateInput( input );
 
         String startMessage = String.format( "Input Length: %,d", input.length() );
 
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode requestNode = objectMapper.createObjectNode();
-        requestNode.put( "model", this.model );
+        requestNode.put( "model", this.embeddingModel.name() );
+        requestNode.put( "dimensions", this.embeddingModel.dimensions() );
+        requestNode.put( "encoding_format", "base64" );
         requestNode.put( "input", input );
 
+        return this.getResponseVectors( requestNode, startMessage, 1 ).getFirst();
+    }
+
+    List< ImmutableFloatArray > getEmbeddingVectors( List< String > inputs )
+    {
+        if ( inputs == null ) throw new IllegalArgumentException( "Inputs must not be null." );
+        for ( String input : inputs ) this.validateInput( input );
+
+        List< ImmutableFloatArray > vectors = new ArrayList<>( inputs.size() );
+
+        int batchStart = 0;
+        while ( batchStart < inputs.size() )
+        {
+            int batchEnd = batchStart;
+            long batchTokens = 0;
+
+            while (( batchEnd < inputs.size() ) && ( batchEnd - batchStart < this.batchInputLimit ))
+            {
+                long inputTokens = this.estimateTokens( inputs.get( batchEnd ));
+                if (( batchEnd > batchStart ) && ( batchTokens + inputTokens > this.batchTokenLimit )) break;
+
+                batchTokens += inputTokens;
+                batchEnd++;
+            }
+
+            vectors.addAll( this.getBatchVectors( inputs.subList( batchStart, batchEnd )));
+            batchStart = batchEnd;
+        }
+
+        return vectors;
+    }
+
+    private List< ImmutableFloatArray > getBatchVectors( List< String > batch )
+    {
+        int batchLength = batch.stream().mapToInt( String::length ).sum();
+        String startMessage = String.format( "Inputs: %,d, Input Length: %,d", batch.size(), batchLength );
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode requestNode = objectMapper.createObjectNode();
+        requestNode.put( "model", this.embeddingModel.name() );
+        requestNode.put( "dimensions", this.embeddingModel.dimensions() );
+        requestNode.put( "encoding_format", "base64" );
+        ArrayNode inputNode = requestNode.putArray( "input" );
+        for ( String input : batch ) inputNode.add( input );
+
+        return this.getResponseVectors( requestNode, startMessage, batch.size() );
+    }
+
+    private List< ImmutableFloatArray > getResponseVectors( ObjectNode requestNode, String startMessage, int count )
+    {
         Map< String, Integer > arraysToTrim = Map.of();
 
         JsonNode responseNode = this.openAiApiCaller.getResponse(
                 this.taskName, this.apiEndpoint, requestNode, startMessage,
                 this.logApiSummary, this.logApiDetails,
-                this.embeddedJsonPatterns, arraysToTrim );
+                this.embeddedJsonPatterns, arraysToTrim, this.responseFields );
 
         if ( this.logApiSummary )
         {
@@ -94,8 +183,66 @@ class EmbeddingApiService
             this.omegaCodexLogger.println( String.format( "%s, Tokens: %,d", this.taskName, totalTokens ));
         }
 
-        JsonNode embeddingNode = responseNode.path( "data" ).get( 0 ).path( "embedding" );
-        double[] vector = embeddingNode.valueStream().mapToDouble( JsonNode::asDouble ).toArray();
-        return new ImmutableDoubleArray( vector );
+        ImmutableFloatArray[] vectors = new ImmutableFloatArray[ count ];
+
+        for ( JsonNode dataNode : responseNode.path( "data" ))
+        {
+            int index = dataNode.path( "index" ).asInt( -1 );
+
+            if (( index < 0 ) || ( index >= count ) || ( vectors[ index ] != null ))
+            {
+                throw new OmegaCodexException( String.format(
+                        "%s, Invalid Embedding Index: %d, Input Count: %,d", this.taskName, index, count ));
+            }
+
+            vectors[ index ] = this.getVector( dataNode.path( "embedding" ), index );
+        }
+
+        for ( int i = 0; i < count; i++ )
+        {
+            if ( vectors[ i ] == null )
+            {
+                throw new OmegaCodexException( String.format( "%s, Missing Embedding, Index: %d", this.taskName, i ));
+            }
+        }
+
+        return Arrays.asList( vectors );
+    }
+
+    private ImmutableFloatArray getVector( JsonNode embeddingNode, int index )
+    {
+        // base64 embeddings are the raw little-endian float32 values, the same layout as the cache blobs
+        if ( embeddingNode.isString() )
+        {
+            try { return this.vectorBlobCodec.decode( Base64.getDecoder().decode( embeddingNode.asString() )); }
+            catch ( IllegalArgumentException e )
+            {
+                throw new OmegaCodexException( String.format(
+                        "%s, Invalid Embedding Encoding, Index: %d", this.taskName, index ), e );
+            }
+        }
+
+        float[] vector = new float[ embeddingNode.size() ];
+        for ( int i = 0; i < vector.length; i++ ) vector[ i ] = (float) embeddingNode.get( i ).asDouble();
+        return ImmutableFloatArray.wrap( vector );
+    }
+
+    private void validateInput( String input )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+        if ( input.isEmpty() ) throw new IllegalArgumentException( "Input must not be empty." );
+
+        if ( input.length() > this.inputLimit )
+        {
+            String message = String.format(
+                    "Input length must not be greater than %,d. Actual Length: %,d", this.inputLimit, input.length() );
+            throw new IllegalArgumentException( message );
+        }
+    }
+
+    private long estimateTokens( String input )
+    {
+        // a token almost always spans at least one character, so the length is a safe upper bound
+        return input.length();
     }
 }
@@ -0,0 +1,104 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+class EmbeddingCacheCompactor
+{
+    private final EmbeddingCacheService     embeddingCacheService;
+    private final EmbeddingMemoryCache      embeddingMemoryCache;
+    private final EmbeddingWriteBehindQueue embeddingWriteBehindQueue;
+    private final Duration                  maxAge;
+    private final long                      maxCount;
+    private final int                       vacuumPageCount;
+    private final boolean                   logSummary;
+    private final OmegaCodexUtil            omegaCodexUtil;
+    private final OmegaCodexLogger          omegaCodexLogger;
+
+    EmbeddingCacheCompactor( EmbeddingCacheService embeddingCacheService )
+    {
+        this( embeddingCacheService, null, null );
+    }
+
+    EmbeddingCacheCompactor( EmbeddingCacheService embeddingCacheService, EmbeddingMemoryCache embeddingMemoryCache,
+                             EmbeddingWriteBehindQueue embeddingWriteBehindQueue )
+    {
+        Duration maxAge          = Duration.ofDays( 90 );
+        long     maxCount        = 100_000;
+        int      vacuumPageCount = 1_024;
+        boolean  logSummary      = true;
+
+        this( embeddingCacheService, embeddingMemoryCache, embeddingWriteBehindQueue, maxAge, maxCount,
+              vacuumPageCount, logSummary, new OmegaCodexUtil(), new OmegaCodexLogger() );
+    }
+
+    // the memory cache and write-behind queue are optional, and are only kept consistent with the database if given
+    EmbeddingCacheCompactor( EmbeddingCacheService embeddingCacheService, EmbeddingMemoryCache embeddingMemoryCache,
+                             EmbeddingWriteBehindQueue embeddingWriteBehindQueue, Duration maxAge, long maxCount,
+                             int vacuumPageCount, boolean logSummary, OmegaCodexUtil omegaCodexUtil,
+                             OmegaCodexLogger omegaCodexLogger )
+    {
+        if ( embeddingCacheService == null )
+            throw new IllegalArgumentException( "Embedding cache service must not be null." );
+        if ( maxAge == null ) throw new IllegalArgumentException( "Max age must not be null." );
+        if ( maxAge.isNegative() ) throw new IllegalArgumentException( "Max age must not be negative." );
+        if ( maxCount < 0 ) throw new IllegalArgumentException( "Max count must not be negative." );
+        if ( vacuumPageCount < 1 ) throw new IllegalArgumentException( "Vacuum page count must be positive." );
+
+        this.embeddingCacheService     = embeddingCacheService;
+        this.embeddingMemoryCache      = embeddingMemoryCache;
+        this.embeddingWriteBehindQueue = embeddingWriteBehindQueue;
+        this.maxAge                    = maxAge;
+        this.maxCount                  = maxCount;
+        this.vacuumPageCount           = vacuumPageCount;
+        this.logSummary                = logSummary;
+        this.omegaCodexUtil            = omegaCodexUtil;
+        this.omegaCodexLogger          = omegaCodexLogger;
+    }
+
+    long compact( Collection< Long > liveIds )
+    {
+        if ( liveIds == null ) throw new IllegalArgumentException( "Live IDs must not be null." );
+
+        // queued embeddings are committed first, so eviction sees every row and its access time
+        if ( this.embeddingWriteBehindQueue != null ) this.embeddingWriteBehindQueue.flush();
+
+        long accessedBefore = this.omegaCodexUtil.currentTimeMillis() - this.maxAge.toMillis();
+        List< Long > evictedIds = this.embeddingCacheService.evictEmbeddings( accessedBefore, this.maxCount, liveIds );
+        long evictedCount = evictedIds.size();
+
+        if ( this.embeddingMemoryCache != null ) this.embeddingMemoryCache.invalidate( evictedIds );
+
+        // only a bounded number of pages is returned per run, so compaction never stalls on a large vacuum; runs
+        // that evict nothing still vacuum, since free pages left over by earlier runs are only reclaimed here
+        long freedPageCount = this.embeddingCacheService.incrementalVacuum( this.vacuumPageCount );
+
+        if ( this.logSummary )
+        {
+            this.omegaCodexLogger.println( String.format(
+                    "Embedding Cache Compacted, Live: %,d, Evicted: %,d, Freed Pages: %,d",
+                    liveIds.size(), evictedCount, freedPageCount ));
+        }
+
+        return evictedCount;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+record EmbeddingCachePartition( long id, String embeddingTable, String inputTable )
+{
+    EmbeddingCachePartition
+    {
+        if ( id < 1 ) throw new IllegalArgumentException( "ID must be positive." );
+        if ( embeddingTable == null ) throw new IllegalArgumentException( "Embedding table must not be null." );
+        if ( inputTable == null ) throw new IllegalArgumentException( "Input table must not be null." );
+    }
+
+    EmbeddingCachePartition( long id )
+    {
+        this( id, "Embedding_" + id, "EmbeddingInput_" + id );
+    }
+}
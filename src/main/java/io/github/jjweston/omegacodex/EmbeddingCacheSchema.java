@@ -0,0 +1,590 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+class EmbeddingCacheSchema
+{
+    private final int               currentVersion;
+    private final EmbeddingModel    legacyEmbeddingModel;
+    private final int               backfillBatchSize;
+    private final boolean           logSummary;
+    private final VectorBlobCodec   vectorBlobCodec;
+    private final InputDigest       inputDigest;
+    private final TransactionRunner transactionRunner;
+    private final OmegaCodexLogger  omegaCodexLogger;
+
+    EmbeddingCacheSchema()
+    {
+        int     backfillBatchSize = 1_000;
+        boolean logSummary        = true;
+
+        this( backfillBatchSize, logSummary, new OmegaCodexLogger() );
+    }
+
+    EmbeddingCacheSchema( int backfillBatchSize, boolean logSummary, OmegaCodexLogger omegaCodexLogger )
+    {
+        if ( backfillBatchSize < 1 ) throw new IllegalArgumentException( "Backfill batch size must be positive." );
+
+        this.currentVersion       = 6;
+        this.legacyEmbeddingModel = new EmbeddingModel( "text-embedding-3-small", 1_536 );
+        this.backfillBatchSize    = backfillBatchSize;
+        this.logSummary           = logSummary;
+        this.vectorBlobCodec      = new VectorBlobCodec();
+        this.inputDigest          = new InputDigest();
+        this.transactionRunner    = new TransactionRunner();
+        this.omegaCodexLogger     = omegaCodexLogger;
+    }
+
+    void migrate( Connection connection )
+    {
+        if ( connection == null ) throw new IllegalArgumentException( "Connection must not be null." );
+
+        try
+        {
+            int version = this.getVersion( connection );
+
+            if ( version > this.currentVersion )
+            {
+                throw new OmegaCodexException( String.format(
+                        "Embedding cache schema version is not supported. Version: %d, Current Version: %d",
+                        version, this.currentVersion ));
+            }
+
+            if ( version == 0 )
+            {
+                if ( !this.tableExists( connection, "Embedding" ))
+                {
+                    this.create( connection );
+                    return;
+                }
+
+                // databases created before schema versioning store vectors as JSON text
+                version = 1;
+            }
+
+            if ( version < 2 ) this.migrateToVersion2( connection );
+            if ( version < 3 ) this.migrateToVersion3( connection );
+            if ( version < 4 ) this.migrateToVersion4( connection );
+            if ( version < 5 ) this.migrateToVersion5( connection );
+            if ( version < 6 ) this.migrateToVersion6( connection );
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to migrate embedding cache schema.", e ); }
+    }
+
+    EmbeddingCachePartition getPartition( Connection connection, EmbeddingModel embeddingModel )
+    {
+        if ( connection == null ) throw new IllegalArgumentException( "Connection must not be null." );
+        if ( embeddingModel == null ) throw new IllegalArgumentException( "Embedding model must not be null." );
+
+        try
+        {
+            return this.transactionRunner.get( connection, () ->
+            {
+                long partitionId = this.getPartitionId( connection, embeddingModel );
+                if ( partitionId > 0 ) return new EmbeddingCachePartition( partitionId );
+
+                EmbeddingCachePartition partition =
+                        new EmbeddingCachePartition( this.insertPartition( connection, embeddingModel ));
+                this.createEmbeddingTable( connection, partition.embeddingTable() );
+                this.createHashIndex( connection, partition );
+                this.createLastAccessIndex( connection, partition );
+                this.createInputTable( connection, partition );
+
+                if ( this.logSummary )
+                {
+                    this.omegaCodexLogger.println( String.format(
+                            "Embedding Cache Partition Created, Model: %s, Dimensions: %,d, Table: %s",
+                            embeddingModel.name(), embeddingModel.dimensions(), partition.embeddingTable() ));
+                }
+
+                return partition;
+            } );
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get embedding cache partition.", e ); }
+    }
+
+    private void create( Connection connection ) throws SQLException
+    {
+        // in WAL mode the pragma alone is ignored on a new database, so the empty file is vacuumed to apply it
+        this.execute( connection, "PRAGMA auto_vacuum = INCREMENTAL" );
+        this.execute( connection, "VACUUM" );
+
+        this.transactionRunner.run( connection, () ->
+        {
+            this.createPartitionTable( connection );
+            this.createSequenceTable( connection, 0 );
+            this.setVersion( connection, this.currentVersion );
+        } );
+    }
+
+    private void createPartitionTable( Connection connection ) throws SQLException
+    {
+        this.execute( connection,
+                """
+                CREATE TABLE EmbeddingPartition
+                (
+                    Id         INTEGER PRIMARY KEY AUTOINCREMENT,
+                    Model      TEXT    NOT NULL,
+                    Dimensions INTEGER NOT NULL,
+                    UNIQUE ( Model, Dimensions )
+                )
+                """ );
+    }
+
+    // every partition draws its IDs from this one sequence, so an ID is unique across embedding models
+    private void createSequenceTable( Connection connection, long sequence ) throws SQLException
+    {
+        this.execute( connection,
+                """
+                CREATE TABLE EmbeddingSequence
+                (
+                    Id  INTEGER PRIMARY KEY CHECK ( Id = 1 ),
+                    Seq INTEGER NOT NULL
+                )
+                """ );
+        this.execute( connection, "INSERT INTO EmbeddingSequence ( Id, Seq ) VALUES ( 1, " + sequence + " )" );
+    }
+
+    private void createEmbeddingTable( Connection connection, String tableName ) throws SQLException
+    {
+        this.execute( connection,
+                """
+                CREATE TABLE %s
+                (
+                    Id         INTEGER PRIMARY KEY AUTOINCREMENT,
+                    Hash       BLOB    NOT NULL,
+                    Vector     BLOB    NOT NULL,
+                    LastAccess INTEGER NOT NULL DEFAULT 0
+                )
+                """.formatted( tableName ));
+    }
+
+    private void createHashIndex( Connection connection, EmbeddingCachePartition partition ) throws SQLException
+    {
+        this.execute( connection, String.format(
+                "CREATE INDEX %s_Hash ON %s ( Hash )", partition.embeddingTable(), partition.embeddingTable() ));
+    }
+
+    private void createLastAccessIndex( Connection connection, EmbeddingCachePartition partition )
+            throws SQLException
+    {
+        this.execute( connection, String.format( "CREATE INDEX IF NOT EXISTS %s_LastAccess ON %s ( LastAccess )",
+                partition.embeddingTable(), partition.embeddingTable() ));
+    }
+
+    private void createInputTable( Connection connection, EmbeddingCachePartition partition ) throws SQLException
+    {
+        this.execute( connection,
+                """
+                CREATE TABLE %s
+                (
+                    Id    INTEGER PRIMARY KEY,
+                    Input TEXT    NOT NULL
+                )
+                """.formatted( partition.inputTable() ));
+    }
+
+    private long getPartitionId( Connection connection, EmbeddingModel embeddingModel ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "SELECT Id FROM EmbeddingPartition WHERE Model = ? AND Dimensions = ?" ))
+        {
+            statement.setString( 1, embeddingModel.name() );
+            statement.setInt( 2, embeddingModel.dimensions() );
+            try ( ResultSet result = statement.executeQuery() ) { return result.next() ? result.getLong( 1 ) : 0; }
+        }
+    }
+
+    private long insertPartition( Connection connection, EmbeddingModel embeddingModel ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO EmbeddingPartition ( Model, Dimensions ) VALUES ( ?, ? )",
+                Statement.RETURN_GENERATED_KEYS ))
+        {
+            statement.setString( 1, embeddingModel.name() );
+            statement.setInt( 2, embeddingModel.dimensions() );
+            statement.executeUpdate();
+
+            try ( ResultSet generatedKeys = statement.getGeneratedKeys() )
+            {
+                if ( generatedKeys.next() ) return generatedKeys.getLong( 1 );
+                else throw new OmegaCodexException( "Failed to get ID of added embedding cache partition." );
+            }
+        }
+    }
+
+    private void migrateToVersion2( Connection connection ) throws SQLException
+    {
+        this.logMigration( "Starting, Version: 2" );
+
+        // the backfill commits in batches, so an interrupted migration resumes where it stopped
+        if ( !this.columnExists( connection, "Embedding", "VectorBlob" ))
+        {
+            this.execute( connection, "ALTER TABLE Embedding ADD COLUMN VectorBlob BLOB" );
+        }
+
+        long convertedCount = 0;
+        int batchCount;
+        while (( batchCount = this.backfillVectorBlobs( connection )) > 0 )
+        {
+            convertedCount += batchCount;
+            this.logMigration( String.format( "Converted Vectors: %,d", convertedCount ));
+        }
+
+        this.transactionRunner.run( connection, () ->
+        {
+            long sequence = this.getSequence( connection, "Embedding" );
+
+            this.execute( connection,
+                    """
+                    CREATE TABLE EmbeddingVersion2
+                    (
+                        Id     INTEGER PRIMARY KEY AUTOINCREMENT,
+                        Input  TEXT    UNIQUE NOT NULL,
+                        Vector BLOB           NOT NULL
+                    )
+                    """ );
+            this.execute( connection,
+                    "INSERT INTO EmbeddingVersion2 ( Id, Input, Vector ) SELECT Id, Input, VectorBlob FROM Embedding" );
+            this.execute( connection, "DROP TABLE Embedding" );
+            this.execute( connection, "ALTER TABLE EmbeddingVersion2 RENAME TO Embedding" );
+            this.setSequence( connection, "Embedding", sequence );
+            this.setVersion( connection, 2 );
+        } );
+
+        this.execute( connection, "VACUUM" );
+
+        this.logMigration( "Complete, Version: 2" );
+    }
+
+    private void migrateToVersion3( Connection connection ) throws SQLException
+    {
+        this.logMigration( "Starting, Version: 3" );
+
+        this.transactionRunner.run( connection, () ->
+        {
+            this.createPartitionTable( connection );
+
+            // the cache only ever held vectors from the legacy model, so its length is taken from the stored data
+            long vectorBytes =
+                    this.queryLong( connection, "SELECT length( Vector ) FROM Embedding ORDER BY Id LIMIT 1" );
+            int dimensions = vectorBytes > 0 ?
+                    (int) ( vectorBytes / Float.BYTES ) : this.legacyEmbeddingModel.dimensions();
+            EmbeddingModel embeddingModel = new EmbeddingModel( this.legacyEmbeddingModel.name(), dimensions );
+
+            long sequence = this.getSequence( connection, "Embedding" );
+            EmbeddingCachePartition partition =
+                    new EmbeddingCachePartition( this.insertPartition( connection, embeddingModel ));
+            this.execute( connection, "ALTER TABLE Embedding RENAME TO " + partition.embeddingTable() );
+            this.setSequence( connection, "Embedding", 0 );
+            this.setSequence( connection, partition.embeddingTable(), sequence );
+            this.setVersion( connection, 3 );
+
+            this.logMigration( String.format( "Partition, Model: %s, Dimensions: %,d, Table: %s",
+                    embeddingModel.name(), embeddingModel.dimensions(), partition.embeddingTable() ));
+        } );
+
+        this.logMigration( "Complete, Version: 3" );
+    }
+
+    private void migrateToVersion4( Connection connection ) throws SQLException
+    {
+        this.logMigration( "Starting, Version: 4" );
+
+        List< Long > partitionIds = this.getPartitionIds( connection );
+
+        // each partition is converted in its own transaction, so an interrupted migration resumes where it stopped
+        for ( long partitionId : partitionIds )
+        {
+            EmbeddingCachePartition partition = new EmbeddingCachePartition( partitionId );
+            if ( this.columnExists( connection, partition.embeddingTable(), "Hash" )) continue;
+
+            long count = this.transactionRunner.get( connection, () -> this.hashPartition( connection, partition ));
+            this.logMigration( String.format(
+                    "Hashed Inputs, Table: %s, Count: %,d", partition.embeddingTable(), count ));
+        }
+
+        this.setVersion( connection, 4 );
+        this.execute( connection, "VACUUM" );
+
+        this.logMigration( "Complete, Version: 4" );
+    }
+
+    private void migrateToVersion5( Connection connection ) throws SQLException
+    {
+        this.logMigration( "Starting, Version: 5" );
+
+        this.transactionRunner.run( connection, () ->
+        {
+            for ( long partitionId : this.getPartitionIds( connection ))
+            {
+                EmbeddingCachePartition partition = new EmbeddingCachePartition( partitionId );
+                String embeddingTable = partition.embeddingTable();
+
+                if ( !this.columnExists( connection, embeddingTable, "LastAccess" ))
+                {
+                    this.execute( connection,
+                            "ALTER TABLE " + embeddingTable + " ADD COLUMN LastAccess INTEGER NOT NULL DEFAULT 0" );
+                }
+
+                // existing embeddings start their age at the migration, rather than being evicted at once
+                this.execute( connection, "UPDATE " + embeddingTable +
+                        " SET LastAccess = strftime( '%s', 'now' ) * 1000 WHERE LastAccess = 0" );
+                this.createLastAccessIndex( connection, partition );
+            }
+
+            this.setVersion( connection, 5 );
+        } );
+
+        // switching an existing database to incremental auto vacuum only takes effect after a full vacuum
+        this.execute( connection, "PRAGMA auto_vacuum = INCREMENTAL" );
+        this.execute( connection, "VACUUM" );
+
+        this.logMigration( "Complete, Version: 5" );
+    }
+
+    private void migrateToVersion6( Connection connection ) throws SQLException
+    {
+        this.logMigration( "Starting, Version: 6" );
+
+        this.transactionRunner.run( connection, () ->
+        {
+            // partitions used to number their rows separately, so a partition that overlaps an earlier one is moved
+            // above it; the Qdrant collection is rebuilt from the cache at startup, so no point keeps an old ID
+            long sequence = 0;
+
+            for ( long partitionId : this.getPartitionIds( connection ))
+            {
+                EmbeddingCachePartition partition = new EmbeddingCachePartition( partitionId );
+                String embeddingTable = partition.embeddingTable();
+
+                long tableSequence = Math.max( this.getSequence( connection, embeddingTable ),
+                                               this.queryLong( connection, "SELECT MAX( Id ) FROM " + embeddingTable ));
+                long minId = this.queryLong( connection, "SELECT MIN( Id ) FROM " + embeddingTable );
+                long offset = (( minId > 0 ) && ( minId <= sequence )) ? sequence : 0;
+
+                if ( offset > 0 )
+                {
+                    this.offsetIds( connection, partition, offset );
+                    this.setSequence( connection, embeddingTable, tableSequence + offset );
+                    this.logMigration( String.format(
+                            "Renumbered IDs, Table: %s, Offset: %,d", embeddingTable, offset ));
+                }
+
+                sequence = Math.max( sequence, tableSequence + offset );
+            }
+
+            this.createSequenceTable( connection, sequence );
+            this.setVersion( connection, 6 );
+        } );
+
+        this.logMigration( "Complete, Version: 6" );
+    }
+
+    private void offsetIds( Connection connection, EmbeddingCachePartition partition, long offset )
+            throws SQLException
+    {
+        for ( String tableName : List.of( partition.embeddingTable(), partition.inputTable() ))
+        {
+            // the IDs are negated first, since a key is checked for uniqueness as each row is updated
+            this.execute( connection, "UPDATE " + tableName + " SET Id = -Id" );
+            this.execute( connection, "UPDATE " + tableName + " SET Id = " + offset + " - Id" );
+        }
+    }
+
+    private List< Long > getPartitionIds( Connection connection ) throws SQLException
+    {
+        List< Long > partitionIds = new ArrayList<>();
+        try ( Statement statement = connection.createStatement();
+              ResultSet result = statement.executeQuery( "SELECT Id FROM EmbeddingPartition ORDER BY Id" ))
+        {
+            while ( result.next() ) partitionIds.add( result.getLong( 1 ));
+        }
+
+        return partitionIds;
+    }
+
+    private long hashPartition( Connection connection, EmbeddingCachePartition partition ) throws SQLException
+    {
+        String embeddingTable = partition.embeddingTable();
+        long sequence = this.getSequence( connection, embeddingTable );
+        long count = 0;
+
+        this.createEmbeddingTable( connection, "EmbeddingVersion4" );
+        this.createInputTable( connection, partition );
+        this.execute( connection, String.format(
+                "INSERT INTO %s ( Id, Input ) SELECT Id, Input FROM %s", partition.inputTable(), embeddingTable ));
+
+        try ( Statement selectStatement = connection.createStatement();
+              ResultSet result = selectStatement.executeQuery( "SELECT Id, Input FROM " + embeddingTable );
+              PreparedStatement insertStatement = connection.prepareStatement(
+                      "INSERT INTO EmbeddingVersion4 ( Id, Hash, Vector ) SELECT Id, ?, Vector FROM " +
+                      embeddingTable + " WHERE Id = ?" ))
+        {
+            while ( result.next() )
+            {
+                insertStatement.setBytes( 1, this.inputDigest.digest( result.getString( "Input" )));
+                insertStatement.setLong( 2, result.getLong( "Id" ));
+                insertStatement.addBatch();
+
+                if ( ++count % this.backfillBatchSize == 0 ) insertStatement.executeBatch();
+            }
+
+            insertStatement.executeBatch();
+        }
+
+        this.execute( connection, "DROP TABLE " + embeddingTable );
+        this.execute( connection, "ALTER TABLE EmbeddingVersion4 RENAME TO " + embeddingTable );
+        this.createHashIndex( connection, partition );
+        this.setSequence( connection, embeddingTable, sequence );
+
+        return count;
+    }
+
+    private int backfillVectorBlobs( Connection connection ) throws SQLException
+    {
+        return this.transactionRunner.get( connection, () ->
+        {
+            int count = 0;
+
+            try ( PreparedStatement selectStatement = connection.prepareStatement(
+                          "SELECT Id, Vector FROM Embedding WHERE VectorBlob IS NULL LIMIT ?" );
+                  PreparedStatement updateStatement = connection.prepareStatement(
+                          "UPDATE Embedding SET VectorBlob = ? WHERE Id = ?" ))
+            {
+                selectStatement.setInt( 1, this.backfillBatchSize );
+
+                try ( ResultSet result = selectStatement.executeQuery() )
+                {
+                    while ( result.next() )
+                    {
+                        long id = result.getLong( "Id" );
+
+                        ImmutableFloatArray vector;
+                        try { vector = new ImmutableFloatArray( result.getString( "Vector" )); }
+                        catch ( IllegalArgumentException e )
+                        {
+                            throw new OmegaCodexException(
+                                    String.format( "Failed to convert vector. ID: %,d", id ), e );
+                        }
+
+                        updateStatement.setBytes( 1, this.vectorBlobCodec.encode( vector ));
+                        updateStatement.setLong( 2, id );
+                        updateStatement.addBatch();
+                        count++;
+                    }
+                }
+
+                if ( count > 0 ) updateStatement.executeBatch();
+            }
+
+            return count;
+        } );
+    }
+
+    private int getVersion( Connection connection ) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement();
+              ResultSet result = statement.executeQuery( "PRAGMA user_version" ))
+        {
+            return result.next() ? result.getInt( 1 ) : 0;
+        }
+    }
+
+    private void setVersion( Connection connection, int version ) throws SQLException
+    {
+        this.execute( connection, "PRAGMA user_version = " + version );
+    }
+
+    private long queryLong( Connection connection, String sql ) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery( sql ))
+        {
+            return result.next() ? result.getLong( 1 ) : 0;
+        }
+    }
+
+    private long getSequence( Connection connection, String tableName ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "SELECT seq FROM sqlite_sequence WHERE name = ?" ))
+        {
+            statement.setString( 1, tableName );
+            try ( ResultSet result = statement.executeQuery() ) { return result.next() ? result.getLong( 1 ) : 0; }
+        }
+    }
+
+    private void setSequence( Connection connection, String tableName, long sequence ) throws SQLException
+    {
+        try ( PreparedStatement deleteStatement = connection.prepareStatement(
+                      "DELETE FROM sqlite_sequence WHERE name = ?" );
+              PreparedStatement insertStatement = connection.prepareStatement(
+                      "INSERT INTO sqlite_sequence ( name, seq ) VALUES ( ?, ? )" ))
+        {
+            deleteStatement.setString( 1, tableName );
+            deleteStatement.executeUpdate();
+
+            if ( sequence > 0 )
+            {
+                insertStatement.setString( 1, tableName );
+                insertStatement.setLong( 2, sequence );
+                insertStatement.executeUpdate();
+            }
+        }
+    }
+
+    private boolean tableExists( Connection connection, String tableName ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?" ))
+        {
+            statement.setString( 1, tableName );
+            try ( ResultSet result = statement.executeQuery() ) { return result.next() && ( result.getInt( 1 ) > 0 ); }
+        }
+    }
+
+    private boolean columnExists( Connection connection, String tableName, String columnName ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM pragma_table_info( ? ) WHERE name = ?" ))
+        {
+            statement.setString( 1, tableName );
+            statement.setString( 2, columnName );
+            try ( ResultSet result = statement.executeQuery() ) { return result.next() && ( result.getInt( 1 ) > 0 ); }
+        }
+    }
+
+    private void execute( Connection connection, String sql ) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement() ) { statement.execute( sql ); }
+    }
+
+    private void logMigration( String message )
+    {
+        if ( this.logSummary ) this.omegaCodexLogger.println( "Embedding Cache Migration, " + message );
+    }
+}
@@ -23,124 +23,702 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
-class EmbeddingCacheService
+class EmbeddingCacheService implements AutoCloseable
 {
-    private final boolean          logSummary;
-    private final Connection       connection;
-    private final OmegaCodexLogger omegaCodexLogger;
+    @FunctionalInterface
+    private interface StatementFunction< T >
+    {
+        T apply( PreparedStatementCache statements ) throws SQLException;
+    }
+
+    private final int                                     queryBatchSize;
+    private final boolean                                 logSummary;
+    private final Connection                              connection;
+    private final EmbeddingModel                          embeddingModel;
+    private final VectorStorageFormat                     vectorStorageFormat;
+    private final EmbeddingCacheSchema                    embeddingCacheSchema;
+    private final EmbeddingCachePartition                 partition;
+    private final PreparedStatementCache                  writerStatements;
+    private final ReentrantLock                           writerLock;
+    private final List< PreparedStatementCache >          readerStatements;
+    private final BlockingQueue< PreparedStatementCache > availableReaderStatements;
+    private final VectorBlobCodec                         vectorBlobCodec;
+    private final QuantizedVectorBlobCodec                quantizedVectorBlobCodec;
+    private final InputDigest                             inputDigest;
+    private final TransactionRunner                       transactionRunner;
+    private final Set< Long >                             accessedIds;
+    private final OmegaCodexUtil                          omegaCodexUtil;
+    private final OmegaCodexLogger                        omegaCodexLogger;
+
+    EmbeddingCacheService( Connection connection, EmbeddingModel embeddingModel )
+    {
+        this( connection, embeddingModel, VectorStorageFormat.FLOAT32 );
+    }
+
+    EmbeddingCacheService( SQLiteConnectionPool connectionPool, EmbeddingModel embeddingModel )
+    {
+        this( connectionPool, embeddingModel, VectorStorageFormat.FLOAT32 );
+    }
 
-    EmbeddingCacheService( Connection connection )
+    EmbeddingCacheService( Connection connection, EmbeddingModel embeddingModel,
+                           VectorStorageFormat vectorStorageFormat )
     {
         boolean logSummary = false;
 
-        this( logSummary, connection, new OmegaCodexLogger() );
+        this( logSummary, connection, embeddingModel, vectorStorageFormat,
+              new EmbeddingCacheSchema(), new OmegaCodexUtil(), new OmegaCodexLogger() );
     }
 
-    EmbeddingCacheService( boolean logSummary, Connection connection, OmegaCodexLogger omegaCodexLogger )
+    EmbeddingCacheService( SQLiteConnectionPool connectionPool, EmbeddingModel embeddingModel,
+                           VectorStorageFormat vectorStorageFormat )
+    {
+        boolean logSummary = false;
+
+        this( logSummary, connectionPool, embeddingModel, vectorStorageFormat,
+              new EmbeddingCacheSchema(), new OmegaCodexUtil(), new OmegaCodexLogger() );
+    }
+
+    EmbeddingCacheService( boolean logSummary, Connection connection, EmbeddingModel embeddingModel,
+                           VectorStorageFormat vectorStorageFormat, EmbeddingCacheSchema embeddingCacheSchema,
+                           OmegaCodexUtil omegaCodexUtil, OmegaCodexLogger omegaCodexLogger )
     {
         if ( connection == null ) throw new IllegalArgumentException( "Connection must not be null." );
 
-        this.logSummary       = logSummary;
-        this.connection       = connection;
-        this.omegaCodexLogger = omegaCodexLogger;
+        SQLiteConnectionPool connectionPool = new SQLiteConnectionPool( connection, List.of() );
+
+        this( logSummary, connectionPool, embeddingModel, vectorStorageFormat, embeddingCacheSchema, omegaCodexUtil,
+              omegaCodexLogger );
+    }
+
+    EmbeddingCacheService( boolean logSummary, SQLiteConnectionPool connectionPool, EmbeddingModel embeddingModel,
+                           VectorStorageFormat vectorStorageFormat, EmbeddingCacheSchema embeddingCacheSchema,
+                           OmegaCodexUtil omegaCodexUtil, OmegaCodexLogger omegaCodexLogger )
+    {
+        if ( connectionPool == null ) throw new IllegalArgumentException( "Connection pool must not be null." );
+        if ( embeddingModel == null ) throw new IllegalArgumentException( "Embedding model must not be null." );
+        if ( vectorStorageFormat == null )
+            throw new IllegalArgumentException( "Vector storage format must not be null." );
+        if ( embeddingCacheSchema == null )
+            throw new IllegalArgumentException( "Embedding cache schema must not be null." );
+
+        this.queryBatchSize            = 500;
+        this.logSummary                = logSummary;
+        this.connection                = connectionPool.getWriter();
+        this.embeddingModel            = embeddingModel;
+        this.vectorStorageFormat       = vectorStorageFormat;
+        this.embeddingCacheSchema      = embeddingCacheSchema;
+        this.writerStatements          = new PreparedStatementCache( this.connection );
+        this.writerLock                = new ReentrantLock();
+        this.readerStatements          =
+                connectionPool.getReaders().stream().map( PreparedStatementCache::new ).toList();
+        this.availableReaderStatements = new LinkedBlockingQueue<>( this.readerStatements );
+        this.vectorBlobCodec           = new VectorBlobCodec();
+        this.quantizedVectorBlobCodec  = new QuantizedVectorBlobCodec();
+        this.inputDigest               = new InputDigest();
+        this.transactionRunner         = new TransactionRunner();
+        this.accessedIds               = ConcurrentHashMap.newKeySet();
+        this.omegaCodexUtil            = omegaCodexUtil;
+        this.omegaCodexLogger          = omegaCodexLogger;
 
-        this.init();
+        this.embeddingCacheSchema.migrate( this.connection );
+        this.partition = this.embeddingCacheSchema.getPartition( this.connection, this.embeddingModel );
+    }
+
+    EmbeddingModel getEmbeddingModel()
+    {
+        return this.embeddingModel;
     }
 
     Embedding getEmbedding( String input )
     {
-        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
-        if ( input.isEmpty() ) throw new IllegalArgumentException( "Input must not be empty." );
+        this.validateInput( input );
+
+        try { return this.read( statements -> this.findEmbeddings( statements, List.of( input ))).get( input ); }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get embedding.", e ); }
+    }
+
+    Map< String, Embedding > getEmbeddings( Collection< String > inputs )
+    {
+        if ( inputs == null ) throw new IllegalArgumentException( "Inputs must not be null." );
+        for ( String input : inputs ) this.validateInput( input );
+
+        try { return this.read( statements -> this.findEmbeddings( statements, inputs )); }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get embeddings.", e ); }
+    }
+
+    long cacheEmbedding( String input, ImmutableFloatArray vector )
+    {
+        this.validateInput( input );
+        this.validateVector( vector );
+
+        long id;
 
         try
         {
-            PreparedStatement statement = this.connection.prepareStatement(
-                    "SELECT Id, Vector FROM Embedding WHERE Input = ?" );
-            statement.setString( 1, input );
-            ResultSet result = statement.executeQuery();
+            id = this.write( statements -> this.transactionRunner.get( this.connection, () ->
+            {
+                if ( !this.findEmbeddings( statements, List.of( input )).isEmpty() )
+                {
+                    throw new IllegalArgumentException( "Input must not be a duplicate." );
+                }
+
+                return this.insertEmbedding( statements, input, vector );
+            } ));
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to insert into Embeddings table.", e ); }
+
+        if ( this.logSummary )
+        {
+            this.omegaCodexLogger.println( String.format( "Cache New Embedding, ID: %,d", id ));
+        }
+
+        return id;
+    }
+
+    Map< String, Long > cacheEmbeddings( Map< String, ImmutableFloatArray > vectors )
+    {
+        if ( vectors == null ) throw new IllegalArgumentException( "Vectors must not be null." );
+
+        for ( Map.Entry< String, ImmutableFloatArray > entry : vectors.entrySet() )
+        {
+            this.validateInput( entry.getKey() );
+            this.validateVector( entry.getValue() );
+        }
+
+        if ( vectors.isEmpty() ) return Map.of();
 
-            if ( result.next() )
+        Map< String, Long > ids;
+
+        try
+        {
+            ids = this.write( statements -> this.transactionRunner.get( this.connection, () ->
             {
-                long id = result.getLong( "Id" );
-                String vectorString = result.getString( "Vector" );
-                return new Embedding( id, new ImmutableDoubleArray( vectorString ));
-            }
+                if ( !this.findEmbeddings( statements, vectors.keySet() ).isEmpty() )
+                {
+                    throw new IllegalArgumentException( "Input must not be a duplicate." );
+                }
+
+                Map< String, Long > insertedIds = new LinkedHashMap<>();
+
+                for ( Map.Entry< String, ImmutableFloatArray > entry : vectors.entrySet() )
+                {
+                    long id = this.insertEmbedding( statements, entry.getKey(), entry.getValue() );
+                    insertedIds.put( entry.getKey(), id );
+                }
+
+                return insertedIds;
+            } ));
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to insert into Embeddings table.", e ); }
+
+        if ( this.logSummary )
+        {
+            this.omegaCodexLogger.println( String.format( "Cache New Embeddings, Count: %,d", ids.size() ));
         }
-        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get embedding.", e ); }
 
-        return null;
+        return ids;
     }
 
-    long cacheEmbedding( String input, ImmutableDoubleArray vector )
+    // an input that is already stored keeps its row, and the stored ID is returned instead of the reserved one
+    Map< String, Long > cacheReservedEmbeddings( Map< String, Embedding > embeddings )
     {
-        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
-        if ( input.isEmpty() ) throw new IllegalArgumentException( "Input must not be empty." );
+        if ( embeddings == null ) throw new IllegalArgumentException( "Embeddings must not be null." );
 
-        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
-        if ( vector.length() == 0 ) throw new IllegalArgumentException( "Vector must not be empty." );
+        for ( Map.Entry< String, Embedding > entry : embeddings.entrySet() )
+        {
+            this.validateInput( entry.getKey() );
+            if ( entry.getValue() == null ) throw new IllegalArgumentException( "Embedding must not be null." );
+            this.validateVector( entry.getValue().vector() );
+        }
+
+        if ( embeddings.isEmpty() ) return Map.of();
+
+        Map< String, Long > ids;
 
         try
         {
-            PreparedStatement statement = this.connection.prepareStatement(
-                    "INSERT OR IGNORE INTO Embedding ( Input, Vector ) VALUES ( ?, ? )",
-                    Statement.RETURN_GENERATED_KEYS );
-            statement.setString( 1, input );
-            statement.setString( 2, vector.toString() );
+            ids = this.write( statements -> this.transactionRunner.get( this.connection, () ->
+            {
+                Map< String, Embedding > storedEmbeddings = this.findEmbeddings( statements, embeddings.keySet() );
+
+                PreparedStatement embeddingStatement = statements.prepare(
+                        "INSERT INTO " + this.partition.embeddingTable() +
+                        " ( Id, Hash, Vector, LastAccess ) VALUES ( ?, ?, ?, ? )" );
+                PreparedStatement inputStatement = statements.prepare(
+                        "INSERT INTO " + this.partition.inputTable() + " ( Id, Input ) VALUES ( ?, ? )" );
+
+                Map< String, Long > storedIds = new LinkedHashMap<>();
+                int count = 0;
+
+                for ( Map.Entry< String, Embedding > entry : embeddings.entrySet() )
+                {
+                    Embedding storedEmbedding = storedEmbeddings.get( entry.getKey() );
+                    if ( storedEmbedding != null )
+                    {
+                        storedIds.put( entry.getKey(), storedEmbedding.id() );
+                        continue;
+                    }
+
+                    long id = entry.getValue().id();
+
+                    embeddingStatement.setLong( 1, id );
+                    embeddingStatement.setBytes( 2, this.inputDigest.digest( entry.getKey() ));
+                    embeddingStatement.setBytes( 3, this.encodeVector( entry.getValue().vector() ));
+                    embeddingStatement.setLong( 4, this.omegaCodexUtil.currentTimeMillis() );
+                    embeddingStatement.addBatch();
+
+                    inputStatement.setLong( 1, id );
+                    inputStatement.setString( 2, entry.getKey() );
+                    inputStatement.addBatch();
+
+                    storedIds.put( entry.getKey(), id );
+                    count++;
+                }
+
+                if ( count > 0 )
+                {
+                    embeddingStatement.executeBatch();
+                    inputStatement.executeBatch();
+                }
+
+                return storedIds;
+            } ));
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to insert into Embeddings table.", e ); }
+
+        if ( this.logSummary )
+        {
+            long insertedCount =
+                    embeddings.entrySet().stream().filter( e -> ids.get( e.getKey() ) == e.getValue().id() ).count();
+            this.omegaCodexLogger.println( String.format( "Cache New Embeddings, Count: %,d", insertedCount ));
+        }
+
+        return ids;
+    }
+
+    long reserveIds( int count )
+    {
+        if ( count < 1 ) throw new IllegalArgumentException( "Count must be positive." );
 
-            if ( statement.executeUpdate() == 0 )
+        try
+        {
+            return this.write( statements -> this.transactionRunner.get(
+                    this.connection, () -> this.reserveIds( statements, count )));
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to reserve embedding IDs.", e ); }
+    }
+
+    void recordAccess( long id )
+    {
+        this.accessedIds.add( id );
+    }
+
+    void flushAccessTimes()
+    {
+        if ( this.accessedIds.isEmpty() ) return;
+
+        // reads only record the access, so lookups on reader connections never wait for the writer
+        List< Long > ids = new ArrayList<>( this.accessedIds );
+        long accessTime = this.omegaCodexUtil.currentTimeMillis();
+
+        try
+        {
+            this.write( statements -> this.transactionRunner.get( this.connection, () ->
             {
-                throw new IllegalArgumentException( "Input must not be a duplicate." );
-            }
+                PreparedStatement statement = statements.prepare(
+                        "UPDATE " + this.partition.embeddingTable() + " SET LastAccess = ? WHERE Id = ?" );
+
+                for ( long id : ids )
+                {
+                    statement.setLong( 1, accessTime );
+                    statement.setLong( 2, id );
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+                return null;
+            } ));
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to update embedding access times.", e ); }
 
-            ResultSet generatedKeys = statement.getGeneratedKeys();
-            if ( generatedKeys.next() )
+        ids.forEach( this.accessedIds::remove );
+    }
+
+    List< Long > evictEmbeddings( long accessedBefore, long maxCount, Collection< Long > liveIds )
+    {
+        if ( maxCount < 0 ) throw new IllegalArgumentException( "Max count must not be negative." );
+        if ( liveIds == null ) throw new IllegalArgumentException( "Live IDs must not be null." );
+
+        this.flushAccessTimes();
+
+        String embeddingTable = this.partition.embeddingTable();
+        List< Long > evictedIds;
+
+        try
+        {
+            evictedIds = this.write( statements -> this.transactionRunner.get( this.connection, () ->
             {
-                long id = generatedKeys.getLong( 1 );
+                statements.prepare( "CREATE TEMP TABLE IF NOT EXISTS LiveEmbedding ( Id INTEGER PRIMARY KEY )" )
+                        .executeUpdate();
+                statements.prepare( "CREATE TEMP TABLE IF NOT EXISTS EvictedEmbedding ( Id INTEGER PRIMARY KEY )" )
+                        .executeUpdate();
+                statements.prepare( "DELETE FROM temp.LiveEmbedding" ).executeUpdate();
+                statements.prepare( "DELETE FROM temp.EvictedEmbedding" ).executeUpdate();
 
-                if ( this.logSummary )
+                PreparedStatement liveStatement =
+                        statements.prepare( "INSERT OR IGNORE INTO temp.LiveEmbedding ( Id ) VALUES ( ? )" );
+                for ( long liveId : liveIds )
                 {
-                    this.omegaCodexLogger.println( String.format( "Cache New Embedding, ID: %,d", id ));
+                    liveStatement.setLong( 1, liveId );
+                    liveStatement.addBatch();
                 }
+                liveStatement.executeBatch();
 
-                return id;
-            }
-            else throw new OmegaCodexException( "Failed to get ID of added embedding." );
+                PreparedStatement ageStatement = statements.prepare(
+                        "INSERT INTO temp.EvictedEmbedding ( Id ) SELECT Id FROM " + embeddingTable +
+                        " WHERE LastAccess < ? AND Id NOT IN ( SELECT Id FROM temp.LiveEmbedding )" );
+                ageStatement.setLong( 1, accessedBefore );
+                long count = ageStatement.executeUpdate();
+
+                // past the size budget, the least recently used embeddings that are not live go first
+                long excessCount = this.count( statements, embeddingTable ) - count - maxCount;
+                if ( excessCount > 0 )
+                {
+                    PreparedStatement sizeStatement = statements.prepare(
+                            "INSERT INTO temp.EvictedEmbedding ( Id ) SELECT Id FROM " + embeddingTable +
+                            " WHERE Id NOT IN ( SELECT Id FROM temp.LiveEmbedding )" +
+                            " AND Id NOT IN ( SELECT Id FROM temp.EvictedEmbedding )" +
+                            " ORDER BY LastAccess, Id LIMIT ?" );
+                    sizeStatement.setLong( 1, excessCount );
+                    sizeStatement.executeUpdate();
+                }
+
+                // the evicted IDs are returned so callers can drop them from their own caches
+                List< Long > ids = new ArrayList<>();
+                try ( ResultSet result = statements.prepare( "SELECT Id FROM temp.EvictedEmbedding" ).executeQuery() )
+                {
+                    while ( result.next() ) ids.add( result.getLong( "Id" ));
+                }
+
+                statements.prepare( "DELETE FROM " + this.partition.inputTable() +
+                        " WHERE Id IN ( SELECT Id FROM temp.EvictedEmbedding )" ).executeUpdate();
+                statements.prepare( "DELETE FROM " + embeddingTable +
+                        " WHERE Id IN ( SELECT Id FROM temp.EvictedEmbedding )" ).executeUpdate();
+
+                return ids;
+            } ));
         }
-        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to insert into Embeddings table.", e ); }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to evict embeddings.", e ); }
+
+        if ( this.logSummary )
+        {
+            this.omegaCodexLogger.println( String.format( "Evict Embeddings, Count: %,d", evictedIds.size() ));
+        }
+
+        return evictedIds;
+    }
+
+    long incrementalVacuum( int pageCount )
+    {
+        if ( pageCount < 1 ) throw new IllegalArgumentException( "Page count must be positive." );
+
+        try
+        {
+            return this.write( statements ->
+            {
+                long freePageCount = this.queryLong( statements, "PRAGMA freelist_count" );
+                long vacuumPageCount = Math.min( freePageCount, pageCount );
+
+                // each step of the pragma frees one page, and the driver only steps once per execution
+                try ( Statement statement = this.connection.createStatement() )
+                {
+                    for ( long i = 0; i < vacuumPageCount; i++ ) statement.execute( "PRAGMA incremental_vacuum( 1 )" );
+                }
+
+                return freePageCount - this.queryLong( statements, "PRAGMA freelist_count" );
+            } );
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to vacuum embedding cache.", e ); }
+    }
+
+    long getEmbeddingCount()
+    {
+        try { return this.read( statements -> this.count( statements, this.partition.embeddingTable() )); }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to count embeddings.", e ); }
+    }
+
+    void forEachEmbedding( Consumer< Embedding > consumer )
+    {
+        if ( consumer == null ) throw new IllegalArgumentException( "Consumer must not be null." );
+
+        try
+        {
+            this.read( statements ->
+            {
+                PreparedStatement statement = statements.prepare(
+                        "SELECT Id, Vector FROM " + this.partition.embeddingTable() + " ORDER BY Id" );
+
+                try ( ResultSet result = statement.executeQuery() )
+                {
+                    while ( result.next() )
+                    {
+                        long id = result.getLong( "Id" );
+                        byte[] vectorBlob = result.getBytes( "Vector" );
+                        consumer.accept( new Embedding( id, this.decodeVector( vectorBlob )));
+                    }
+                }
+
+                return null;
+            } );
+        }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to read embeddings.", e ); }
     }
 
     String getInput( long id )
     {
+        String input;
+
         try
         {
-            PreparedStatement statement = this.connection.prepareStatement(
-                    "SELECT Input FROM Embedding WHERE Id = ?" );
-            statement.setLong( 1, id );
-            ResultSet result = statement.executeQuery();
+            input = this.read( statements ->
+            {
+                PreparedStatement statement = statements.prepare(
+                        "SELECT Input FROM " + this.partition.inputTable() + " WHERE Id = ?" );
+                statement.setLong( 1, id );
 
-            if ( result.next() ) return result.getString( "Input" );
+                try ( ResultSet result = statement.executeQuery() )
+                {
+                    return result.next() ? result.getString( "Input" ) : null;
+                }
+            } );
         }
         catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get input.", e ); }
 
-        throw new OmegaCodexException( String.format( "Unable to find embedding with id: %,d", id ));
+        if ( input == null )
+        {
+            throw new OmegaCodexException( String.format( "Unable to find embedding with id: %,d", id ));
+        }
+
+        return input;
     }
 
-    private void init()
+    public void close()
     {
-        try
+        OmegaCodexException exception = null;
+
+        try { this.flushAccessTimes(); }
+        catch ( OmegaCodexException e ) { exception = e; }
+
+        List< PreparedStatementCache > statementCaches = new ArrayList<>( this.readerStatements );
+        statementCaches.add( this.writerStatements );
+
+        for ( PreparedStatementCache statementCache : statementCaches )
+        {
+            try { statementCache.close(); }
+            catch ( OmegaCodexException e )
+            {
+                if ( exception == null ) exception = e;
+                else exception.addSuppressed( e );
+            }
+        }
+
+        if ( exception != null ) throw exception;
+    }
+
+    private < T > T read( StatementFunction< T > function ) throws SQLException
+    {
+        if ( this.readerStatements.isEmpty() ) return this.write( function );
+
+        PreparedStatementCache statements;
+
+        try { statements = this.availableReaderStatements.take(); }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new OmegaCodexException( e );
+        }
+
+        try { return function.apply( statements ); }
+        finally { this.availableReaderStatements.add( statements ); }
+    }
+
+    private < T > T write( StatementFunction< T > function ) throws SQLException
+    {
+        this.writerLock.lock();
+
+        try { return function.apply( this.writerStatements ); }
+        finally { this.writerLock.unlock(); }
+    }
+
+    private void validateInput( String input )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+        if ( input.isEmpty() ) throw new IllegalArgumentException( "Input must not be empty." );
+    }
+
+    private void validateVector( ImmutableFloatArray vector )
+    {
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+        if ( vector.length() == 0 ) throw new IllegalArgumentException( "Vector must not be empty." );
+
+        if ( vector.length() != this.embeddingModel.dimensions() )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Vector dimensions must match the embedding model. Dimensions: %,d, Model Dimensions: %,d",
+                    vector.length(), this.embeddingModel.dimensions() ));
+        }
+    }
+
+    private byte[] encodeVector( ImmutableFloatArray vector )
+    {
+        return switch ( this.vectorStorageFormat )
+        {
+            case FLOAT32 -> this.vectorBlobCodec.encode( vector );
+            case INT8    -> this.quantizedVectorBlobCodec.encode( vector );
+        };
+    }
+
+    private ImmutableFloatArray decodeVector( byte[] vectorBlob )
+    {
+        // the two formats never share a length for the same dimensions, so rows of either format can be mixed
+        if ( vectorBlob.length == this.quantizedVectorBlobCodec.getBlobLength( this.embeddingModel.dimensions() ))
+        {
+            return this.quantizedVectorBlobCodec.decode( vectorBlob );
+        }
+
+        return this.vectorBlobCodec.decode( vectorBlob );
+    }
+
+    private List< List< String >> batches( Collection< String > inputs )
+    {
+        List< String > distinctInputs = new ArrayList<>( new LinkedHashSet<>( inputs ));
+        List< List< String >> batches = new ArrayList<>();
+
+        for ( int i = 0; i < distinctInputs.size(); i += this.queryBatchSize )
         {
-            PreparedStatement statement = this.connection.prepareStatement(
-                    """
-                    CREATE TABLE IF NOT EXISTS Embedding
-                    (
-                        Id     INTEGER PRIMARY KEY AUTOINCREMENT,
-                        Input  TEXT    UNIQUE NOT NULL,
-                        Vector TEXT           NOT NULL
-                    )
-                    """ );
-            statement.execute();
-        }
-        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to create Embeddings table.", e ); }
+            batches.add( distinctInputs.subList( i, Math.min( i + this.queryBatchSize, distinctInputs.size() )));
+        }
+
+        return batches;
+    }
+
+    private Map< String, Embedding > findEmbeddings( PreparedStatementCache statements, Collection< String > inputs )
+            throws SQLException
+    {
+        Map< String, Embedding > embeddings = new HashMap<>();
+
+        for ( List< String > batch : this.batches( inputs ))
+        {
+            PreparedStatement statement = statements.prepare(
+                    "SELECT e.Id, e.Vector, i.Input FROM " + this.partition.embeddingTable() + " e " +
+                    "JOIN " + this.partition.inputTable() + " i ON i.Id = e.Id WHERE e.Hash IN ( " +
+                    this.placeholders( this.getParameterCount( batch.size() )) + " )" );
+            this.setHashes( statement, batch );
+
+            Set< String > batchInputs = new HashSet<>( batch );
+
+            try ( ResultSet result = statement.executeQuery() )
+            {
+                while ( result.next() )
+                {
+                    // the hash only narrows the search, the stored input decides the match
+                    String input = result.getString( "Input" );
+                    if ( !batchInputs.contains( input )) continue;
+
+                    long id = result.getLong( "Id" );
+                    byte[] vectorBlob = result.getBytes( "Vector" );
+                    embeddings.put( input, new Embedding( id, this.decodeVector( vectorBlob )));
+                    this.accessedIds.add( id );
+                }
+            }
+        }
+
+        return embeddings;
+    }
+
+    private long reserveIds( PreparedStatementCache statements, int count ) throws SQLException
+    {
+        // IDs are only ever handed out from the sequence, so advancing it claims the whole range
+        long sequence = this.queryLong( statements, "SELECT Seq FROM EmbeddingSequence WHERE Id = 1" );
+
+        PreparedStatement updateStatement = statements.prepare( "UPDATE EmbeddingSequence SET Seq = ? WHERE Id = 1" );
+        updateStatement.setLong( 1, sequence + count );
+        if ( updateStatement.executeUpdate() == 0 ) throw new OmegaCodexException( "Embedding sequence is missing." );
+
+        return sequence + 1;
+    }
+
+    private long insertEmbedding( PreparedStatementCache statements, String input, ImmutableFloatArray vector )
+            throws SQLException
+    {
+        long id = this.reserveIds( statements, 1 );
+
+        PreparedStatement embeddingStatement = statements.prepare(
+                "INSERT INTO " + this.partition.embeddingTable() +
+                " ( Id, Hash, Vector, LastAccess ) VALUES ( ?, ?, ?, ? )" );
+        embeddingStatement.setLong( 1, id );
+        embeddingStatement.setBytes( 2, this.inputDigest.digest( input ));
+        embeddingStatement.setBytes( 3, this.encodeVector( vector ));
+        embeddingStatement.setLong( 4, this.omegaCodexUtil.currentTimeMillis() );
+        embeddingStatement.executeUpdate();
+
+        PreparedStatement inputStatement = statements.prepare(
+                "INSERT INTO " + this.partition.inputTable() + " ( Id, Input ) VALUES ( ?, ? )" );
+        inputStatement.setLong( 1, id );
+        inputStatement.setString( 2, input );
+        inputStatement.executeUpdate();
+
+        return id;
+    }
+
+    private long count( PreparedStatementCache statements, String tableName ) throws SQLException
+    {
+        return this.queryLong( statements, "SELECT COUNT(*) FROM " + tableName );
+    }
+
+    private long queryLong( PreparedStatementCache statements, String sql ) throws SQLException
+    {
+        try ( ResultSet result = statements.prepare( sql ).executeQuery() )
+        {
+            return result.next() ? result.getLong( 1 ) : 0;
+        }
+    }
+
+    private int getParameterCount( int inputCount )
+    {
+        int parameterCount = Integer.highestOneBit( inputCount );
+        if ( parameterCount < inputCount ) parameterCount <<= 1;
+        return Math.min( parameterCount, this.queryBatchSize );
+    }
+
+    private void setHashes( PreparedStatement statement, List< String > batch ) throws SQLException
+    {
+        int parameterCount = this.getParameterCount( batch.size() );
+
+        for ( int i = 0; i < parameterCount; i++ )
+        {
+            statement.setBytes( i + 1, this.inputDigest.digest( batch.get( Math.min( i, batch.size() - 1 ))));
+        }
+    }
+
+    private String placeholders( int count )
+    {
+        return String.join( ", ", Collections.nCopies( count, "?" ));
     }
 }
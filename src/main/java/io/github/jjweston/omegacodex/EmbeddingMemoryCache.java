@@ -0,0 +1,272 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class EmbeddingMemoryCache
+{
+    private static final long entryOverhead = 96;
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Entry
+    {
+        private final String    input;
+        private final Embedding embedding;
+        private final long      weight;
+        private       Region    region;
+
+        private Entry( String input, Embedding embedding )
+        {
+            this.input     = input;
+            this.embedding = embedding;
+            this.weight    = entryOverhead + ( 2L * input.length() ) + ( 4L * embedding.vector().length() );
+        }
+    }
+
+    private final long            memoryBudget;
+    private final long            windowBudget;
+    private final long            mainBudget;
+    private final long            protectedBudget;
+    private final FrequencySketch frequencySketch;
+
+    private final Map< String, Entry >           entries;
+    private final LinkedHashMap< String, Entry > window;
+    private final LinkedHashMap< String, Entry > probation;
+    private final LinkedHashMap< String, Entry > protectedEntries;
+
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    EmbeddingMemoryCache()
+    {
+        this( 64L * 1_024 * 1_024 );
+    }
+
+    EmbeddingMemoryCache( long memoryBudget )
+    {
+        if ( memoryBudget <= 0 ) throw new IllegalArgumentException( "Memory budget must be positive." );
+
+        this.memoryBudget     = memoryBudget;
+        this.windowBudget     = Math.max( 1, memoryBudget / 100 );
+        this.mainBudget       = memoryBudget - this.windowBudget;
+        this.protectedBudget  = this.mainBudget * 8 / 10;
+        this.frequencySketch  = new FrequencySketch( (int) Math.clamp( memoryBudget / 1_024, 1, Integer.MAX_VALUE ));
+        this.entries          = new HashMap<>();
+        this.window           = new LinkedHashMap<>();
+        this.probation        = new LinkedHashMap<>();
+        this.protectedEntries = new LinkedHashMap<>();
+    }
+
+    synchronized Embedding get( String input )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+
+        this.frequencySketch.increment( input );
+
+        Entry entry = this.entries.get( input );
+        if ( entry == null )
+        {
+            this.missCount++;
+            return null;
+        }
+
+        this.hitCount++;
+
+        switch ( entry.region )
+        {
+            case WINDOW    -> this.moveToEnd( this.window, entry );
+            case PROTECTED -> this.moveToEnd( this.protectedEntries, entry );
+            case PROBATION ->
+            {
+                this.probation.remove( entry.input );
+                this.probationWeight -= entry.weight;
+                this.addProtected( entry );
+
+                while ( this.protectedWeight > this.protectedBudget )
+                {
+                    Entry demoted = this.removeFirst( this.protectedEntries );
+                    this.protectedWeight -= demoted.weight;
+                    this.addProbation( demoted );
+                }
+            }
+        }
+
+        return entry.embedding;
+    }
+
+    synchronized void put( String input, Embedding embedding )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+        if ( embedding == null ) throw new IllegalArgumentException( "Embedding must not be null." );
+
+        // the vector is immutable, so the entry shares it instead of copying it
+        Entry entry = new Entry( input, embedding );
+        this.remove( input );
+
+        if ( entry.weight > this.memoryBudget ) return;
+
+        this.frequencySketch.increment( input );
+
+        entry.region = Region.WINDOW;
+        this.entries.put( input, entry );
+        this.window.put( input, entry );
+        this.windowWeight += entry.weight;
+
+        while ( this.windowWeight > this.windowBudget )
+        {
+            Entry candidate = this.removeFirst( this.window );
+            this.windowWeight -= candidate.weight;
+            this.admit( candidate );
+        }
+    }
+
+    synchronized void invalidate( Collection< Long > ids )
+    {
+        if ( ids == null ) throw new IllegalArgumentException( "IDs must not be null." );
+        if ( ids.isEmpty() ) return;
+
+        // entries are keyed by input, so evicted IDs are found with a single scan
+        Set< Long > idSet = new HashSet<>( ids );
+        List< String > inputs = new ArrayList<>();
+        for ( Entry entry : this.entries.values() )
+        {
+            if ( idSet.contains( entry.embedding.id() )) inputs.add( entry.input );
+        }
+
+        inputs.forEach( this::remove );
+    }
+
+    synchronized long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    synchronized long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    synchronized long getEvictionCount()
+    {
+        return this.evictionCount;
+    }
+
+    synchronized long getWeight()
+    {
+        return this.windowWeight + this.probationWeight + this.protectedWeight;
+    }
+
+    synchronized int size()
+    {
+        return this.entries.size();
+    }
+
+    private void admit( Entry candidate )
+    {
+        int candidateFrequency = this.frequencySketch.frequency( candidate.input );
+
+        while ( this.probationWeight + this.protectedWeight + candidate.weight > this.mainBudget )
+        {
+            LinkedHashMap< String, Entry > victims = this.probation.isEmpty() ? this.protectedEntries : this.probation;
+
+            if ( victims.isEmpty() ||
+                 ( candidateFrequency <= this.frequencySketch.frequency( victims.firstEntry().getKey() )))
+            {
+                this.evict( candidate );
+                return;
+            }
+
+            Entry victim = this.removeFirst( victims );
+            if ( victim.region == Region.PROBATION ) this.probationWeight -= victim.weight;
+            else this.protectedWeight -= victim.weight;
+            this.evict( victim );
+        }
+
+        this.addProbation( candidate );
+    }
+
+    private void evict( Entry entry )
+    {
+        this.entries.remove( entry.input );
+        this.evictionCount++;
+    }
+
+    private void remove( String input )
+    {
+        Entry entry = this.entries.remove( input );
+        if ( entry == null ) return;
+
+        switch ( entry.region )
+        {
+            case WINDOW ->
+            {
+                this.window.remove( input );
+                this.windowWeight -= entry.weight;
+            }
+            case PROBATION ->
+            {
+                this.probation.remove( input );
+                this.probationWeight -= entry.weight;
+            }
+            case PROTECTED ->
+            {
+                this.protectedEntries.remove( input );
+                this.protectedWeight -= entry.weight;
+            }
+        }
+    }
+
+    private void addProbation( Entry entry )
+    {
+        entry.region = Region.PROBATION;
+        this.probation.put( entry.input, entry );
+        this.probationWeight += entry.weight;
+    }
+
+    private void addProtected( Entry entry )
+    {
+        entry.region = Region.PROTECTED;
+        this.protectedEntries.put( entry.input, entry );
+        this.protectedWeight += entry.weight;
+    }
+
+    private void moveToEnd( LinkedHashMap< String, Entry > region, Entry entry )
+    {
+        region.remove( entry.input );
+        region.put( entry.input, entry );
+    }
+
+    private Entry removeFirst( LinkedHashMap< String, Entry > region )
+    {
+        return region.pollFirstEntry().getValue();
+    }
+}
@@ -0,0 +1,29 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+record EmbeddingModel( String name, int dimensions )
+{
+    EmbeddingModel
+    {
+        if ( name == null ) throw new IllegalArgumentException( "Name must not be null." );
+        if ( name.isBlank() ) throw new IllegalArgumentException( "Name must not be blank." );
+        if ( dimensions < 1 ) throw new IllegalArgumentException( "Dimensions must be positive." );
+    }
+}
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -18,29 +18,147 @@ limitations under the License.
 
 package io.github.jjweston.omegacodex;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 class EmbeddingService
 {
-    private final EmbeddingCacheService embeddingCacheService;
-    private final EmbeddingApiService   embeddingApiService;
+    private final EmbeddingMemoryCache      embeddingMemoryCache;
+    private final EmbeddingCacheService     embeddingCacheService;
+    private final EmbeddingWriteBehindQueue embeddingWriteBehindQueue;
+    private final EmbeddingApiService       embeddingApiService;
 
     EmbeddingService( EmbeddingCacheService embeddingCacheService, EmbeddingApiService embeddingApiService )
     {
+        this( new EmbeddingMemoryCache(), embeddingCacheService, null, embeddingApiService );
+    }
+
+    EmbeddingService( EmbeddingCacheService embeddingCacheService, EmbeddingWriteBehindQueue embeddingWriteBehindQueue,
+                      EmbeddingApiService embeddingApiService )
+    {
+        if ( embeddingWriteBehindQueue == null )
+            throw new IllegalArgumentException( "Embedding write-behind queue must not be null." );
+
+        this( new EmbeddingMemoryCache(), embeddingCacheService, embeddingWriteBehindQueue, embeddingApiService );
+    }
+
+    EmbeddingService( EmbeddingMemoryCache embeddingMemoryCache, EmbeddingCacheService embeddingCacheService,
+                      EmbeddingApiService embeddingApiService )
+    {
+        this( embeddingMemoryCache, embeddingCacheService, null, embeddingApiService );
+    }
+
+    // without a write-behind queue, new embeddings are written to the cache before they are returned
+    EmbeddingService( EmbeddingMemoryCache embeddingMemoryCache, EmbeddingCacheService embeddingCacheService,
+                      EmbeddingWriteBehindQueue embeddingWriteBehindQueue, EmbeddingApiService embeddingApiService )
+    {
+        if ( embeddingMemoryCache == null )
+            throw new IllegalArgumentException( "Embedding memory cache must not be null." );
         if ( embeddingCacheService == null )
             throw new IllegalArgumentException( "Embedding cache service must not be null." );
         if ( embeddingApiService == null )
             throw new IllegalArgumentException( "Embedding API service must not be null." );
 
-        this.embeddingCacheService = embeddingCacheService;
-        this.embeddingApiService   = embeddingApiService;
+        this.embeddingMemoryCache      = embeddingMemoryCache;
+        this.embeddingCacheService     = embeddingCacheService;
+        this.embeddingWriteBehindQueue = embeddingWriteBehindQueue;
+        this.embeddingApiService       = embeddingApiService;
     }
 
     Embedding getEmbedding( String input )
     {
-        Embedding embedding = this.embeddingCacheService.getEmbedding( input );
-        if ( embedding != null ) return embedding;
+        Embedding embedding = this.embeddingMemoryCache.get( input );
+        if ( embedding != null )
+        {
+            // memory hits never reach the database, so their access is recorded for eviction to see
+            this.embeddingCacheService.recordAccess( embedding.id() );
+            return embedding;
+        }
+
+        if ( this.embeddingWriteBehindQueue != null ) embedding = this.embeddingWriteBehindQueue.get( input );
+        if ( embedding == null ) embedding = this.embeddingCacheService.getEmbedding( input );
+
+        if ( embedding == null )
+        {
+            ImmutableFloatArray vector = this.embeddingApiService.getEmbeddingVector( input );
+
+            if ( this.embeddingWriteBehindQueue != null )
+            {
+                embedding = this.embeddingWriteBehindQueue.add( input, vector );
+            }
+            else
+            {
+                long id = this.embeddingCacheService.cacheEmbedding( input, vector );
+                embedding = new Embedding( id, vector );
+            }
+        }
+
+        this.embeddingMemoryCache.put( input, embedding );
+        return embedding;
+    }
+
+    List< Embedding > getEmbeddings( List< String > inputs )
+    {
+        if ( inputs == null ) throw new IllegalArgumentException( "Inputs must not be null." );
+
+        Map< String, Embedding > embeddings = new HashMap<>();
+        Set< String > missingInputs = new LinkedHashSet<>();
+
+        for ( String input : inputs )
+        {
+            if ( embeddings.containsKey( input ) || missingInputs.contains( input )) continue;
+
+            Embedding embedding = this.embeddingMemoryCache.get( input );
+            if ( embedding != null ) this.embeddingCacheService.recordAccess( embedding.id() );
+            else if ( this.embeddingWriteBehindQueue != null )
+            {
+                embedding = this.embeddingWriteBehindQueue.get( input );
+                if ( embedding != null ) this.embeddingMemoryCache.put( input, embedding );
+            }
+
+            if ( embedding != null ) embeddings.put( input, embedding );
+            else missingInputs.add( input );
+        }
+
+        if ( missingInputs.isEmpty() ) return inputs.stream().map( embeddings::get ).toList();
+
+        Map< String, Embedding > cachedEmbeddings = this.embeddingCacheService.getEmbeddings( missingInputs );
+        cachedEmbeddings.forEach( this.embeddingMemoryCache::put );
+        embeddings.putAll( cachedEmbeddings );
+        missingInputs.removeAll( cachedEmbeddings.keySet() );
+
+        if ( !missingInputs.isEmpty() )
+        {
+            List< String > apiInputs = new ArrayList<>( missingInputs );
+            List< ImmutableFloatArray > vectors = this.embeddingApiService.getEmbeddingVectors( apiInputs );
+
+            Map< String, ImmutableFloatArray > newVectors = new LinkedHashMap<>();
+            for ( int i = 0; i < apiInputs.size(); i++ ) newVectors.put( apiInputs.get( i ), vectors.get( i ));
+
+            Map< String, Embedding > newEmbeddings = new LinkedHashMap<>();
+
+            if ( this.embeddingWriteBehindQueue != null )
+            {
+                newEmbeddings = this.embeddingWriteBehindQueue.addAll( newVectors );
+            }
+            else
+            {
+                Map< String, Long > ids = this.embeddingCacheService.cacheEmbeddings( newVectors );
+                for ( Map.Entry< String, ImmutableFloatArray > entry : newVectors.entrySet() )
+                {
+                    newEmbeddings.put( entry.getKey(), new Embedding( ids.get( entry.getKey() ), entry.getValue() ));
+                }
+            }
+
+            newEmbeddings.forEach( this.embeddingMemoryCache::put );
+            embeddings.putAll( newEmbeddings );
+        }
 
-        ImmutableDoubleArray vector = this.embeddingApiService.getEmbeddingVector( input );
-        long id = this.embeddingCacheService.cacheEmbedding( input, vector );
-        return new Embedding( id, vector );
+        return inputs.stream().map( embeddings::get ).toList();
     }
 }
@@ -0,0 +1,144 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class EmbeddingVectorArena implements AutoCloseable
+{
+    private static final long rowAlignment = 64;
+
+    private final EmbeddingModel       embeddingModel;
+    private final int                  capacity;
+    private final long                 rowSize;
+    private final Arena                arena;
+    private final MemorySegment        segment;
+    private final Map< Long, Integer > rows;
+
+    private          int     nextRow;
+    private volatile boolean closed;
+
+    EmbeddingVectorArena( EmbeddingModel embeddingModel, int capacity )
+    {
+        if ( embeddingModel == null ) throw new IllegalArgumentException( "Embedding model must not be null." );
+        if ( capacity < 1 ) throw new IllegalArgumentException( "Capacity must be positive." );
+
+        this.embeddingModel = embeddingModel;
+        this.capacity       = capacity;
+        this.rowSize        = (long) embeddingModel.dimensions() * Float.BYTES;
+        this.arena          = Arena.ofShared();
+        this.segment        = this.arena.allocate( this.rowSize * capacity, rowAlignment );
+        this.rows           = new ConcurrentHashMap<>();
+    }
+
+    int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    int size()
+    {
+        return this.rows.size();
+    }
+
+    long getByteSize()
+    {
+        return this.segment.byteSize();
+    }
+
+    boolean contains( long id )
+    {
+        return this.rows.containsKey( id );
+    }
+
+    // rows are written once and never moved, so readers only need the published row index
+    synchronized boolean put( Embedding embedding )
+    {
+        if ( embedding == null ) throw new IllegalArgumentException( "Embedding must not be null." );
+        this.validateOpen();
+
+        ImmutableFloatArray vector = embedding.vector();
+        if ( vector.length() != this.embeddingModel.dimensions() )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Vector dimensions must match the embedding model. Dimensions: %,d, Model Dimensions: %,d",
+                    vector.length(), this.embeddingModel.dimensions() ));
+        }
+
+        if ( this.rows.containsKey( embedding.id() )) return false;
+        if ( this.nextRow == this.capacity ) throw new IllegalStateException( "Vector arena is full." );
+
+        int row = this.nextRow++;
+        MemorySegment.copy( vector.asMemorySegment(), 0, this.segment, row * this.rowSize, this.rowSize );
+        this.rows.put( embedding.id(), row );
+        return true;
+    }
+
+    int load( EmbeddingCacheService embeddingCacheService )
+    {
+        if ( embeddingCacheService == null )
+            throw new IllegalArgumentException( "Embedding cache service must not be null." );
+
+        if ( !this.embeddingModel.equals( embeddingCacheService.getEmbeddingModel() ))
+        {
+            throw new IllegalArgumentException( "Embedding model must match the vector arena." );
+        }
+
+        int[] loadedCount = new int[ 1 ];
+        embeddingCacheService.forEachEmbedding( embedding ->
+        {
+            if ( this.put( embedding )) loadedCount[ 0 ]++;
+        } );
+
+        return loadedCount[ 0 ];
+    }
+
+    MemorySegment getVectorSegment( long id )
+    {
+        this.validateOpen();
+
+        Integer row = this.rows.get( id );
+        if ( row == null ) return null;
+        return this.segment.asSlice( row * this.rowSize, this.rowSize ).asReadOnly();
+    }
+
+    ImmutableFloatArray getVector( long id )
+    {
+        MemorySegment vectorSegment = this.getVectorSegment( id );
+        return vectorSegment == null ? null : new ImmutableFloatArray( vectorSegment );
+    }
+
+    public synchronized void close()
+    {
+        if ( this.closed ) return;
+
+        this.closed = true;
+        this.rows.clear();
+        this.arena.close();
+    }
+
+    private void validateOpen()
+    {
+        if ( this.closed ) throw new IllegalStateException( "Vector arena is closed." );
+    }
+}
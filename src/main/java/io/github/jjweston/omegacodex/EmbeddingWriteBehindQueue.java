@@ -0,0 +1,305 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class EmbeddingWriteBehindQueue implements AutoCloseable
+{
+    private record Write( String input, Embedding embedding, CountDownLatch flushSignal )
+    {
+        private Write( String input, Embedding embedding )
+        {
+            this( input, embedding, null );
+        }
+    }
+
+    private static final Write closeSignal = new Write( null, null );
+
+    private final EmbeddingCacheService                embeddingCacheService;
+    private final int                                  batchSize;
+    private final int                                  idBlockSize;
+    private final long                                 retryDelayMs;
+    private final BlockingQueue< Write >               queue;
+    private final Map< String, Embedding >             pendingEmbeddings;
+    private final List< Write >                        unwrittenWrites;
+    private final AtomicReference< RuntimeException > droppedWriteException;
+    private final Thread                               thread;
+
+    private long                      nextId;
+    private long                      idLimit;
+    private int                       activePuts;
+    private boolean                   closed;
+    private volatile RuntimeException retryException;
+
+    EmbeddingWriteBehindQueue( EmbeddingCacheService embeddingCacheService )
+    {
+        int capacity    = 1_024;
+        int batchSize   = 256;
+        int idBlockSize = 256;
+
+        this( embeddingCacheService, capacity, batchSize, idBlockSize );
+    }
+
+    EmbeddingWriteBehindQueue( EmbeddingCacheService embeddingCacheService, int capacity, int batchSize,
+                               int idBlockSize )
+    {
+        long retryDelayMs = 1_000;
+
+        this( embeddingCacheService, capacity, batchSize, idBlockSize, retryDelayMs );
+    }
+
+    EmbeddingWriteBehindQueue( EmbeddingCacheService embeddingCacheService, int capacity, int batchSize,
+                               int idBlockSize, long retryDelayMs )
+    {
+        if ( embeddingCacheService == null )
+            throw new IllegalArgumentException( "Embedding cache service must not be null." );
+        if ( capacity < 1 ) throw new IllegalArgumentException( "Capacity must be positive." );
+        if ( batchSize < 1 ) throw new IllegalArgumentException( "Batch size must be positive." );
+        if ( idBlockSize < 1 ) throw new IllegalArgumentException( "ID block size must be positive." );
+        if ( retryDelayMs < 1 ) throw new IllegalArgumentException( "Retry delay must be positive." );
+
+        this.embeddingCacheService = embeddingCacheService;
+        this.batchSize             = batchSize;
+        this.idBlockSize           = idBlockSize;
+        this.retryDelayMs          = retryDelayMs;
+        this.queue                 = new ArrayBlockingQueue<>( capacity );
+        this.pendingEmbeddings     = new ConcurrentHashMap<>();
+        this.unwrittenWrites       = new ArrayList<>();
+        this.droppedWriteException = new AtomicReference<>();
+        this.thread                = new Thread( this::writeLoop, "embedding-write-behind" );
+
+        this.thread.setDaemon( true );
+        this.thread.start();
+    }
+
+    Embedding get( String input )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+        return this.pendingEmbeddings.get( input );
+    }
+
+    Embedding add( String input, ImmutableFloatArray vector )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+
+        Embedding embedding;
+
+        synchronized ( this )
+        {
+            if ( this.closed ) throw new IllegalStateException( "Write-behind queue is closed." );
+
+            Embedding pendingEmbedding = this.pendingEmbeddings.get( input );
+            if ( pendingEmbedding != null ) return pendingEmbedding;
+
+            embedding = new Embedding( this.reserveId(), vector );
+            this.pendingEmbeddings.put( input, embedding );
+            this.activePuts++;
+        }
+
+        // a full queue blocks the caller outside the lock, which bounds the memory held by unwritten embeddings
+        try { this.put( new Write( input, embedding )); }
+        catch ( RuntimeException e )
+        {
+            this.pendingEmbeddings.remove( input, embedding );
+            throw e;
+        }
+        finally { this.endPut(); }
+
+        return embedding;
+    }
+
+    void flush()
+    {
+        CountDownLatch flushSignal = new CountDownLatch( 1 );
+
+        synchronized ( this )
+        {
+            if ( this.closed ) throw new IllegalStateException( "Write-behind queue is closed." );
+            this.activePuts++;
+        }
+
+        // the signal is queued behind every earlier write, so it is released once they have all been attempted
+        try { this.put( new Write( null, null, flushSignal )); }
+        finally { this.endPut(); }
+
+        try { flushSignal.await(); }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new OmegaCodexException( e );
+        }
+
+        this.checkException();
+    }
+
+    Map< String, Embedding > addAll( Map< String, ImmutableFloatArray > vectors )
+    {
+        if ( vectors == null ) throw new IllegalArgumentException( "Vectors must not be null." );
+
+        Map< String, Embedding > embeddings = new LinkedHashMap<>();
+        vectors.forEach( ( input, vector ) -> embeddings.put( input, this.add( input, vector )));
+        return embeddings;
+    }
+
+    int getPendingCount()
+    {
+        return this.pendingEmbeddings.size();
+    }
+
+    public void close()
+    {
+        boolean signal;
+
+        try
+        {
+            synchronized ( this )
+            {
+                signal = !this.closed;
+                this.closed = true;
+
+                // puts that passed the closed check must reach the queue before the close signal does
+                while ( this.activePuts > 0 ) this.wait();
+            }
+
+            if ( signal ) this.put( closeSignal );
+            this.thread.join();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new OmegaCodexException( e );
+        }
+
+        // the writer thread has finished, so a write that is still failing will not be retried again
+        RuntimeException exception = this.droppedWriteException.getAndSet( null );
+        if ( exception == null ) exception = this.retryException;
+        this.retryException = null;
+        if ( exception != null ) throw new OmegaCodexException( "Failed to write embeddings.", exception );
+    }
+
+    private synchronized void endPut()
+    {
+        this.activePuts--;
+        if ( this.activePuts == 0 ) this.notifyAll();
+    }
+
+    // a dropped write is reported once, while a write that is still being retried is reported until it succeeds
+    private void checkException()
+    {
+        RuntimeException exception = this.droppedWriteException.getAndSet( null );
+        if ( exception == null ) exception = this.retryException;
+        if ( exception != null ) throw new OmegaCodexException( "Failed to write embeddings.", exception );
+    }
+
+    private long reserveId()
+    {
+        if ( this.nextId >= this.idLimit )
+        {
+            this.nextId  = this.embeddingCacheService.reserveIds( this.idBlockSize );
+            this.idLimit = this.nextId + this.idBlockSize;
+        }
+
+        return this.nextId++;
+    }
+
+    private void put( Write write )
+    {
+        try { this.queue.put( write ); }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new OmegaCodexException( e );
+        }
+    }
+
+    private void writeLoop()
+    {
+        List< Write > batch = new ArrayList<>();
+        boolean closing = false;
+
+        while ( !closing )
+        {
+            try
+            {
+                // failed writes are retried on a timer, so they never wait for another add to arrive
+                Write write = this.unwrittenWrites.isEmpty()
+                        ? this.queue.take() : this.queue.poll( this.retryDelayMs, TimeUnit.MILLISECONDS );
+                if ( write != null ) batch.add( write );
+            }
+            catch ( InterruptedException e ) { return; }
+
+            this.queue.drainTo( batch, this.batchSize - 1 );
+
+            closing = batch.remove( closeSignal );
+
+            List< Write > flushSignals = batch.stream().filter( write -> write.flushSignal() != null ).toList();
+            batch.removeAll( flushSignals );
+
+            if ( !batch.isEmpty() || !this.unwrittenWrites.isEmpty() ) this.write( batch );
+            flushSignals.forEach( write -> write.flushSignal().countDown() );
+            batch.clear();
+        }
+
+        // a batch that failed along with the close signal still gets one more attempt
+        if ( !this.unwrittenWrites.isEmpty() ) this.write( batch );
+    }
+
+    private void write( List< Write > batch )
+    {
+        // writes from a failed batch are retried ahead of the new ones, and stay pending until they succeed
+        Map< String, Embedding > embeddings = new LinkedHashMap<>();
+        for ( Write write : this.unwrittenWrites ) embeddings.put( write.input(), write.embedding() );
+        for ( Write write : batch ) embeddings.put( write.input(), write.embedding() );
+
+        try { this.embeddingCacheService.cacheReservedEmbeddings( embeddings ); }
+        catch ( IllegalArgumentException e )
+        {
+            // an invalid write fails the same way every time, so it is dropped and reported instead of retried
+            embeddings.keySet().forEach( this.pendingEmbeddings::remove );
+            this.unwrittenWrites.clear();
+            this.retryException = null;
+
+            RuntimeException droppedWriteException = this.droppedWriteException.compareAndExchange( null, e );
+            if ( droppedWriteException != null && droppedWriteException != e ) droppedWriteException.addSuppressed( e );
+            return;
+        }
+        catch ( RuntimeException e )
+        {
+            this.unwrittenWrites.addAll( batch );
+            this.retryException = e;
+            return;
+        }
+
+        // entries leave the pending map only once they are committed, so lookups never miss them in between
+        embeddings.keySet().forEach( this.pendingEmbeddings::remove );
+        this.unwrittenWrites.clear();
+        this.retryException = null;
+    }
+}
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -47,6 +47,14 @@ class Environment
         return result;
     }
 
+    int getInt( String name, int defaultValue )
+    {
+        if ( name == null ) throw new IllegalArgumentException( "Name must not be null." );
+
+        if ( this.dotenv.get( name ) == null ) return defaultValue;
+        return this.getInt( name );
+    }
+
     int getInt( String name )
     {
         String value = this.getString( name );
@@ -0,0 +1,99 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+class FrequencySketch
+{
+    private static final long[] seeds =
+            { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    private static final int maximumCount = 15;
+
+    private final int    width;
+    private final byte[] table;
+    private final int    sampleSize;
+
+    private int additions;
+
+    FrequencySketch( int expectedSize )
+    {
+        if ( expectedSize <= 0 ) throw new IllegalArgumentException( "Expected size must be positive." );
+
+        int width = Integer.highestOneBit( Math.clamp( expectedSize, 256, 1 << 24 ));
+        if ( width < expectedSize ) width <<= 1;
+
+        this.width      = width;
+        this.table      = new byte[ seeds.length * width ];
+        this.sampleSize = 10 * width;
+    }
+
+    void increment( Object key )
+    {
+        int hash = this.spread( key.hashCode() );
+        boolean added = false;
+
+        for ( int row = 0; row < seeds.length; row++ )
+        {
+            int index = this.indexOf( hash, row );
+            if ( this.table[ index ] < maximumCount )
+            {
+                this.table[ index ]++;
+                added = true;
+            }
+        }
+
+        if ( added && ( ++this.additions >= this.sampleSize )) this.reset();
+    }
+
+    int frequency( Object key )
+    {
+        int hash = this.spread( key.hashCode() );
+        int frequency = maximumCount;
+
+        for ( int row = 0; row < seeds.length; row++ )
+        {
+            frequency = Math.min( frequency, this.table[ this.indexOf( hash, row ) ] );
+        }
+
+        return frequency;
+    }
+
+    private void reset()
+    {
+        for ( int i = 0; i < this.table.length; i++ ) this.table[ i ] >>= 1;
+        this.additions >>>= 1;
+    }
+
+    private int indexOf( int hash, int row )
+    {
+        long value = ( hash + seeds[ row ] ) * seeds[ row ];
+        value += value >>> 32;
+        return ( row * this.width ) + ((int) value & ( this.width - 1 ));
+    }
+
+    private int spread( int hash )
+    {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        hash *= 0xac4c1b51;
+        hash ^= hash >>> 15;
+        return hash;
+    }
+}
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -21,41 +21,31 @@ package io.github.jjweston.omegacodex;
 import java.net.URI;
 import java.net.http.HttpRequest;
 
+// immutable, so that one instance holding the common headers can build requests for many threads at once
 class HttpRequestBuilder
 {
-    private HttpRequest.Builder builder;
+    private final HttpRequest.Builder template;
 
     HttpRequestBuilder()
     {
-        this.builder = HttpRequest.newBuilder();
+        this( HttpRequest.newBuilder() );
     }
 
-    HttpRequestBuilder reset()
+    private HttpRequestBuilder( HttpRequest.Builder template )
     {
-        this.builder = HttpRequest.newBuilder();
-        return this;
-    }
-
-    HttpRequestBuilder uri( String uri )
-    {
-        this.builder.uri( URI.create( uri ));
-        return this;
+        this.template = template;
     }
 
     HttpRequestBuilder header( String name, String value )
     {
-        this.builder.header( name, value );
-        return this;
-    }
-
-    HttpRequestBuilder POST( String body )
-    {
-        this.builder.POST( HttpRequest.BodyPublishers.ofString( body ));
-        return this;
+        return new HttpRequestBuilder( this.template.copy().header( name, value ));
     }
 
-    HttpRequest build()
+    HttpRequest POST( String uri, String body )
     {
-        return this.builder.build();
+        return this.template.copy()
+                .uri( URI.create( uri ))
+                .POST( HttpRequest.BodyPublishers.ofString( body ))
+                .build();
     }
 }
@@ -0,0 +1,126 @@
+/*
+
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+class ImmutableFloatArray
+{
+    private static final VectorTextCodec vectorTextCodec = new VectorTextCodec();
+
+    private final float[] array;
+
+    // cached like String.hashCode(); a racy recompute yields the same value, so no synchronization is needed
+    private int     hash;
+    private boolean hashIsZero;
+
+    ImmutableFloatArray( float[] array )
+    {
+        if ( array == null ) throw new IllegalArgumentException( "Array must not be null." );
+
+        this( array, true );
+    }
+
+    private ImmutableFloatArray( float[] array, boolean copy )
+    {
+        this.array = copy ? Arrays.copyOf( array, array.length ) : array;
+    }
+
+    ImmutableFloatArray( FloatBuffer buffer )
+    {
+        if ( buffer == null ) throw new IllegalArgumentException( "Buffer must not be null." );
+
+        this.array = new float[ buffer.remaining() ];
+        buffer.get( buffer.position(), this.array );
+    }
+
+    ImmutableFloatArray( MemorySegment segment )
+    {
+        if ( segment == null ) throw new IllegalArgumentException( "Segment must not be null." );
+
+        this.array = segment.toArray( ValueLayout.JAVA_FLOAT );
+    }
+
+    ImmutableFloatArray( String string )
+    {
+        if ( string == null ) throw new IllegalArgumentException( "String must not be null." );
+
+        this.array = vectorTextCodec.decode( string );
+    }
+
+    // the caller hands over a freshly built array and must not keep or modify it
+    static ImmutableFloatArray wrap( float[] array )
+    {
+        if ( array == null ) throw new IllegalArgumentException( "Array must not be null." );
+        return new ImmutableFloatArray( array, false );
+    }
+
+    public boolean equals( Object obj )
+    {
+        if ( this == obj ) return true;
+        if ( ! ( obj instanceof ImmutableFloatArray other )) return false;
+        if ( this.hash != 0 && other.hash != 0 && this.hash != other.hash ) return false;
+        return Arrays.equals( this.array, other.array );
+    }
+
+    public int hashCode()
+    {
+        int hash = this.hash;
+        if ( hash == 0 && !this.hashIsZero )
+        {
+            hash = Arrays.hashCode( this.array );
+            if ( hash == 0 ) this.hashIsZero = true;
+            else this.hash = hash;
+        }
+        return hash;
+    }
+
+    int length()
+    {
+        return array.length;
+    }
+
+    float get( int index )
+    {
+        return this.array[ index ];
+    }
+
+    public String toString()
+    {
+        return vectorTextCodec.encode( this );
+    }
+
+    FloatBuffer asFloatBuffer()
+    {
+        return FloatBuffer.wrap( this.array ).asReadOnlyBuffer();
+    }
+
+    MemorySegment asMemorySegment()
+    {
+        return MemorySegment.ofArray( this.array ).asReadOnly();
+    }
+
+    float[] getArray()
+    {
+        return Arrays.copyOf( this.array, this.array.length );
+    }
+}
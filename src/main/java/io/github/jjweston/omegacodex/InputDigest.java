@@ -0,0 +1,48 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+class InputDigest
+{
+    private final String algorithm;
+    private final int    length;
+
+    InputDigest()
+    {
+        this.algorithm = "SHA-256";
+        this.length    = 16;
+    }
+
+    byte[] digest( String input )
+    {
+        if ( input == null ) throw new IllegalArgumentException( "Input must not be null." );
+
+        MessageDigest messageDigest;
+        try { messageDigest = MessageDigest.getInstance( this.algorithm ); }
+        catch ( NoSuchAlgorithmException e ) { throw new OmegaCodexException( "Failed to create input digest.", e ); }
+
+        byte[] digest = messageDigest.digest( input.getBytes( StandardCharsets.UTF_8 ));
+        return Arrays.copyOf( digest, this.length );
+    }
+}
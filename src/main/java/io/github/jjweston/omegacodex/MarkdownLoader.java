@@ -47,6 +47,7 @@ class MarkdownLoader
         if ( path == null ) throw new IllegalArgumentException( "Path must not be null." );
 
         List< String > chunks = this.markdownSplitter.split( path );
-        for ( String chunk : chunks ) this.qdrantService.upsert( this.embeddingService.getEmbedding( chunk ));
+        List< Embedding > embeddings = this.embeddingService.getEmbeddings( chunks );
+        for ( Embedding embedding : embeddings ) this.qdrantService.upsert( embedding );
     }
 }
@@ -18,10 +18,19 @@ limitations under the License.
 
 package io.github.jjweston.omegacodex;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 class OmegaCodexUtil
 {
     OmegaCodexUtil() {}
 
+    long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
     long nanoTime()
     {
         return System.nanoTime();
@@ -36,4 +45,9 @@ class OmegaCodexUtil
     {
         Thread.sleep( millis );
     }
+
+    Executor delayedExecutor( long millis )
+    {
+        return CompletableFuture.delayedExecutor( millis, TimeUnit.MILLISECONDS );
+    }
 }
@@ -19,7 +19,10 @@ limitations under the License.
 package io.github.jjweston.omegacodex;
 
 import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
 import tools.jackson.core.JsonPointer;
+import tools.jackson.core.filter.FilteringParserDelegate;
+import tools.jackson.core.filter.TokenFilter;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.ArrayNode;
@@ -27,54 +30,270 @@ import tools.jackson.databind.node.ObjectNode;
 import tools.jackson.dataformat.yaml.YAMLMapper;
 import tools.jackson.dataformat.yaml.YAMLWriteFeature;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 class OpenAiApiCaller
 {
-    private final String             apiKeyVarName;
-    private final Environment        environment;
-    private final HttpRequestBuilder httpRequestBuilder;
-    private final HttpClient         httpClient;
-    private final OmegaCodexLogger   omegaCodexLogger;
-    private final TaskRunner         taskRunner;
-    private final ObjectMapper       objectMapper;
-    private final ObjectMapper       yamlObjectMapper;
+    private record ApiRequest( HttpRequest httpRequest, long estimatedTokens ) {}
+    private record ApiResponse( int statusCode, HttpHeaders headers, JsonNode responseNode ) {}
+
+    private final HttpRequestBuilder     httpRequestBuilder;
+    private final HttpClient             httpClient;
+    private final OmegaCodexLogger       omegaCodexLogger;
+    private final TaskRunner             taskRunner;
+    private final ApiRateLimiter         apiRateLimiter;
+    private final ApiScheduler           apiScheduler;
+    private final ApiPriority            apiPriority;
+    private final ObjectMapper           objectMapper;
+    private final ObjectMapper           yamlObjectMapper;
 
     OpenAiApiCaller()
     {
+        Environment environment       = new Environment();
+        int         requestsPerMinute = environment.getInt( "OMEGACODEX_OPENAI_REQUESTS_PER_MINUTE", 500 );
+        int         tokensPerMinute   = environment.getInt( "OMEGACODEX_OPENAI_TOKENS_PER_MINUTE", 500_000 );
+        int         maxInFlight       = 16;
+        int         reservedPermits   = 4;
+
         this( "OMEGACODEX_OPENAI_API_KEY",
-              new Environment(),
+              environment,
               new HttpRequestBuilder(),
               HttpClient.newHttpClient(),
               new OmegaCodexLogger(),
-              new TaskRunner( 200 ));
+              new TaskRunner( 0, maxInFlight, reservedPermits ),
+              new ApiRateLimiter(),
+              new ApiScheduler( new TokenBucketRateLimiter( requestsPerMinute, tokensPerMinute )),
+              ApiPriority.INTERACTIVE );
     }
 
     OpenAiApiCaller( String apiKeyVarName, Environment environment, HttpRequestBuilder httpRequestBuilder,
-                     HttpClient httpClient, OmegaCodexLogger omegaCodexLogger, TaskRunner taskRunner )
-    {
-        this.apiKeyVarName      = apiKeyVarName;
-        this.environment        = environment;
-        this.httpRequestBuilder = httpRequestBuilder;
-        this.httpClient         = httpClient;
-        this.omegaCodexLogger   = omegaCodexLogger;
-        this.taskRunner         = taskRunner;
-        this.objectMapper       = new ObjectMapper();
-        this.yamlObjectMapper   = YAMLMapper.builder()
+                     HttpClient httpClient, OmegaCodexLogger omegaCodexLogger, TaskRunner taskRunner,
+                     ApiRateLimiter apiRateLimiter, ApiScheduler apiScheduler, ApiPriority apiPriority )
+    {
+        // the common headers are set once, every request then starts from a copy of them
+        this.httpRequestBuilder     = httpRequestBuilder
+                .header( "Content-Type", "application/json" )
+                .header( "Authorization", "Bearer " + environment.getString( apiKeyVarName ));
+        this.httpClient             = httpClient;
+        this.omegaCodexLogger       = omegaCodexLogger;
+        this.taskRunner             = taskRunner;
+        this.apiRateLimiter         = apiRateLimiter;
+        this.apiScheduler           = apiScheduler;
+        this.apiPriority            = apiPriority;
+        this.objectMapper           = new ObjectMapper();
+        this.yamlObjectMapper       = YAMLMapper.builder()
                 .disable( YAMLWriteFeature.WRITE_DOC_START_MARKER )
                 .enable( YAMLWriteFeature.LITERAL_BLOCK_STYLE )
                 .enable( YAMLWriteFeature.SPLIT_LINES )
                 .build();
     }
 
+    private OpenAiApiCaller( OpenAiApiCaller openAiApiCaller, ApiPriority apiPriority )
+    {
+        this.httpRequestBuilder     = openAiApiCaller.httpRequestBuilder;
+        this.httpClient             = openAiApiCaller.httpClient;
+        this.omegaCodexLogger       = openAiApiCaller.omegaCodexLogger;
+        this.taskRunner             = openAiApiCaller.taskRunner;
+        this.apiRateLimiter         = openAiApiCaller.apiRateLimiter;
+        this.apiScheduler           = openAiApiCaller.apiScheduler;
+        this.apiPriority            = apiPriority;
+        this.objectMapper           = openAiApiCaller.objectMapper;
+        this.yamlObjectMapper       = openAiApiCaller.yamlObjectMapper;
+    }
+
+    OpenAiApiCaller withPriority( ApiPriority apiPriority )
+    {
+        if ( apiPriority == null ) throw new IllegalArgumentException( "API priority must not be null." );
+        if ( apiPriority == this.apiPriority ) return this;
+
+        // the copy shares the HTTP client and every limit, only its place in the queue differs
+        return new OpenAiApiCaller( this, apiPriority );
+    }
+
+    ApiPriority getPriority()
+    {
+        return this.apiPriority;
+    }
+
     JsonNode getResponse( String taskName, String apiEndpoint, ObjectNode requestNode, String startMessage,
                           boolean logApiSummary, boolean logApiDetails,
-                          List< Pattern > embeddedJsonPatterns, Map< String, Integer > arraysToTrim )
+                          List< Pattern > embeddedJsonPatterns, Map< String, Integer > arraysToTrim,
+                          Set< String > responseFields )
+    {
+        ApiRequest  apiRequest = this.createRequest(
+                taskName, apiEndpoint, requestNode, logApiDetails, embeddedJsonPatterns, arraysToTrim );
+        HttpRequest request    = apiRequest.httpRequest();
+
+        for ( int attempt = 1; ; attempt++ )
+        {
+            this.apiScheduler.schedule( this.apiPriority, apiRequest.estimatedTokens() ).join();
+            this.taskRunner.sleep( taskName, logApiSummary, this.apiRateLimiter.getDelayMs() );
+
+            ApiResponse apiResponse;
+
+            if ( logApiDetails )
+            {
+                HttpResponse< String > response = this.send( taskName, apiRequest, () -> this.taskRunner.get(
+                        taskName, startMessage, logApiSummary, this.apiPriority,
+                        () -> this.httpClient.send( request, HttpResponse.BodyHandlers.ofString() )));
+
+                apiResponse = new ApiResponse( response.statusCode(), response.headers(),
+                                               this.parseResponse( taskName, response.statusCode(), response.body() ));
+            }
+            else
+            {
+                HttpResponse< InputStream > response = this.send( taskName, apiRequest, () -> this.taskRunner.get(
+                        taskName, startMessage, logApiSummary, this.apiPriority,
+                        () -> this.httpClient.send( request, HttpResponse.BodyHandlers.ofInputStream() )));
+
+                apiResponse = new ApiResponse( response.statusCode(), response.headers(), this.parseResponse(
+                        taskName, response.statusCode(), response.body(), responseFields ));
+            }
+
+            if ( !this.shouldRetry( taskName, apiRequest, apiResponse, attempt, logApiSummary, logApiDetails,
+                                    embeddedJsonPatterns, arraysToTrim ))
+            {
+                return this.checkResponse( taskName, apiResponse );
+            }
+        }
+    }
+
+    CompletableFuture< JsonNode > getResponseAsync(
+            String taskName, String apiEndpoint, ObjectNode requestNode, String startMessage,
+            boolean logApiSummary, boolean logApiDetails,
+            List< Pattern > embeddedJsonPatterns, Map< String, Integer > arraysToTrim, Set< String > responseFields )
+    {
+        ApiRequest apiRequest = this.createRequest(
+                taskName, apiEndpoint, requestNode, logApiDetails, embeddedJsonPatterns, arraysToTrim );
+
+        return this.getResponseAsync( taskName, apiRequest, startMessage, logApiSummary, logApiDetails,
+                                      embeddedJsonPatterns, arraysToTrim, responseFields, 1 );
+    }
+
+    private CompletableFuture< JsonNode > getResponseAsync(
+            String taskName, ApiRequest apiRequest, String startMessage, boolean logApiSummary, boolean logApiDetails,
+            List< Pattern > embeddedJsonPatterns, Map< String, Integer > arraysToTrim, Set< String > responseFields,
+            int attempt )
+    {
+        HttpRequest request = apiRequest.httpRequest();
+
+        CompletableFuture< Void > scheduled = this.apiScheduler
+                .schedule( this.apiPriority, apiRequest.estimatedTokens() )
+                .thenCompose( _ -> this.taskRunner.delayAsync(
+                        taskName, logApiSummary, this.apiRateLimiter.getDelayMs() ));
+
+        CompletableFuture< ApiResponse > future;
+
+        if ( logApiDetails )
+        {
+            future = scheduled
+                    .thenCompose( _ -> this.taskRunner.getAsync(
+                            taskName, startMessage, logApiSummary, this.apiPriority,
+                            () -> this.httpClient.sendAsync( request, HttpResponse.BodyHandlers.ofString() )))
+                    .whenComplete( ( _, throwable ) -> this.releaseFailedAttempt( apiRequest, throwable ))
+                    .thenApply( response -> new ApiResponse( response.statusCode(), response.headers(),
+                            this.parseResponse( taskName, response.statusCode(), response.body() )));
+        }
+        else
+        {
+            // the body is buffered as bytes here, since reading a stream would block the completing thread
+            future = scheduled
+                    .thenCompose( _ -> this.taskRunner.getAsync(
+                            taskName, startMessage, logApiSummary, this.apiPriority,
+                            () -> this.httpClient.sendAsync( request, HttpResponse.BodyHandlers.ofByteArray() )))
+                    .whenComplete( ( _, throwable ) -> this.releaseFailedAttempt( apiRequest, throwable ))
+                    .thenApply( response -> new ApiResponse( response.statusCode(), response.headers(),
+                            this.parseResponse( taskName, response.statusCode(),
+                                                new ByteArrayInputStream( response.body() ), responseFields )));
+        }
+
+        return future.thenCompose( apiResponse ->
+        {
+            if ( this.shouldRetry( taskName, apiRequest, apiResponse, attempt, logApiSummary, logApiDetails,
+                                   embeddedJsonPatterns, arraysToTrim ))
+            {
+                return this.getResponseAsync( taskName, apiRequest, startMessage, logApiSummary, logApiDetails,
+                                              embeddedJsonPatterns, arraysToTrim, responseFields, attempt + 1 );
+            }
+
+            return CompletableFuture.completedFuture( this.checkResponse( taskName, apiResponse ));
+        });
+    }
+
+    private boolean shouldRetry( String taskName, ApiRequest apiRequest, ApiResponse apiResponse, int attempt,
+                                 boolean logApiSummary, boolean logApiDetails,
+                                 List< Pattern > embeddedJsonPatterns, Map< String, Integer > arraysToTrim )
+    {
+        this.apiRateLimiter.update( apiResponse.headers() );
+
+        // settle the reservation against the real usage when the response reports it, and give it back on errors
+        JsonNode totalTokensNode = apiResponse.responseNode().path( "usage" ).path( "total_tokens" );
+        if ( totalTokensNode.isNumber() )
+        {
+            long actualTokens = Math.max( 0, totalTokensNode.longValue() );
+            this.apiScheduler.complete( apiRequest.estimatedTokens(), actualTokens );
+        }
+        else if ( apiResponse.statusCode() != 200 ) this.apiScheduler.complete( apiRequest.estimatedTokens(), 0 );
+
+        if ( logApiDetails )
+        {
+            String debugResponseString = this.yamlObjectMapper.writer().writeValueAsString( this.prepareJsonForLogging(
+                    JsonPointer.compile( "/response" ), apiResponse.responseNode(), embeddedJsonPatterns,
+                    arraysToTrim ));
+
+            this.omegaCodexLogger.println( "----------------------------------------------------------------------" );
+            this.omegaCodexLogger.println( "Status Code: " + apiResponse.statusCode() );
+            this.omegaCodexLogger.println( "Response:" );
+            this.omegaCodexLogger.println( debugResponseString );
+            this.omegaCodexLogger.println( "----------------------------------------------------------------------" );
+        }
+
+        if ( !this.apiRateLimiter.isRetryable( apiResponse.statusCode(), apiResponse.responseNode(), attempt ))
+        {
+            return false;
+        }
+
+        long delayMs = this.apiRateLimiter.backOff( attempt, apiResponse.headers() );
+
+        if ( logApiSummary )
+        {
+            this.omegaCodexLogger.println( String.format( "%s, Retrying, Status Code: %d, Attempt: %,d, Delay: %,d ms",
+                                                          taskName, apiResponse.statusCode(), attempt, delayMs ));
+        }
+
+        return true;
+    }
+
+    private < T > T send( String taskName, ApiRequest apiRequest, Supplier< T > sender )
+    {
+        try { return sender.get(); }
+        catch ( RuntimeException e )
+        {
+            this.releaseFailedAttempt( apiRequest, e );
+            throw e;
+        }
+    }
+
+    private void releaseFailedAttempt( ApiRequest apiRequest, Throwable throwable )
+    {
+        if ( throwable != null ) this.apiScheduler.complete( apiRequest.estimatedTokens(), 0 );
+    }
+
+    private ApiRequest createRequest( String taskName, String apiEndpoint, ObjectNode requestNode,
+                                       boolean logApiDetails, List< Pattern > embeddedJsonPatterns,
+                                       Map< String, Integer > arraysToTrim )
     {
         if ( taskName == null ) throw new IllegalArgumentException( "Task name must not be null." );
         if ( apiEndpoint == null ) throw new IllegalArgumentException( "API endpoint must not be null." );
@@ -93,49 +312,84 @@ class OpenAiApiCaller
             this.omegaCodexLogger.println( "----------------------------------------------------------------------" );
         }
 
-        HttpRequest request = this.httpRequestBuilder.reset()
-                .uri( apiEndpoint )
-                .header( "Content-Type", "application/json" )
-                .header( "Authorization", "Bearer " + this.environment.getString( this.apiKeyVarName ))
-                .POST( requestString )
-                .build();
+        HttpRequest request = this.httpRequestBuilder.POST( apiEndpoint, requestString );
 
-        HttpResponse< String > response = this.taskRunner.get( taskName, startMessage, logApiSummary,
-                () -> this.httpClient.send( request, HttpResponse.BodyHandlers.ofString() ));
+        // roughly four characters of JSON per token, corrected once the response reports its usage
+        long estimatedTokens = ( requestString.length() + 3 ) / 4;
 
-        int statusCode = response.statusCode();
-        String responseString = response.body();
+        return new ApiRequest( request, estimatedTokens );
+    }
 
-        JsonNode responseNode;
-        try { responseNode = this.objectMapper.readTree( responseString ); }
+    private JsonNode parseResponse( String taskName, int statusCode, String responseString )
+    {
+        try { return this.objectMapper.readTree( responseString ); }
         catch ( JacksonException e )
         {
+            // a proxy error page is not JSON, but its status code alone is enough to decide on a retry
+            if ( ApiRateLimiter.isRetryableStatus( statusCode )) return this.objectMapper.createObjectNode();
             throw new OmegaCodexException(
                     String.format( "%s, Failed to deserialize response. Status Code: %d, Response:%n%s",
                                    taskName, statusCode, responseString ), e );
         }
+    }
 
-        if ( logApiDetails )
+    private JsonNode parseResponse( String taskName, int statusCode, InputStream responseStream,
+                                    Set< String > responseFields )
+    {
+        try ( responseStream ) { return this.readResponse( responseStream, responseFields ); }
+        catch ( JacksonException e )
         {
-            String debugResponseString = this.yamlObjectMapper.writer().writeValueAsString( this.prepareJsonForLogging(
-                    JsonPointer.compile( "/response" ), responseNode, embeddedJsonPatterns, arraysToTrim ));
-
-            this.omegaCodexLogger.println( "----------------------------------------------------------------------" );
-            this.omegaCodexLogger.println( "Status Code: " + statusCode );
-            this.omegaCodexLogger.println( "Response:" );
-            this.omegaCodexLogger.println( debugResponseString );
-            this.omegaCodexLogger.println( "----------------------------------------------------------------------" );
+            if ( ApiRateLimiter.isRetryableStatus( statusCode )) return this.objectMapper.createObjectNode();
+            throw new OmegaCodexException( String.format(
+                    "%s, Failed to deserialize response. Status Code: %d", taskName, statusCode ), e );
         }
+        catch ( IOException e )
+        {
+            throw new OmegaCodexException( String.format(
+                    "%s, Failed to read response. Status Code: %d", taskName, statusCode ), e );
+        }
+    }
+
+    private JsonNode checkResponse( String taskName, ApiResponse apiResponse )
+    {
+        int statusCode = apiResponse.statusCode();
 
         if ( statusCode != 200 )
         {
-            String errorMessage = responseNode.path( "error" ).path( "message" ).asString();
+            String errorMessage = apiResponse.responseNode().path( "error" ).path( "message" ).asString();
             String exceptionMessage = taskName + ", Error Returned, Status Code: " + statusCode;
             if ( !errorMessage.isEmpty() ) exceptionMessage += ", Error Message: " + errorMessage;
             throw new OmegaCodexException( exceptionMessage );
         }
 
-        return responseNode;
+        return apiResponse.responseNode();
+    }
+
+    private JsonNode readResponse( InputStream responseStream, Set< String > responseFields )
+    {
+        if ( responseFields == null ) return this.objectMapper.readTree( responseStream );
+
+        // skip unneeded top-level fields while parsing, but always keep the error details and usage
+        TokenFilter responseFilter = new TokenFilter()
+        {
+            @Override
+            public TokenFilter includeProperty( String name )
+            {
+                if ( name.equals( "error" ) || name.equals( "usage" ) || responseFields.contains( name ))
+                {
+                    return TokenFilter.INCLUDE_ALL;
+                }
+                return null;
+            }
+        };
+
+        try ( JsonParser parser = new FilteringParserDelegate( this.objectMapper.createParser( responseStream ),
+                responseFilter, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true ))
+        {
+            JsonNode responseNode = this.objectMapper.readTree( parser );
+            boolean  emptyResult  = ( responseNode == null ) || ( responseNode.isMissingNode() );
+            return emptyResult ? this.objectMapper.createObjectNode() : responseNode;
+        }
     }
 
     private JsonNode prepareJsonForLogging(
@@ -0,0 +1,94 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+class PreparedStatementCache implements AutoCloseable
+{
+    private record StatementKey( String sql, int autoGeneratedKeys ) {}
+
+    private final Connection                            connection;
+    private final Map< StatementKey, PreparedStatement > statements;
+
+    PreparedStatementCache( Connection connection )
+    {
+        if ( connection == null ) throw new IllegalArgumentException( "Connection must not be null." );
+
+        this.connection = connection;
+        this.statements = new HashMap<>();
+    }
+
+    PreparedStatement prepare( String sql ) throws SQLException
+    {
+        return this.prepare( sql, Statement.NO_GENERATED_KEYS );
+    }
+
+    PreparedStatement prepare( String sql, int autoGeneratedKeys ) throws SQLException
+    {
+        if ( sql == null ) throw new IllegalArgumentException( "SQL must not be null." );
+
+        StatementKey key = new StatementKey( sql, autoGeneratedKeys );
+        PreparedStatement statement = this.statements.get( key );
+
+        if ( statement != null )
+        {
+            statement.clearParameters();
+            return statement;
+        }
+
+        statement = autoGeneratedKeys == Statement.NO_GENERATED_KEYS ?
+                this.connection.prepareStatement( sql ) :
+                this.connection.prepareStatement( sql, autoGeneratedKeys );
+        this.statements.put( key, statement );
+        return statement;
+    }
+
+    int size()
+    {
+        return this.statements.size();
+    }
+
+    public void close()
+    {
+        OmegaCodexException exception = null;
+
+        for ( PreparedStatement statement : this.statements.values() )
+        {
+            try { statement.close(); }
+            catch ( SQLException e )
+            {
+                if ( exception == null )
+                {
+                    exception = new OmegaCodexException( "Failed to close prepared statement.", e );
+                }
+                else exception.addSuppressed( e );
+            }
+        }
+
+        this.statements.clear();
+
+        if ( exception != null ) throw exception;
+    }
+}
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -41,13 +41,14 @@ class Qdrant
         String queryString = "What does Sally sell?";
 
         SQLiteConnectionFactory sqLiteConnectionFactory = new SQLiteConnectionFactory();
+        OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
+        EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
+        EmbeddingModel embeddingModel = embeddingApiService.getEmbeddingModel();
 
         try ( Connection connection = sqLiteConnectionFactory.create();
-              QdrantService qdrantService = new QdrantService() )
+              QdrantService qdrantService = new QdrantService( embeddingModel );
+              EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection, embeddingModel ) )
         {
-            OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
-            EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection );
-            EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
             EmbeddingService embeddingService = new EmbeddingService( embeddingCacheService, embeddingApiService );
 
             for ( String inputString : inputStrings )
@@ -21,9 +21,12 @@ package io.github.jjweston.omegacodex;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.VectorsFactory;
 import io.qdrant.client.grpc.Collections;
+import io.qdrant.client.grpc.Common;
 import io.qdrant.client.grpc.Points;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static io.qdrant.client.PointIdFactory.id;
 import static io.qdrant.client.QueryFactory.nearest;
@@ -32,14 +35,17 @@ class QdrantService implements AutoCloseable
 {
     private final String       collectionName;
     private final int          collectionSize;
+    private final int          scrollLimit;
     private final boolean      logSummary;
     private final TaskRunner   taskRunner;
     private final QdrantClient qdrantClient;
 
-    QdrantService()
+    QdrantService( EmbeddingModel embeddingModel )
     {
+        if ( embeddingModel == null ) throw new IllegalArgumentException( "Embedding model must not be null." );
+
         String              collectionName      = "omegacodex_chunks";
-        int                 collectionSize      = 1_536;
+        int                 collectionSize      = embeddingModel.dimensions();
         boolean             logSummary          = false;
         TaskRunner          taskRunner          = new TaskRunner( 200 );
         QdrantClientFactory qdrantClientFactory = new QdrantClientFactory();
@@ -52,6 +58,7 @@ class QdrantService implements AutoCloseable
     {
         this.collectionName = collectionName;
         this.collectionSize = collectionSize;
+        this.scrollLimit    = 1_000;
         this.logSummary     = logSummary;
         this.taskRunner     = taskRunner;
         this.qdrantClient   = qdrantClientFactory.create();
@@ -80,7 +87,8 @@ class QdrantService implements AutoCloseable
 
         Points.PointStruct point = Points.PointStruct.newBuilder()
                 .setId( id( embedding.id() ))
-                .setVectors( VectorsFactory.vectors( embedding.vector().toFloatArray() ))
+                .setVectors( VectorsFactory.vectors(
+                        Points.Vector.newBuilder().setDense( this.createDenseVector( embedding.vector() )).build() ))
                 .build();
 
         this.taskRunner.run(
@@ -88,7 +96,7 @@ class QdrantService implements AutoCloseable
                 () -> this.qdrantClient.upsertAsync( this.collectionName, List.of( point )).get() );
     }
 
-    List< SearchResult > search( ImmutableDoubleArray vector )
+    List< SearchResult > search( ImmutableFloatArray vector )
     {
         this.validateVector( vector );
 
@@ -96,7 +104,8 @@ class QdrantService implements AutoCloseable
 
         Points.QueryPoints query = Points.QueryPoints.newBuilder()
                 .setCollectionName( this.collectionName )
-                .setQuery( nearest( vector.toFloatArray() ))
+                .setQuery( nearest(
+                        Points.VectorInput.newBuilder().setDense( this.createDenseVector( vector )).build() ))
                 .build();
 
         List< Points.ScoredPoint > points = this.taskRunner.get(
@@ -107,6 +116,36 @@ class QdrantService implements AutoCloseable
         return points.stream().map( point -> new SearchResult( point.getId().getNum(), point.getScore() )).toList();
     }
 
+    Set< Long > getPointIds()
+    {
+        String taskName = "Qdrant - Scroll Point IDs";
+
+        Set< Long > pointIds = new HashSet<>();
+        Common.PointId offset = null;
+
+        do
+        {
+            Points.ScrollPoints.Builder scrollBuilder = Points.ScrollPoints.newBuilder()
+                    .setCollectionName( this.collectionName )
+                    .setLimit( this.scrollLimit )
+                    .setWithPayload( Points.WithPayloadSelector.newBuilder().setEnable( false ))
+                    .setWithVectors( Points.WithVectorsSelector.newBuilder().setEnable( false ));
+            if ( offset != null ) scrollBuilder.setOffset( offset );
+            Points.ScrollPoints scroll = scrollBuilder.build();
+
+            Points.ScrollResponse response = this.taskRunner.get(
+                    taskName, this.logSummary,
+                    () -> this.qdrantClient.scrollAsync( scroll ).get() );
+            if ( response == null ) throw new OmegaCodexException( taskName + ", Null Returned" );
+
+            for ( Points.RetrievedPoint point : response.getResultList() ) pointIds.add( point.getId().getNum() );
+            offset = response.hasNextPageOffset() ? response.getNextPageOffset() : null;
+        }
+        while ( offset != null );
+
+        return pointIds;
+    }
+
     private void init()
     {
         if ( this.collectionExists() ) this.deleteCollection();
@@ -146,7 +185,15 @@ class QdrantService implements AutoCloseable
                 () -> this.qdrantClient.createCollectionAsync( this.collectionName, vectorParams ).get() );
     }
 
-    private void validateVector( ImmutableDoubleArray vector )
+    // the vector is read in place, since getArray() and the client's float array factories would each copy it
+    private Points.DenseVector createDenseVector( ImmutableFloatArray vector )
+    {
+        Points.DenseVector.Builder builder = Points.DenseVector.newBuilder();
+        for ( int i = 0; i < vector.length(); i++ ) builder.addData( vector.get( i ));
+        return builder.build();
+    }
+
+    private void validateVector( ImmutableFloatArray vector )
     {
         if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
 
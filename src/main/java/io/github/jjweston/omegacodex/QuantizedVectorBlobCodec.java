@@ -0,0 +1,86 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Each value is mapped onto 256 levels between the vector's minimum and maximum. For 1,536-dimension embeddings the
+// reconstructed vector keeps a cosine similarity above 0.9999 with the original, and pairwise cosine scores move by
+// about 0.0002 on average and 0.0012 at worst; QuantizedVectorBlobCodecTest asserts these bounds.
+class QuantizedVectorBlobCodec
+{
+    private static final int headerLength = 2 * Float.BYTES;
+    private static final int maxLevel     = 255;
+
+    QuantizedVectorBlobCodec() {}
+
+    int getBlobLength( int dimensions )
+    {
+        return headerLength + dimensions;
+    }
+
+    byte[] encode( ImmutableFloatArray vector )
+    {
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+
+        float min = vector.length() == 0 ? 0.0f : Float.POSITIVE_INFINITY;
+        float max = vector.length() == 0 ? 0.0f : Float.NEGATIVE_INFINITY;
+
+        for ( int i = 0; i < vector.length(); i++ )
+        {
+            min = Math.min( min, vector.get( i ));
+            max = Math.max( max, vector.get( i ));
+        }
+
+        float scale = ( max - min ) / maxLevel;
+
+        int blobLength = this.getBlobLength( vector.length() );
+        ByteBuffer buffer = ByteBuffer.allocate( blobLength ).order( ByteOrder.LITTLE_ENDIAN );
+        buffer.putFloat( min );
+        buffer.putFloat( scale );
+
+        for ( int i = 0; i < vector.length(); i++ )
+        {
+            int level = scale == 0.0f ? 0 : Math.round(( vector.get( i ) - min ) / scale );
+            buffer.put( (byte) Math.clamp( level, 0, maxLevel ));
+        }
+
+        return buffer.array();
+    }
+
+    ImmutableFloatArray decode( byte[] blob )
+    {
+        if ( blob == null ) throw new IllegalArgumentException( "Blob must not be null." );
+
+        if ( blob.length < headerLength )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Blob length must be at least %d. Actual Length: %,d", headerLength, blob.length ));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap( blob ).order( ByteOrder.LITTLE_ENDIAN );
+        float offset = buffer.getFloat();
+        float scale  = buffer.getFloat();
+
+        float[] array = new float[ blob.length - headerLength ];
+        for ( int i = 0; i < array.length; i++ ) array[ i ] = offset + ( scale * ( blob[ headerLength + i ] & 0xFF ));
+        return ImmutableFloatArray.wrap( array );
+    }
+}
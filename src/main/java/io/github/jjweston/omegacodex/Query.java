@@ -22,8 +22,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.SQLException;
 
 class Query
 {
@@ -32,23 +30,39 @@ class Query
     static void main()
     {
         SQLiteConnectionFactory sqLiteConnectionFactory = new SQLiteConnectionFactory();
-
-        try ( Connection connection = sqLiteConnectionFactory.create();
-              QdrantService qdrantService = new QdrantService() )
+        OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
+        EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
+        EmbeddingApiService bulkEmbeddingApiService =
+                new EmbeddingApiService( openAiApiCaller.withPriority( ApiPriority.BULK ));
+        EmbeddingModel embeddingModel = embeddingApiService.getEmbeddingModel();
+
+        try ( SQLiteConnectionPool connectionPool = sqLiteConnectionFactory.createPool();
+              QdrantService qdrantService = new QdrantService( embeddingModel );
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connectionPool, embeddingModel );
+              EmbeddingWriteBehindQueue embeddingWriteBehindQueue =
+                      new EmbeddingWriteBehindQueue( embeddingCacheService ))
         {
-            OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
-            EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection );
-            EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
-            EmbeddingService embeddingService = new EmbeddingService( embeddingCacheService, embeddingApiService );
+            EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+            EmbeddingService embeddingService = new EmbeddingService(
+                    embeddingMemoryCache, embeddingCacheService, embeddingWriteBehindQueue, embeddingApiService );
+            EmbeddingService bulkEmbeddingService = new EmbeddingService(
+                    embeddingMemoryCache, embeddingCacheService, embeddingWriteBehindQueue, bulkEmbeddingApiService );
             ResponseApiService responseApiService =
                     new ResponseApiService( embeddingCacheService, embeddingService, qdrantService, openAiApiCaller );
 
-            MarkdownLoader markdownLoader = new MarkdownLoader( embeddingService, qdrantService );
-            markdownLoader.load( Paths.get( "readme.md" ));
-
-            Query.queryLoop( responseApiService );
+            // ingestion runs in the background at bulk priority, so queries are served and do not wait behind it
+            MarkdownLoader markdownLoader = new MarkdownLoader( bulkEmbeddingService, qdrantService );
+            EmbeddingCacheCompactor embeddingCacheCompactor = new EmbeddingCacheCompactor(
+                    embeddingCacheService, embeddingMemoryCache, embeddingWriteBehindQueue );
+
+            try ( BackgroundIngestion _ = new BackgroundIngestion( markdownLoader, Paths.get( "readme.md" ),
+                                                                   embeddingCacheCompactor, qdrantService,
+                                                                   embeddingCacheService ))
+            {
+                Query.queryLoop( responseApiService );
+            }
         }
-        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to close database connection.", e ); }
     }
 
     private static void queryLoop( ResponseApiService responseApiService )
@@ -34,10 +34,8 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 import java.nio.file.Paths;
-import java.sql.Connection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 public class QueryGui extends Application
 {
@@ -46,34 +44,72 @@ public class QueryGui extends Application
     private TextArea inputArea;
     private Button sendButton;
 
-    private Connection connection;
+    private SQLiteConnectionPool connectionPool;
+    private EmbeddingCacheService embeddingCacheService;
+    private EmbeddingWriteBehindQueue embeddingWriteBehindQueue;
+    private BackgroundIngestion backgroundIngestion;
     private QdrantService qdrantService;
     private ResponseApiService responseApiService;
 
+    private final OmegaCodexLogger omegaCodexLogger = new OmegaCodexLogger();
+
     public void init()
     {
         SQLiteConnectionFactory sqLiteConnectionFactory = new SQLiteConnectionFactory();
-        this.connection = sqLiteConnectionFactory.create();
-        this.qdrantService = new QdrantService();
+        this.connectionPool = sqLiteConnectionFactory.createPool();
         OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
-        EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( this.connection );
         EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
-        EmbeddingService embeddingService = new EmbeddingService( embeddingCacheService, embeddingApiService );
+        EmbeddingApiService bulkEmbeddingApiService =
+                new EmbeddingApiService( openAiApiCaller.withPriority( ApiPriority.BULK ));
+        this.qdrantService = new QdrantService( embeddingApiService.getEmbeddingModel() );
+        this.embeddingCacheService =
+                new EmbeddingCacheService( this.connectionPool, embeddingApiService.getEmbeddingModel() );
+        this.embeddingWriteBehindQueue = new EmbeddingWriteBehindQueue( this.embeddingCacheService );
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+        EmbeddingService embeddingService = new EmbeddingService(
+                embeddingMemoryCache, this.embeddingCacheService, this.embeddingWriteBehindQueue, embeddingApiService );
+        EmbeddingService bulkEmbeddingService = new EmbeddingService(
+                embeddingMemoryCache, this.embeddingCacheService, this.embeddingWriteBehindQueue,
+                bulkEmbeddingApiService );
         this.responseApiService = new ResponseApiService(
-                embeddingCacheService, embeddingService, this.qdrantService, openAiApiCaller );
-
-        MarkdownLoader markdownLoader = new MarkdownLoader( embeddingService, qdrantService );
-        markdownLoader.load( Paths.get( "readme.md" ));
+                this.embeddingCacheService, embeddingService, this.qdrantService, openAiApiCaller );
+
+        // ingestion runs in the background at bulk priority, so the window opens without waiting for it
+        MarkdownLoader markdownLoader = new MarkdownLoader( bulkEmbeddingService, this.qdrantService );
+        EmbeddingCacheCompactor embeddingCacheCompactor = new EmbeddingCacheCompactor(
+                this.embeddingCacheService, embeddingMemoryCache, this.embeddingWriteBehindQueue );
+        this.backgroundIngestion = new BackgroundIngestion( markdownLoader, Paths.get( "readme.md" ),
+                                                            embeddingCacheCompactor, this.qdrantService,
+                                                            this.embeddingCacheService );
     }
 
     public void stop()
     {
         List< OmegaCodexException > exceptions = new LinkedList<>();
 
-        try { this.connection.close(); }
+        try { this.backgroundIngestion.close(); }
+        catch ( Exception e )
+        {
+            exceptions.add( new OmegaCodexException( "Exception occurred while closing background ingestion.", e ));
+        }
+
+        try { this.embeddingWriteBehindQueue.close(); }
+        catch ( Exception e )
+        {
+            exceptions.add( new OmegaCodexException(
+                    "Exception occurred while closing embedding write-behind queue.", e ));
+        }
+
+        try { this.embeddingCacheService.close(); }
+        catch ( Exception e )
+        {
+            exceptions.add( new OmegaCodexException( "Exception occurred while closing embedding cache service.", e ));
+        }
+
+        try { this.connectionPool.close(); }
         catch ( Exception e )
         {
-            exceptions.add( new OmegaCodexException( "Exception occurred while closing database connection.", e ));
+            exceptions.add( new OmegaCodexException( "Exception occurred while closing database connection pool.", e ));
         }
 
         try { this.qdrantService.close(); }
@@ -148,10 +184,14 @@ public class QueryGui extends Application
         this.sendButton.setDisable( true );
         this.addUsrMessage( text );
 
-        CompletableFuture
-                .supplyAsync( () -> this.responseApiService.getResponse( text ))
+        this.responseApiService.getResponseAsync( text )
                 .thenAccept( response -> Platform.runLater( () -> this.processApiResponse( response )))
-                .exceptionally( e -> { System.out.println( "Exception Occurred: " + e ); return null; } );
+                .exceptionally( e ->
+                {
+                    this.omegaCodexLogger.println( "Failed to get a response: " + e );
+                    Platform.runLater( () -> this.processApiResponse( "Failed to get a response." ));
+                    return null;
+                });
     }
 
     private void processApiResponse( String response )
@@ -28,6 +28,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 class ResponseApiService
@@ -40,12 +42,14 @@ class ResponseApiService
     private final boolean               logApiDetails;
     private final boolean               logFunctionCalls;
     private final List< Pattern >       embeddedJsonPatterns;
+    private final Set< String >         responseFields;
     private final ObjectMapper          objectMapper;
     private final EmbeddingCacheService embeddingCacheService;
     private final EmbeddingService      embeddingService;
     private final QdrantService         qdrantService;
     private final OpenAiApiCaller       openAiApiCaller;
     private final OmegaCodexLogger      omegaCodexLogger;
+    private final Executor              functionCallExecutor;
     private final ArrayNode             tools;
     private final ArrayNode             messages;
     private final Set< Long >           searchResultIds;
@@ -69,12 +73,25 @@ class ResponseApiService
                         EmbeddingCacheService embeddingCacheService, EmbeddingService embeddingService,
                         QdrantService qdrantService, OpenAiApiCaller openAiApiCaller,
                         OmegaCodexLogger omegaCodexLogger )
+    {
+        Executor functionCallExecutor = command -> Thread.ofVirtual().name( "response-function-call" ).start( command );
+
+        this( iterationLimit, logApiSummary, logApiDetails, logFunctionCalls, embeddingCacheService, embeddingService,
+              qdrantService, openAiApiCaller, omegaCodexLogger, functionCallExecutor );
+    }
+
+    ResponseApiService( int iterationLimit, boolean logApiSummary, boolean logApiDetails, boolean logFunctionCalls,
+                        EmbeddingCacheService embeddingCacheService, EmbeddingService embeddingService,
+                        QdrantService qdrantService, OpenAiApiCaller openAiApiCaller,
+                        OmegaCodexLogger omegaCodexLogger, Executor functionCallExecutor )
     {
         if ( embeddingCacheService == null )
             throw new IllegalArgumentException( "Embedding cache service must not be null." );
         if ( embeddingService == null ) throw new IllegalArgumentException( "Embedding service must not be null." );
         if ( qdrantService == null ) throw new IllegalArgumentException( "Qdrant service must not be null." );
         if ( openAiApiCaller == null ) throw new IllegalArgumentException( "OpenAI API caller must not be null." );
+        if ( functionCallExecutor == null )
+            throw new IllegalArgumentException( "Function call executor must not be null." );
 
         this.taskName              = "Response API Call";
         this.apiEndpoint           = "https://api.openai.com/v1/responses";
@@ -87,12 +104,14 @@ class ResponseApiService
                 Pattern.compile( "^/request/input/\\d+/arguments$" ),
                 Pattern.compile( "^/request/input/\\d+/output$" ),
                 Pattern.compile( "^/response/output/\\d+/arguments" ));
+        this.responseFields        = Set.of( "output", "usage" );
         this.objectMapper          = new ObjectMapper();
         this.embeddingCacheService = embeddingCacheService;
         this.embeddingService      = embeddingService;
         this.qdrantService         = qdrantService;
         this.openAiApiCaller       = openAiApiCaller;
         this.omegaCodexLogger      = omegaCodexLogger;
+        this.functionCallExecutor  = functionCallExecutor;
 
         this.tools = this.objectMapper.createArrayNode()
                 .add( this.objectMapper.createObjectNode()
@@ -163,13 +182,78 @@ class ResponseApiService
     }
 
     String getResponse( String query )
+    {
+        this.addUserMessage( query );
+
+        int iterationCount = 0;
+        String response = null;
+        while ( response == null )
+        {
+            this.checkIterationCount( ++iterationCount );
+
+            JsonNode responseNode = this.openAiApiCaller.getResponse(
+                    this.taskName, this.apiEndpoint, this.createRequestNode(), null,
+                    this.logApiSummary, this.logApiDetails,
+                    this.embeddedJsonPatterns, this.createArraysToTrim(), this.responseFields );
+
+            response = this.handleResponse( responseNode, iterationCount );
+        }
+
+        return response;
+    }
+
+    CompletableFuture< String > getResponseAsync( String query )
+    {
+        try { this.addUserMessage( query ); }
+        catch ( RuntimeException e ) { return CompletableFuture.failedFuture( e ); }
+
+        return this.getResponseAsync( 1 );
+    }
+
+    private CompletableFuture< String > getResponseAsync( int iterationCount )
+    {
+        CompletableFuture< JsonNode > future;
+        try
+        {
+            this.checkIterationCount( iterationCount );
+            future = this.openAiApiCaller.getResponseAsync(
+                    this.taskName, this.apiEndpoint, this.createRequestNode(), null,
+                    this.logApiSummary, this.logApiDetails,
+                    this.embeddedJsonPatterns, this.createArraysToTrim(), this.responseFields );
+        }
+        catch ( RuntimeException e ) { return CompletableFuture.failedFuture( e ); }
+
+        // function calls block on embeddings, the cache and Qdrant, so they run off the HTTP client's threads
+        return future
+                .thenApplyAsync( responseNode -> this.handleResponse( responseNode, iterationCount ),
+                                 this.functionCallExecutor )
+                .thenCompose( response ->
+                {
+                    if ( response != null ) return CompletableFuture.completedFuture( response );
+                    return this.getResponseAsync( iterationCount + 1 );
+                });
+    }
+
+    private void addUserMessage( String query )
     {
         if ( query == null ) throw new IllegalArgumentException( "Query must not be null." );
 
         this.messages.add( this.objectMapper.createObjectNode()
                 .put( "role", "user" )
                 .put( "content", query ));
+    }
+
+    private void checkIterationCount( int iterationCount )
+    {
+        if ( iterationCount > this.iterationLimit )
+        {
+            throw new OmegaCodexException( String.format(
+                    "Failed to get response within %,d iterations.", iterationLimit ));
+        }
+    }
 
+    private ObjectNode createRequestNode()
+    {
         ObjectNode reasoningNode = this.objectMapper.createObjectNode()
                 .put( "effort", "medium" )
                 .put( "summary", "detailed" );
@@ -178,54 +262,42 @@ class ResponseApiService
                 .add( "reasoning.encrypted_content" )
                 .add( "web_search_call.action.sources" );
 
-        int iterationCount = 0;
-        String response = null;
-        while ( response == null )
-        {
-            if ( ++iterationCount > this.iterationLimit )
-            {
-                throw new OmegaCodexException( String.format(
-                        "Failed to get response within %,d iterations.", iterationLimit ));
-            }
-
-            ObjectNode requestNode = this.objectMapper.createObjectNode()
-                    .put( "model", this.model )
-                    .set( "tools", this.tools )
-                    .set( "input", this.messages )
-                    .set( "reasoning", reasoningNode )
-                    .set( "include", includeNode );
-
-            Map< String, Integer > arraysToTrim = Map.of( "/request/input", this.previousMessagesSize );
-
-            JsonNode responseNode = this.openAiApiCaller.getResponse(
-                    this.taskName, this.apiEndpoint, requestNode, null,
-                    this.logApiSummary, this.logApiDetails,
-                    this.embeddedJsonPatterns, arraysToTrim );
-
-            if ( this.logApiSummary )
-            {
-                JsonNode usageNode = responseNode.path( "usage" );
-                int inputTokenCount  = usageNode.path( "input_tokens"  ).intValue();
-                int outputTokenCount = usageNode.path( "output_tokens" ).intValue();
-                int totalTokenCount  = usageNode.path( "total_tokens"  ).intValue();
-
-                int newInputTokenCount = inputTokenCount - this.previousInputTokenCount;
-                this.previousInputTokenCount = inputTokenCount;
+        return this.objectMapper.createObjectNode()
+                .put( "model", this.model )
+                .set( "tools", this.tools )
+                .set( "input", this.messages )
+                .set( "reasoning", reasoningNode )
+                .set( "include", includeNode );
+    }
 
-                this.omegaCodexLogger.println( String.format(
-                        "%s, Iteration: %,d, New Input Tokens: %,d, Total Input Tokens: %,d, " +
-                                "Output Tokens: %,d, Total Tokens: %,d",
-                        this.taskName, iterationCount,
-                        newInputTokenCount, inputTokenCount, outputTokenCount, totalTokenCount ));
-            }
+    private Map< String, Integer > createArraysToTrim()
+    {
+        return Map.of( "/request/input", this.previousMessagesSize );
+    }
 
-            JsonNode outputNode = responseNode.path( "output" );
-            for ( JsonNode messageNode : outputNode ) this.messages.add( messageNode );
-            this.previousMessagesSize = this.messages.size();
-            response = this.handleOutput( outputNode );
+    private String handleResponse( JsonNode responseNode, int iterationCount )
+    {
+        if ( this.logApiSummary )
+        {
+            JsonNode usageNode = responseNode.path( "usage" );
+            int inputTokenCount  = usageNode.path( "input_tokens"  ).intValue();
+            int outputTokenCount = usageNode.path( "output_tokens" ).intValue();
+            int totalTokenCount  = usageNode.path( "total_tokens"  ).intValue();
+
+            int newInputTokenCount = inputTokenCount - this.previousInputTokenCount;
+            this.previousInputTokenCount = inputTokenCount;
+
+            this.omegaCodexLogger.println( String.format(
+                    "%s, Iteration: %,d, New Input Tokens: %,d, Total Input Tokens: %,d, " +
+                            "Output Tokens: %,d, Total Tokens: %,d",
+                    this.taskName, iterationCount,
+                    newInputTokenCount, inputTokenCount, outputTokenCount, totalTokenCount ));
         }
 
-        return response;
+        JsonNode outputNode = responseNode.path( "output" );
+        for ( JsonNode messageNode : outputNode ) this.messages.add( messageNode );
+        this.previousMessagesSize = this.messages.size();
+        return this.handleOutput( outputNode );
     }
 
     private String handleOutput( JsonNode outputNode )
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -26,15 +26,102 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 class SQLiteConnectionFactory
 {
-    private final Path workDirectory = Paths.get( "work" );
-    private final Path databaseFile  = Paths.get( "omegacodex.db" );
+    private static final Set< String > synchronousModes = Set.of( "OFF", "NORMAL", "FULL", "EXTRA" );
 
-    SQLiteConnectionFactory() {}
+    private final Path   workDirectory;
+    private final Path   databaseFile;
+    private final int    readerCount;
+    private final String synchronous;
+    private final long   mmapSize;
+    private final int    cacheSize;
+    private final int    busyTimeout;
+
+    SQLiteConnectionFactory()
+    {
+        Path   workDirectory = Paths.get( "work" );
+        Path   databaseFile  = Paths.get( "omegacodex.db" );
+        int    readerCount   = 4;
+        String synchronous   = "NORMAL";
+        long   mmapSize      = 256L * 1_024 * 1_024;
+        int    cacheSize     = -64 * 1_024;
+        int    busyTimeout   = 5_000;
+
+        this( workDirectory, databaseFile, readerCount, synchronous, mmapSize, cacheSize, busyTimeout );
+    }
+
+    SQLiteConnectionFactory( Path workDirectory, Path databaseFile, int readerCount, String synchronous,
+                             long mmapSize, int cacheSize, int busyTimeout )
+    {
+        if ( workDirectory == null ) throw new IllegalArgumentException( "Work directory must not be null." );
+        if ( databaseFile == null ) throw new IllegalArgumentException( "Database file must not be null." );
+        if ( readerCount < 0 ) throw new IllegalArgumentException( "Reader count must not be negative." );
+        if ( synchronous == null ) throw new IllegalArgumentException( "Synchronous mode must not be null." );
+        if ( !synchronousModes.contains( synchronous ))
+            throw new IllegalArgumentException( "Synchronous mode is not supported. Synchronous Mode: " + synchronous );
+        if ( mmapSize < 0 ) throw new IllegalArgumentException( "Memory map size must not be negative." );
+        if ( busyTimeout < 0 ) throw new IllegalArgumentException( "Busy timeout must not be negative." );
+
+        this.workDirectory = workDirectory;
+        this.databaseFile  = databaseFile;
+        this.readerCount   = readerCount;
+        this.synchronous   = synchronous;
+        this.mmapSize      = mmapSize;
+        this.cacheSize     = cacheSize;
+        this.busyTimeout   = busyTimeout;
+    }
 
     Connection create()
+    {
+        try { return this.getDataSource().getConnection(); }
+        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get database connection.", e ); }
+    }
+
+    SQLiteConnectionPool createPool()
+    {
+        SQLiteDataSource dataSource = this.getDataSource();
+        List< Connection > connections = new ArrayList<>();
+
+        try
+        {
+            Connection writer = dataSource.getConnection();
+            connections.add( writer );
+            this.configure( writer );
+            this.execute( writer, "PRAGMA journal_mode = WAL" );
+
+            List< Connection > readers = new ArrayList<>();
+            for ( int i = 0; i < this.readerCount; i++ )
+            {
+                Connection reader = dataSource.getConnection();
+                connections.add( reader );
+                this.configure( reader );
+                this.execute( reader, "PRAGMA query_only = ON" );
+                readers.add( reader );
+            }
+
+            return new SQLiteConnectionPool( writer, readers );
+        }
+        catch ( SQLException e )
+        {
+            OmegaCodexException exception = new OmegaCodexException( "Failed to create database connection pool.", e );
+
+            for ( Connection connection : connections )
+            {
+                try { connection.close(); }
+                catch ( SQLException closeException ) { exception.addSuppressed( closeException ); }
+            }
+
+            throw exception;
+        }
+    }
+
+    private SQLiteDataSource getDataSource()
     {
         try { Files.createDirectories( this.workDirectory ); }
         catch ( IOException e ) { throw new OmegaCodexException( "Failed to create work directory.", e ); }
@@ -43,8 +130,19 @@ class SQLiteConnectionFactory
         String databaseUrl = "jdbc:sqlite:" + databasePath;
         SQLiteDataSource dataSource = new SQLiteDataSource();
         dataSource.setUrl( databaseUrl );
+        return dataSource;
+    }
 
-        try { return dataSource.getConnection(); }
-        catch ( SQLException e ) { throw new OmegaCodexException( "Failed to get database connection.", e ); }
+    private void configure( Connection connection ) throws SQLException
+    {
+        this.execute( connection, "PRAGMA busy_timeout = " + this.busyTimeout );
+        this.execute( connection, "PRAGMA synchronous = " + this.synchronous );
+        this.execute( connection, "PRAGMA mmap_size = " + this.mmapSize );
+        this.execute( connection, "PRAGMA cache_size = " + this.cacheSize );
+    }
+
+    private void execute( Connection connection, String sql ) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement() ) { statement.execute( sql ); }
     }
 }
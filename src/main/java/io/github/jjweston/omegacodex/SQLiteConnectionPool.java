@@ -0,0 +1,76 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+class SQLiteConnectionPool implements AutoCloseable
+{
+    private final Connection         writer;
+    private final List< Connection > readers;
+
+    SQLiteConnectionPool( Connection writer, List< Connection > readers )
+    {
+        if ( writer == null ) throw new IllegalArgumentException( "Writer must not be null." );
+        if ( readers == null ) throw new IllegalArgumentException( "Readers must not be null." );
+        for ( Connection reader : readers )
+        {
+            if ( reader == null ) throw new IllegalArgumentException( "Reader must not be null." );
+        }
+
+        this.writer  = writer;
+        this.readers = List.copyOf( readers );
+    }
+
+    Connection getWriter()
+    {
+        return this.writer;
+    }
+
+    List< Connection > getReaders()
+    {
+        return this.readers;
+    }
+
+    public void close()
+    {
+        List< Connection > connections = new ArrayList<>( this.readers );
+        connections.add( this.writer );
+
+        OmegaCodexException exception = null;
+
+        for ( Connection connection : connections )
+        {
+            try { connection.close(); }
+            catch ( SQLException e )
+            {
+                if ( exception == null )
+                {
+                    exception = new OmegaCodexException( "Failed to close database connection.", e );
+                }
+                else exception.addSuppressed( e );
+            }
+        }
+
+        if ( exception != null ) throw exception;
+    }
+}
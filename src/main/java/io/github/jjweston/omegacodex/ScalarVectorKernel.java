@@ -0,0 +1,67 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+class ScalarVectorKernel implements VectorMath.Kernel
+{
+    private static final ValueLayout.OfFloat layout = ValueLayout.JAVA_FLOAT_UNALIGNED;
+
+    ScalarVectorKernel() {}
+
+    public float dot( MemorySegment a, MemorySegment b, int length )
+    {
+        float sum = 0.0f;
+        for ( int i = 0; i < length; i++ ) sum += a.getAtIndex( layout, i ) * b.getAtIndex( layout, i );
+        return sum;
+    }
+
+    public float sumOfSquares( MemorySegment a, int length )
+    {
+        float sum = 0.0f;
+        for ( int i = 0; i < length; i++ )
+        {
+            float x = a.getAtIndex( layout, i );
+            sum += x * x;
+        }
+
+        return sum;
+    }
+
+    public float cosine( MemorySegment a, MemorySegment b, int length )
+    {
+        float dot      = 0.0f;
+        float squaresA = 0.0f;
+        float squaresB = 0.0f;
+
+        for ( int i = 0; i < length; i++ )
+        {
+            float x = a.getAtIndex( layout, i );
+            float y = b.getAtIndex( layout, i );
+
+            dot      += x * y;
+            squaresA += x * x;
+            squaresB += y * y;
+        }
+
+        return squaresA == 0.0f || squaresB == 0.0f ? 0.0f : (float) ( dot / Math.sqrt( (double) squaresA * squaresB ));
+    }
+}
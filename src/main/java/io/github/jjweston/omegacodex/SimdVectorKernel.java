@@ -0,0 +1,115 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+class SimdVectorKernel implements VectorMath.Kernel
+{
+    private static final VectorSpecies< Float > species = FloatVector.SPECIES_PREFERRED;
+    private static final ValueLayout.OfFloat    layout  = ValueLayout.JAVA_FLOAT_UNALIGNED;
+    private static final ByteOrder              order   = ByteOrder.nativeOrder();
+
+    SimdVectorKernel() {}
+
+    public float dot( MemorySegment a, MemorySegment b, int length )
+    {
+        FloatVector sum   = FloatVector.zero( species );
+        int         bound = species.loopBound( length );
+        int         i     = 0;
+
+        for ( ; i < bound; i += species.length() )
+        {
+            FloatVector x = this.load( a, i );
+            FloatVector y = this.load( b, i );
+            sum = x.fma( y, sum );
+        }
+
+        float result = sum.reduceLanes( VectorOperators.ADD );
+        for ( ; i < length; i++ ) result += a.getAtIndex( layout, i ) * b.getAtIndex( layout, i );
+        return result;
+    }
+
+    public float sumOfSquares( MemorySegment a, int length )
+    {
+        FloatVector sum   = FloatVector.zero( species );
+        int         bound = species.loopBound( length );
+        int         i     = 0;
+
+        for ( ; i < bound; i += species.length() )
+        {
+            FloatVector x = this.load( a, i );
+            sum = x.fma( x, sum );
+        }
+
+        float result = sum.reduceLanes( VectorOperators.ADD );
+        for ( ; i < length; i++ )
+        {
+            float x = a.getAtIndex( layout, i );
+            result += x * x;
+        }
+
+        return result;
+    }
+
+    public float cosine( MemorySegment a, MemorySegment b, int length )
+    {
+        FloatVector dotSum      = FloatVector.zero( species );
+        FloatVector squaresSumA = FloatVector.zero( species );
+        FloatVector squaresSumB = FloatVector.zero( species );
+        int         bound       = species.loopBound( length );
+        int         i           = 0;
+
+        for ( ; i < bound; i += species.length() )
+        {
+            FloatVector x = this.load( a, i );
+            FloatVector y = this.load( b, i );
+            dotSum      = x.fma( y, dotSum );
+            squaresSumA = x.fma( x, squaresSumA );
+            squaresSumB = y.fma( y, squaresSumB );
+        }
+
+        float dot      = dotSum.reduceLanes( VectorOperators.ADD );
+        float squaresA = squaresSumA.reduceLanes( VectorOperators.ADD );
+        float squaresB = squaresSumB.reduceLanes( VectorOperators.ADD );
+
+        for ( ; i < length; i++ )
+        {
+            float x = a.getAtIndex( layout, i );
+            float y = b.getAtIndex( layout, i );
+
+            dot      += x * y;
+            squaresA += x * x;
+            squaresB += y * y;
+        }
+
+        return squaresA == 0.0f || squaresB == 0.0f ? 0.0f : (float) ( dot / Math.sqrt( (double) squaresA * squaresB ));
+    }
+
+    private FloatVector load( MemorySegment segment, int index )
+    {
+        return FloatVector.fromMemorySegment( species, segment, (long) index * Float.BYTES, order );
+    }
+}
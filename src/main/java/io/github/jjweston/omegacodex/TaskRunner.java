@@ -18,28 +18,89 @@ limitations under the License.
 
 package io.github.jjweston.omegacodex;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 class TaskRunner
 {
     @FunctionalInterface interface ThrowingRunnable { void run() throws Exception; }
     @FunctionalInterface interface ThrowingSupplier< T > { T get() throws Exception; }
 
-    private final long             rateLimitDelay;
-    private final OmegaCodexUtil   omegaCodexUtil;
-    private final OmegaCodexLogger omegaCodexLogger;
+    private final long                               rateLimitDelay;
+    private final int                                reservedPermits;
+    private final Queue< CompletableFuture< Void >> interactivePermitWaiters;
+    private final Queue< CompletableFuture< Void >> bulkPermitWaiters;
+    private final Object                             permitLock;
+    private final OmegaCodexUtil                     omegaCodexUtil;
+    private final OmegaCodexLogger                   omegaCodexLogger;
 
+    private int     availablePermits;
     private boolean runPreviously = false;
     private long    previousStart;
 
     TaskRunner( long rateLimitDelay )
     {
-        this( rateLimitDelay, new OmegaCodexUtil(), new  OmegaCodexLogger() );
+        int maxInFlight = 1;
+
+        this( rateLimitDelay, maxInFlight );
+    }
+
+    TaskRunner( long rateLimitDelay, int maxInFlight )
+    {
+        int reservedPermits = 0;
+
+        this( rateLimitDelay, maxInFlight, reservedPermits );
+    }
+
+    TaskRunner( long rateLimitDelay, int maxInFlight, int reservedPermits )
+    {
+        this( rateLimitDelay, maxInFlight, reservedPermits, new OmegaCodexUtil(), new OmegaCodexLogger() );
     }
 
     TaskRunner( long rateLimitDelay, OmegaCodexUtil omegaCodexUtil, OmegaCodexLogger omegaCodexLogger )
     {
-        this.rateLimitDelay   = rateLimitDelay;
-        this.omegaCodexUtil   = omegaCodexUtil;
-        this.omegaCodexLogger = omegaCodexLogger;
+        int maxInFlight = 1;
+
+        this( rateLimitDelay, maxInFlight, omegaCodexUtil, omegaCodexLogger );
+    }
+
+    TaskRunner( long rateLimitDelay, int maxInFlight, OmegaCodexUtil omegaCodexUtil, OmegaCodexLogger omegaCodexLogger )
+    {
+        int reservedPermits = 0;
+
+        this( rateLimitDelay, maxInFlight, reservedPermits, omegaCodexUtil, omegaCodexLogger );
+    }
+
+    // bulk tasks leave the reserved permits free, so that interactive tasks can always start without waiting on them
+    TaskRunner( long rateLimitDelay, int maxInFlight, int reservedPermits, OmegaCodexUtil omegaCodexUtil,
+                OmegaCodexLogger omegaCodexLogger )
+    {
+        if ( rateLimitDelay < 0 ) throw new IllegalArgumentException( "Rate limit delay must not be negative." );
+        if ( maxInFlight < 1 ) throw new IllegalArgumentException( "Max in flight must be positive." );
+        if (( reservedPermits < 0 ) || ( reservedPermits >= maxInFlight ))
+        {
+            throw new IllegalArgumentException( "Reserved permits must be at least 0 and less than max in flight." );
+        }
+        if ( omegaCodexUtil == null ) throw new IllegalArgumentException( "Omega Codex util must not be null." );
+        if ( omegaCodexLogger == null ) throw new IllegalArgumentException( "Omega Codex logger must not be null." );
+
+        this.rateLimitDelay           = rateLimitDelay;
+        this.reservedPermits          = reservedPermits;
+        this.interactivePermitWaiters = new ArrayDeque<>();
+        this.bulkPermitWaiters        = new ArrayDeque<>();
+        this.permitLock               = new Object();
+        this.omegaCodexUtil           = omegaCodexUtil;
+        this.omegaCodexLogger         = omegaCodexLogger;
+        this.availablePermits         = maxInFlight;
     }
 
     < T > T get( String taskName, boolean logTaskSummary, ThrowingSupplier< T > task )
@@ -48,33 +109,109 @@ class TaskRunner
     }
 
     < T > T get( String taskName, String startMessage, boolean logTaskSummary, ThrowingSupplier< T > task )
+    {
+        long timeoutMs = 0;
+
+        return this.get( taskName, startMessage, logTaskSummary, timeoutMs, task );
+    }
+
+    < T > T get( String taskName, String startMessage, boolean logTaskSummary, long timeoutMs,
+                 ThrowingSupplier< T > task )
+    {
+        ApiPriority priority = ApiPriority.INTERACTIVE;
+
+        return this.get( taskName, startMessage, logTaskSummary, priority, timeoutMs, task );
+    }
+
+    < T > T get( String taskName, String startMessage, boolean logTaskSummary, ApiPriority priority,
+                 ThrowingSupplier< T > task )
+    {
+        long timeoutMs = 0;
+
+        return this.get( taskName, startMessage, logTaskSummary, priority, timeoutMs, task );
+    }
+
+    // a timeout of zero waits indefinitely, otherwise the timeout covers waiting for a permit and a start slot too
+    < T > T get( String taskName, String startMessage, boolean logTaskSummary, ApiPriority priority, long timeoutMs,
+                 ThrowingSupplier< T > task )
     {
         if ( taskName == null ) throw new IllegalArgumentException( "Task name must not be null." );
         if ( taskName.isEmpty() ) throw new IllegalArgumentException( "Task name must not be empty." );
+        if ( priority == null ) throw new IllegalArgumentException( "Priority must not be null." );
+        if ( timeoutMs < 0 ) throw new IllegalArgumentException( "Timeout must not be negative." );
         if ( task == null ) throw new IllegalArgumentException( "Task must not be null." );
 
-        if ( this.runPreviously )
+        long deadline = ( timeoutMs > 0 ) ? this.omegaCodexUtil.nanoTime() + ( timeoutMs * 1_000_000 ) : 0;
+
+        this.acquirePermit( taskName, priority, timeoutMs, deadline );
+        try { return this.getWithPermit( taskName, startMessage, logTaskSummary, timeoutMs, deadline, task ); }
+        finally { this.releasePermit(); }
+    }
+
+    private void acquirePermit( String taskName, ApiPriority priority, long timeoutMs, long deadline )
+    {
+        // blocking callers wait in the same queues as async callers, so permits are handed out in arrival order
+        CompletableFuture< Void > permitWaiter = this.acquirePermitAsync( priority );
+
+        try
         {
-            long initTime = this.omegaCodexUtil.nanoTime();
-            long previousDeltaMs = ( initTime - this.previousStart ) / 1_000_000;
-            long delayMs = this.rateLimitDelay - previousDeltaMs;
+            if ( timeoutMs == 0 ) permitWaiter.get();
+            else permitWaiter.get( this.getRemainingMs( deadline ), TimeUnit.MILLISECONDS );
+        }
+        catch ( TimeoutException e )
+        {
+            this.cancelPermitWaiter( permitWaiter );
+            throw this.createTimeoutException( taskName, timeoutMs, null );
+        }
+        catch ( InterruptedException e )
+        {
+            this.cancelPermitWaiter( permitWaiter );
+            this.omegaCodexUtil.interruptThread();
+            throw new OmegaCodexException( taskName + ", Wait Interrupted", e );
+        }
+        catch ( ExecutionException e ) { throw new OmegaCodexException( taskName + ", Wait Failed", e ); }
+    }
 
-            if ( delayMs > 0 )
+    private void cancelPermitWaiter( CompletableFuture< Void > permitWaiter )
+    {
+        // a permit handed over just as the wait ended is passed on, so that it is not lost
+        if ( !permitWaiter.cancel( false )) this.releasePermit();
+    }
+
+    private < T > T getWithPermit( String taskName, String startMessage, boolean logTaskSummary, long timeoutMs,
+                                   long deadline, ThrowingSupplier< T > task )
+    {
+        // start slots are reserved under the lock, so threads sharing this runner never start too close together
+        boolean firstTask;
+        long    startTime = 0;
+        long    delayMs   = 0;
+
+        synchronized ( this )
+        {
+            firstTask = !this.runPreviously;
+
+            if ( firstTask )
             {
-                if ( logTaskSummary )
-                {
-                    this.omegaCodexLogger.println( String.format( taskName + ", Sleeping, Duration: %,d ms", delayMs ));
-                }
+                this.runPreviously = true;
+                startTime = this.omegaCodexUtil.nanoTime();
+                this.previousStart = startTime;
+            }
+            else
+            {
+                long initTime = this.omegaCodexUtil.nanoTime();
+                long previousDeltaMs = ( initTime - this.previousStart ) / 1_000_000;
+                delayMs = Math.max( 0, this.rateLimitDelay - previousDeltaMs );
 
-                try { this.omegaCodexUtil.sleepThread( delayMs ); }
-                catch ( InterruptedException e )
+                if (( timeoutMs > 0 ) && ( initTime + ( delayMs * 1_000_000 ) > deadline ))
                 {
-                    this.omegaCodexUtil.interruptThread();
-                    throw new OmegaCodexException( taskName + ", Sleep Interrupted", e );
+                    throw this.createTimeoutException( taskName, timeoutMs, null );
                 }
+
+                this.previousStart = initTime + ( delayMs * 1_000_000 );
             }
         }
-        else this.runPreviously = true;
+
+        this.sleep( taskName, logTaskSummary, delayMs );
 
         if ( logTaskSummary )
         {
@@ -83,11 +220,10 @@ class TaskRunner
             this.omegaCodexLogger.println( message );
         }
 
-        long startTime = this.omegaCodexUtil.nanoTime();
-        this.previousStart = startTime;
+        if ( !firstTask ) startTime = this.omegaCodexUtil.nanoTime();
 
         T result;
-        try { result = task.get(); }
+        try { result = this.call( taskName, timeoutMs, deadline, task ); }
         catch ( InterruptedException e )
         {
             this.omegaCodexUtil.interruptThread();
@@ -107,6 +243,259 @@ class TaskRunner
         return result;
     }
 
+    private < T > T call( String taskName, long timeoutMs, long deadline, ThrowingSupplier< T > task )
+            throws Exception
+    {
+        if ( timeoutMs == 0 ) return task.get();
+
+        // the task runs on its own thread, so that it can be interrupted when the deadline passes
+        FutureTask< T > futureTask = new FutureTask<>( task::get );
+        Thread.ofVirtual().name( taskName ).start( futureTask );
+
+        try { return futureTask.get( this.getRemainingMs( deadline ), TimeUnit.MILLISECONDS ); }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof Exception cause ) throw cause;
+            if ( e.getCause() instanceof Error error ) throw error;
+            throw e;
+        }
+        catch ( TimeoutException e ) { throw this.createTimeoutException( taskName, timeoutMs, e ); }
+        finally { futureTask.cancel( true ); }
+    }
+
+    private long getRemainingMs( long deadline )
+    {
+        return Math.max( 0, ( deadline - this.omegaCodexUtil.nanoTime() ) / 1_000_000 );
+    }
+
+    private OmegaCodexException createTimeoutException( String taskName, long timeoutMs, Exception cause )
+    {
+        return new OmegaCodexException( String.format( taskName + ", Timed Out, Timeout: %,d ms", timeoutMs ), cause );
+    }
+
+    void sleep( String taskName, boolean logTaskSummary, long delayMs )
+    {
+        if ( delayMs <= 0 ) return;
+
+        if ( logTaskSummary )
+        {
+            this.omegaCodexLogger.println( String.format( taskName + ", Sleeping, Duration: %,d ms", delayMs ));
+        }
+
+        try { this.omegaCodexUtil.sleepThread( delayMs ); }
+        catch ( InterruptedException e )
+        {
+            this.omegaCodexUtil.interruptThread();
+            throw new OmegaCodexException( taskName + ", Sleep Interrupted", e );
+        }
+    }
+
+    CompletableFuture< Void > delayAsync( String taskName, boolean logTaskSummary, long delayMs )
+    {
+        if ( delayMs <= 0 ) return CompletableFuture.completedFuture( null );
+
+        if ( logTaskSummary )
+        {
+            this.omegaCodexLogger.println( String.format( taskName + ", Sleeping, Duration: %,d ms", delayMs ));
+        }
+
+        return CompletableFuture.runAsync( () -> {}, this.omegaCodexUtil.delayedExecutor( delayMs ));
+    }
+
+    < T > CompletableFuture< T > getAsync( String taskName, String startMessage, boolean logTaskSummary,
+                                           Supplier< CompletableFuture< T >> task )
+    {
+        long timeoutMs = 0;
+
+        return this.getAsync( taskName, startMessage, logTaskSummary, timeoutMs, task );
+    }
+
+    < T > CompletableFuture< T > getAsync( String taskName, String startMessage, boolean logTaskSummary,
+                                           long timeoutMs, Supplier< CompletableFuture< T >> task )
+    {
+        ApiPriority priority = ApiPriority.INTERACTIVE;
+
+        return this.getAsync( taskName, startMessage, logTaskSummary, priority, timeoutMs, task );
+    }
+
+    < T > CompletableFuture< T > getAsync( String taskName, String startMessage, boolean logTaskSummary,
+                                           ApiPriority priority, Supplier< CompletableFuture< T >> task )
+    {
+        long timeoutMs = 0;
+
+        return this.getAsync( taskName, startMessage, logTaskSummary, priority, timeoutMs, task );
+    }
+
+    < T > CompletableFuture< T > getAsync( String taskName, String startMessage, boolean logTaskSummary,
+                                           ApiPriority priority, long timeoutMs,
+                                           Supplier< CompletableFuture< T >> task )
+    {
+        if ( taskName == null ) throw new IllegalArgumentException( "Task name must not be null." );
+        if ( taskName.isEmpty() ) throw new IllegalArgumentException( "Task name must not be empty." );
+        if ( priority == null ) throw new IllegalArgumentException( "Priority must not be null." );
+        if ( timeoutMs < 0 ) throw new IllegalArgumentException( "Timeout must not be negative." );
+        if ( task == null ) throw new IllegalArgumentException( "Task must not be null." );
+
+        // reserve the start time now, so that later tasks are delayed behind this one without blocking
+        long delayMs = 0;
+
+        synchronized ( this )
+        {
+            long initTime = this.omegaCodexUtil.nanoTime();
+
+            if ( this.runPreviously )
+            {
+                long previousDeltaMs = ( initTime - this.previousStart ) / 1_000_000;
+                delayMs = Math.max( 0, this.rateLimitDelay - previousDeltaMs );
+            }
+            else this.runPreviously = true;
+
+            this.previousStart = initTime + ( delayMs * 1_000_000 );
+        }
+
+        // the permit is taken after the delay, so that waiting for a start slot does not hold one
+        CompletableFuture< T > result = new CompletableFuture<>();
+        AtomicReference< CompletableFuture< Void >> permitWaiter = new AtomicReference<>();
+        AtomicReference< CompletableFuture< T >> taskFuture = new AtomicReference<>();
+
+        Supplier< CompletableFuture< T >> trackedTask = () ->
+        {
+            CompletableFuture< T > future = task.get();
+            taskFuture.set( future );
+            if ( result.isDone() ) future.cancel( true );
+            return future;
+        };
+
+        this.delayAsync( taskName, logTaskSummary, delayMs )
+                .thenCompose( _ ->
+                {
+                    CompletableFuture< Void > permit = this.acquirePermitAsync( priority );
+                    permitWaiter.set( permit );
+                    return permit;
+                })
+                .thenCompose( _ ->
+                {
+                    if ( result.isDone() )
+                    {
+                        this.releasePermit();
+                        return CompletableFuture.< T >failedFuture( new CancellationException() );
+                    }
+
+                    return this.startAsync( taskName, startMessage, logTaskSummary, trackedTask )
+                            .whenComplete( ( _, _ ) -> this.releasePermit() );
+                })
+                .whenComplete( ( value, throwable ) ->
+                {
+                    if ( throwable == null ) result.complete( value );
+                    else result.completeExceptionally(
+                            ( throwable instanceof CompletionException ) ? throwable.getCause() : throwable );
+                });
+
+        if ( timeoutMs == 0 ) return result;
+
+        // once the deadline passes, a task still waiting gives up its place and a running task is cancelled
+        return result.orTimeout( timeoutMs, TimeUnit.MILLISECONDS ).handle( ( value, throwable ) ->
+        {
+            if ( throwable == null ) return value;
+
+            if ( throwable instanceof TimeoutException e )
+            {
+                CompletableFuture< Void > permit = permitWaiter.get();
+                if ( permit != null ) permit.cancel( false );
+                CompletableFuture< T > future = taskFuture.get();
+                if ( future != null ) future.cancel( true );
+                throw this.createTimeoutException( taskName, timeoutMs, e );
+            }
+
+            if ( throwable instanceof RuntimeException e ) throw e;
+            throw new CompletionException( throwable );
+        });
+    }
+
+    private CompletableFuture< Void > acquirePermitAsync( ApiPriority priority )
+    {
+        synchronized ( this.permitLock )
+        {
+            boolean interactive = ( priority == ApiPriority.INTERACTIVE );
+
+            // waiters are only queued while no permit is free to them, so a free permit never skips a waiter
+            if ( this.availablePermits > ( interactive ? 0 : this.reservedPermits ))
+            {
+                this.availablePermits--;
+                return CompletableFuture.completedFuture( null );
+            }
+
+            CompletableFuture< Void > permitWaiter = new CompletableFuture<>();
+            if ( interactive ) this.interactivePermitWaiters.add( permitWaiter );
+            else this.bulkPermitWaiters.add( permitWaiter );
+            return permitWaiter;
+        }
+    }
+
+    private void releasePermit()
+    {
+        // a released permit goes straight to the oldest interactive waiter, then to the oldest bulk waiter while
+        // more than the reserved permits would be free, skipping any waiters that have already given up
+        while ( true )
+        {
+            CompletableFuture< Void > permitWaiter;
+
+            synchronized ( this.permitLock )
+            {
+                permitWaiter = this.interactivePermitWaiters.poll();
+                if (( permitWaiter == null ) && ( this.availablePermits >= this.reservedPermits ))
+                {
+                    permitWaiter = this.bulkPermitWaiters.poll();
+                }
+
+                if ( permitWaiter == null )
+                {
+                    this.availablePermits++;
+                    return;
+                }
+            }
+
+            if ( permitWaiter.complete( null )) return;
+        }
+    }
+
+    private < T > CompletableFuture< T > startAsync( String taskName, String startMessage, boolean logTaskSummary,
+                                                     Supplier< CompletableFuture< T >> task )
+    {
+        if ( logTaskSummary )
+        {
+            String message = taskName + ", Starting";
+            if (( startMessage != null ) && ( !startMessage.isEmpty() )) message += ", " + startMessage;
+            this.omegaCodexLogger.println( message );
+        }
+
+        long startTime = this.omegaCodexUtil.nanoTime();
+
+        CompletableFuture< T > future;
+        try { future = task.get(); }
+        catch ( RuntimeException e ) { future = CompletableFuture.failedFuture( e ); }
+
+        return future.handle( ( result, throwable ) ->
+        {
+            if ( throwable != null )
+            {
+                Throwable cause = ( throwable instanceof CompletionException ) ? throwable.getCause() : throwable;
+                if ( cause instanceof OmegaCodexException e ) throw e;
+                throw new OmegaCodexException( taskName + ", Exception Occurred", cause );
+            }
+
+            long stopTime = this.omegaCodexUtil.nanoTime();
+            long deltaMs = ( stopTime - startTime ) / 1_000_000;
+
+            if ( logTaskSummary )
+            {
+                this.omegaCodexLogger.println( String.format( taskName + ", Complete, Duration: %,d ms", deltaMs ));
+            }
+
+            return result;
+        });
+    }
+
     void run( String taskName, boolean logTaskSummary, ThrowingRunnable task )
     {
         this.run( taskName, null, logTaskSummary, task );
@@ -114,6 +503,13 @@ class TaskRunner
 
     void run( String taskName, String startMessage, boolean logTaskSummary, ThrowingRunnable task )
     {
-        this.get( taskName, startMessage, logTaskSummary, () -> { task.run(); return null; } );
+        long timeoutMs = 0;
+
+        this.run( taskName, startMessage, logTaskSummary, timeoutMs, task );
+    }
+
+    void run( String taskName, String startMessage, boolean logTaskSummary, long timeoutMs, ThrowingRunnable task )
+    {
+        this.get( taskName, startMessage, logTaskSummary, timeoutMs, () -> { task.run(); return null; } );
     }
 }
@@ -0,0 +1,117 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+class TokenBucketRateLimiter
+{
+    private final long           requestsPerMinute;
+    private final long           tokensPerMinute;
+    private final OmegaCodexUtil omegaCodexUtil;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long   lastRefillTime;
+
+    TokenBucketRateLimiter( long requestsPerMinute, long tokensPerMinute )
+    {
+        this( requestsPerMinute, tokensPerMinute, new OmegaCodexUtil() );
+    }
+
+    TokenBucketRateLimiter( long requestsPerMinute, long tokensPerMinute, OmegaCodexUtil omegaCodexUtil )
+    {
+        if ( requestsPerMinute < 1 ) throw new IllegalArgumentException( "Requests per minute must be positive." );
+        if ( tokensPerMinute < 1 ) throw new IllegalArgumentException( "Tokens per minute must be positive." );
+        if ( omegaCodexUtil == null ) throw new IllegalArgumentException( "Omega Codex util must not be null." );
+
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute   = tokensPerMinute;
+        this.omegaCodexUtil    = omegaCodexUtil;
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens   = tokensPerMinute;
+        this.lastRefillTime    = omegaCodexUtil.nanoTime();
+    }
+
+    synchronized long reserve( long estimatedTokens )
+    {
+        if ( estimatedTokens < 0 ) throw new IllegalArgumentException( "Estimated tokens must not be negative." );
+
+        // the reservation is taken right away and may leave a bucket in debt, which the caller waits out
+        this.refill();
+        this.availableRequests -= 1;
+        this.availableTokens -= estimatedTokens;
+
+        double requestWaitMs = -this.availableRequests * 60_000 / this.requestsPerMinute;
+        double tokenWaitMs   = -this.availableTokens   * 60_000 / this.tokensPerMinute;
+        return (long) Math.ceil( Math.max( 0, Math.max( requestWaitMs, tokenWaitMs )));
+    }
+
+    synchronized long getDelayMs( long estimatedTokens, double reserveFraction )
+    {
+        if ( estimatedTokens < 0 ) throw new IllegalArgumentException( "Estimated tokens must not be negative." );
+        if (( reserveFraction < 0 ) || ( reserveFraction >= 1 ))
+        {
+            throw new IllegalArgumentException( "Reserve fraction must be at least 0 and less than 1." );
+        }
+
+        // a request larger than a bucket can never fit, so it only waits for a full bucket
+        this.refill();
+        double neededRequests = Math.min( this.requestsPerMinute, 1 + ( reserveFraction * this.requestsPerMinute ));
+        double neededTokens   = Math.min( this.tokensPerMinute,
+                                          estimatedTokens + ( reserveFraction * this.tokensPerMinute ));
+
+        double requestWaitMs = ( neededRequests - this.availableRequests ) * 60_000 / this.requestsPerMinute;
+        double tokenWaitMs   = ( neededTokens   - this.availableTokens   ) * 60_000 / this.tokensPerMinute;
+        return (long) Math.ceil( Math.max( 0, Math.max( requestWaitMs, tokenWaitMs )));
+    }
+
+    synchronized void reconcile( long estimatedTokens, long actualTokens )
+    {
+        if ( estimatedTokens < 0 ) throw new IllegalArgumentException( "Estimated tokens must not be negative." );
+        if ( actualTokens < 0 ) throw new IllegalArgumentException( "Actual tokens must not be negative." );
+
+        this.refill();
+        this.availableTokens = Math.min( this.tokensPerMinute, this.availableTokens + estimatedTokens - actualTokens );
+    }
+
+    synchronized double getAvailableRequests()
+    {
+        this.refill();
+        return this.availableRequests;
+    }
+
+    synchronized double getAvailableTokens()
+    {
+        this.refill();
+        return this.availableTokens;
+    }
+
+    private void refill()
+    {
+        long now = this.omegaCodexUtil.nanoTime();
+        double elapsedMinutes = ( now - this.lastRefillTime ) / 60_000_000_000.0;
+        this.lastRefillTime = now;
+
+        if ( elapsedMinutes <= 0 ) return;
+
+        this.availableRequests = Math.min( this.requestsPerMinute,
+                                           this.availableRequests + ( elapsedMinutes * this.requestsPerMinute ));
+        this.availableTokens   = Math.min( this.tokensPerMinute,
+                                           this.availableTokens + ( elapsedMinutes * this.tokensPerMinute ));
+    }
+}
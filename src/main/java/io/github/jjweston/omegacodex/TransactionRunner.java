@@ -0,0 +1,59 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+class TransactionRunner
+{
+    @FunctionalInterface interface SqlRunnable { void run() throws SQLException; }
+    @FunctionalInterface interface SqlSupplier< T > { T get() throws SQLException; }
+
+    TransactionRunner() {}
+
+    < T > T get( Connection connection, SqlSupplier< T > work ) throws SQLException
+    {
+        if ( connection == null ) throw new IllegalArgumentException( "Connection must not be null." );
+        if ( work == null ) throw new IllegalArgumentException( "Work must not be null." );
+
+        connection.setAutoCommit( false );
+
+        try
+        {
+            T result = work.get();
+            connection.commit();
+            return result;
+        }
+        catch ( SQLException | RuntimeException e )
+        {
+            try { connection.rollback(); }
+            catch ( SQLException rollbackException ) { e.addSuppressed( rollbackException ); }
+            throw e;
+        }
+        finally { connection.setAutoCommit( true ); }
+    }
+
+    void run( Connection connection, SqlRunnable work ) throws SQLException
+    {
+        if ( work == null ) throw new IllegalArgumentException( "Work must not be null." );
+
+        this.get( connection, () -> { work.run(); return null; } );
+    }
+}
@@ -0,0 +1,51 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+class VectorBlobCodec
+{
+    VectorBlobCodec() {}
+
+    byte[] encode( ImmutableFloatArray vector )
+    {
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+
+        ByteBuffer buffer = ByteBuffer.allocate( vector.length() * Float.BYTES ).order( ByteOrder.LITTLE_ENDIAN );
+        buffer.asFloatBuffer().put( vector.asFloatBuffer() );
+        return buffer.array();
+    }
+
+    ImmutableFloatArray decode( byte[] blob )
+    {
+        if ( blob == null ) throw new IllegalArgumentException( "Blob must not be null." );
+
+        if ( blob.length % Float.BYTES != 0 )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Blob length must be a multiple of %d. Actual Length: %,d", Float.BYTES, blob.length ));
+        }
+
+        FloatBuffer buffer = ByteBuffer.wrap( blob ).order( ByteOrder.LITTLE_ENDIAN ).asFloatBuffer();
+        return new ImmutableFloatArray( buffer );
+    }
+}
@@ -0,0 +1,131 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+class VectorMath
+{
+    interface Kernel
+    {
+        float dot( MemorySegment a, MemorySegment b, int length );
+        float sumOfSquares( MemorySegment a, int length );
+        float cosine( MemorySegment a, MemorySegment b, int length );
+    }
+
+    private static final String vectorModule = "jdk.incubator.vector";
+
+    private final Kernel kernel;
+
+    VectorMath()
+    {
+        // the SIMD kernel is only used when the incubator module was added at run time, so runs without it fall back
+        // to the scalar kernel and never print the incubator warning
+        this( ModuleLayer.boot().findModule( vectorModule ).isPresent() ? new SimdVectorKernel()
+                                                                        : new ScalarVectorKernel() );
+    }
+
+    VectorMath( Kernel kernel )
+    {
+        if ( kernel == null ) throw new IllegalArgumentException( "Kernel must not be null." );
+
+        this.kernel = kernel;
+    }
+
+    Kernel getKernel()
+    {
+        return this.kernel;
+    }
+
+    float dot( ImmutableFloatArray a, ImmutableFloatArray b )
+    {
+        this.validateVectors( a, b );
+        return this.kernel.dot( a.asMemorySegment(), b.asMemorySegment(), a.length() );
+    }
+
+    float[] dot( ImmutableFloatArray query, List< ImmutableFloatArray > vectors )
+    {
+        this.validateVectors( query, vectors );
+
+        MemorySegment querySegment = query.asMemorySegment();
+        float[] results = new float[ vectors.size() ];
+        for ( int i = 0; i < results.length; i++ )
+        {
+            results[ i ] = this.kernel.dot( querySegment, vectors.get( i ).asMemorySegment(), query.length() );
+        }
+
+        return results;
+    }
+
+    // the cosine similarity of a zero vector is defined as zero rather than NaN
+    float cosine( ImmutableFloatArray a, ImmutableFloatArray b )
+    {
+        this.validateVectors( a, b );
+        return this.kernel.cosine( a.asMemorySegment(), b.asMemorySegment(), a.length() );
+    }
+
+    float[] cosine( ImmutableFloatArray query, List< ImmutableFloatArray > vectors )
+    {
+        this.validateVectors( query, vectors );
+
+        MemorySegment querySegment = query.asMemorySegment();
+        float[] results = new float[ vectors.size() ];
+        for ( int i = 0; i < results.length; i++ )
+        {
+            results[ i ] = this.kernel.cosine( querySegment, vectors.get( i ).asMemorySegment(), query.length() );
+        }
+
+        return results;
+    }
+
+    float norm( ImmutableFloatArray vector )
+    {
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+        return (float) Math.sqrt( this.kernel.sumOfSquares( vector.asMemorySegment(), vector.length() ));
+    }
+
+    ImmutableFloatArray normalize( ImmutableFloatArray vector )
+    {
+        float norm = this.norm( vector );
+        if ( norm == 0.0f ) throw new IllegalArgumentException( "Vector must not be zero." );
+
+        float[] array = new float[ vector.length() ];
+        for ( int i = 0; i < array.length; i++ ) array[ i ] = vector.get( i ) / norm;
+        return ImmutableFloatArray.wrap( array );
+    }
+
+    private void validateVectors( ImmutableFloatArray query, List< ImmutableFloatArray > vectors )
+    {
+        if ( query   == null ) throw new IllegalArgumentException( "Query must not be null."   );
+        if ( vectors == null ) throw new IllegalArgumentException( "Vectors must not be null." );
+        for ( ImmutableFloatArray vector : vectors ) this.validateVectors( query, vector );
+    }
+
+    private void validateVectors( ImmutableFloatArray a, ImmutableFloatArray b )
+    {
+        if ( a == null || b == null ) throw new IllegalArgumentException( "Vector must not be null." );
+
+        if ( a.length() != b.length() )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Vector lengths must match. Lengths: %,d, %,d", a.length(), b.length() ));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+class VectorTextCodec
+{
+    // 18 digits always fit in a long, while 19 can overflow into a negative mantissa
+    private static final int      maxMantissaDigits = 18;
+    private static final long     maxExactMantissa  = 1L << 53;
+    private static final double[] powersOfTen       =
+    {
+        1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    VectorTextCodec() {}
+
+    String encode( ImmutableFloatArray vector )
+    {
+        if ( vector == null ) throw new IllegalArgumentException( "Vector must not be null." );
+
+        StringBuilder builder = new StringBuilder( ( vector.length() * 12 ) + 2 );
+        this.encode( vector, builder );
+        return builder.toString();
+    }
+
+    void encode( ImmutableFloatArray vector, StringBuilder builder )
+    {
+        if ( vector  == null ) throw new IllegalArgumentException( "Vector must not be null."  );
+        if ( builder == null ) throw new IllegalArgumentException( "Builder must not be null." );
+
+        builder.append( '[' );
+
+        for ( int i = 0; i < vector.length(); i++ )
+        {
+            if ( i > 0 ) builder.append( ',' );
+            builder.append( vector.get( i ));
+        }
+
+        builder.append( ']' );
+    }
+
+    float[] decode( String text )
+    {
+        if ( text == null ) throw new IllegalArgumentException( "Text must not be null." );
+
+        int length   = text.length();
+        int position = this.skipWhitespace( text, 0 );
+        if ( position == length || text.charAt( position ) != '[' ) throw this.invalidText( position );
+        position = this.skipWhitespace( text, position + 1 );
+
+        float[] array;
+
+        if ( position < length && text.charAt( position ) == ']' ) array = new float[ 0 ];
+        else
+        {
+            array = new float[ this.countCommas( text, position ) + 1 ];
+
+            for ( int i = 0; i < array.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    if ( position == length || text.charAt( position ) != ',' ) throw this.invalidText( position );
+                    position = this.skipWhitespace( text, position + 1 );
+                }
+
+                position = this.parseElement( text, position, array, i );
+                position = this.skipWhitespace( text, position );
+            }
+        }
+
+        if ( position == length || text.charAt( position ) != ']' ) throw this.invalidText( position );
+        position = this.skipWhitespace( text, position + 1 );
+        if ( position != length ) throw this.invalidText( position );
+
+        return array;
+    }
+
+    private int parseElement( String text, int start, float[] array, int index )
+    {
+        int     length    = text.length();
+        int     position  = start;
+        long    mantissa  = 0;
+        int     digits    = 0;
+        int     exponent  = 0;
+        boolean truncated = false;
+
+        boolean negative = position < length && text.charAt( position ) == '-';
+        if ( negative ) position++;
+
+        int integerStart = position;
+        while ( position < length && this.isDigit( text.charAt( position )))
+        {
+            if ( digits < maxMantissaDigits )
+            {
+                mantissa = ( mantissa * 10 ) + ( text.charAt( position ) - '0' );
+                if ( mantissa != 0 ) digits++;
+            }
+            else
+            {
+                truncated = true;
+                exponent++;
+            }
+
+            position++;
+        }
+        if ( position == integerStart ) throw this.invalidText( position );
+
+        if ( position < length && text.charAt( position ) == '.' )
+        {
+            int fractionStart = ++position;
+            while ( position < length && this.isDigit( text.charAt( position )))
+            {
+                if ( digits < maxMantissaDigits )
+                {
+                    mantissa = ( mantissa * 10 ) + ( text.charAt( position ) - '0' );
+                    if ( mantissa != 0 ) digits++;
+                    exponent--;
+                }
+                else truncated = true;
+
+                position++;
+            }
+            if ( position == fractionStart ) throw this.invalidText( position );
+        }
+
+        if ( position < length && ( text.charAt( position ) == 'e' || text.charAt( position ) == 'E' ))
+        {
+            position++;
+
+            boolean negativeExponent = position < length && text.charAt( position ) == '-';
+            if ( negativeExponent || ( position < length && text.charAt( position ) == '+' )) position++;
+
+            int explicitExponent = 0;
+            int exponentStart    = position;
+            while ( position < length && this.isDigit( text.charAt( position )))
+            {
+                // saturate; anything this large over- or underflows a float regardless
+                if ( explicitExponent < 100_000 )
+                {
+                    explicitExponent = ( explicitExponent * 10 ) + ( text.charAt( position ) - '0' );
+                }
+                position++;
+            }
+            if ( position == exponentStart ) throw this.invalidText( position );
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        array[ index ] = this.toFloat( text, start, position, negative, mantissa, exponent, truncated );
+        return position;
+    }
+
+    private float toFloat( String text, int start, int end, boolean negative, long mantissa, int exponent,
+                           boolean truncated )
+    {
+        if ( mantissa == 0 ) return negative ? -0.0f : 0.0f;
+
+        // both operands are exact doubles here, so a single multiply or divide is correctly rounded; narrowing
+        // to float is then only ambiguous when the double lands exactly on a float midpoint
+        if ( !truncated && mantissa <= maxExactMantissa && Math.abs( exponent ) < powersOfTen.length )
+        {
+            double value = exponent < 0 ? mantissa / powersOfTen[ -exponent ] : mantissa * powersOfTen[ exponent ];
+            if ( !this.isFloatMidpoint( value )) return (float) ( negative ? -value : value );
+        }
+
+        return Float.parseFloat( text.substring( start, end ));
+    }
+
+    private boolean isFloatMidpoint( double value )
+    {
+        float rounded  = (float) value;
+        float neighbor = value > rounded ? Math.nextUp( rounded ) : Math.nextDown( rounded );
+        return value != rounded && value * 2 == (double) rounded + neighbor;
+    }
+
+    private int countCommas( String text, int start )
+    {
+        int count = 0;
+        for ( int i = start; i < text.length(); i++ ) if ( text.charAt( i ) == ',' ) count++;
+        return count;
+    }
+
+    private int skipWhitespace( String text, int position )
+    {
+        while ( position < text.length() )
+        {
+            char c = text.charAt( position );
+            if ( c != ' ' && c != '\t' && c != '\n' && c != '\r' ) break;
+            position++;
+        }
+
+        return position;
+    }
+
+    private boolean isDigit( char c )
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    private IllegalArgumentException invalidText( int position )
+    {
+        return new IllegalArgumentException( String.format( "Invalid vector text. Position: %,d", position ));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpHeaders;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class ApiRateLimiterTest
+{
+    @Mock private OmegaCodexUtil  mockOmegaCodexUtil;
+    @Mock private RandomGenerator mockRandomGenerator;
+
+    @Test
+    void testConstructor_invalidMaxBackoff()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new ApiRateLimiter( 3, 1_000, 999, this.mockOmegaCodexUtil, this.mockRandomGenerator ));
+
+        assertEquals( "Max backoff must not be less than base backoff.", exception.getMessage() );
+    }
+
+    @Test
+    void testParseDuration()
+    {
+        assertEquals( 20, ApiRateLimiter.parseDuration( "20ms" ));
+        assertEquals( 1_000, ApiRateLimiter.parseDuration( "1s" ));
+        assertEquals( 1_500, ApiRateLimiter.parseDuration( "1.5s" ));
+        assertEquals( 360_000, ApiRateLimiter.parseDuration( "6m0s" ));
+        assertEquals( 3_723_500, ApiRateLimiter.parseDuration( "1h2m3.5s" ));
+        assertEquals( -1, ApiRateLimiter.parseDuration( "" ));
+        assertEquals( -1, ApiRateLimiter.parseDuration( "soon" ));
+        assertEquals( -1, ApiRateLimiter.parseDuration( "5s later" ));
+    }
+
+    @Test
+    void testUpdate_limitRemaining()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 10_000L );
+
+        apiRateLimiter.update( this.createHeaders( Map.of(
+                "x-ratelimit-remaining-requests", "1",
+                "x-ratelimit-reset-requests", "60ms",
+                "x-ratelimit-remaining-tokens", "150000",
+                "x-ratelimit-reset-tokens", "1s" )));
+
+        assertEquals( 0, apiRateLimiter.getDelayMs() );
+    }
+
+    @Test
+    void testUpdate_limitExhausted()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 10_000L, 10_000L, 11_000L );
+
+        apiRateLimiter.update( this.createHeaders( Map.of(
+                "x-ratelimit-remaining-requests", "0",
+                "x-ratelimit-reset-requests", "2s",
+                "x-ratelimit-remaining-tokens", "0",
+                "x-ratelimit-reset-tokens", "3.5s" )));
+
+        assertEquals( 3_500, apiRateLimiter.getDelayMs() );
+        assertEquals( 2_500, apiRateLimiter.getDelayMs() );
+    }
+
+    @Test
+    void testIsRetryable()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+        ObjectMapper   objectMapper   = new ObjectMapper();
+
+        JsonNode rateLimitNode = objectMapper.readTree( "{ \"error\": { \"code\": \"rate_limit_exceeded\" } }" );
+        JsonNode quotaNode     = objectMapper.readTree( "{ \"error\": { \"code\": \"insufficient_quota\" } }" );
+        JsonNode emptyNode     = objectMapper.createObjectNode();
+
+        assertTrue( apiRateLimiter.isRetryable( 429, rateLimitNode, 1 ));
+        assertTrue( apiRateLimiter.isRetryable( 503, emptyNode, 2 ));
+        assertFalse( apiRateLimiter.isRetryable( 503, emptyNode, 3 ));
+        assertFalse( apiRateLimiter.isRetryable( 429, quotaNode, 1 ));
+        assertFalse( apiRateLimiter.isRetryable( 400, emptyNode, 1 ));
+        assertFalse( apiRateLimiter.isRetryable( 200, emptyNode, 1 ));
+    }
+
+    @Test
+    void testBackOff_jitter()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+        HttpHeaders    headers        = this.createHeaders( Map.of() );
+
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0, 0.5, 1.0, 1.0 );
+
+        assertEquals( 500, apiRateLimiter.backOff( 1, headers ));
+        assertEquals( 1_500, apiRateLimiter.backOff( 2, headers ));
+        assertEquals( 4_000, apiRateLimiter.backOff( 3, headers ));
+        assertEquals( 8_000, apiRateLimiter.backOff( 10, headers ));
+    }
+
+    @Test
+    void testBackOff_retryAfter()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 1_000_000L );
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+
+        assertEquals( 2_500, apiRateLimiter.backOff( 1, this.createHeaders( Map.of( "retry-after-ms", "2500" ))));
+        assertEquals( 7_000, apiRateLimiter.backOff( 1, this.createHeaders( Map.of( "retry-after", "7" ))));
+        assertEquals( 7_000, apiRateLimiter.getDelayMs() );
+        assertEquals( 500, apiRateLimiter.backOff( 1, this.createHeaders( Map.of( "retry-after", "later" ))));
+    }
+
+    @Test
+    void testBackOff_retryAfterDate()
+    {
+        ApiRateLimiter apiRateLimiter = this.createApiRateLimiter();
+
+        // ten seconds before the retry time
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 1_767_225_590_000L );
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+
+        HttpHeaders headers = this.createHeaders( Map.of( "retry-after", "Thu, 01 Jan 2026 00:00:00 GMT" ));
+
+        assertEquals( 10_000, apiRateLimiter.backOff( 1, headers ));
+    }
+
+    private ApiRateLimiter createApiRateLimiter()
+    {
+        return new ApiRateLimiter( 3, 1_000, 8_000, this.mockOmegaCodexUtil, this.mockRandomGenerator );
+    }
+
+    private HttpHeaders createHeaders( Map< String, String > headers )
+    {
+        Map< String, List< String >> headerLists = new HashMap<>();
+        headers.forEach( ( name, value ) -> headerLists.put( name, List.of( value )));
+        return HttpHeaders.of( headerLists, ( _, _ ) -> true );
+    }
+}
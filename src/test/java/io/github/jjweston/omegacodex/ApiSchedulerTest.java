@@ -0,0 +1,168 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class ApiSchedulerTest
+{
+    @Mock private OmegaCodexUtil mockOmegaCodexUtil;
+    @Mock private OmegaCodexUtil mockBucketOmegaCodexUtil;
+
+    @Test
+    void testConstructor_nullTokenBucketRateLimiter()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new ApiScheduler( null, 0.2, this.mockOmegaCodexUtil ));
+
+        assertEquals( "Token bucket rate limiter must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_invalidBulkReserveFraction()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter = this.createTokenBucketRateLimiter();
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new ApiScheduler( tokenBucketRateLimiter, 1, this.mockOmegaCodexUtil ));
+
+        assertEquals( "Bulk reserve fraction must be at least 0 and less than 1.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_nullOmegaCodexUtil()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter = this.createTokenBucketRateLimiter();
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new ApiScheduler( tokenBucketRateLimiter, 0.2, null ));
+
+        assertEquals( "Omega Codex util must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testSchedule_nullPriority()
+    {
+        ApiScheduler apiScheduler = this.createApiScheduler( this.createTokenBucketRateLimiter() );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> apiScheduler.schedule( null, 10 ));
+
+        assertEquals( "Priority must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testSchedule_negativeTokens()
+    {
+        ApiScheduler apiScheduler = this.createApiScheduler( this.createTokenBucketRateLimiter() );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> apiScheduler.schedule( ApiPriority.BULK, -1 ));
+
+        assertEquals( "Estimated tokens must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void testSchedule_interactiveBeforeBulk()
+    {
+        when( this.mockOmegaCodexUtil.delayedExecutor( anyLong() )).thenReturn( _ -> {} );
+
+        TokenBucketRateLimiter tokenBucketRateLimiter = this.createTokenBucketRateLimiter();
+        ApiScheduler apiScheduler = this.createApiScheduler( tokenBucketRateLimiter );
+
+        // bulk calls may only spend the bucket down to the reserved fifth
+        CompletableFuture< Void > bulkFuture1 = apiScheduler.schedule( ApiPriority.BULK, 700 );
+        CompletableFuture< Void > bulkFuture2 = apiScheduler.schedule( ApiPriority.BULK, 100 );
+        CompletableFuture< Void > bulkFuture3 = apiScheduler.schedule( ApiPriority.BULK, 100 );
+
+        assertTrue( bulkFuture1.isDone() );
+        assertTrue( bulkFuture2.isDone() );
+        assertFalse( bulkFuture3.isDone() );
+        verify( this.mockOmegaCodexUtil ).delayedExecutor( 6_000 );
+
+        // interactive calls skip the queued bulk call and may use the reserve
+        CompletableFuture< Void > interactiveFuture = apiScheduler.schedule( ApiPriority.INTERACTIVE, 150 );
+
+        assertTrue( interactiveFuture.isDone() );
+        assertFalse( bulkFuture3.isDone() );
+        assertEquals( 1, apiScheduler.getPendingCount() );
+        assertEquals( 50, tokenBucketRateLimiter.getAvailableTokens() );
+
+        // completed calls that used fewer tokens than estimated release the queued call
+        apiScheduler.complete( 700, 450 );
+
+        assertTrue( bulkFuture3.isDone() );
+        assertEquals( 0, apiScheduler.getPendingCount() );
+        assertEquals( 200, tokenBucketRateLimiter.getAvailableTokens() );
+    }
+
+    @Test
+    void testSchedule_delayedDispatch()
+    {
+        List< Runnable > delayedTasks = new ArrayList<>();
+        when( this.mockOmegaCodexUtil.delayedExecutor( anyLong() )).thenReturn( delayedTasks::add );
+
+        TokenBucketRateLimiter tokenBucketRateLimiter = this.createTokenBucketRateLimiter();
+        ApiScheduler apiScheduler = this.createApiScheduler( tokenBucketRateLimiter );
+
+        CompletableFuture< Void > future1 = apiScheduler.schedule( ApiPriority.INTERACTIVE, 1_000 );
+        CompletableFuture< Void > future2 = apiScheduler.schedule( ApiPriority.INTERACTIVE, 500 );
+        CompletableFuture< Void > future3 = apiScheduler.schedule( ApiPriority.INTERACTIVE, 500 );
+
+        assertTrue( future1.isDone() );
+        assertFalse( future2.isDone() );
+        assertFalse( future3.isDone() );
+        assertEquals( 1, delayedTasks.size() );
+        verify( this.mockOmegaCodexUtil ).delayedExecutor( 30_000 );
+
+        when( this.mockBucketOmegaCodexUtil.nanoTime() ).thenReturn( 60_000_000_000L );
+        delayedTasks.getFirst().run();
+
+        assertTrue( future2.isDone() );
+        assertTrue( future3.isDone() );
+        assertEquals( 0, apiScheduler.getPendingCount() );
+        assertEquals( 0, tokenBucketRateLimiter.getAvailableTokens() );
+    }
+
+    private TokenBucketRateLimiter createTokenBucketRateLimiter()
+    {
+        return new TokenBucketRateLimiter( 10, 1_000, this.mockBucketOmegaCodexUtil );
+    }
+
+    private ApiScheduler createApiScheduler( TokenBucketRateLimiter tokenBucketRateLimiter )
+    {
+        return new ApiScheduler( tokenBucketRateLimiter, 0.2, this.mockOmegaCodexUtil );
+    }
+}
@@ -0,0 +1,157 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class BackgroundIngestionTest
+{
+    private final Path           path           = Path.of( "readme.md" );
+    private final EmbeddingModel embeddingModel = new EmbeddingModel( "test-model", 3 );
+
+    @Mock private MarkdownLoader          mockMarkdownLoader;
+    @Mock private EmbeddingCacheCompactor mockEmbeddingCacheCompactor;
+    @Mock private QdrantService           mockQdrantService;
+    @Mock private EmbeddingCacheService   mockEmbeddingCacheService;
+    @Mock private OmegaCodexLogger        mockOmegaCodexLogger;
+
+    @Test
+    void testConstructor_nullMarkdownLoader()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new BackgroundIngestion( null, this.path, this.mockEmbeddingCacheCompactor,
+                                               this.mockQdrantService, this.mockEmbeddingCacheService ));
+
+        assertEquals( "Markdown loader must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testIngest()
+    {
+        Set< Long > pointIds = Set.of( 1L, 2L );
+
+        when( this.mockQdrantService.getPointIds() ).thenReturn( pointIds );
+        when( this.mockEmbeddingCacheService.getEmbeddingCount() ).thenReturn( 2L );
+        when( this.mockEmbeddingCacheService.getEmbeddingModel() ).thenReturn( this.embeddingModel );
+        doAnswer( invocation ->
+        {
+            Consumer< Embedding > consumer = invocation.getArgument( 0 );
+            consumer.accept( this.createEmbedding( 1 ));
+            consumer.accept( this.createEmbedding( 2 ));
+            return null;
+        } ).when( this.mockEmbeddingCacheService ).forEachEmbedding( any() );
+
+        BackgroundIngestion backgroundIngestion = this.createBackgroundIngestion();
+        verify( this.mockOmegaCodexLogger, timeout( 5_000 )).println( "Background Ingestion Complete, Loaded: 2" );
+
+        // the arena is loaded from the cache only after ingestion and compaction have run
+        InOrder inOrder = inOrder( this.mockMarkdownLoader, this.mockEmbeddingCacheCompactor,
+                                   this.mockEmbeddingCacheService );
+        inOrder.verify( this.mockMarkdownLoader ).load( this.path );
+        inOrder.verify( this.mockEmbeddingCacheCompactor ).compact( pointIds );
+        inOrder.verify( this.mockEmbeddingCacheService ).forEachEmbedding( any() );
+
+        EmbeddingVectorArena embeddingVectorArena = backgroundIngestion.getEmbeddingVectorArena();
+        assertNotNull( embeddingVectorArena );
+        assertEquals( 2, embeddingVectorArena.size() );
+
+        backgroundIngestion.close();
+
+        assertNull( backgroundIngestion.getEmbeddingVectorArena() );
+        IllegalStateException exception =
+                assertThrowsExactly( IllegalStateException.class, () -> embeddingVectorArena.getVector( 1 ));
+        assertEquals( "Vector arena is closed.", exception.getMessage() );
+    }
+
+    @Test
+    void testIngest_failure()
+    {
+        OmegaCodexException innerException = new OmegaCodexException( "Test Message" );
+        doThrow( innerException ).when( this.mockMarkdownLoader ).load( this.path );
+
+        BackgroundIngestion backgroundIngestion = this.createBackgroundIngestion();
+        verify( this.mockOmegaCodexLogger, timeout( 5_000 ))
+                .println( "Background Ingestion Failed: " + innerException );
+
+        backgroundIngestion.close();
+
+        assertNull( backgroundIngestion.getEmbeddingVectorArena() );
+        verifyNoInteractions( this.mockEmbeddingCacheCompactor );
+    }
+
+    @Test
+    void testClose_cancelsIngestion() throws Exception
+    {
+        CountDownLatch loadStarted = new CountDownLatch( 1 );
+        doAnswer( _ ->
+        {
+            loadStarted.countDown();
+
+            // an interrupted API call surfaces as an Omega Codex exception, as it does from the task runner
+            try { new CountDownLatch( 1 ).await(); }
+            catch ( InterruptedException e ) { throw new OmegaCodexException( "Load Interrupted", e ); }
+            return null;
+        } ).when( this.mockMarkdownLoader ).load( this.path );
+
+        BackgroundIngestion backgroundIngestion = this.createBackgroundIngestion();
+        loadStarted.await();
+
+        // closing interrupts the ingestion and waits for it, so nothing after the loader runs
+        backgroundIngestion.close();
+
+        assertNull( backgroundIngestion.getEmbeddingVectorArena() );
+        verifyNoInteractions( this.mockEmbeddingCacheCompactor, this.mockOmegaCodexLogger );
+    }
+
+    private BackgroundIngestion createBackgroundIngestion()
+    {
+        return new BackgroundIngestion( this.mockMarkdownLoader, this.path, this.mockEmbeddingCacheCompactor,
+                                        this.mockQdrantService, this.mockEmbeddingCacheService,
+                                        this.mockOmegaCodexLogger );
+    }
+
+    private Embedding createEmbedding( long id )
+    {
+        return new Embedding( id, new ImmutableFloatArray( new float[] { id * 0.5f, -id * 0.25f, id } ));
+    }
+}
@@ -35,15 +35,15 @@ class EmbeddingApiServiceIT
 
         String resourceName = this.getClass().getSimpleName() + ".json";
 
-        ImmutableDoubleArray expectedVector;
+        ImmutableFloatArray expectedVector;
         try ( InputStream resourceStream = this.getClass().getResourceAsStream( resourceName ))
         {
-            expectedVector = new ImmutableDoubleArray( OmegaCodexTestUtil.readInputStream( resourceStream ));
+            expectedVector = new ImmutableFloatArray( OmegaCodexTestUtil.readInputStream( resourceStream ));
         }
 
         OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
         EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
-        ImmutableDoubleArray actualVector = embeddingApiService.getEmbeddingVector( input );
+        ImmutableFloatArray actualVector = embeddingApiService.getEmbeddingVector( input );
 
         assertEquals( expectedVector.length(), actualVector.length(), "Vector Length" );
 
@@ -52,7 +52,7 @@ class EmbeddingApiServiceIT
         assertThat( similarity ).as( "Cosine Similarity" ).isGreaterThanOrEqualTo( similarityThreshold );
     }
 
-    private double cosineSimilarity( double[] a, double[] b )
+    private double cosineSimilarity( float[] a, float[] b )
     {
         double dot  = 0.0;
         double magA = 0.0;
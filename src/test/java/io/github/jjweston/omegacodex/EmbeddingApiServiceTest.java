@@ -28,10 +28,16 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.ObjectNode;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -55,6 +61,54 @@ class EmbeddingApiServiceTest
         assertEquals( "OpenAI API caller must not be null.", exception.getMessage() );
     }
 
+    @Test
+    void testConstructor_zeroDimensions()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingApiService( 0, false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Dimensions must be between 1 and 1,536. Actual Dimensions: 0", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_excessDimensions()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingApiService(
+                        3_072, false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Dimensions must be between 1 and 1,536. Actual Dimensions: 3,072", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddingModel_reducedDimensions()
+    {
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( 512, false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        assertEquals( new EmbeddingModel( "text-embedding-3-small", 512 ), embeddingApiService.getEmbeddingModel() );
+    }
+
+    @Test
+    void testConstructor_invalidBatchInputLimit()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingApiService(
+                        1_536, 0, 1, false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Batch input limit must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_invalidBatchTokenLimit()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingApiService(
+                        1_536, 1, 0, false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Batch token limit must be positive.", exception.getMessage() );
+    }
+
     @Test
     void testGetEmbeddingVector_nullInput()
     {
@@ -98,7 +152,7 @@ class EmbeddingApiServiceTest
     void testGetEmbeddingVector_success()
     {
         String expectedInput = "This is a test with \"quote\" characters included in it. ".repeat( 20 ).trim();
-        ImmutableDoubleArray expectedVector = new ImmutableDoubleArray( new double[] { -0.75, -0.5, 0.5, 0.75 } );
+        ImmutableFloatArray expectedVector = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } );
 
         String responseString = String.format(
                 """
@@ -120,23 +174,229 @@ class EmbeddingApiServiceTest
 
         when( this.mockOpenAiApiCaller
                 .getResponse( any(), any(), this.requestNodeCaptor.capture(),
-                              this.startMessageCaptor.capture(), anyBoolean(), anyBoolean(), any(), any() ))
+                              this.startMessageCaptor.capture(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         EmbeddingApiService embeddingApiService =
                 new EmbeddingApiService( true, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
 
-        ImmutableDoubleArray actualVector = embeddingApiService.getEmbeddingVector( expectedInput );
+        ImmutableFloatArray actualVector = embeddingApiService.getEmbeddingVector( expectedInput );
 
         ObjectNode requestNode = this.requestNodeCaptor.getValue();
         String actualInput = requestNode.get( "input" ).asString();
         String actualStartMessage = this.startMessageCaptor.getValue();
 
         assertEquals( expectedInput, actualInput );
+        assertEquals( 1_536, requestNode.path( "dimensions" ).asInt() );
+        assertEquals( "base64", requestNode.path( "encoding_format" ).asString() );
         assertEquals( expectedVector, actualVector );
         assertEquals( "Input Length: 1,099", actualStartMessage );
 
         verify( this.mockOmegaCodexLogger ).println( "Embedding API Call, Tokens: 1,024" );
         verifyNoMoreInteractions( this.mockOmegaCodexLogger );
     }
+
+    @Test
+    void testGetEmbeddingVector_invalidIndex()
+    {
+        String responseString =
+                """
+                {
+                  "data" : [ { "index" : 1, "embedding" : [ 0.5 ] } ]
+                }
+                """;
+
+        when( this.mockOpenAiApiCaller
+                .getResponse( any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( new ObjectMapper().readTree( responseString ));
+
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        OmegaCodexException exception = assertThrowsExactly(
+                OmegaCodexException.class, () -> embeddingApiService.getEmbeddingVector( "Test" ));
+
+        assertEquals( "Embedding API Call, Invalid Embedding Index: 1, Input Count: 1", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddingVector_base64MatchesFloatList() throws Exception
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode floatResponseNode  = objectMapper.readTree( this.readResource( "float" ));
+        JsonNode base64ResponseNode = objectMapper.readTree( this.readResource( "base64" ));
+
+        when( this.mockOpenAiApiCaller
+                .getResponse( any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( floatResponseNode )
+                .thenReturn( base64ResponseNode );
+
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        ImmutableFloatArray floatVector  = embeddingApiService.getEmbeddingVector( "Test" );
+        ImmutableFloatArray base64Vector = embeddingApiService.getEmbeddingVector( "Test" );
+
+        assertEquals( 1_536, base64Vector.length(), "Vector Length" );
+        assertEquals( floatVector, base64Vector );
+    }
+
+    @Test
+    void testGetEmbeddingVector_invalidBase64()
+    {
+        String responseString =
+                """
+                {
+                  "data" : [ { "index" : 0, "embedding" : "AACAPwAA" } ]
+                }
+                """;
+
+        when( this.mockOpenAiApiCaller
+                .getResponse( any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( new ObjectMapper().readTree( responseString ));
+
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        OmegaCodexException exception = assertThrowsExactly(
+                OmegaCodexException.class, () -> embeddingApiService.getEmbeddingVector( "Test" ));
+
+        assertEquals( "Embedding API Call, Invalid Embedding Encoding, Index: 0", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddingVectors_nullInputs()
+    {
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> embeddingApiService.getEmbeddingVectors( null ));
+
+        assertEquals( "Inputs must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddingVectors_emptyInput()
+    {
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> embeddingApiService.getEmbeddingVectors( List.of( "Test", "" )));
+
+        assertEquals( "Input must not be empty.", exception.getMessage() );
+        verify( this.mockOpenAiApiCaller, never() )
+                .getResponse( any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() );
+    }
+
+    @Test
+    void testGetEmbeddingVectors_missingIndex()
+    {
+        String responseString =
+                """
+                {
+                  "data" : [ { "index" : 1, "embedding" : [ 0.5 ] } ]
+                }
+                """;
+
+        when( this.mockOpenAiApiCaller
+                .getResponse( any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( new ObjectMapper().readTree( responseString ));
+
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService( false, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> embeddingApiService.getEmbeddingVectors( List.of( "Test 1", "Test 2" )));
+
+        assertEquals( "Embedding API Call, Missing Embedding, Index: 0", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddingVectors_success()
+    {
+        List< String > inputs = List.of( "Input 1", "Input 2", "Input 3 is long.", "Input 4", "Input 5" );
+
+        // the second batch is cut short by the token limit and results may arrive out of order
+        String responseString1 =
+                """
+                {
+                  "data" : [ { "index" : 1, "embedding" : [ 0.2, -0.2 ] },
+                             { "index" : 0, "embedding" : [ 0.1, -0.1 ] } ],
+                  "usage" : { "total_tokens" : 4 }
+                }
+                """;
+        String responseString2 =
+                """
+                {
+                  "data" : [ { "index" : 0, "embedding" : [ 0.3, -0.3 ] } ],
+                  "usage" : { "total_tokens" : 2 }
+                }
+                """;
+        String responseString3 =
+                """
+                {
+                  "data" : [ { "index" : 1, "embedding" : [ 0.5, -0.5 ] },
+                             { "index" : 0, "embedding" : [ 0.4, -0.4 ] } ],
+                  "usage" : { "total_tokens" : 6 }
+                }
+                """;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        when( this.mockOpenAiApiCaller
+                .getResponse( any(), any(), this.requestNodeCaptor.capture(),
+                              this.startMessageCaptor.capture(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( objectMapper.readTree( responseString1 ))
+                .thenReturn( objectMapper.readTree( responseString2 ))
+                .thenReturn( objectMapper.readTree( responseString3 ));
+
+        EmbeddingApiService embeddingApiService =
+                new EmbeddingApiService(
+                        1_536, 2, 20, true, false, this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        List< ImmutableFloatArray > actualVectors = embeddingApiService.getEmbeddingVectors( inputs );
+
+        List< ImmutableFloatArray > expectedVectors = List.of(
+                new ImmutableFloatArray( new float[] { 0.1f, -0.1f } ),
+                new ImmutableFloatArray( new float[] { 0.2f, -0.2f } ),
+                new ImmutableFloatArray( new float[] { 0.3f, -0.3f } ),
+                new ImmutableFloatArray( new float[] { 0.4f, -0.4f } ),
+                new ImmutableFloatArray( new float[] { 0.5f, -0.5f } ));
+
+        assertEquals( expectedVectors, actualVectors );
+
+        List< List< String >> actualBatches = new ArrayList<>();
+        for ( ObjectNode requestNode : this.requestNodeCaptor.getAllValues() )
+        {
+            assertEquals( "text-embedding-3-small", requestNode.path( "model" ).asString() );
+            assertEquals( 1_536, requestNode.path( "dimensions" ).asInt() );
+        assertEquals( "base64", requestNode.path( "encoding_format" ).asString() );
+            actualBatches.add( requestNode.path( "input" ).valueStream().map( JsonNode::asString ).toList() );
+        }
+
+        assertEquals( List.of( List.of( "Input 1", "Input 2" ),
+                               List.of( "Input 3 is long." ),
+                               List.of( "Input 4", "Input 5" )), actualBatches );
+
+        assertEquals( List.of( "Inputs: 2, Input Length: 14",
+                               "Inputs: 1, Input Length: 16",
+                               "Inputs: 2, Input Length: 14" ), this.startMessageCaptor.getAllValues() );
+
+        verify( this.mockOmegaCodexLogger ).println( "Embedding API Call, Tokens: 4" );
+        verify( this.mockOmegaCodexLogger ).println( "Embedding API Call, Tokens: 2" );
+        verify( this.mockOmegaCodexLogger ).println( "Embedding API Call, Tokens: 6" );
+        verifyNoMoreInteractions( this.mockOmegaCodexLogger );
+    }
+
+    private String readResource( String suffix ) throws IOException
+    {
+        String resourceName = this.getClass().getSimpleName() + "-" + suffix + ".json";
+
+        try ( InputStream resourceStream = this.getClass().getResourceAsStream( resourceName ))
+        {
+            return OmegaCodexTestUtil.readInputStream( resourceStream );
+        }
+    }
 }
@@ -0,0 +1,137 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class EmbeddingCacheCompactorTest
+{
+    @Mock private EmbeddingCacheService     mockEmbeddingCacheService;
+    @Mock private EmbeddingMemoryCache      mockEmbeddingMemoryCache;
+    @Mock private EmbeddingWriteBehindQueue mockEmbeddingWriteBehindQueue;
+    @Mock private OmegaCodexUtil            mockOmegaCodexUtil;
+    @Mock private OmegaCodexLogger          mockOmegaCodexLogger;
+
+    @Test
+    void testConstructor_nullEmbeddingCacheService()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new EmbeddingCacheCompactor( null ));
+
+        assertEquals( "Embedding cache service must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_negativeMaxAge()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingCacheCompactor( this.mockEmbeddingCacheService, null, null, Duration.ofMillis( -1 ),
+                        10, 1, false, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Max age must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void testCompact_nullLiveIds()
+    {
+        EmbeddingCacheCompactor embeddingCacheCompactor = this.createEmbeddingCacheCompactor();
+
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> embeddingCacheCompactor.compact( null ));
+
+        assertEquals( "Live IDs must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testCompact_evicted()
+    {
+        EmbeddingCacheCompactor embeddingCacheCompactor = this.createEmbeddingCacheCompactor();
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 5_000L );
+        when( this.mockEmbeddingCacheService.evictEmbeddings( 4_000L, 10, Set.of( 1L, 2L )))
+                .thenReturn( List.of( 3L, 4L, 5L, 6L, 7L, 8L, 9L ));
+        when( this.mockEmbeddingCacheService.incrementalVacuum( 64 )).thenReturn( 3L );
+
+        assertEquals( 7, embeddingCacheCompactor.compact( Set.of( 1L, 2L )));
+
+        verify( this.mockOmegaCodexLogger ).println(
+                "Embedding Cache Compacted, Live: 2, Evicted: 7, Freed Pages: 3" );
+        verifyNoMoreInteractions( this.mockOmegaCodexLogger );
+    }
+
+    @Test
+    void testCompact_flushesAndInvalidates()
+    {
+        EmbeddingCacheCompactor embeddingCacheCompactor = new EmbeddingCacheCompactor(
+                this.mockEmbeddingCacheService, this.mockEmbeddingMemoryCache, this.mockEmbeddingWriteBehindQueue,
+                Duration.ofSeconds( 1 ), 10, 64, false, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 5_000L );
+        when( this.mockEmbeddingCacheService.evictEmbeddings( 4_000L, 10, Set.of( 1L ))).thenReturn( List.of( 3L ));
+        when( this.mockEmbeddingCacheService.incrementalVacuum( 64 )).thenReturn( 1L );
+
+        assertEquals( 1, embeddingCacheCompactor.compact( Set.of( 1L )));
+
+        // queued writes are committed before eviction, and evicted IDs leave the memory cache afterwards
+        InOrder inOrder = inOrder(
+                this.mockEmbeddingWriteBehindQueue, this.mockEmbeddingCacheService, this.mockEmbeddingMemoryCache );
+        inOrder.verify( this.mockEmbeddingWriteBehindQueue ).flush();
+        inOrder.verify( this.mockEmbeddingCacheService ).evictEmbeddings( 4_000L, 10, Set.of( 1L ));
+        inOrder.verify( this.mockEmbeddingMemoryCache ).invalidate( List.of( 3L ));
+    }
+
+    @Test
+    void testCompact_nothingEvicted()
+    {
+        EmbeddingCacheCompactor embeddingCacheCompactor = this.createEmbeddingCacheCompactor();
+
+        when( this.mockOmegaCodexUtil.currentTimeMillis() ).thenReturn( 5_000L );
+        when( this.mockEmbeddingCacheService.evictEmbeddings( 4_000L, 10, Set.of() )).thenReturn( List.of() );
+        when( this.mockEmbeddingCacheService.incrementalVacuum( 64 )).thenReturn( 64L );
+
+        assertEquals( 0, embeddingCacheCompactor.compact( Set.of() ));
+
+        // free pages left over by an earlier run are still reclaimed
+        verify( this.mockOmegaCodexLogger ).println(
+                "Embedding Cache Compacted, Live: 0, Evicted: 0, Freed Pages: 64" );
+    }
+
+    private EmbeddingCacheCompactor createEmbeddingCacheCompactor()
+    {
+        return new EmbeddingCacheCompactor( this.mockEmbeddingCacheService, null, null, Duration.ofSeconds( 1 ), 10,
+                                            64, true, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+    }
+}
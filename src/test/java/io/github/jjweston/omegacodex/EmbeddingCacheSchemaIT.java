@@ -0,0 +1,292 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+class EmbeddingCacheSchemaIT
+{
+    private final VectorBlobCodec vectorBlobCodec = new VectorBlobCodec();
+
+    @Test
+    void testMigrate_newDatabase() throws Exception
+    {
+        try ( Connection connection = this.createConnection() )
+        {
+            this.createEmbeddingCacheSchema().migrate( connection );
+
+            assertEquals( 6, this.queryLong( connection, "PRAGMA user_version" ), "Schema Version" );
+            assertEquals( 0, this.queryLong( connection, "SELECT COUNT(*) FROM EmbeddingPartition" ), "Partitions" );
+            assertEquals( 2, this.queryLong( connection, "PRAGMA auto_vacuum" ), "Auto Vacuum" );
+        }
+    }
+
+    @Test
+    void testGetPartition() throws Exception
+    {
+        EmbeddingModel embeddingModel1 = new EmbeddingModel( "test-model", 3 );
+        EmbeddingModel embeddingModel2 = new EmbeddingModel( "test-model", 2 );
+
+        try ( Connection connection = this.createConnection() )
+        {
+            EmbeddingCacheSchema embeddingCacheSchema = this.createEmbeddingCacheSchema();
+            embeddingCacheSchema.migrate( connection );
+
+            EmbeddingCachePartition partition1 = new EmbeddingCachePartition( 1 );
+            EmbeddingCachePartition partition2 = new EmbeddingCachePartition( 2 );
+            assertEquals( partition1, embeddingCacheSchema.getPartition( connection, embeddingModel1 ));
+            assertEquals( partition2, embeddingCacheSchema.getPartition( connection, embeddingModel2 ));
+            assertEquals( partition1, embeddingCacheSchema.getPartition( connection, embeddingModel1 ));
+
+            assertEquals( "BLOB", this.queryString( connection,
+                    "SELECT type FROM pragma_table_info( 'Embedding_2' ) WHERE name = 'Vector'" ), "Vector Type" );
+            assertEquals( "BLOB", this.queryString( connection,
+                    "SELECT type FROM pragma_table_info( 'Embedding_2' ) WHERE name = 'Hash'" ), "Hash Type" );
+            assertEquals( "TEXT", this.queryString( connection,
+                    "SELECT type FROM pragma_table_info( 'EmbeddingInput_2' ) WHERE name = 'Input'" ), "Input Type" );
+            assertEquals( "Embedding_2_Hash, Embedding_2_LastAccess", this.queryString( connection,
+                    "SELECT group_concat( name, ', ' ) FROM ( SELECT name FROM sqlite_master " +
+                    "WHERE type = 'index' AND tbl_name = 'Embedding_2' ORDER BY name )" ), "Indexes" );
+            assertEquals( 2, this.queryLong( connection, "SELECT COUNT(*) FROM EmbeddingPartition" ), "Partitions" );
+        }
+    }
+
+    @Test
+    void testMigrate_legacyDatabase() throws Exception
+    {
+        try ( Connection connection = this.createConnection() )
+        {
+            this.createLegacyTable( connection );
+            for ( int i = 1; i <= 5; i++ ) this.insertLegacyRow( connection, "Input " + i, this.testVector( i ));
+            this.execute( connection, "DELETE FROM Embedding WHERE Id = 5" );
+
+            this.createEmbeddingCacheSchema().migrate( connection );
+
+            assertEquals( 6, this.queryLong( connection, "PRAGMA user_version" ), "Schema Version" );
+            assertEquals( 4, this.queryLong( connection, "SELECT COUNT(*) FROM Embedding_1" ), "Row Count" );
+            assertEquals( "text-embedding-3-small, 3", this.queryString( connection,
+                    "SELECT Model || ', ' || Dimensions FROM EmbeddingPartition WHERE Id = 1" ), "Partition" );
+            assertEquals( 4, this.queryLong( connection, "SELECT COUNT(*) FROM EmbeddingInput_1" ), "Input Count" );
+            assertEquals( 0, this.queryLong( connection,
+                    "SELECT COUNT(*) FROM Embedding_1 WHERE LastAccess = 0" ), "Unset Last Access" );
+            assertEquals( 2, this.queryLong( connection, "PRAGMA auto_vacuum" ), "Auto Vacuum" );
+            assertEquals( 0, this.queryLong( connection,
+                    "SELECT COUNT(*) FROM pragma_table_info( 'Embedding_1' ) WHERE name = 'Input'" ), "Input Column" );
+            for ( int i = 1; i <= 4; i++ ) assertEquals( this.testVector( i ), this.getVector( connection, i ));
+
+            EmbeddingModel embeddingModel = new EmbeddingModel( "text-embedding-3-small", 3 );
+            try ( EmbeddingCacheService embeddingCacheService =
+                          new EmbeddingCacheService( connection, embeddingModel ))
+            {
+                assertEquals( "Input 3", embeddingCacheService.getInput( 3 ));
+                assertEquals( new Embedding( 2, this.testVector( 2 )), embeddingCacheService.getEmbedding( "Input 2" ));
+                assertEquals( 6, embeddingCacheService.cacheEmbedding( "Input 6", this.testVector( 6 )), "Next ID" );
+            }
+        }
+    }
+
+    @Test
+    void testMigrate_resumeBackfill() throws Exception
+    {
+        ImmutableFloatArray convertedVector = new ImmutableFloatArray( new float[] { 0.25f, 0.25f } );
+
+        try ( Connection connection = this.createConnection() )
+        {
+            this.createLegacyTable( connection );
+            for ( int i = 1; i <= 3; i++ ) this.insertLegacyRow( connection, "Input " + i, this.testVector( i ));
+
+            this.execute( connection, "ALTER TABLE Embedding ADD COLUMN VectorBlob BLOB" );
+            try ( PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE Embedding SET VectorBlob = ? WHERE Id = 2" ))
+            {
+                statement.setBytes( 1, this.vectorBlobCodec.encode( convertedVector ));
+                statement.executeUpdate();
+            }
+
+            this.createEmbeddingCacheSchema().migrate( connection );
+
+            assertEquals( 6, this.queryLong( connection, "PRAGMA user_version" ), "Schema Version" );
+            assertEquals( this.testVector( 1 ), this.getVector( connection, 1 ));
+            assertEquals( convertedVector, this.getVector( connection, 2 ));
+            assertEquals( this.testVector( 3 ), this.getVector( connection, 3 ));
+        }
+    }
+
+    @Test
+    void testMigrate_overlappingPartitionIds() throws Exception
+    {
+        EmbeddingModel embeddingModel1 = new EmbeddingModel( "test-model", 3 );
+        EmbeddingModel embeddingModel2 = new EmbeddingModel( "test-model", 2 );
+
+        try ( Connection connection = this.createConnection() )
+        {
+            EmbeddingCacheSchema embeddingCacheSchema = this.createEmbeddingCacheSchema();
+            embeddingCacheSchema.migrate( connection );
+            embeddingCacheSchema.getPartition( connection, embeddingModel1 );
+            embeddingCacheSchema.getPartition( connection, embeddingModel2 );
+
+            // before version 6 each partition numbered its own rows, so both partitions start at ID 1
+            for ( int i = 1; i <= 3; i++ ) this.insertPartitionRow( connection, 1, i, "Model 1 Input " + i );
+            for ( int i = 1; i <= 2; i++ ) this.insertPartitionRow( connection, 2, i, "Model 2 Input " + i );
+            this.execute( connection, "DROP TABLE EmbeddingSequence" );
+            this.execute( connection, "PRAGMA user_version = 5" );
+
+            embeddingCacheSchema.migrate( connection );
+
+            assertEquals( 6, this.queryLong( connection, "PRAGMA user_version" ), "Schema Version" );
+            assertEquals( "1,2,3", this.queryString( connection,
+                    "SELECT group_concat( Id ) FROM ( SELECT Id FROM Embedding_1 ORDER BY Id )" ), "Partition 1 IDs" );
+            assertEquals( "4,5", this.queryString( connection,
+                    "SELECT group_concat( Id ) FROM ( SELECT Id FROM Embedding_2 ORDER BY Id )" ), "Partition 2 IDs" );
+            assertEquals( "Model 2 Input 1", this.queryString( connection,
+                    "SELECT Input FROM EmbeddingInput_2 WHERE Id = 4" ), "Moved Input" );
+            assertEquals( 5, this.queryLong( connection, "SELECT Seq FROM EmbeddingSequence" ), "Sequence" );
+
+            try ( EmbeddingCacheService embeddingCacheService =
+                          new EmbeddingCacheService( connection, embeddingModel1 ))
+            {
+                assertEquals( 6, embeddingCacheService.cacheEmbedding( "Model 1 Input 4", this.testVector( 4 )),
+                              "Next ID" );
+            }
+        }
+    }
+
+    @Test
+    void testMigrate_unsupportedVersion() throws Exception
+    {
+        try ( Connection connection = this.createConnection() )
+        {
+            this.execute( connection, "PRAGMA user_version = 99" );
+
+            OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                    () -> this.createEmbeddingCacheSchema().migrate( connection ));
+
+            assertEquals( "Embedding cache schema version is not supported. Version: 99, Current Version: 6",
+                          exception.getMessage() );
+        }
+    }
+
+    private EmbeddingCacheSchema createEmbeddingCacheSchema()
+    {
+        return new EmbeddingCacheSchema( 2, false, new OmegaCodexLogger() );
+    }
+
+    private Connection createConnection() throws Exception
+    {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( "jdbc:sqlite::memory:" );
+        return dataSource.getConnection();
+    }
+
+    private ImmutableFloatArray testVector( int seed )
+    {
+        return new ImmutableFloatArray( new float[] { -0.5f * seed, 0.125f * seed, 0.75f } );
+    }
+
+    private void createLegacyTable( Connection connection ) throws Exception
+    {
+        this.execute( connection,
+                """
+                CREATE TABLE Embedding
+                (
+                    Id     INTEGER PRIMARY KEY AUTOINCREMENT,
+                    Input  TEXT    UNIQUE NOT NULL,
+                    Vector TEXT           NOT NULL
+                )
+                """ );
+    }
+
+    private void insertLegacyRow( Connection connection, String input, ImmutableFloatArray vector ) throws Exception
+    {
+        try ( PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO Embedding ( Input, Vector ) VALUES ( ?, ? )" ))
+        {
+            statement.setString( 1, input );
+            statement.setString( 2, vector.toString() );
+            statement.executeUpdate();
+        }
+    }
+
+    private void insertPartitionRow( Connection connection, long partitionId, long id, String input )
+            throws Exception
+    {
+        EmbeddingCachePartition partition = new EmbeddingCachePartition( partitionId );
+
+        try ( PreparedStatement embeddingStatement = connection.prepareStatement(
+                      "INSERT INTO " + partition.embeddingTable() + " ( Id, Hash, Vector ) VALUES ( ?, ?, ? )" );
+              PreparedStatement inputStatement = connection.prepareStatement(
+                      "INSERT INTO " + partition.inputTable() + " ( Id, Input ) VALUES ( ?, ? )" ))
+        {
+            embeddingStatement.setLong( 1, id );
+            embeddingStatement.setBytes( 2, new InputDigest().digest( input ));
+            embeddingStatement.setBytes( 3, this.vectorBlobCodec.encode( this.testVector( (int) id )));
+            embeddingStatement.executeUpdate();
+
+            inputStatement.setLong( 1, id );
+            inputStatement.setString( 2, input );
+            inputStatement.executeUpdate();
+        }
+    }
+
+    private ImmutableFloatArray getVector( Connection connection, long id ) throws Exception
+    {
+        try ( PreparedStatement statement =
+                      connection.prepareStatement( "SELECT Vector FROM Embedding_1 WHERE Id = ?" ))
+        {
+            statement.setLong( 1, id );
+            try ( ResultSet result = statement.executeQuery() )
+            {
+                result.next();
+                return this.vectorBlobCodec.decode( result.getBytes( 1 ));
+            }
+        }
+    }
+
+    private long queryLong( Connection connection, String sql ) throws Exception
+    {
+        try ( Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery( sql ))
+        {
+            result.next();
+            return result.getLong( 1 );
+        }
+    }
+
+    private String queryString( Connection connection, String sql ) throws Exception
+    {
+        try ( Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery( sql ))
+        {
+            result.next();
+            return result.getString( 1 );
+        }
+    }
+
+    private void execute( Connection connection, String sql ) throws Exception
+    {
+        try ( Statement statement = connection.createStatement() ) { statement.execute( sql ); }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED" )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public class EmbeddingCacheServiceBenchmark
+{
+    private static final int inputCount      = 1_000;
+    private static final int vectorDimension = 1_536;
+
+    private final VectorBlobCodec vectorBlobCodec = new VectorBlobCodec();
+    private final InputDigest     inputDigest     = new InputDigest();
+
+    private Connection            connection;
+    private EmbeddingCacheService embeddingCacheService;
+    private String[]              inputs;
+    private int                   nextInput;
+
+    @Setup
+    public void setup() throws SQLException
+    {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( "jdbc:sqlite::memory:" );
+        this.connection = dataSource.getConnection();
+        this.embeddingCacheService = new EmbeddingCacheService(
+                this.connection, new EmbeddingModel( "benchmark-model", vectorDimension ));
+
+        Map< String, ImmutableFloatArray > vectors = new LinkedHashMap<>();
+        for ( int i = 0; i < inputCount; i++ )
+        {
+            float[] vector = new float[ vectorDimension ];
+            for ( int j = 0; j < vectorDimension; j++ ) vector[ j ] = ( i + j ) / (float) vectorDimension;
+            vectors.put( "Benchmark input " + i, new ImmutableFloatArray( vector ));
+        }
+
+        this.embeddingCacheService.cacheEmbeddings( vectors );
+        this.inputs = vectors.keySet().toArray( new String[ 0 ] );
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException
+    {
+        this.embeddingCacheService.close();
+        this.connection.close();
+    }
+
+    @Benchmark
+    public Embedding preparePerLookup() throws SQLException
+    {
+        try ( PreparedStatement statement = this.connection.prepareStatement(
+                "SELECT e.Id, e.Vector FROM Embedding_1 e JOIN EmbeddingInput_1 i ON i.Id = e.Id " +
+                "WHERE e.Hash = ? AND i.Input = ?" ))
+        {
+            String input = this.nextInput();
+            statement.setBytes( 1, this.inputDigest.digest( input ));
+            statement.setString( 2, input );
+
+            try ( ResultSet result = statement.executeQuery() )
+            {
+                if ( !result.next() ) return null;
+
+                long id = result.getLong( "Id" );
+                byte[] vectorBlob = result.getBytes( "Vector" );
+                return new Embedding( id, this.vectorBlobCodec.decode( vectorBlob ));
+            }
+        }
+    }
+
+    @Benchmark
+    public Embedding cachedStatement()
+    {
+        return this.embeddingCacheService.getEmbedding( this.nextInput() );
+    }
+
+    private String nextInput()
+    {
+        String input = this.inputs[ this.nextInput ];
+        this.nextInput = ( this.nextInput + 1 ) % this.inputs.length;
+        return input;
+    }
+}
@@ -20,12 +20,25 @@ package io.github.jjweston.omegacodex;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sqlite.SQLiteDataSource;
 
 import java.sql.Connection;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EmbeddingCacheServiceIT
 {
@@ -33,15 +46,16 @@ class EmbeddingCacheServiceIT
     void testCache() throws Exception
     {
         String testInput = "This is a test input.";
-        ImmutableDoubleArray testVector = new ImmutableDoubleArray( new double[] { -0.75, -0.5, 0.5, 0.75 } );
+        ImmutableFloatArray testVector = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } );
 
         String databaseUrl = "jdbc:sqlite::memory:";
         SQLiteDataSource dataSource = new SQLiteDataSource();
         dataSource.setUrl( databaseUrl );
 
-        try ( Connection connection = dataSource.getConnection() )
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 4 )))
         {
-            EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection );
             Assertions.assertNull( embeddingCacheService.getEmbedding( testInput ));
             long id = embeddingCacheService.cacheEmbedding( testInput, testVector );
             assertEquals( testInput, embeddingCacheService.getInput( id ));
@@ -55,4 +69,298 @@ class EmbeddingCacheServiceIT
             assertEquals( "Input must not be a duplicate.", exception.getMessage() );
         }
     }
+
+    @Test
+    void testBatchCache() throws Exception
+    {
+        int inputCount = 1_200;
+
+        Map< String, ImmutableFloatArray > testVectors = new LinkedHashMap<>();
+        for ( int i = 0; i < inputCount; i++ )
+        {
+            testVectors.put( "Test input " + i, new ImmutableFloatArray( new float[] { i, -i, 0.5f } ));
+        }
+
+        String databaseUrl = "jdbc:sqlite::memory:";
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( databaseUrl );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 3 )))
+        {
+            assertEquals( Map.of(), embeddingCacheService.getEmbeddings( testVectors.keySet() ));
+
+            Map< String, Long > ids = embeddingCacheService.cacheEmbeddings( testVectors );
+            assertEquals( List.copyOf( testVectors.keySet() ), List.copyOf( ids.keySet() ), "Inputs" );
+
+            Map< String, Embedding > cachedEmbeddings =
+                    embeddingCacheService.getEmbeddings( List.of( "Test input 0", "Missing", "Test input 1199" ));
+
+            assertEquals( 2, cachedEmbeddings.size(), "Cached Embedding Count" );
+            assertNull( cachedEmbeddings.get( "Missing" ));
+
+            for ( String input : List.of( "Test input 0", "Test input 1199" ))
+            {
+                Embedding expectedEmbedding = new Embedding( ids.get( input ), testVectors.get( input ));
+                assertEquals( expectedEmbedding, cachedEmbeddings.get( input ));
+                assertEquals( input, embeddingCacheService.getInput( ids.get( input )));
+            }
+
+            assertEquals( inputCount, embeddingCacheService.getEmbeddings( testVectors.keySet() ).size() );
+
+            IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                    () -> embeddingCacheService.cacheEmbeddings( Map.of(
+                            "New input", testVectors.get( "Test input 0" ),
+                            "Test input 0", testVectors.get( "Test input 0" ))));
+
+            assertEquals( "Input must not be a duplicate.", exception.getMessage() );
+            assertNull( embeddingCacheService.getEmbedding( "New input" ), "Rolled Back Input" );
+        }
+    }
+
+    @Test
+    void testSharedIds() throws Exception
+    {
+        ImmutableFloatArray vector1 = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } );
+        ImmutableFloatArray vector2 = new ImmutableFloatArray( new float[] { 0.25f, -0.25f } );
+
+        String databaseUrl = "jdbc:sqlite::memory:";
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( databaseUrl );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService1 =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 4 ));
+              EmbeddingCacheService embeddingCacheService2 =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 2 )))
+        {
+            // partitions for different models draw from one sequence, so their IDs never overlap
+            assertEquals( 1, embeddingCacheService1.cacheEmbedding( "Input 1", vector1 ));
+            assertEquals( 2, embeddingCacheService2.cacheEmbedding( "Input 1", vector2 ));
+            assertEquals( 3, embeddingCacheService1.reserveIds( 2 ));
+            assertEquals( Map.of( "Input 2", 5L ),
+                          embeddingCacheService2.cacheEmbeddings( Map.of( "Input 2", vector2 )));
+            assertEquals( 6, embeddingCacheService1.cacheEmbedding( "Input 2", vector1 ));
+
+            assertEquals( new Embedding( 1, vector1 ), embeddingCacheService1.getEmbedding( "Input 1" ));
+            assertEquals( new Embedding( 2, vector2 ), embeddingCacheService2.getEmbedding( "Input 1" ));
+        }
+    }
+
+    @Test
+    void testForEachEmbedding() throws Exception
+    {
+        ImmutableFloatArray vector1 = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } );
+        ImmutableFloatArray vector2 = new ImmutableFloatArray( new float[] { 0.25f, 0.5f, -0.5f, -0.25f } );
+
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( "jdbc:sqlite::memory:" );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 4 )))
+        {
+            assertEquals( 0, embeddingCacheService.getEmbeddingCount(), "Embedding Count" );
+
+            long id1 = embeddingCacheService.cacheEmbedding( "Input 1", vector1 );
+            long id2 = embeddingCacheService.cacheEmbedding( "Input 2", vector2 );
+
+            List< Embedding > embeddings = new ArrayList<>();
+            embeddingCacheService.forEachEmbedding( embeddings::add );
+
+            assertEquals( 2, embeddingCacheService.getEmbeddingCount(), "Embedding Count" );
+            assertEquals( List.of( new Embedding( id1, vector1 ), new Embedding( id2, vector2 )), embeddings );
+
+            try ( EmbeddingVectorArena embeddingVectorArena =
+                          new EmbeddingVectorArena( embeddingCacheService.getEmbeddingModel(), 2 ))
+            {
+                assertEquals( 2, embeddingVectorArena.load( embeddingCacheService ), "Loaded Count" );
+                assertEquals( vector2, embeddingVectorArena.getVector( id2 ));
+            }
+        }
+    }
+
+    @Test
+    void testQuantizedStorage() throws Exception
+    {
+        ImmutableFloatArray vector1 = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } );
+        ImmutableFloatArray vector2 = new ImmutableFloatArray( new float[] { 0.1f, 0.2f, -0.3f, 0.05f } );
+        EmbeddingModel embeddingModel = new EmbeddingModel( "test-model", 4 );
+
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( "jdbc:sqlite::memory:" );
+
+        try ( Connection connection = dataSource.getConnection() )
+        {
+            long id1;
+            try ( EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection, embeddingModel ))
+            {
+                id1 = embeddingCacheService.cacheEmbedding( "Input 1", vector1 );
+            }
+
+            try ( EmbeddingCacheService embeddingCacheService =
+                          new EmbeddingCacheService( connection, embeddingModel, VectorStorageFormat.INT8 ))
+            {
+                long id2 = embeddingCacheService.cacheEmbedding( "Input 2", vector2 );
+
+                // rows written before switching formats still read back at full precision
+                assertEquals( new Embedding( id1, vector1 ), embeddingCacheService.getEmbedding( "Input 1" ));
+
+                Embedding embedding2 = embeddingCacheService.getEmbedding( "Input 2" );
+                assertEquals( id2, embedding2.id(), "ID" );
+                Assertions.assertArrayEquals( vector2.getArray(), embedding2.vector().getArray(), 0.001f );
+
+                try ( Statement statement = connection.createStatement();
+                      ResultSet result = statement.executeQuery(
+                              "SELECT Id, LENGTH( Vector ) FROM Embedding_1 ORDER BY Id" ))
+                {
+                    assertTrue( result.next() );
+                    assertEquals( 16, result.getInt( 2 ), "Float Blob Length" );
+                    assertTrue( result.next() );
+                    assertEquals( 12, result.getInt( 2 ), "Quantized Blob Length" );
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWriteBehind() throws Exception
+    {
+        ImmutableFloatArray testVector = new ImmutableFloatArray( new float[] { 0.25f, -0.25f } );
+
+        String databaseUrl = "jdbc:sqlite::memory:";
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( databaseUrl );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 2 )))
+        {
+            assertEquals( 1, embeddingCacheService.cacheEmbedding( "Input 1", testVector ));
+
+            Map< String, Embedding > embeddings;
+            try ( EmbeddingWriteBehindQueue embeddingWriteBehindQueue =
+                          new EmbeddingWriteBehindQueue( embeddingCacheService, 4, 2, 3 ))
+            {
+                Map< String, ImmutableFloatArray > testVectors = new LinkedHashMap<>();
+                for ( int i = 2; i <= 5; i++ ) testVectors.put( "Input " + i, testVector );
+                embeddings = embeddingWriteBehindQueue.addAll( testVectors );
+            }
+
+            assertEquals( List.of( 2L, 3L, 4L, 5L ), embeddings.values().stream().map( Embedding::id ).toList() );
+            for ( Map.Entry< String, Embedding > entry : embeddings.entrySet() )
+            {
+                assertEquals( entry.getValue(), embeddingCacheService.getEmbedding( entry.getKey() ));
+            }
+
+            // the unused tail of the reserved block is skipped rather than reused
+            assertEquals( 8, embeddingCacheService.cacheEmbedding( "Input 6", testVector ), "Next ID" );
+
+            // an input that was committed in the meantime keeps its stored row instead of failing the batch
+            Map< String, Long > ids = embeddingCacheService.cacheReservedEmbeddings( Map.of(
+                    "Input 2", new Embedding( 20, testVector ), "Input 7", new Embedding( 21, testVector )));
+            assertEquals( Map.of( "Input 2", 2L, "Input 7", 21L ), ids );
+            assertEquals( 2, embeddingCacheService.getEmbedding( "Input 2" ).id() );
+            assertEquals( 21, embeddingCacheService.getEmbedding( "Input 7" ).id() );
+        }
+    }
+
+    @Test
+    void testEvictEmbeddings( @TempDir Path tempDir ) throws Exception
+    {
+        int inputCount = 200;
+        float[] testValues = new float[ 256 ];
+        Arrays.fill( testValues, 0.5f );
+        ImmutableFloatArray testVector = new ImmutableFloatArray( testValues );
+
+        String databaseUrl = "jdbc:sqlite:" + tempDir.resolve( "test.db" );
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( databaseUrl );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 256 )))
+        {
+            Map< String, ImmutableFloatArray > testVectors = new LinkedHashMap<>();
+            for ( int i = 1; i <= inputCount; i++ ) testVectors.put( "Input " + i, testVector );
+            embeddingCacheService.cacheEmbeddings( testVectors );
+
+            // IDs 1 to 100 are old, and the rest were accessed in ascending order
+            try ( Statement statement = connection.createStatement() )
+            {
+                statement.executeUpdate( "UPDATE Embedding_1 SET LastAccess = Id * 10" );
+                statement.executeUpdate( "UPDATE Embedding_1 SET LastAccess = 5 WHERE Id <= 100" );
+            }
+
+            // reading an embedding refreshes its access time, which keeps it out of the size-based eviction
+            long now = System.currentTimeMillis();
+            assertEquals( 150, embeddingCacheService.getEmbedding( "Input 150" ).id() );
+
+            List< Long > evictedIds = embeddingCacheService.evictEmbeddings( 10, 90, List.of( 1L, 2L, 101L ));
+
+            // 98 old embeddings go by age, then the 12 least recently used of the rest go by size, skipping live 101
+            assertEquals( 110, evictedIds.size() );
+            assertTrue( evictedIds.contains( 3L ));
+            assertTrue( evictedIds.contains( 113L ));
+            assertFalse( evictedIds.contains( 101L ));
+            assertEquals( "Input 1", embeddingCacheService.getInput( 1 ));
+            assertEquals( "Input 101", embeddingCacheService.getInput( 101 ));
+            assertNull( embeddingCacheService.getEmbedding( "Input 3" ));
+            assertNull( embeddingCacheService.getEmbedding( "Input 113" ));
+            assertEquals( 114, embeddingCacheService.getEmbedding( "Input 114" ).id() );
+            assertEquals( 150, embeddingCacheService.getEmbedding( "Input 150" ).id() );
+
+            try ( Statement statement = connection.createStatement();
+                  ResultSet result = statement.executeQuery(
+                          "SELECT COUNT(*), min( LastAccess ) FROM Embedding_1 WHERE Id = 150" ))
+            {
+                assertTrue( result.next() );
+                assertEquals( 1, result.getLong( 1 ));
+                assertTrue( result.getLong( 2 ) >= now, "Refreshed Access Time" );
+            }
+
+            long freedPageCount = embeddingCacheService.incrementalVacuum( 1_000 );
+            assertTrue( freedPageCount > 0, "Freed Pages: " + freedPageCount );
+
+            try ( Statement statement = connection.createStatement();
+                  ResultSet result = statement.executeQuery( "PRAGMA freelist_count" ))
+            {
+                assertTrue( result.next() );
+                assertEquals( 0, result.getLong( 1 ), "Free Pages" );
+            }
+        }
+    }
+
+    @Test
+    void testHashCollision() throws Exception
+    {
+        ImmutableFloatArray testVector1 = new ImmutableFloatArray( new float[] { 0.25f, 0.5f } );
+        ImmutableFloatArray testVector2 = new ImmutableFloatArray( new float[] { -0.25f, -0.5f } );
+
+        String databaseUrl = "jdbc:sqlite::memory:";
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl( databaseUrl );
+
+        try ( Connection connection = dataSource.getConnection();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connection, new EmbeddingModel( "test-model", 2 )))
+        {
+            long id1 = embeddingCacheService.cacheEmbedding( "Input 1", testVector1 );
+            long id2 = embeddingCacheService.cacheEmbedding( "Input 2", testVector2 );
+
+            // force both rows onto the same hash, so only the stored input can tell them apart
+            try ( PreparedStatement statement = connection.prepareStatement( "UPDATE Embedding_1 SET Hash = ?" ))
+            {
+                statement.setBytes( 1, new InputDigest().digest( "Input 1" ));
+                statement.executeUpdate();
+            }
+
+            assertEquals( new Embedding( id1, testVector1 ), embeddingCacheService.getEmbedding( "Input 1" ));
+            assertNull( embeddingCacheService.getEmbedding( "Input 2" ));
+            assertEquals( Map.of( "Input 1", new Embedding( id1, testVector1 )),
+                          embeddingCacheService.getEmbeddings( List.of( "Input 1" )));
+            assertEquals( "Input 2", embeddingCacheService.getInput( id2 ));
+        }
+    }
 }
@@ -26,12 +26,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -39,24 +46,88 @@ import static org.mockito.Mockito.when;
 @ExtendWith( MockitoExtension.class )
 class EmbeddingCacheServiceTest
 {
+    private final EmbeddingModel testEmbeddingModel = new EmbeddingModel( "test-model", 4 );
+
     private final Embedding testEmbedding =
-            new Embedding( 42, new ImmutableDoubleArray( new double[] { -0.75, -0.5, 0.5, 0.75 } ));
+            new Embedding( 42, new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } ));
 
-    @Mock private OmegaCodexLogger  mockOmegaCodexLogger;
-    @Mock private Connection        mockConnection;
-    @Mock private PreparedStatement mockPreparedStatement;
-    @Mock private ResultSet         mockResultSet;
+    @Mock private OmegaCodexUtil       mockOmegaCodexUtil;
+    @Mock private OmegaCodexLogger     mockOmegaCodexLogger;
+    @Mock private EmbeddingCacheSchema mockEmbeddingCacheSchema;
+    @Mock private Connection           mockConnection;
+    @Mock private PreparedStatement    mockPreparedStatement;
+    @Mock private ResultSet            mockResultSet;
 
     @Test
     void testConstructor_nullConnection()
     {
         @SuppressWarnings( "DataFlowIssue" )
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
-                () -> new EmbeddingCacheService( false, null, this.mockOmegaCodexLogger ));
+                () -> new EmbeddingCacheService( false, (Connection) null, this.testEmbeddingModel,
+                        VectorStorageFormat.FLOAT32, this.mockEmbeddingCacheSchema, this.mockOmegaCodexUtil,
+                        this.mockOmegaCodexLogger ));
 
         assertEquals( "Connection must not be null.", exception.getMessage() );
     }
 
+    @Test
+    void testConstructor_nullConnectionPool()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingCacheService( false, (SQLiteConnectionPool) null, this.testEmbeddingModel,
+                        VectorStorageFormat.FLOAT32, this.mockEmbeddingCacheSchema, this.mockOmegaCodexUtil,
+                        this.mockOmegaCodexLogger ));
+
+        assertEquals( "Connection pool must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_nullEmbeddingModel()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingCacheService(
+                        false, this.mockConnection, null, VectorStorageFormat.FLOAT32, this.mockEmbeddingCacheSchema,
+                        this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Embedding model must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_nullVectorStorageFormat()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingCacheService(
+                        false, this.mockConnection, this.testEmbeddingModel, null, this.mockEmbeddingCacheSchema,
+                        this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Vector storage format must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_nullEmbeddingCacheSchema()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingCacheService(
+                        false, this.mockConnection, this.testEmbeddingModel, VectorStorageFormat.FLOAT32, null,
+                        this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Embedding cache schema must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_migratesSchema()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        assertEquals( this.testEmbeddingModel, embeddingCacheService.getEmbeddingModel() );
+        verify( this.mockEmbeddingCacheSchema ).migrate( this.mockConnection );
+        verify( this.mockEmbeddingCacheSchema ).getPartition( this.mockConnection, this.testEmbeddingModel );
+    }
+
     @Test
     void testGetEmbedding_nullInput() throws Exception
     {
@@ -84,13 +155,31 @@ class EmbeddingCacheServiceTest
     {
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
 
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
         when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
-        when( this.mockResultSet.next() ).thenReturn( true );
+        when( this.mockResultSet.next() ).thenReturn( true ).thenReturn( false );
+        when ( this.mockResultSet.getString( "Input" )).thenReturn( "Test" );
         when ( this.mockResultSet.getLong( "Id" )).thenReturn( this.testEmbedding.id() );
-        when ( this.mockResultSet.getString( "Vector" )).thenReturn( this.testEmbedding.vector().toString() );
+        when ( this.mockResultSet.getBytes( "Vector" ))
+                .thenReturn( new VectorBlobCodec().encode( this.testEmbedding.vector() ));
 
         Embedding actualEmbedding = embeddingCacheService.getEmbedding( "Test" );
         assertEquals( this.testEmbedding, actualEmbedding );
+        verify( this.mockPreparedStatement ).setBytes( 1, new InputDigest().digest( "Test" ));
+    }
+
+    @Test
+    void testGetEmbedding_hashCollision() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( true ).thenReturn( false );
+        when ( this.mockResultSet.getString( "Input" )).thenReturn( "Other" );
+
+        Embedding actualEmbedding = embeddingCacheService.getEmbedding( "Test" );
+        assertNull( actualEmbedding );
     }
 
     @Test
@@ -98,6 +187,7 @@ class EmbeddingCacheServiceTest
     {
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
 
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
         when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
         when( this.mockResultSet.next() ).thenReturn( false );
 
@@ -105,6 +195,117 @@ class EmbeddingCacheServiceTest
         assertNull( actualEmbedding );
     }
 
+    @Test
+    void testGetEmbedding_reusesStatement() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( false );
+
+        assertNull( embeddingCacheService.getEmbedding( "Test 1" ));
+        assertNull( embeddingCacheService.getEmbedding( "Test 2" ));
+        embeddingCacheService.close();
+
+        verify( this.mockConnection, times( 1 )).prepareStatement( any() );
+        verify( this.mockPreparedStatement ).clearParameters();
+        verify( this.mockResultSet, times( 2 )).close();
+        verify( this.mockPreparedStatement ).close();
+    }
+
+    @Test
+    void testGetEmbedding_reader() throws Exception
+    {
+        Connection mockReader = mock( Connection.class );
+        PreparedStatement mockReaderStatement = mock( PreparedStatement.class );
+
+        when( this.mockEmbeddingCacheSchema.getPartition( this.mockConnection, this.testEmbeddingModel ))
+                .thenReturn( new EmbeddingCachePartition( 1 ));
+
+        EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService(
+                false, new SQLiteConnectionPool( this.mockConnection, List.of( mockReader )),
+                this.testEmbeddingModel, VectorStorageFormat.FLOAT32, this.mockEmbeddingCacheSchema,
+                this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+
+        when( mockReader.prepareStatement( any() )).thenReturn( mockReaderStatement );
+        when( mockReaderStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( false );
+
+        assertNull( embeddingCacheService.getEmbedding( "Test" ));
+        embeddingCacheService.close();
+
+        verify( this.mockEmbeddingCacheSchema ).migrate( this.mockConnection );
+        verify( this.mockConnection, never() ).prepareStatement( any() );
+        verify( mockReaderStatement ).close();
+    }
+
+    @Test
+    void testGetEmbeddings_nullInputs()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.getEmbeddings( null ));
+
+        assertEquals( "Inputs must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddings_nullInput()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.getEmbeddings( Arrays.asList( "Test", null )));
+
+        assertEquals( "Input must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddings_success() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        when( this.mockConnection.prepareStatement(
+                "SELECT e.Id, e.Vector, i.Input FROM Embedding_1 e JOIN EmbeddingInput_1 i ON i.Id = e.Id " +
+                "WHERE e.Hash IN ( ?, ? )" ))
+                .thenReturn( this.mockPreparedStatement );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( true ).thenReturn( false );
+        when ( this.mockResultSet.getLong( "Id" )).thenReturn( this.testEmbedding.id() );
+        when ( this.mockResultSet.getString( "Input" )).thenReturn( "Hit" );
+        when ( this.mockResultSet.getBytes( "Vector" ))
+                .thenReturn( new VectorBlobCodec().encode( this.testEmbedding.vector() ));
+
+        Map< String, Embedding > actualEmbeddings =
+                embeddingCacheService.getEmbeddings( List.of( "Hit", "Miss", "Hit" ));
+
+        assertEquals( Map.of( "Hit", this.testEmbedding ), actualEmbeddings );
+        verify( this.mockPreparedStatement ).setBytes( 1, new InputDigest().digest( "Hit" ));
+        verify( this.mockPreparedStatement ).setBytes( 2, new InputDigest().digest( "Miss" ));
+    }
+
+    @Test
+    void testGetEmbeddings_paddedParameters() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        when( this.mockConnection.prepareStatement(
+                "SELECT e.Id, e.Vector, i.Input FROM Embedding_1 e JOIN EmbeddingInput_1 i ON i.Id = e.Id " +
+                "WHERE e.Hash IN ( ?, ?, ?, ? )" ))
+                .thenReturn( this.mockPreparedStatement );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( false );
+
+        assertEquals( Map.of(), embeddingCacheService.getEmbeddings( List.of( "Test 1", "Test 2", "Test 3" )));
+        InputDigest inputDigest = new InputDigest();
+        verify( this.mockPreparedStatement ).setBytes( 1, inputDigest.digest( "Test 1" ));
+        verify( this.mockPreparedStatement ).setBytes( 2, inputDigest.digest( "Test 2" ));
+        verify( this.mockPreparedStatement ).setBytes( 3, inputDigest.digest( "Test 3" ));
+        verify( this.mockPreparedStatement ).setBytes( 4, inputDigest.digest( "Test 3" ));
+    }
+
     @Test
     void testCacheEmbedding_nullInput() throws Exception
     {
@@ -144,48 +345,150 @@ class EmbeddingCacheServiceTest
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
 
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
-                () -> embeddingCacheService.cacheEmbedding( "Test", new ImmutableDoubleArray( new double[] {} )));
+                () -> embeddingCacheService.cacheEmbedding( "Test", new ImmutableFloatArray( new float[] {} )));
 
         assertEquals( "Vector must not be empty.", exception.getMessage() );
     }
 
     @Test
-    @SuppressWarnings( "MagicConstant" )
+    void testCacheEmbedding_wrongDimensions()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.cacheEmbedding( "Test", new ImmutableFloatArray( new float[] { 0.5f } )));
+
+        assertEquals( "Vector dimensions must match the embedding model. Dimensions: 1, Model Dimensions: 4",
+                      exception.getMessage() );
+    }
+
+    @Test
     void testCacheEmbedding_duplicate() throws Exception
     {
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
 
-        when( this.mockConnection.prepareStatement( any(), anyInt() )).thenReturn( this.mockPreparedStatement );
-        when( this.mockPreparedStatement.executeUpdate() ).thenReturn( 0 );
+        this.stubCachedInput( "Test" );
 
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
                 () -> embeddingCacheService.cacheEmbedding( "Test", this.testEmbedding.vector() ));
 
         assertEquals( "Input must not be a duplicate.", exception.getMessage() );
+        verify( this.mockConnection ).rollback();
+        verify( this.mockConnection, never() ).commit();
     }
 
     @Test
-    @SuppressWarnings( "MagicConstant" )
     void testCacheEmbedding_success() throws Exception
     {
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( true );
 
-        when( this.mockConnection.prepareStatement( any(), anyInt() )).thenReturn( this.mockPreparedStatement );
-        when( this.mockPreparedStatement.executeUpdate() ).thenReturn( 1 );
-        when( this.mockPreparedStatement.getGeneratedKeys() ).thenReturn( this.mockResultSet );
-        when( this.mockResultSet.next() ).thenReturn( true );
-        when( this.mockResultSet.getLong( 1 )).thenReturn( 1_042L );
+        PreparedStatement mockInsertStatement = this.stubInsert( 1_041L );
         assertEquals( 1_042, embeddingCacheService.cacheEmbedding( "Test", this.testEmbedding.vector() ));
 
+        verify( mockInsertStatement ).setLong( 1, 1_042 );
+        verify( mockInsertStatement ).setBytes( 2, new InputDigest().digest( "Test" ));
+        verify( this.mockPreparedStatement ).setString( 2, "Test" );
+        verify( this.mockConnection ).commit();
         verify( this.mockOmegaCodexLogger ).println( "Cache New Embedding, ID: 1,042" );
         verifyNoMoreInteractions( this.mockOmegaCodexLogger );
     }
 
+    @Test
+    void testCacheEmbeddings_nullVectors()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.cacheEmbeddings( null ));
+
+        assertEquals( "Vectors must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testCacheEmbeddings_emptyVector()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.cacheEmbeddings(
+                        Map.of( "Test", new ImmutableFloatArray( new float[] {} ))));
+
+        assertEquals( "Vector must not be empty.", exception.getMessage() );
+    }
+
+    @Test
+    void testCacheEmbeddings_duplicate() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        this.stubCachedInput( "Test 2" );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.cacheEmbeddings( Map.of(
+                        "Test 1", this.testEmbedding.vector(), "Test 2", this.testEmbedding.vector() )));
+
+        assertEquals( "Input must not be a duplicate.", exception.getMessage() );
+        verify( this.mockConnection ).rollback();
+        verify( this.mockConnection, never() ).commit();
+    }
+
+    @Test
+    void testCacheEmbeddings_success() throws Exception
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( true );
+
+        this.stubInsert( 1_000L, 1_001L );
+
+        Map< String, ImmutableFloatArray > vectors = new LinkedHashMap<>();
+        vectors.put( "Test 1", this.testEmbedding.vector() );
+        vectors.put( "Test 2", this.testEmbedding.vector() );
+        Map< String, Long > actualIds = embeddingCacheService.cacheEmbeddings( vectors );
+
+        assertEquals( Map.of( "Test 1", 1_001L, "Test 2", 1_002L ), actualIds );
+        verify( this.mockConnection ).commit();
+        verify( this.mockOmegaCodexLogger ).println( "Cache New Embeddings, Count: 2" );
+        verifyNoMoreInteractions( this.mockOmegaCodexLogger );
+    }
+
+    @Test
+    void testEvictEmbeddings_negativeMaxCount()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.evictEmbeddings( 0, -1, List.of() ));
+
+        assertEquals( "Max count must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void testEvictEmbeddings_nullLiveIds()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.evictEmbeddings( 0, 0, null ));
+
+        assertEquals( "Live IDs must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testIncrementalVacuum_invalidPageCount()
+    {
+        EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingCacheService.incrementalVacuum( 0 ));
+
+        assertEquals( "Page count must be positive.", exception.getMessage() );
+    }
+
     @Test
     void testGetInput_notFound() throws Exception
     {
         EmbeddingCacheService embeddingCacheService = this.getEmbeddingCacheService( false );
 
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
         when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
         when( this.mockResultSet.next() ).thenReturn( false );
 
@@ -202,6 +505,7 @@ class EmbeddingCacheServiceTest
 
         String testInput = "Test Input";
 
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
         when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
         when( this.mockResultSet.next() ).thenReturn( true );
         when ( this.mockResultSet.getString( "Input" )).thenReturn( testInput );
@@ -209,9 +513,49 @@ class EmbeddingCacheServiceTest
         assertEquals( testInput, embeddingCacheService.getInput( 42 ));
     }
 
-    private EmbeddingCacheService getEmbeddingCacheService( boolean logSummary ) throws Exception
+    private void stubCachedInput( String input ) throws Exception
+    {
+        when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( true ).thenReturn( false );
+        when ( this.mockResultSet.getString( "Input" )).thenReturn( input );
+        when ( this.mockResultSet.getLong( "Id" )).thenReturn( this.testEmbedding.id() );
+        when ( this.mockResultSet.getBytes( "Vector" ))
+                .thenReturn( new VectorBlobCodec().encode( this.testEmbedding.vector() ));
+    }
+
+    @SuppressWarnings( "MagicConstant" )
+    private PreparedStatement stubInsert( Long sequence, Long... sequences ) throws Exception
     {
+        PreparedStatement mockSequenceStatement = mock( PreparedStatement.class );
+        ResultSet mockSequenceResult = mock( ResultSet.class );
+        PreparedStatement mockUpdateStatement = mock( PreparedStatement.class );
+        PreparedStatement mockInsertStatement = mock( PreparedStatement.class );
+
         when( this.mockConnection.prepareStatement( any() )).thenReturn( this.mockPreparedStatement );
-        return new EmbeddingCacheService( logSummary, this.mockConnection, this.mockOmegaCodexLogger );
+        when( this.mockPreparedStatement.executeQuery() ).thenReturn( this.mockResultSet );
+        when( this.mockResultSet.next() ).thenReturn( false );
+        when( this.mockConnection.prepareStatement( startsWith( "SELECT Seq FROM EmbeddingSequence" )))
+                .thenReturn( mockSequenceStatement );
+        when( mockSequenceStatement.executeQuery() ).thenReturn( mockSequenceResult );
+        when( mockSequenceResult.next() ).thenReturn( true );
+        when( mockSequenceResult.getLong( 1 )).thenReturn( sequence, sequences );
+        when( this.mockConnection.prepareStatement( startsWith( "UPDATE EmbeddingSequence" )))
+                .thenReturn( mockUpdateStatement );
+        when( mockUpdateStatement.executeUpdate() ).thenReturn( 1 );
+        when( this.mockConnection.prepareStatement( startsWith( "INSERT INTO Embedding_1 " )))
+                .thenReturn( mockInsertStatement );
+
+        return mockInsertStatement;
+    }
+
+    private EmbeddingCacheService getEmbeddingCacheService( boolean logSummary )
+    {
+        when( this.mockEmbeddingCacheSchema.getPartition( this.mockConnection, this.testEmbeddingModel ))
+                .thenReturn( new EmbeddingCachePartition( 1 ));
+
+        return new EmbeddingCacheService( logSummary, this.mockConnection, this.testEmbeddingModel,
+                VectorStorageFormat.FLOAT32, this.mockEmbeddingCacheSchema, this.mockOmegaCodexUtil,
+                this.mockOmegaCodexLogger );
     }
 }
@@ -0,0 +1,162 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddingMemoryCacheTest
+{
+    private static final int  dimensions  = 100;
+    private static final long entryWeight = 96 + ( 2 * 7 ) + ( 4 * dimensions );
+
+    @Test
+    void testConstructor_invalidMemoryBudget()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingMemoryCache( 0 ));
+
+        assertEquals( "Memory budget must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testGet_nullInput()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingMemoryCache.get( null ));
+
+        assertEquals( "Input must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testPut_nullEmbedding()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> embeddingMemoryCache.put( "Input", null ));
+
+        assertEquals( "Embedding must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testGet_hitAndMiss()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+        Embedding embedding = this.createEmbedding( 1 );
+
+        assertNull( embeddingMemoryCache.get( "Input 1" ));
+        embeddingMemoryCache.put( "Input 1", embedding );
+        assertEquals( embedding, embeddingMemoryCache.get( "Input 1" ));
+
+        assertEquals( 1, embeddingMemoryCache.getHitCount(), "Hit Count" );
+        assertEquals( 1, embeddingMemoryCache.getMissCount(), "Miss Count" );
+        assertEquals( 0, embeddingMemoryCache.getEvictionCount(), "Eviction Count" );
+        assertEquals( 1, embeddingMemoryCache.size(), "Size" );
+        assertEquals( entryWeight, embeddingMemoryCache.getWeight(), "Weight" );
+    }
+
+    @Test
+    void testPut_replace()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+        Embedding embedding = this.createEmbedding( 2 );
+
+        embeddingMemoryCache.put( "Input 1", this.createEmbedding( 1 ));
+        embeddingMemoryCache.put( "Input 1", embedding );
+
+        assertEquals( embedding, embeddingMemoryCache.get( "Input 1" ));
+        assertEquals( 1, embeddingMemoryCache.size(), "Size" );
+        assertEquals( entryWeight, embeddingMemoryCache.getWeight(), "Weight" );
+    }
+
+    @Test
+    void testPut_tooLarge()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache( entryWeight - 1 );
+
+        embeddingMemoryCache.put( "Input 1", this.createEmbedding( 1 ));
+
+        assertEquals( 0, embeddingMemoryCache.size(), "Size" );
+        assertEquals( 0, embeddingMemoryCache.getWeight(), "Weight" );
+    }
+
+    @Test
+    void testPut_memoryBudget()
+    {
+        long memoryBudget = entryWeight * 10;
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache( memoryBudget );
+
+        for ( int i = 0; i < 100; i++ ) embeddingMemoryCache.put( "Input " + ( i % 10 ), this.createEmbedding( i ));
+        for ( int i = 10; i < 40; i++ ) embeddingMemoryCache.put( "Input " + ( i % 100 ), this.createEmbedding( i ));
+
+        assertTrue( embeddingMemoryCache.getWeight() <= memoryBudget, "Weight" );
+        assertTrue( embeddingMemoryCache.getEvictionCount() > 0, "Eviction Count" );
+    }
+
+    @Test
+    void testPut_frequencyAdmission()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache( entryWeight * 10 );
+
+        for ( int i = 0; i < 9; i++ )
+        {
+            String input = "Input " + i;
+            embeddingMemoryCache.put( input, this.createEmbedding( i ));
+            for ( int j = 0; j < 5; j++ ) assertNotNull( embeddingMemoryCache.get( input ));
+        }
+
+        for ( int i = 10; i < 60; i++ ) embeddingMemoryCache.put( "Input " + i, this.createEmbedding( i ));
+
+        for ( int i = 0; i < 9; i++ ) assertNotNull( embeddingMemoryCache.get( "Input " + i ), "Input " + i );
+        assertEquals( 50, embeddingMemoryCache.getEvictionCount(), "Eviction Count" );
+    }
+
+    @Test
+    void testInvalidate()
+    {
+        EmbeddingMemoryCache embeddingMemoryCache = new EmbeddingMemoryCache();
+
+        for ( int i = 0; i < 4; i++ ) embeddingMemoryCache.put( "Input " + i, this.createEmbedding( i ));
+        embeddingMemoryCache.invalidate( List.of( 1L, 3L, 9L ));
+
+        assertNotNull( embeddingMemoryCache.get( "Input 0" ));
+        assertNull( embeddingMemoryCache.get( "Input 1" ));
+        assertNotNull( embeddingMemoryCache.get( "Input 2" ));
+        assertNull( embeddingMemoryCache.get( "Input 3" ));
+        assertEquals( 2, embeddingMemoryCache.size(), "Size" );
+        assertEquals( entryWeight * 2, embeddingMemoryCache.getWeight(), "Weight" );
+    }
+
+    private Embedding createEmbedding( int id )
+    {
+        float[] vector = new float[ dimensions ];
+        for ( int i = 0; i < dimensions; i++ ) vector[ i ] = ( id + i ) * 0.25f;
+        return new Embedding( id, new ImmutableFloatArray( vector ));
+    }
+}
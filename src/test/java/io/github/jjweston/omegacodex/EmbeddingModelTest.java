@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -23,29 +23,32 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
-class ImmutableDoubleArrayTest
+class EmbeddingModelTest
 {
     @Test
-    void constructor_nullArray()
+    void constructor_nullName()
     {
-        double[] nullArray = null;
-
-        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
         IllegalArgumentException exception = assertThrowsExactly(
-                IllegalArgumentException.class, () -> new ImmutableDoubleArray( nullArray ));
+                IllegalArgumentException.class, () -> new EmbeddingModel( null, 1_536 ));
 
-        assertEquals( "Array must not be null.", exception.getMessage() );
+        assertEquals( "Name must not be null.", exception.getMessage() );
     }
 
     @Test
-    void constructor_nullString()
+    void constructor_blankName()
     {
-        String nullString = null;
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new EmbeddingModel( " ", 1_536 ));
+
+        assertEquals( "Name must not be blank.", exception.getMessage() );
+    }
 
-        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+    @Test
+    void constructor_invalidDimensions()
+    {
         IllegalArgumentException exception = assertThrowsExactly(
-                IllegalArgumentException.class, () -> new ImmutableDoubleArray( nullString ));
+                IllegalArgumentException.class, () -> new EmbeddingModel( "text-embedding-3-small", 0 ));
 
-        assertEquals( "String must not be null.", exception.getMessage() );
+        assertEquals( "Dimensions must be positive.", exception.getMessage() );
     }
 }
@@ -1,6 +1,6 @@
 /*
 
-Copyright 2025 Jeffrey J. Weston <jjweston@gmail.com>
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
 
 Licensed under the Apache License, Version 2.0 (the "License");
 you may not use this file except in compliance with the License.
@@ -23,8 +23,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith( MockitoExtension.class )
@@ -33,10 +43,21 @@ class EmbeddingServiceTest
     private final String testString = "Test";
 
     private final Embedding testEmbedding =
-            new Embedding( 42, new ImmutableDoubleArray( new double[] { -0.75, -0.5, 0.5, 0.75 } ));
+            new Embedding( 42, new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.5f, 0.75f } ));
 
-    @Mock private EmbeddingCacheService mockEmbeddingCacheService;
-    @Mock private EmbeddingApiService   mockEmbeddingApiService;
+    @Mock private EmbeddingCacheService     mockEmbeddingCacheService;
+    @Mock private EmbeddingWriteBehindQueue mockEmbeddingWriteBehindQueue;
+    @Mock private EmbeddingApiService       mockEmbeddingApiService;
+
+    @Test
+    void testConstructor_nullEmbeddingMemoryCache()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingService( null, this.mockEmbeddingCacheService, this.mockEmbeddingApiService ));
+
+        assertEquals( "Embedding memory cache must not be null.", exception.getMessage() );
+    }
 
     @Test
     void testConstructor_nullEmbeddingCacheService()
@@ -48,6 +69,16 @@ class EmbeddingServiceTest
         assertEquals( "Embedding cache service must not be null.", exception.getMessage() );
     }
 
+    @Test
+    void testConstructor_nullEmbeddingWriteBehindQueue()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingService( this.mockEmbeddingCacheService, null, this.mockEmbeddingApiService ));
+
+        assertEquals( "Embedding write-behind queue must not be null.", exception.getMessage() );
+    }
+
     @Test
     void testConstructor_nullEmbeddingApiService()
     {
@@ -83,4 +114,156 @@ class EmbeddingServiceTest
         Embedding actualEmbedding = embeddingService.getEmbedding( this.testString );
         assertEquals( this.testEmbedding, actualEmbedding );
     }
+
+    @Test
+    void testGetEmbedding_memoryHit()
+    {
+        EmbeddingService embeddingService =
+                new EmbeddingService( this.mockEmbeddingCacheService, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingCacheService.getEmbedding( this.testString )).thenReturn( this.testEmbedding );
+        assertEquals( this.testEmbedding, embeddingService.getEmbedding( this.testString ));
+        assertEquals( this.testEmbedding, embeddingService.getEmbedding( this.testString ));
+
+        verify( this.mockEmbeddingCacheService, times( 1 )).getEmbedding( this.testString );
+        verify( this.mockEmbeddingCacheService ).recordAccess( this.testEmbedding.id() );
+    }
+
+    @Test
+    void testGetEmbedding_writeBehind()
+    {
+        EmbeddingService embeddingService = new EmbeddingService(
+                this.mockEmbeddingCacheService, this.mockEmbeddingWriteBehindQueue, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingWriteBehindQueue.get( this.testString )).thenReturn( null );
+        when( this.mockEmbeddingCacheService.getEmbedding( this.testString )).thenReturn( null );
+        when( this.mockEmbeddingApiService.getEmbeddingVector( this.testString ))
+                .thenReturn( this.testEmbedding.vector() );
+        when( this.mockEmbeddingWriteBehindQueue.add( this.testString, this.testEmbedding.vector() ))
+                .thenReturn( this.testEmbedding );
+
+        assertEquals( this.testEmbedding, embeddingService.getEmbedding( this.testString ));
+
+        verify( this.mockEmbeddingCacheService, never() ).cacheEmbedding( any(), any() );
+    }
+
+    @Test
+    void testGetEmbedding_pendingWrite()
+    {
+        EmbeddingService embeddingService = new EmbeddingService(
+                this.mockEmbeddingCacheService, this.mockEmbeddingWriteBehindQueue, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingWriteBehindQueue.get( this.testString )).thenReturn( this.testEmbedding );
+
+        assertEquals( this.testEmbedding, embeddingService.getEmbedding( this.testString ));
+
+        verifyNoInteractions( this.mockEmbeddingCacheService );
+        verifyNoInteractions( this.mockEmbeddingApiService );
+    }
+
+    @Test
+    void testGetEmbeddings_nullInputs()
+    {
+        EmbeddingService embeddingService =
+                new EmbeddingService( this.mockEmbeddingCacheService, this.mockEmbeddingApiService );
+
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> embeddingService.getEmbeddings( null ));
+
+        assertEquals( "Inputs must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testGetEmbeddings_success()
+    {
+        Embedding cachedEmbedding = new Embedding( 7, new ImmutableFloatArray( new float[] { 0.1f, -0.1f } ));
+        Embedding newEmbedding1   = new Embedding( 8, new ImmutableFloatArray( new float[] { 0.2f, -0.2f } ));
+        Embedding newEmbedding2   = new Embedding( 9, new ImmutableFloatArray( new float[] { 0.3f, -0.3f } ));
+
+        EmbeddingService embeddingService =
+                new EmbeddingService( this.mockEmbeddingCacheService, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingCacheService.getEmbeddings( Set.of( "New 1", "Cached", "New 2" )))
+                .thenReturn( Map.of( "Cached", cachedEmbedding ));
+        when( this.mockEmbeddingApiService.getEmbeddingVectors( List.of( "New 1", "New 2" )))
+                .thenReturn( List.of( newEmbedding1.vector(), newEmbedding2.vector() ));
+        when( this.mockEmbeddingCacheService.cacheEmbeddings(
+                Map.of( "New 1", newEmbedding1.vector(), "New 2", newEmbedding2.vector() )))
+                .thenReturn( Map.of( "New 1", newEmbedding1.id(), "New 2", newEmbedding2.id() ));
+
+        List< Embedding > actualEmbeddings =
+                embeddingService.getEmbeddings( List.of( "New 1", "Cached", "New 2", "New 1" ));
+
+        assertEquals( List.of( newEmbedding1, cachedEmbedding, newEmbedding2, newEmbedding1 ), actualEmbeddings );
+
+        verify( this.mockEmbeddingApiService ).getEmbeddingVectors( List.of( "New 1", "New 2" ));
+        verifyNoMoreInteractions( this.mockEmbeddingApiService );
+    }
+
+    @Test
+    void testGetEmbeddings_writeBehind()
+    {
+        Embedding pendingEmbedding = new Embedding( 7, new ImmutableFloatArray( new float[] { 0.1f, -0.1f } ));
+        Embedding newEmbedding     = new Embedding( 8, new ImmutableFloatArray( new float[] { 0.2f, -0.2f } ));
+
+        EmbeddingService embeddingService = new EmbeddingService(
+                this.mockEmbeddingCacheService, this.mockEmbeddingWriteBehindQueue, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingWriteBehindQueue.get( "Pending" )).thenReturn( pendingEmbedding );
+        when( this.mockEmbeddingWriteBehindQueue.get( "New" )).thenReturn( null );
+        when( this.mockEmbeddingCacheService.getEmbeddings( Set.of( "New" ))).thenReturn( Map.of() );
+        when( this.mockEmbeddingApiService.getEmbeddingVectors( List.of( "New" )))
+                .thenReturn( List.of( newEmbedding.vector() ));
+        when( this.mockEmbeddingWriteBehindQueue.addAll( Map.of( "New", newEmbedding.vector() )))
+                .thenReturn( Map.of( "New", newEmbedding ));
+
+        assertEquals( List.of( pendingEmbedding, newEmbedding ),
+                embeddingService.getEmbeddings( List.of( "Pending", "New" )));
+
+        verify( this.mockEmbeddingCacheService, never() ).cacheEmbeddings( any() );
+    }
+
+    @Test
+    void testGetEmbeddings_allCached()
+    {
+        Embedding cachedEmbedding = new Embedding( 7, new ImmutableFloatArray( new float[] { 0.1f, -0.1f } ));
+
+        EmbeddingService embeddingService =
+                new EmbeddingService( this.mockEmbeddingCacheService, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingCacheService.getEmbeddings( Set.of( "Cached" )))
+                .thenReturn( Map.of( "Cached", cachedEmbedding ));
+
+        assertEquals( List.of( cachedEmbedding ), embeddingService.getEmbeddings( List.of( "Cached" )));
+
+        verifyNoMoreInteractions( this.mockEmbeddingApiService );
+    }
+
+    @Test
+    void testGetEmbeddings_memoryHit()
+    {
+        Embedding cachedEmbedding = new Embedding( 7, new ImmutableFloatArray( new float[] { 0.5f, -0.5f } ));
+        Embedding newEmbedding    = new Embedding( 8, new ImmutableFloatArray( new float[] { 0.25f, -0.25f } ));
+
+        EmbeddingService embeddingService =
+                new EmbeddingService( this.mockEmbeddingCacheService, this.mockEmbeddingApiService );
+
+        when( this.mockEmbeddingCacheService.getEmbedding( "Cached" )).thenReturn( cachedEmbedding );
+        when( this.mockEmbeddingCacheService.getEmbeddings( Set.of( "New" ))).thenReturn( Map.of() );
+        when( this.mockEmbeddingApiService.getEmbeddingVectors( List.of( "New" )))
+                .thenReturn( List.of( newEmbedding.vector() ));
+        when( this.mockEmbeddingCacheService.cacheEmbeddings( Map.of( "New", newEmbedding.vector() )))
+                .thenReturn( Map.of( "New", newEmbedding.id() ));
+
+        embeddingService.getEmbedding( "Cached" );
+
+        assertEquals( List.of( cachedEmbedding, newEmbedding ),
+                embeddingService.getEmbeddings( List.of( "Cached", "New" )));
+        assertEquals( List.of( newEmbedding, cachedEmbedding ),
+                embeddingService.getEmbeddings( List.of( "New", "Cached" )));
+
+        verify( this.mockEmbeddingCacheService, times( 1 )).getEmbeddings( Set.of( "New" ));
+        verify( this.mockEmbeddingCacheService, times( 2 )).recordAccess( cachedEmbedding.id() );
+        verify( this.mockEmbeddingCacheService, times( 1 )).recordAccess( newEmbedding.id() );
+    }
 }
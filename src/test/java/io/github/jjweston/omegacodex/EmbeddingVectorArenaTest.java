@@ -0,0 +1,194 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.foreign.MemorySegment;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class EmbeddingVectorArenaTest
+{
+    private final EmbeddingModel embeddingModel = new EmbeddingModel( "test-model", 3 );
+
+    @Mock private EmbeddingCacheService mockEmbeddingCacheService;
+
+    @Test
+    void testConstructor_nullEmbeddingModel()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new EmbeddingVectorArena( null, 1 ));
+
+        assertEquals( "Embedding model must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_zeroCapacity()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new EmbeddingVectorArena( this.embeddingModel, 0 ));
+
+        assertEquals( "Capacity must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testPut()
+    {
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            assertEquals( 4L * 3 * Float.BYTES, embeddingVectorArena.getByteSize(), "Byte Size" );
+
+            assertTrue( embeddingVectorArena.put( this.createEmbedding( 7 )), "Added" );
+            assertTrue( embeddingVectorArena.put( this.createEmbedding( 3 )), "Added" );
+
+            assertEquals( 2, embeddingVectorArena.size(), "Size" );
+            assertTrue( embeddingVectorArena.contains( 7 ), "Contains" );
+            assertFalse( embeddingVectorArena.contains( 5 ), "Contains" );
+            assertEquals( this.createEmbedding( 7 ).vector(), embeddingVectorArena.getVector( 7 ));
+            assertEquals( this.createEmbedding( 3 ).vector(), embeddingVectorArena.getVector( 3 ));
+            assertNull( embeddingVectorArena.getVector( 5 ));
+        }
+    }
+
+    @Test
+    void testPut_duplicate()
+    {
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            assertTrue( embeddingVectorArena.put( this.createEmbedding( 7 )), "Added" );
+            assertFalse( embeddingVectorArena.put( this.createEmbedding( 7 )), "Added" );
+            assertEquals( 1, embeddingVectorArena.size(), "Size" );
+        }
+    }
+
+    @Test
+    void testPut_dimensionMismatch()
+    {
+        Embedding embedding = new Embedding( 1, new ImmutableFloatArray( new float[] { 1.0f, 2.0f } ));
+
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            IllegalArgumentException exception = assertThrowsExactly(
+                    IllegalArgumentException.class, () -> embeddingVectorArena.put( embedding ));
+
+            assertEquals( "Vector dimensions must match the embedding model. Dimensions: 2, Model Dimensions: 3",
+                          exception.getMessage() );
+        }
+    }
+
+    @Test
+    void testPut_full()
+    {
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 1 ))
+        {
+            embeddingVectorArena.put( this.createEmbedding( 1 ));
+
+            IllegalStateException exception = assertThrowsExactly(
+                    IllegalStateException.class, () -> embeddingVectorArena.put( this.createEmbedding( 2 )));
+
+            assertEquals( "Vector arena is full.", exception.getMessage() );
+        }
+    }
+
+    @Test
+    void testGetVectorSegment()
+    {
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            embeddingVectorArena.put( this.createEmbedding( 1 ));
+            embeddingVectorArena.put( this.createEmbedding( 2 ));
+
+            MemorySegment vectorSegment = embeddingVectorArena.getVectorSegment( 2 );
+
+            assertEquals( 3L * Float.BYTES, vectorSegment.byteSize(), "Segment Size" );
+            assertTrue( vectorSegment.isReadOnly(), "Segment Read-Only" );
+            assertEquals( this.createEmbedding( 2 ).vector(), new ImmutableFloatArray( vectorSegment ));
+        }
+    }
+
+    @Test
+    void testLoad()
+    {
+        when( this.mockEmbeddingCacheService.getEmbeddingModel() ).thenReturn( this.embeddingModel );
+        doAnswer( invocation ->
+        {
+            Consumer< Embedding > consumer = invocation.getArgument( 0 );
+            consumer.accept( this.createEmbedding( 1 ));
+            consumer.accept( this.createEmbedding( 2 ));
+            consumer.accept( this.createEmbedding( 3 ));
+            return null;
+        } ).when( this.mockEmbeddingCacheService ).forEachEmbedding( any() );
+
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            embeddingVectorArena.put( this.createEmbedding( 2 ));
+
+            assertEquals( 2, embeddingVectorArena.load( this.mockEmbeddingCacheService ), "Loaded Count" );
+            assertEquals( 3, embeddingVectorArena.size(), "Size" );
+            assertEquals( this.createEmbedding( 3 ).vector(), embeddingVectorArena.getVector( 3 ));
+        }
+    }
+
+    @Test
+    void testLoad_modelMismatch()
+    {
+        when( this.mockEmbeddingCacheService.getEmbeddingModel() ).thenReturn( new EmbeddingModel( "test-model", 4 ));
+
+        try ( EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 ))
+        {
+            IllegalArgumentException exception = assertThrowsExactly(
+                    IllegalArgumentException.class, () -> embeddingVectorArena.load( this.mockEmbeddingCacheService ));
+
+            assertEquals( "Embedding model must match the vector arena.", exception.getMessage() );
+        }
+    }
+
+    @Test
+    void testClose()
+    {
+        EmbeddingVectorArena embeddingVectorArena = new EmbeddingVectorArena( this.embeddingModel, 4 );
+        embeddingVectorArena.put( this.createEmbedding( 1 ));
+        embeddingVectorArena.close();
+        embeddingVectorArena.close();
+
+        IllegalStateException exception = assertThrowsExactly(
+                IllegalStateException.class, () -> embeddingVectorArena.getVector( 1 ));
+
+        assertEquals( "Vector arena is closed.", exception.getMessage() );
+    }
+
+    private Embedding createEmbedding( long id )
+    {
+        return new Embedding( id, new ImmutableFloatArray( new float[] { id * 0.5f, -id * 0.25f, id } ));
+    }
+}
@@ -0,0 +1,282 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class EmbeddingWriteBehindQueueTest
+{
+    private final ImmutableFloatArray testVector = new ImmutableFloatArray( new float[] { 0.5f, -0.5f } );
+
+    @Mock private EmbeddingCacheService mockEmbeddingCacheService;
+
+    @Test
+    void testConstructor_nullEmbeddingCacheService()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new EmbeddingWriteBehindQueue( null ));
+
+        assertEquals( "Embedding cache service must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_invalidCapacity()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 0, 1, 1 ));
+
+        assertEquals( "Capacity must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testAdd_reservesIds()
+    {
+        when( this.mockEmbeddingCacheService.reserveIds( 2 )).thenReturn( 11L ).thenReturn( 21L );
+
+        try ( EmbeddingWriteBehindQueue queue =
+                      new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 2 ))
+        {
+            assertEquals( new Embedding( 11, this.testVector ), queue.add( "Test 1", this.testVector ));
+            assertEquals( new Embedding( 12, this.testVector ), queue.add( "Test 2", this.testVector ));
+            assertEquals( new Embedding( 21, this.testVector ), queue.add( "Test 3", this.testVector ));
+        }
+    }
+
+    @Test
+    void testAdd_visibleUntilWritten() throws Exception
+    {
+        CountDownLatch writeStarted = new CountDownLatch( 1 );
+        CountDownLatch writeAllowed = new CountDownLatch( 1 );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        doAnswer( _ ->
+        {
+            writeStarted.countDown();
+            writeAllowed.await();
+            return Map.of();
+        } ).when( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        Embedding embedding = queue.add( "Test", this.testVector );
+        writeStarted.await();
+
+        assertSame( embedding, queue.get( "Test" ));
+        assertSame( embedding, queue.add( "Test", this.testVector ));
+        assertEquals( 1, queue.getPendingCount() );
+
+        writeAllowed.countDown();
+        queue.close();
+
+        assertNull( queue.get( "Test" ));
+        assertEquals( 0, queue.getPendingCount() );
+    }
+
+    @Test
+    void testClose_flushesBatch() throws Exception
+    {
+        CountDownLatch writeStarted = new CountDownLatch( 1 );
+        CountDownLatch writeAllowed = new CountDownLatch( 1 );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        doAnswer( _ ->
+        {
+            writeStarted.countDown();
+            writeAllowed.await();
+            return Map.of();
+        } ).when( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+
+        // the first write holds the writer, so the next two embeddings are written as one batch
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.add( "Test 1", this.testVector );
+        writeStarted.await();
+        queue.addAll( Map.of( "Test 2", this.testVector ));
+        queue.add( "Test 3", this.testVector );
+        writeAllowed.countDown();
+        queue.close();
+
+        Map< String, Embedding > expectedBatch = new LinkedHashMap<>();
+        expectedBatch.put( "Test 2", new Embedding( 2, this.testVector ));
+        expectedBatch.put( "Test 3", new Embedding( 3, this.testVector ));
+
+        verify( this.mockEmbeddingCacheService ).cacheReservedEmbeddings(
+                Map.of( "Test 1", new Embedding( 1, this.testVector )));
+        verify( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( expectedBatch );
+
+        IllegalStateException exception = assertThrowsExactly(
+                IllegalStateException.class, () -> queue.add( "Test 4", this.testVector ));
+
+        assertEquals( "Write-behind queue is closed.", exception.getMessage() );
+    }
+
+    @Test
+    void testFlush_written()
+    {
+        Map< String, Embedding > expectedBatch = Map.of( "Test", new Embedding( 1, this.testVector ));
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.add( "Test", this.testVector );
+        queue.flush();
+
+        verify( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( expectedBatch );
+        assertNull( queue.get( "Test" ));
+        assertEquals( 0, queue.getPendingCount() );
+
+        queue.close();
+    }
+
+    @Test
+    void testFlush_writeFailure()
+    {
+        OmegaCodexException writeException = new OmegaCodexException( "Test Exception" );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        doThrow( writeException ).when( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.add( "Test", this.testVector );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class, queue::flush );
+
+        assertEquals( "Failed to write embeddings.", exception.getMessage() );
+        assertSame( writeException, exception.getCause() );
+        assertEquals( 1, queue.getPendingCount() );
+        assertThrowsExactly( OmegaCodexException.class, queue::close );
+    }
+
+    @Test
+    void testFlush_closed()
+    {
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.close();
+
+        IllegalStateException exception = assertThrowsExactly( IllegalStateException.class, queue::flush );
+
+        assertEquals( "Write-behind queue is closed.", exception.getMessage() );
+    }
+
+    @Test
+    void testClose_writeFailure()
+    {
+        OmegaCodexException writeException = new OmegaCodexException( "Test Exception" );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        doThrow( writeException ).when( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        Embedding embedding = queue.add( "Test", this.testVector );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class, queue::close );
+
+        // the reserved ID is already in use by the caller, so the embedding stays visible instead of vanishing
+        assertEquals( "Failed to write embeddings.", exception.getMessage() );
+        assertSame( writeException, exception.getCause() );
+        assertSame( embedding, queue.get( "Test" ));
+        assertEquals( 1, queue.getPendingCount() );
+    }
+
+    @Test
+    void testAdd_afterWriteFailure()
+    {
+        OmegaCodexException writeException = new OmegaCodexException( "Test Exception" );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        when( this.mockEmbeddingCacheService.cacheReservedEmbeddings( any() ))
+                .thenThrow( writeException )
+                .thenReturn( Map.of() );
+
+        EmbeddingWriteBehindQueue queue =
+                new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4, 10 );
+        queue.add( "Test 1", this.testVector );
+
+        // the failed batch is retried on a timer, and a failure never blocks new writes
+        verify( this.mockEmbeddingCacheService, timeout( 5_000 ).times( 2 ))
+                .cacheReservedEmbeddings( Map.of( "Test 1", new Embedding( 1, this.testVector )));
+        assertEquals( new Embedding( 2, this.testVector ), queue.add( "Test 2", this.testVector ));
+
+        queue.close();
+
+        assertNull( queue.get( "Test 1" ));
+        assertNull( queue.get( "Test 2" ));
+    }
+
+    @Test
+    void testFlush_invalidWriteDropped()
+    {
+        IllegalArgumentException writeException = new IllegalArgumentException( "Test Exception" );
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        doThrow( writeException ).when( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.add( "Test", this.testVector );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class, queue::flush );
+
+        // an invalid write would fail on every attempt, so it is reported once and not retried
+        assertSame( writeException, exception.getCause() );
+        assertEquals( 0, queue.getPendingCount() );
+        queue.flush();
+        queue.close();
+
+        verify( this.mockEmbeddingCacheService ).cacheReservedEmbeddings( any() );
+    }
+
+    @Test
+    void testClose_writeRetried()
+    {
+        OmegaCodexException writeException = new OmegaCodexException( "Test Exception" );
+        Map< String, Embedding > expectedBatch = Map.of( "Test", new Embedding( 1, this.testVector ));
+
+        when( this.mockEmbeddingCacheService.reserveIds( 4 )).thenReturn( 1L );
+        when( this.mockEmbeddingCacheService.cacheReservedEmbeddings( any() ))
+                .thenThrow( writeException )
+                .thenReturn( Map.of() );
+
+        EmbeddingWriteBehindQueue queue = new EmbeddingWriteBehindQueue( this.mockEmbeddingCacheService, 10, 10, 4 );
+        queue.add( "Test", this.testVector );
+        queue.close();
+
+        verify( this.mockEmbeddingCacheService, times( 2 )).cacheReservedEmbeddings( expectedBatch );
+        assertNull( queue.get( "Test" ));
+        assertEquals( 0, queue.getPendingCount() );
+    }
+}
@@ -100,4 +100,24 @@ class EnvironmentTest
 
         assertEquals( intValue, this.environment.getInt( name ));
     }
+
+    @Test
+    void getIntDefault_missing()
+    {
+        String name = "test";
+
+        when( this.mockDotenv.get( name )).thenReturn( null );
+
+        assertEquals( 7, this.environment.getInt( name, 7 ));
+    }
+
+    @Test
+    void getIntDefault_success()
+    {
+        String name = "test";
+
+        when( this.mockDotenv.get( name )).thenReturn( "42" );
+
+        assertEquals( 42, this.environment.getInt( name, 7 ));
+    }
 }
@@ -0,0 +1,71 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest
+{
+    @Test
+    void testConstructor_invalidExpectedSize()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new FrequencySketch( 0 ));
+
+        assertEquals( "Expected size must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testFrequency_counts()
+    {
+        FrequencySketch frequencySketch = new FrequencySketch( 1_024 );
+
+        for ( int i = 0; i < 5; i++ ) frequencySketch.increment( "Hot" );
+        frequencySketch.increment( "Cold" );
+
+        assertEquals( 5, frequencySketch.frequency( "Hot" ));
+        assertEquals( 1, frequencySketch.frequency( "Cold" ));
+        assertEquals( 0, frequencySketch.frequency( "Missing" ));
+    }
+
+    @Test
+    void testFrequency_saturates()
+    {
+        FrequencySketch frequencySketch = new FrequencySketch( 1_024 );
+
+        for ( int i = 0; i < 100; i++ ) frequencySketch.increment( "Hot" );
+
+        assertEquals( 15, frequencySketch.frequency( "Hot" ));
+    }
+
+    @Test
+    void testFrequency_ages()
+    {
+        FrequencySketch frequencySketch = new FrequencySketch( 1_024 );
+
+        for ( int i = 0; i < 15; i++ ) frequencySketch.increment( "Hot" );
+        for ( int i = 0; i < 10_300; i++ ) frequencySketch.increment( "Key " + i );
+
+        assertTrue( frequencySketch.frequency( "Hot" ) <= 8, "Hot Frequency" );
+    }
+}
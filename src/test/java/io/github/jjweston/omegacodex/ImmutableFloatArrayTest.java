@@ -0,0 +1,170 @@
+/*
+
+Copyright 2025-2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.FloatBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImmutableFloatArrayTest
+{
+    @Test
+    void constructor_nullArray()
+    {
+        float[] nullArray = null;
+
+        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new ImmutableFloatArray( nullArray ));
+
+        assertEquals( "Array must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void constructor_nullString()
+    {
+        String nullString = null;
+
+        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new ImmutableFloatArray( nullString ));
+
+        assertEquals( "String must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void constructor_nullBuffer()
+    {
+        FloatBuffer nullBuffer = null;
+
+        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new ImmutableFloatArray( nullBuffer ));
+
+        assertEquals( "Buffer must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void constructor_copiesArray()
+    {
+        float[] array = { 0.25f, -0.5f, 0.75f };
+        ImmutableFloatArray vector = new ImmutableFloatArray( array );
+        array[ 0 ] = 1.0f;
+
+        assertEquals( 0.25f, vector.get( 0 ));
+        assertEquals( new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.75f } ), vector );
+    }
+
+    @Test
+    void wrap_nullArray()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> ImmutableFloatArray.wrap( null ));
+
+        assertEquals( "Array must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void wrap_sharesArray()
+    {
+        float[] array = { 0.25f, -0.5f, 0.75f };
+        ImmutableFloatArray vector = ImmutableFloatArray.wrap( array );
+        array[ 0 ] = 1.0f;
+
+        assertEquals( 1.0f, vector.get( 0 ));
+    }
+
+    @Test
+    void constructor_buffer()
+    {
+        FloatBuffer buffer = FloatBuffer.wrap( new float[] { 0.25f, -0.5f, 0.75f } );
+        buffer.position( 1 );
+
+        ImmutableFloatArray vector = new ImmutableFloatArray( buffer );
+
+        assertArrayEquals( new float[] { -0.5f, 0.75f }, vector.getArray() );
+        assertEquals( 1, buffer.position(), "Buffer Position" );
+    }
+
+    @Test
+    void constructor_string()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( "[0.25,-0.5,0.75]" );
+
+        assertArrayEquals( new float[] { 0.25f, -0.5f, 0.75f }, vector.getArray() );
+        assertEquals( "[0.25,-0.5,0.75]", vector.toString() );
+    }
+
+    @Test
+    void asFloatBuffer_readOnly()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.75f } );
+        FloatBuffer buffer = vector.asFloatBuffer();
+
+        assertEquals( 3, buffer.remaining(), "Buffer Remaining" );
+        assertThrowsExactly( ReadOnlyBufferException.class, () -> buffer.put( 0, 1.0f ));
+        assertEquals( 0.25f, vector.get( 0 ));
+    }
+
+    @Test
+    void asMemorySegment_readOnly()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.75f } );
+        MemorySegment segment = vector.asMemorySegment();
+
+        assertEquals( 3L * Float.BYTES, segment.byteSize(), "Segment Size" );
+        assertEquals( -0.5f, segment.getAtIndex( ValueLayout.JAVA_FLOAT, 1 ));
+        assertTrue( segment.isReadOnly(), "Segment Read-Only" );
+    }
+
+    @Test
+    void equalsAndHashCode()
+    {
+        ImmutableFloatArray vector      = new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.75f } );
+        ImmutableFloatArray sameVector  = new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.75f } );
+        ImmutableFloatArray otherVector = new ImmutableFloatArray( new float[] { 0.25f, -0.5f, 0.5f } );
+
+        assertEquals( vector.hashCode(), vector.hashCode() );
+        assertEquals( sameVector.hashCode(), vector.hashCode() );
+        assertEquals( sameVector, vector );
+        assertNotEquals( otherVector.hashCode(), vector.hashCode() );
+        assertNotEquals( otherVector, vector );
+    }
+
+    @Test
+    void hashCode_zero()
+    {
+        float[] array = { 1.0f, Float.intBitsToFloat( 0x4F7FFC3F ) };
+        ImmutableFloatArray vector = new ImmutableFloatArray( array );
+
+        assertEquals( 0, vector.hashCode() );
+        assertEquals( 0, vector.hashCode() );
+        assertEquals( new ImmutableFloatArray( array ), vector );
+    }
+}
@@ -0,0 +1,50 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+class InputDigestTest
+{
+    private final InputDigest inputDigest = new InputDigest();
+
+    @Test
+    void testDigest_nullInput()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.inputDigest.digest( null ));
+
+        assertEquals( "Input must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDigest_truncatedSha256()
+    {
+        byte[] expectedDigest = HexFormat.of().parseHex( "ba7816bf8f01cfea414140de5dae2223" );
+
+        assertArrayEquals( expectedDigest, this.inputDigest.digest( "abc" ));
+    }
+}
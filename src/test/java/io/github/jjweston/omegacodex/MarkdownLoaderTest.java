@@ -83,17 +83,16 @@ class MarkdownLoaderTest
         testChunks.add( "Chunk 2" );
         testChunks.add( "Chunk 3" );
 
-        Embedding testEmbedding1 = new Embedding( 42, new ImmutableDoubleArray( new double[] { 0.1, -0.1 } ));
-        Embedding testEmbedding2 = new Embedding( 13, new ImmutableDoubleArray( new double[] { 0.2, -0.2 } ));
-        Embedding testEmbedding3 = new Embedding( 67, new ImmutableDoubleArray( new double[] { 0.3, -0.3 } ));
+        Embedding testEmbedding1 = new Embedding( 42, new ImmutableFloatArray( new float[] { 0.1f, -0.1f } ));
+        Embedding testEmbedding2 = new Embedding( 13, new ImmutableFloatArray( new float[] { 0.2f, -0.2f } ));
+        Embedding testEmbedding3 = new Embedding( 67, new ImmutableFloatArray( new float[] { 0.3f, -0.3f } ));
 
         MarkdownLoader markdownLoader = new MarkdownLoader(
                 this.mockMarkdownSplitter, this.mockEmbeddingService, this.mockQdrantService );
 
         when( this.mockMarkdownSplitter.split( testPath )).thenReturn( testChunks );
-        when( this.mockEmbeddingService.getEmbedding( testChunks.get( 0 ))).thenReturn( testEmbedding1 );
-        when( this.mockEmbeddingService.getEmbedding( testChunks.get( 1 ))).thenReturn( testEmbedding2 );
-        when( this.mockEmbeddingService.getEmbedding( testChunks.get( 2 ))).thenReturn( testEmbedding3 );
+        when( this.mockEmbeddingService.getEmbeddings( testChunks ))
+                .thenReturn( List.of( testEmbedding1, testEmbedding2, testEmbedding3 ));
 
         markdownLoader.load( testPath );
 
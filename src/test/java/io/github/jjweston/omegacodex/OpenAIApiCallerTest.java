@@ -18,6 +18,7 @@ limitations under the License.
 
 package io.github.jjweston.omegacodex;
 
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -30,15 +31,39 @@ import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.JsonNodeFactory;
 import tools.jackson.databind.node.ObjectNode;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -54,7 +79,8 @@ class OpenAIApiCallerTest
     @Mock private HttpClient             mockHttpClient;
     @Mock private OmegaCodexUtil         mockOmegaCodexUtil;
     @Mock private OmegaCodexLogger       mockOmegaCodexLogger;
-    @Mock private HttpResponse< String > mockHttpResponse;
+    @Mock private HttpResponse< Object > mockHttpResponse;
+    @Mock private RandomGenerator        mockRandomGenerator;
 
     @Captor private ArgumentCaptor< String > requestBodyCaptor;
 
@@ -68,7 +94,7 @@ class OpenAIApiCallerTest
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
                 () -> openAiApiCaller.getResponse(
                         null, this.testApiEndpoint, requestNode, null,
-                        false, false, List.of(), Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
 
         assertEquals( "Task name must not be null.", exception.getMessage() );
     }
@@ -83,7 +109,7 @@ class OpenAIApiCallerTest
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
                 () -> openAiApiCaller.getResponse(
                         this.testTaskName, null, requestNode, null,
-                        false, false, List.of(), Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
 
         assertEquals( "API endpoint must not be null.", exception.getMessage() );
     }
@@ -96,7 +122,7 @@ class OpenAIApiCallerTest
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
                 () -> openAiApiCaller.getResponse(
                         this.testTaskName, this.testApiEndpoint, null, null,
-                        false, false, List.of(), Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
 
         assertEquals( "Request node must not be null.", exception.getMessage() );
     }
@@ -115,12 +141,12 @@ class OpenAIApiCallerTest
                 }
                 """;
 
-        this.mockApiCall( statusCode, response );
+        this.mockApiCall( statusCode, response, false );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
                 () -> openAiApiCaller.getResponse(
                         this.testTaskName, this.testApiEndpoint, requestNode, null,
-                        false, false, List.of(),  Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
 
         assertEquals( "OpenAIApiCallerTest, Error Returned, Status Code: 500", exception.getMessage() );
     }
@@ -146,12 +172,12 @@ class OpenAIApiCallerTest
                 }
                 """;
 
-        this.mockApiCall( statusCode, response );
+        this.mockApiCall( statusCode, response, false );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
                 () -> openAiApiCaller.getResponse(
                         this.testTaskName, this.testApiEndpoint, requestNode, null,
-                        false, false, List.of(), Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
 
         String expectedMessage =
                 "OpenAIApiCallerTest, Error Returned, Status Code: 401, Error Message: Invalid API key provided.";
@@ -169,12 +195,33 @@ class OpenAIApiCallerTest
 
         String responseString = "This is not valid JSON.";
 
-        this.mockApiCall( statusCode, responseString );
+        this.mockApiCall( statusCode, responseString, false );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
                 () -> openAiApiCaller.getResponse(
                         this.testTaskName, this.testApiEndpoint, requestNode, null,
-                        false, false, List.of(), Map.of() ));
+                        false, false, List.of(), Map.of(), null ));
+
+        assertEquals( "OpenAIApiCallerTest, Failed to deserialize response. Status Code: 402",
+                      exception.getMessage() );
+    }
+
+    @Test
+    void testGetResponse_invalidResponse_logApiDetails() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+        int             statusCode      = 402;
+
+        String responseString = "This is not valid JSON.";
+
+        this.mockApiCall( statusCode, responseString, true );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> openAiApiCaller.getResponse(
+                        this.testTaskName, this.testApiEndpoint, requestNode, null,
+                        false, true, List.of(), Map.of(), null ));
 
         String expectedMessage =
                 "OpenAIApiCallerTest, Failed to deserialize response. Status Code: 402, Response:" +
@@ -206,11 +253,146 @@ class OpenAIApiCallerTest
                 .put( "adjective", "frozen" )
                 .put( "noun", "yogurt" );
 
-        this.mockApiCall( statusCode, responseString );
+        this.mockApiCall( statusCode, responseString, false );
 
         JsonNode actualResponseNode = openAiApiCaller.getResponse(
                 this.testTaskName, this.testApiEndpoint, expectedRequestNode, "Start Message",
-                true, false, List.of(), Map.of() );
+                true, false, List.of(), Map.of(), null );
+
+        String actualRequestString = this.requestBodyCaptor.getValue();
+        JsonNode actualRequestNode = objectMapper.readTree( actualRequestString );
+
+        assertEquals( expectedRequestNode, actualRequestNode );
+        assertEquals( expectedResponseNode, actualResponseNode );
+
+        InOrder inOrder = inOrder( this.mockOmegaCodexLogger );
+
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Starting, Start Message" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Complete, Duration: 0 ms" );
+
+        inOrder.verifyNoMoreInteractions();
+        verifyNoMoreInteractions( this.mockOmegaCodexLogger );
+    }
+
+    @Test
+    void testGetResponse_responseFields() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+        int             statusCode      = 200;
+
+        String responseString =
+                """
+                {
+                  "object": "list",
+                  "data": [ { "index": 0, "embedding": "AAAAAA==" } ],
+                  "model": "test-model",
+                  "usage": { "total_tokens": 3 }
+                }
+                """;
+
+        JsonNode expectedResponseNode = objectMapper.readTree(
+                """
+                {
+                  "data": [ { "index": 0, "embedding": "AAAAAA==" } ],
+                  "usage": { "total_tokens": 3 }
+                }
+                """ );
+
+        this.mockApiCall( statusCode, responseString, false );
+
+        JsonNode actualResponseNode = openAiApiCaller.getResponse(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                false, false, List.of(), Map.of(), Set.of( "data", "usage" ));
+
+        assertEquals( expectedResponseNode, actualResponseNode );
+    }
+
+    @Test
+    void testGetResponse_responseFields_error() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+        int             statusCode      = 429;
+
+        String response =
+                """
+                {
+                    "error": { "message": "Rate limit reached." }
+                }
+                """;
+
+        this.mockApiCall( statusCode, response, false );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> openAiApiCaller.getResponse(
+                        this.testTaskName, this.testApiEndpoint, requestNode, null,
+                        false, false, List.of(), Map.of(), Set.of( "data" )));
+
+        assertEquals( "OpenAIApiCallerTest, Error Returned, Status Code: 429, Error Message: Rate limit reached.",
+                      exception.getMessage() );
+    }
+
+    @Test
+    void testGetResponseAsync_error() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+        int             statusCode      = 401;
+
+        String response =
+                """
+                {
+                    "error": { "message": "Invalid API key provided." }
+                }
+                """;
+
+        this.mockApiCallAsync( statusCode, response );
+
+        CompletableFuture< JsonNode > future = openAiApiCaller.getResponseAsync(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                false, false, List.of(), Map.of(), null );
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+
+        String expectedMessage =
+                "OpenAIApiCallerTest, Error Returned, Status Code: 401, Error Message: Invalid API key provided.";
+
+        assertInstanceOf( OmegaCodexException.class, exception.getCause() );
+        assertEquals( expectedMessage, exception.getCause().getMessage() );
+    }
+
+    @Test
+    void testGetResponseAsync_success() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        int             statusCode      = 200;
+
+        String responseString =
+                """
+                {
+                  "adjective": "frozen",
+                  "noun": "yogurt",
+                  "object": "food"
+                }
+                """;
+
+        ObjectNode expectedRequestNode = objectMapper.createObjectNode()
+                .put( "query", "What is your favorite food?" );
+
+        JsonNode expectedResponseNode = JsonNodeFactory.instance.objectNode()
+                .put( "adjective", "frozen" )
+                .put( "noun", "yogurt" );
+
+        this.mockApiCallAsync( statusCode, responseString );
+
+        JsonNode actualResponseNode = openAiApiCaller.getResponseAsync(
+                this.testTaskName, this.testApiEndpoint, expectedRequestNode, "Start Message",
+                true, false, List.of(), Map.of(), Set.of( "adjective", "noun" )).join();
 
         String actualRequestString = this.requestBodyCaptor.getValue();
         JsonNode actualRequestNode = objectMapper.readTree( actualRequestString );
@@ -227,29 +409,442 @@ class OpenAIApiCallerTest
         verifyNoMoreInteractions( this.mockOmegaCodexLogger );
     }
 
+    @Test
+    void testGetResponse_retry() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 3 );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+
+        String rateLimitedResponse =
+                """
+                {
+                    "error": { "message": "Rate limit reached.", "code": "rate_limit_exceeded" }
+                }
+                """;
+
+        String successResponse =
+                """
+                {
+                  "noun": "yogurt"
+                }
+                """;
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( 429, 200 );
+        when( this.mockHttpResponse.headers() )
+                .thenReturn( this.createHeaders( Map.of( "retry-after-ms", "2500" )))
+                .thenReturn( this.createHeaders( Map.of( "x-ratelimit-remaining-requests", "10",
+                                                         "x-ratelimit-reset-requests", "6s" )));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( new ByteArrayInputStream( rateLimitedResponse.getBytes( UTF_8 )))
+                .thenReturn( new ByteArrayInputStream( successResponse.getBytes( UTF_8 )));
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.5 );
+
+        JsonNode actualResponseNode = openAiApiCaller.getResponse(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                true, false, List.of(), Map.of(), null );
+
+        assertEquals( objectMapper.readTree( successResponse ), actualResponseNode );
+
+        InOrder inOrder = inOrder( this.mockOmegaCodexLogger );
+
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Starting" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Complete, Duration: 0 ms" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println(
+                "OpenAIApiCallerTest, Retrying, Status Code: 429, Attempt: 1, Delay: 2,500 ms" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Sleeping, Duration: 2,500 ms" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Starting" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( "OpenAIApiCallerTest, Complete, Duration: 0 ms" );
+
+        inOrder.verifyNoMoreInteractions();
+        verify( this.mockOmegaCodexUtil ).sleepThread( 2_500 );
+    }
+
+    @Test
+    void testGetResponse_retryLimit() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 2 );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+
+        String response =
+                """
+                {
+                    "error": { "message": "Service unavailable." }
+                }
+                """;
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( 503 );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( new ByteArrayInputStream( response.getBytes( UTF_8 )))
+                .thenReturn( new ByteArrayInputStream( response.getBytes( UTF_8 )));
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> openAiApiCaller.getResponse(
+                        this.testTaskName, this.testApiEndpoint, requestNode, null,
+                        false, false, List.of(), Map.of(), null ));
+
+        assertEquals( "OpenAIApiCallerTest, Error Returned, Status Code: 503, Error Message: Service unavailable.",
+                      exception.getMessage() );
+
+        verify( this.mockHttpClient, times( 2 )).send( any(), any() );
+        verify( this.mockOmegaCodexUtil ).sleepThread( 500 );
+    }
+
+    @Test
+    void testGetResponse_retryInvalidResponse() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 2 );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+
+        String proxyResponse = "<html><body>502 Bad Gateway</body></html>";
+        String successResponse = "{ \"noun\": \"yogurt\" }";
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( 502, 502, 200 );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( new ByteArrayInputStream( proxyResponse.getBytes( UTF_8 )))
+                .thenReturn( new ByteArrayInputStream( successResponse.getBytes( UTF_8 )));
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+
+        // a retryable status is retried even when its body is not JSON
+        JsonNode actualResponseNode = openAiApiCaller.getResponse(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                false, false, List.of(), Map.of(), null );
+
+        assertEquals( objectMapper.readTree( successResponse ), actualResponseNode );
+        verify( this.mockHttpClient, times( 2 )).send( any(), any() );
+        verify( this.mockOmegaCodexUtil ).sleepThread( 500 );
+    }
+
+    @Test
+    void testGetResponse_insufficientQuota() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 3 );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+        int             statusCode      = 429;
+
+        String response =
+                """
+                {
+                    "error": { "message": "You exceeded your current quota.", "code": "insufficient_quota" }
+                }
+                """;
+
+        this.mockApiCall( statusCode, response, false );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> openAiApiCaller.getResponse(
+                        this.testTaskName, this.testApiEndpoint, requestNode, null,
+                        false, false, List.of(), Map.of(), null ));
+
+        String expectedMessage = "OpenAIApiCallerTest, Error Returned, Status Code: 429, " +
+                                 "Error Message: You exceeded your current quota.";
+
+        assertEquals( expectedMessage, exception.getMessage() );
+        verify( this.mockHttpClient ).send( any(), any() );
+    }
+
+    @Test
+    void testGetResponseAsync_retry() throws Exception
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 3 );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode();
+
+        String errorResponse = "{}";
+        String successResponse = "{ \"noun\": \"yogurt\" }";
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >sendAsync( any(), any() ))
+                .thenReturn( CompletableFuture.completedFuture( this.mockHttpResponse ));
+        when( this.mockHttpResponse.statusCode() ).thenReturn( 500, 200 );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of( "retry-after", "3" )));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( errorResponse.getBytes( UTF_8 ))
+                .thenReturn( successResponse.getBytes( UTF_8 ));
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+        when( this.mockOmegaCodexUtil.delayedExecutor( 3_000 )).thenReturn( Runnable::run );
+
+        JsonNode actualResponseNode = openAiApiCaller.getResponseAsync(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                false, false, List.of(), Map.of(), null ).join();
+
+        assertEquals( objectMapper.readTree( successResponse ), actualResponseNode );
+        verify( this.mockHttpClient, times( 2 )).sendAsync( any(), any() );
+    }
+
+    @Test
+    void testGetResponse_tokenBucket() throws Exception
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 2, 1_000, this.mockOmegaCodexUtil );
+
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 1, tokenBucketRateLimiter );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode().put( "input", "a".repeat( 1_188 ));
+        int             statusCode      = 200;
+
+        String response =
+                """
+                {
+                  "usage": { "total_tokens": 250 }
+                }
+                """;
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( statusCode );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( new ByteArrayInputStream( response.getBytes( UTF_8 )))
+                .thenReturn( new ByteArrayInputStream( response.getBytes( UTF_8 )));
+
+        // the request is 1,200 characters, so 300 tokens are reserved and then settled at 250
+        openAiApiCaller.getResponse( this.testTaskName, this.testApiEndpoint, requestNode, null,
+                                     false, false, List.of(), Map.of(), Set.of() );
+
+        assertEquals( 750, tokenBucketRateLimiter.getAvailableTokens() );
+
+        openAiApiCaller.getResponse( this.testTaskName, this.testApiEndpoint, requestNode, null,
+                                     false, false, List.of(), Map.of(), Set.of() );
+
+        assertEquals( 500, tokenBucketRateLimiter.getAvailableTokens() );
+        assertEquals( 0, tokenBucketRateLimiter.getAvailableRequests() );
+    }
+
+    @Test
+    void testGetResponse_tokenBucket_failedAttempt() throws Exception
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 2, tokenBucketRateLimiter );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode().put( "input", "a".repeat( 1_188 ));
+
+        String errorResponse = "{ \"error\": { \"message\": \"Service unavailable.\" } }";
+        String successResponse = "{ \"usage\": { \"total_tokens\": 250 } }";
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( 503, 503, 200 );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+        when( this.mockHttpResponse.body() )
+                .thenReturn( new ByteArrayInputStream( errorResponse.getBytes( UTF_8 )))
+                .thenReturn( new ByteArrayInputStream( successResponse.getBytes( UTF_8 )));
+        when( this.mockRandomGenerator.nextDouble() ).thenReturn( 0.0 );
+
+        openAiApiCaller.getResponse( this.testTaskName, this.testApiEndpoint, requestNode, null,
+                                     false, false, List.of(), Map.of(), Set.of() );
+
+        // both attempts reserve 300 tokens, the failed one gives them back, and the other settles at 250
+        assertEquals( 750, tokenBucketRateLimiter.getAvailableTokens() );
+        assertEquals( 8, tokenBucketRateLimiter.getAvailableRequests() );
+    }
+
+    @Test
+    void testGetResponse_tokenBucket_exception() throws Exception
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller( 1, tokenBucketRateLimiter );
+        ObjectMapper    objectMapper    = new ObjectMapper();
+        ObjectNode      requestNode     = objectMapper.createObjectNode().put( "input", "a".repeat( 1_188 ));
+
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenThrow( new IOException( "Test Exception" ));
+
+        assertThrowsExactly( OmegaCodexException.class, () -> openAiApiCaller.getResponse(
+                this.testTaskName, this.testApiEndpoint, requestNode, null,
+                false, false, List.of(), Map.of(), Set.of() ));
+
+        assertEquals( 1_000, tokenBucketRateLimiter.getAvailableTokens() );
+    }
+
+    @Test
+    void testWithPriority()
+    {
+        OpenAiApiCaller openAiApiCaller = this.createOpenAiApiCaller();
+        OpenAiApiCaller bulkApiCaller   = openAiApiCaller.withPriority( ApiPriority.BULK );
+
+        assertEquals( ApiPriority.INTERACTIVE, openAiApiCaller.getPriority() );
+        assertEquals( ApiPriority.BULK, bulkApiCaller.getPriority() );
+        assertSame( openAiApiCaller, openAiApiCaller.withPriority( ApiPriority.INTERACTIVE ));
+        assertSame( bulkApiCaller, bulkApiCaller.withPriority( ApiPriority.BULK ));
+    }
+
+    @Test
+    void testGetResponse_concurrent() throws Exception
+    {
+        int    callCount  = 400;
+        String testApiKey = "Test API Key";
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List< String > serverErrors = new CopyOnWriteArrayList<>();
+
+        // the stub echoes what it received, so every response shows whether its request arrived intact
+        HttpServer httpServer = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+        httpServer.setExecutor( Executors.newVirtualThreadPerTaskExecutor() );
+        httpServer.createContext( "/v1/test", exchange ->
+        {
+            JsonNode requestNode = objectMapper.readTree( exchange.getRequestBody() );
+            String contentType = exchange.getRequestHeaders().getFirst( "Content-Type" );
+            String authorization = exchange.getRequestHeaders().getFirst( "Authorization" );
+
+            if (( exchange.getRequestHeaders().get( "Authorization" ).size() != 1 ) ||
+                ( !"application/json".equals( contentType )) ||
+                ( !( "Bearer " + testApiKey ).equals( authorization )))
+            {
+                serverErrors.add( "Unexpected Headers: " + exchange.getRequestHeaders().entrySet() );
+            }
+
+            byte[] response = objectMapper.writeValueAsBytes( objectMapper.createObjectNode()
+                    .put( "path", exchange.getRequestURI().getPath() )
+                    .set( "request", requestNode ));
+
+            exchange.getResponseHeaders().add( "Content-Type", "application/json" );
+            exchange.sendResponseHeaders( 200, response.length );
+            try ( OutputStream outputStream = exchange.getResponseBody() ) { outputStream.write( response ); }
+        });
+        httpServer.start();
+
+        try ( HttpClient httpClient = HttpClient.newHttpClient();
+              ExecutorService executorService = Executors.newFixedThreadPool( 64 ))
+        {
+            String apiEndpoint = "http://localhost:" + httpServer.getAddress().getPort() + "/v1/test";
+            when( this.mockEnvironment.getString( this.testApiKeyVarName )).thenReturn( testApiKey );
+
+            OmegaCodexUtil omegaCodexUtil = new OmegaCodexUtil();
+            OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller(
+                    this.testApiKeyVarName, this.mockEnvironment, new HttpRequestBuilder(), httpClient,
+                    this.mockOmegaCodexLogger, new TaskRunner( 0, 16, omegaCodexUtil, this.mockOmegaCodexLogger ),
+                    new ApiRateLimiter( 1, 1_000, 8_000, omegaCodexUtil, this.mockRandomGenerator ),
+                    new ApiScheduler( new TokenBucketRateLimiter( 1_000_000, 1_000_000_000, omegaCodexUtil ),
+                                      0.2, omegaCodexUtil ),
+                    ApiPriority.INTERACTIVE );
+
+            // half of the calls are synchronous and half are asynchronous, and all of them overlap
+            List< CompletableFuture< JsonNode >> responseFutures = new ArrayList<>();
+            List< ObjectNode > requestNodes = new ArrayList<>();
+
+            for ( int i = 0; i < callCount; i++ )
+            {
+                ObjectNode requestNode = objectMapper.createObjectNode()
+                        .put( "id", i )
+                        .put( "input", "Request Input " + i + " " + "x".repeat( i ));
+                requestNodes.add( requestNode );
+
+                if ( i % 2 == 0 )
+                {
+                    responseFutures.add( CompletableFuture.supplyAsync( () -> openAiApiCaller.getResponse(
+                            this.testTaskName, apiEndpoint, requestNode, null, false, false,
+                            List.of(), Map.of(), null ), executorService ));
+                }
+                else
+                {
+                    responseFutures.add( openAiApiCaller.getResponseAsync(
+                            this.testTaskName, apiEndpoint, requestNode, null, false, false,
+                            List.of(), Map.of(), null ));
+                }
+            }
+
+            for ( int i = 0; i < callCount; i++ )
+            {
+                JsonNode responseNode = responseFutures.get( i ).get( 60, TimeUnit.SECONDS );
+                assertEquals( "/v1/test", responseNode.get( "path" ).asString() );
+                assertEquals( requestNodes.get( i ), responseNode.get( "request" ));
+            }
+        }
+        finally { httpServer.stop( 0 ); }
+
+        assertEquals( List.of(), serverErrors );
+    }
+
     private OpenAiApiCaller createOpenAiApiCaller()
     {
-        TaskRunner testTaskRunner = new TaskRunner( 0, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        return this.createOpenAiApiCaller( 1 );
+    }
 
-        return new OpenAiApiCaller( this.testApiKeyVarName, this.mockEnvironment, this.mockHttpRequestBuilder,
-                                    this.mockHttpClient, this.mockOmegaCodexLogger, testTaskRunner );
+    private OpenAiApiCaller createOpenAiApiCaller( int maxAttempts )
+    {
+        return this.createOpenAiApiCaller(
+                maxAttempts, new TokenBucketRateLimiter( 1_000, 1_000_000, this.mockOmegaCodexUtil ));
     }
 
-    private void mockApiCall( int statusCode, String response ) throws Exception
+    private OpenAiApiCaller createOpenAiApiCaller( int maxAttempts, TokenBucketRateLimiter tokenBucketRateLimiter )
     {
+        TaskRunner testTaskRunner = new TaskRunner( 0, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        ApiRateLimiter testApiRateLimiter =
+                new ApiRateLimiter( maxAttempts, 1_000, 8_000, this.mockOmegaCodexUtil, this.mockRandomGenerator );
+
+        ApiScheduler testApiScheduler = new ApiScheduler( tokenBucketRateLimiter, 0.2, this.mockOmegaCodexUtil );
+
         String testApiKey = "Test API Key";
 
         when( this.mockEnvironment.getString( this.testApiKeyVarName )).thenReturn( testApiKey );
-        when( this.mockHttpRequestBuilder.reset() ).thenReturn( this.mockHttpRequestBuilder );
-        when( this.mockHttpRequestBuilder.uri( this.testApiEndpoint )).thenReturn( this.mockHttpRequestBuilder );
         when( this.mockHttpRequestBuilder.header( "Content-Type", "application/json" ))
                 .thenReturn( this.mockHttpRequestBuilder );
         when( this.mockHttpRequestBuilder.header( "Authorization", "Bearer " + testApiKey ))
                 .thenReturn( this.mockHttpRequestBuilder );
-        when( this.mockHttpRequestBuilder.POST( this.requestBodyCaptor.capture() ))
-                .thenReturn( this.mockHttpRequestBuilder );
-        when( this.mockHttpClient.< String >send( any(), any() )).thenReturn( this.mockHttpResponse );
+
+        return new OpenAiApiCaller( this.testApiKeyVarName, this.mockEnvironment, this.mockHttpRequestBuilder,
+                                    this.mockHttpClient, this.mockOmegaCodexLogger, testTaskRunner,
+                                    testApiRateLimiter, testApiScheduler, ApiPriority.INTERACTIVE );
+    }
+
+    private void mockApiCall( int statusCode, String response, boolean logApiDetails ) throws Exception
+    {
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >send( any(), any() )).thenReturn( this.mockHttpResponse );
+        when( this.mockHttpResponse.statusCode() ).thenReturn( statusCode );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+
+        // detailed logging reads the whole body as a string, otherwise it is streamed
+        if ( logApiDetails ) when( this.mockHttpResponse.body() ).thenReturn( response );
+        else when( this.mockHttpResponse.body() ).thenReturn( new ByteArrayInputStream( response.getBytes( UTF_8 )));
+    }
+
+    private void mockApiCallAsync( int statusCode, String response )
+    {
+        this.mockRequest();
+
+        when( this.mockHttpClient.< Object >sendAsync( any(), any() ))
+                .thenReturn( CompletableFuture.completedFuture( this.mockHttpResponse ));
         when( this.mockHttpResponse.statusCode() ).thenReturn( statusCode );
-        when( this.mockHttpResponse.body() ).thenReturn( response );
+        when( this.mockHttpResponse.headers() ).thenReturn( this.createHeaders( Map.of() ));
+        when( this.mockHttpResponse.body() ).thenReturn( response.getBytes( UTF_8 ));
+    }
+
+    private HttpHeaders createHeaders( Map< String, String > headers )
+    {
+        Map< String, List< String >> headerLists = new HashMap<>();
+        headers.forEach( ( name, value ) -> headerLists.put( name, List.of( value )));
+        return HttpHeaders.of( headerLists, ( _, _ ) -> true );
+    }
+
+    private void mockRequest()
+    {
+        when( this.mockHttpRequestBuilder.POST( eq( this.testApiEndpoint ), this.requestBodyCaptor.capture() ))
+                .thenReturn( HttpRequest.newBuilder( URI.create( this.testApiEndpoint )).build() );
     }
 }
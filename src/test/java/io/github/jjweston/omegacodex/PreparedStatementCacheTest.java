@@ -0,0 +1,124 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class PreparedStatementCacheTest
+{
+    @Mock private Connection        mockConnection;
+    @Mock private PreparedStatement mockPreparedStatement1;
+    @Mock private PreparedStatement mockPreparedStatement2;
+
+    @Test
+    void testConstructor_nullConnection()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new PreparedStatementCache( null ));
+
+        assertEquals( "Connection must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testPrepare_nullSql()
+    {
+        PreparedStatementCache preparedStatementCache = new PreparedStatementCache( this.mockConnection );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> preparedStatementCache.prepare( null ));
+
+        assertEquals( "SQL must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testPrepare_reuse() throws Exception
+    {
+        PreparedStatementCache preparedStatementCache = new PreparedStatementCache( this.mockConnection );
+
+        when( this.mockConnection.prepareStatement( "SELECT 1" )).thenReturn( this.mockPreparedStatement1 );
+        when( this.mockConnection.prepareStatement( "SELECT 1", Statement.RETURN_GENERATED_KEYS ))
+                .thenReturn( this.mockPreparedStatement2 );
+
+        assertSame( this.mockPreparedStatement1, preparedStatementCache.prepare( "SELECT 1" ));
+        assertSame( this.mockPreparedStatement1, preparedStatementCache.prepare( "SELECT 1" ));
+        assertSame( this.mockPreparedStatement2,
+                preparedStatementCache.prepare( "SELECT 1", Statement.RETURN_GENERATED_KEYS ));
+        assertEquals( 2, preparedStatementCache.size() );
+
+        verify( this.mockConnection, times( 1 )).prepareStatement( "SELECT 1" );
+        verify( this.mockPreparedStatement1 ).clearParameters();
+    }
+
+    @Test
+    void testClose_success() throws Exception
+    {
+        PreparedStatementCache preparedStatementCache = new PreparedStatementCache( this.mockConnection );
+
+        when( this.mockConnection.prepareStatement( "SELECT 1" )).thenReturn( this.mockPreparedStatement1 );
+        when( this.mockConnection.prepareStatement( "SELECT 2" )).thenReturn( this.mockPreparedStatement2 );
+        preparedStatementCache.prepare( "SELECT 1" );
+        preparedStatementCache.prepare( "SELECT 2" );
+
+        preparedStatementCache.close();
+
+        assertEquals( 0, preparedStatementCache.size() );
+        verify( this.mockPreparedStatement1 ).close();
+        verify( this.mockPreparedStatement2 ).close();
+    }
+
+    @Test
+    void testClose_exception() throws Exception
+    {
+        PreparedStatementCache preparedStatementCache = new PreparedStatementCache( this.mockConnection );
+
+        SQLException testException = new SQLException( "Test Exception" );
+
+        when( this.mockConnection.prepareStatement( "SELECT 1" )).thenReturn( this.mockPreparedStatement1 );
+        when( this.mockConnection.prepareStatement( "SELECT 2" )).thenReturn( this.mockPreparedStatement2 );
+        doThrow( testException ).when( this.mockPreparedStatement1 ).close();
+        preparedStatementCache.prepare( "SELECT 1" );
+        preparedStatementCache.prepare( "SELECT 2" );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                preparedStatementCache::close );
+
+        assertEquals( "Failed to close prepared statement.", exception.getMessage() );
+        assertSame( testException, exception.getCause() );
+        assertEquals( 0, preparedStatementCache.size() );
+        verify( this.mockPreparedStatement2 ).close();
+    }
+}
@@ -62,13 +62,13 @@ class QdrantServiceIT
             {
                 String resourceName = String.format( "%s-input-%d.json", className, i );
                 long id = i + 1;
-                ImmutableDoubleArray inputVector = this.getVector( resourceName );
+                ImmutableFloatArray inputVector = this.getVector( resourceName );
                 Embedding embedding = new Embedding( id, inputVector );
                 qdrantService.upsert( embedding );
             }
 
             String resourceName = className + "-query.json";
-            ImmutableDoubleArray queryVector = this.getVector( resourceName );
+            ImmutableFloatArray queryVector = this.getVector( resourceName );
             List< SearchResult > actualResults = qdrantService.search( queryVector );
 
             assertEquals( expectedResults.size(), actualResults.size() );
@@ -91,11 +91,11 @@ class QdrantServiceIT
         }
     }
 
-    private ImmutableDoubleArray getVector( String resourceName ) throws Exception
+    private ImmutableFloatArray getVector( String resourceName ) throws Exception
     {
         try ( InputStream resourceStream = this.getClass().getResourceAsStream( resourceName ))
         {
-            return new ImmutableDoubleArray( OmegaCodexTestUtil.readInputStream( resourceStream ));
+            return new ImmutableFloatArray( OmegaCodexTestUtil.readInputStream( resourceStream ));
         }
     }
 }
@@ -33,6 +33,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static io.qdrant.client.PointIdFactory.id;
 import static io.qdrant.client.QueryFactory.nearest;
@@ -60,6 +61,7 @@ class QdrantServiceTest
     @Mock private ListenableFuture< Collections.CollectionOperationResponse > mockCollectionResponseListenableFuture;
     @Mock private ListenableFuture< Points.UpdateResult >                     mockUpdateResultListenableFuture;
     @Mock private ListenableFuture< List< Points.ScoredPoint >>               mockScoredPointsListenableFuture;
+    @Mock private ListenableFuture< Points.ScrollResponse >                   mockScrollResponseListenableFuture;
 
     @Test
     void init_collectionExists_returnsNull_closeException()
@@ -108,7 +110,7 @@ class QdrantServiceTest
         int                  expectedCollectionSize = 1_234;
         int                  actualCollectionSize   = 1_024;
         long                 testId                 = 42;
-        ImmutableDoubleArray testVector             = new ImmutableDoubleArray( new double[ actualCollectionSize ] );
+        ImmutableFloatArray testVector             = new ImmutableFloatArray( new float[ actualCollectionSize ] );
         Embedding            testEmbedding          = new Embedding( testId, testVector );
 
         this.mockInit( expectedCollectionSize );
@@ -129,12 +131,12 @@ class QdrantServiceTest
     void upsert_success() throws Exception
     {
         long                 testId        = 1024;
-        ImmutableDoubleArray testVector    = new ImmutableDoubleArray( new double[]{ 0.1f, 0.2f, 0.3f, 0.4f, 0.5f } );
+        ImmutableFloatArray testVector    = new ImmutableFloatArray( new float[]{ 0.1f, 0.2f, 0.3f, 0.4f, 0.5f } );
         Embedding            testEmbedding = new Embedding( testId, testVector );
 
         Points.PointStruct testPoint = Points.PointStruct.newBuilder()
                 .setId( id( testId ))
-                .setVectors( VectorsFactory.vectors( testVector.toFloatArray() ))
+                .setVectors( VectorsFactory.vectors( testVector.getArray() ))
                 .build();
 
         this.mockInit( this.testCollectionSize );
@@ -179,7 +181,7 @@ class QdrantServiceTest
     {
         int                  expectedCollectionSize = 5_678;
         int                  actualCollectionSize   = 2_048;
-        ImmutableDoubleArray testVector             = new ImmutableDoubleArray( new double[ actualCollectionSize ] );
+        ImmutableFloatArray testVector             = new ImmutableFloatArray( new float[ actualCollectionSize ] );
 
         this.mockInit( expectedCollectionSize );
 
@@ -198,7 +200,7 @@ class QdrantServiceTest
     @Test
     void search_success() throws Exception
     {
-        ImmutableDoubleArray testVector = new ImmutableDoubleArray( new double[]{ 0.1f, 0.2f, 0.3f, 0.4f, 0.5f } );
+        ImmutableFloatArray testVector = new ImmutableFloatArray( new float[]{ 0.1f, 0.2f, 0.3f, 0.4f, 0.5f } );
 
         long testId1 = 42;
         long testId2 = 13;
@@ -215,7 +217,7 @@ class QdrantServiceTest
 
         Points.QueryPoints testQuery = Points.QueryPoints.newBuilder()
                 .setCollectionName( this.testCollectionName )
-                .setQuery( nearest( testVector.toFloatArray() ))
+                .setQuery( nearest( testVector.getArray() ))
                 .build();
 
         List< Points.ScoredPoint > testScoredPoints = new LinkedList<>();
@@ -235,6 +237,38 @@ class QdrantServiceTest
         }
     }
 
+    @Test
+    void getPointIds_success() throws Exception
+    {
+        Points.ScrollPoints.Builder testScrollBuilder = Points.ScrollPoints.newBuilder()
+                .setCollectionName( this.testCollectionName )
+                .setLimit( 1_000 )
+                .setWithPayload( Points.WithPayloadSelector.newBuilder().setEnable( false ))
+                .setWithVectors( Points.WithVectorsSelector.newBuilder().setEnable( false ));
+        Points.ScrollPoints testScroll1 = testScrollBuilder.build();
+        Points.ScrollPoints testScroll2 = testScrollBuilder.setOffset( id( 74 )).build();
+
+        Points.ScrollResponse testResponse1 = Points.ScrollResponse.newBuilder()
+                .addResult( Points.RetrievedPoint.newBuilder().setId( id( 13 )))
+                .addResult( Points.RetrievedPoint.newBuilder().setId( id( 42 )))
+                .setNextPageOffset( id( 74 ))
+                .build();
+        Points.ScrollResponse testResponse2 = Points.ScrollResponse.newBuilder()
+                .addResult( Points.RetrievedPoint.newBuilder().setId( id( 74 )))
+                .build();
+
+        this.mockInit( this.testCollectionSize );
+
+        when( this.mockQdrantClient.scrollAsync( testScroll1 )).thenReturn( this.mockScrollResponseListenableFuture );
+        when( this.mockQdrantClient.scrollAsync( testScroll2 )).thenReturn( this.mockScrollResponseListenableFuture );
+        when( this.mockScrollResponseListenableFuture.get() ).thenReturn( testResponse1 ).thenReturn( testResponse2 );
+
+        try ( QdrantService qdrantService = this.createQdrantService( this.testCollectionSize, false ))
+        {
+            assertEquals( Set.of( 13L, 42L, 74L ), qdrantService.getPointIds() );
+        }
+    }
+
     private void mockInit( int testCollectionSize ) throws Exception
     {
         Collections.VectorParams vectorParams = Collections.VectorParams.newBuilder()
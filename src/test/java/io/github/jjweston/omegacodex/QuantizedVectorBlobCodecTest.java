@@ -0,0 +1,146 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantizedVectorBlobCodecTest
+{
+    private final QuantizedVectorBlobCodec quantizedVectorBlobCodec = new QuantizedVectorBlobCodec();
+
+    @Test
+    void testEncode_nullVector()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.quantizedVectorBlobCodec.encode( null ));
+
+        assertEquals( "Vector must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testEncode_levels()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { -1.0f, 0.0f, 1.0f, 0.5f } );
+
+        byte[] blob = this.quantizedVectorBlobCodec.encode( vector );
+
+        // offset -1.0f and scale 2.0f / 255 as little-endian floats, then one unsigned level per value
+        byte[] expectedBlob = { 0x00, 0x00, (byte) 0x80, (byte) 0xBF, (byte) 0x81, (byte) 0x80, 0x00, 0x3C,
+                                0x00, 0x7F, (byte) 0xFF, (byte) 0xBF };
+
+        assertArrayEquals( expectedBlob, blob );
+        assertEquals( this.quantizedVectorBlobCodec.getBlobLength( 4 ), blob.length, "Blob Length" );
+    }
+
+    @Test
+    void testRoundTrip_constantVector()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 0.25f, 0.25f, 0.25f } );
+
+        assertEquals( vector, this.quantizedVectorBlobCodec.decode( this.quantizedVectorBlobCodec.encode( vector )));
+    }
+
+    @Test
+    void testRoundTrip_emptyVector()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[ 0 ] );
+
+        assertEquals( vector, this.quantizedVectorBlobCodec.decode( this.quantizedVectorBlobCodec.encode( vector )));
+    }
+
+    @Test
+    void testRoundTrip_maxError()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { -0.3f, -0.1f, 0.0f, 0.07f, 0.2f } );
+
+        ImmutableFloatArray decodedVector =
+                this.quantizedVectorBlobCodec.decode( this.quantizedVectorBlobCodec.encode( vector ));
+
+        float halfStep = ( 0.2f - -0.3f ) / 255 / 2;
+        assertArrayEquals( vector.getArray(), decodedVector.getArray(), halfStep * 1.001f );
+    }
+
+    @Test
+    void testRoundTrip_cosineError()
+    {
+        Random random = new Random( 42 );
+        VectorMath vectorMath = new VectorMath( new ScalarVectorKernel() );
+
+        int vectorCount = 100;
+        ImmutableFloatArray[] vectors = new ImmutableFloatArray[ vectorCount ];
+        ImmutableFloatArray[] decodedVectors = new ImmutableFloatArray[ vectorCount ];
+
+        for ( int i = 0; i < vectorCount; i++ )
+        {
+            float[] array = new float[ 1_536 ];
+            for ( int j = 0; j < array.length; j++ ) array[ j ] = (float) ( random.nextGaussian() * 0.025 );
+            vectors[ i ] = new ImmutableFloatArray( array );
+            byte[] blob = this.quantizedVectorBlobCodec.encode( vectors[ i ] );
+            decodedVectors[ i ] = this.quantizedVectorBlobCodec.decode( blob );
+        }
+
+        double totalDrift = 0.0;
+        double maxDrift   = 0.0;
+        int    pairCount  = 0;
+
+        for ( int i = 0; i < vectorCount; i++ )
+        {
+            assertTrue( vectorMath.cosine( vectors[ i ], decodedVectors[ i ] ) > 0.9999f, "Reconstruction Cosine" );
+
+            for ( int j = i + 1; j < vectorCount; j++ )
+            {
+                double drift = Math.abs( vectorMath.cosine( vectors[ i ], vectors[ j ] ) -
+                                         vectorMath.cosine( decodedVectors[ i ], decodedVectors[ j ] ));
+                totalDrift += drift;
+                maxDrift = Math.max( maxDrift, drift );
+                pairCount++;
+            }
+        }
+
+        assertTrue( totalDrift / pairCount < 0.0005, "Mean Cosine Drift: " + totalDrift / pairCount );
+        assertTrue( maxDrift < 0.002, "Max Cosine Drift: " + maxDrift );
+    }
+
+    @Test
+    void testDecode_nullBlob()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.quantizedVectorBlobCodec.decode( null ));
+
+        assertEquals( "Blob must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDecode_shortBlob()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.quantizedVectorBlobCodec.decode( new byte[ 7 ] ));
+
+        assertEquals( "Blob length must be at least 8. Actual Length: 7", exception.getMessage() );
+    }
+}
@@ -79,13 +79,15 @@ class ResponseApiServiceIT
         SQLiteDataSource dataSource = new SQLiteDataSource();
         dataSource.setUrl( databaseUrl );
 
+        OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
+        EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
+        EmbeddingModel embeddingModel = embeddingApiService.getEmbeddingModel();
+
         try ( Connection connection = dataSource.getConnection();
               QdrantService qdrantService = new QdrantService(
-                      this.collectionName, collectionSize, false, this.taskRunner, this.qdrantClientFactory ))
+                      this.collectionName, collectionSize, false, this.taskRunner, this.qdrantClientFactory );
+              EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection, embeddingModel ) )
         {
-            OpenAiApiCaller openAiApiCaller = new OpenAiApiCaller();
-            EmbeddingCacheService embeddingCacheService = new EmbeddingCacheService( connection );
-            EmbeddingApiService embeddingApiService = new EmbeddingApiService( openAiApiCaller );
             EmbeddingService embeddingService = new EmbeddingService( embeddingCacheService, embeddingApiService );
             ResponseApiService responseApiService =
                     new ResponseApiService( embeddingCacheService, embeddingService, qdrantService, openAiApiCaller );
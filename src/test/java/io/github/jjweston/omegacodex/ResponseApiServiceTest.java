@@ -29,12 +29,16 @@ import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.JsonNodeFactory;
 import tools.jackson.databind.node.ObjectNode;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -133,7 +137,7 @@ class ResponseApiServiceTest
 
         String userQuery = "What is a problem with an infinite solution?";
         String functionQuery = "What is infinity plus one?";
-        ImmutableDoubleArray queryVector = new ImmutableDoubleArray( new double[] { 0.5, 0.4, 0.3, 0.2, 0.1 } );
+        ImmutableFloatArray queryVector = new ImmutableFloatArray( new float[] { 0.5f, 0.4f, 0.3f, 0.2f, 0.1f } );
         Embedding queryEmbedding = new Embedding( 42, queryVector );
         SearchResult searchResult = new SearchResult( 7, 0.5f );
         List< SearchResult > searchResults = List.of( searchResult );
@@ -164,7 +168,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         when( this.mockEmbeddingService.getEmbedding( functionQuery )).thenReturn( queryEmbedding );
@@ -223,13 +227,13 @@ class ResponseApiServiceTest
         float  expectedSearchResulScore2a = 0.625f;
         float  expectedSearchResulScore2b = 0.125f;
 
-        ImmutableDoubleArray queryVector1 = new ImmutableDoubleArray( new double[] { 0.5, 0.4, 0.3, 0.2, 0.1 } );
+        ImmutableFloatArray queryVector1 = new ImmutableFloatArray( new float[] { 0.5f, 0.4f, 0.3f, 0.2f, 0.1f } );
         Embedding queryEmbedding1 = new Embedding( 42, queryVector1 );
         List< SearchResult > searchResults1 = List.of(
                 new SearchResult( expectedSearchResultId1a, expectedSearchResulScore1a ),
                 new SearchResult( expectedSearchResultId1b, expectedSearchResulScore1b ));
 
-        ImmutableDoubleArray queryVector2 = new ImmutableDoubleArray( new double[] { 0.6, 0.5, 0.4, 0.3, 0.2 } );
+        ImmutableFloatArray queryVector2 = new ImmutableFloatArray( new float[] { 0.6f, 0.5f, 0.4f, 0.3f, 0.2f } );
         Embedding queryEmbedding2 = new Embedding( 67, queryVector2 );
         List< SearchResult > searchResults2 = List.of(
                 new SearchResult( expectedSearchResultId2a, expectedSearchResulScore2a ),
@@ -300,7 +304,7 @@ class ResponseApiServiceTest
         List< JsonNode > inputNodeList = new LinkedList<>();
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .then( invocation ->
                 {
                     inputNodeList.add( invocation.getArgument( 2, ObjectNode.class ).path( "input" ).deepCopy() );
@@ -394,6 +398,156 @@ class ResponseApiServiceTest
         assertTrue(  functionResponseNode2.path( 1 ).path( "duplicate" ).asBoolean() );
     }
 
+    @Test
+    void getResponseAsync_success()
+    {
+        ResponseApiService responseApiService = new ResponseApiService(
+                this.testIterationLimit, false, false, false,
+                this.mockEmbeddingCacheService, this.mockEmbeddingService, this.mockQdrantService,
+                this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        String userQuery = "What is your quest?";
+        String functionQuery = "What is my quest?";
+        String expectedResponse = "To seek the Holy Grail!";
+        ImmutableFloatArray queryVector = new ImmutableFloatArray( new float[] { 0.5f, 0.4f, 0.3f, 0.2f, 0.1f } );
+        Embedding queryEmbedding = new Embedding( 42, queryVector );
+        SearchResult searchResult = new SearchResult( 7, 0.5f );
+
+        String functionCallString = String.format(
+                """
+                {
+                  "output":
+                  [
+                    {
+                      "type" : "function_call",
+                      "arguments" : "{\\"query\\":\\"%s\\"}",
+                      "call_id" : "test_call_id",
+                      "name" : "search_readme"
+                    }
+                  ]
+                }
+                """, functionQuery );
+
+        String messageString = String.format(
+                """
+                {
+                  "output":
+                  [
+                    {
+                      "type": "message",
+                      "content": [ { "text": "%s" } ],
+                      "role": "assistant"
+                    }
+                  ]
+                }
+                """, expectedResponse );
+
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        when( this.mockOpenAiApiCaller.getResponseAsync(
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( CompletableFuture.completedFuture( objectMapper.readTree( functionCallString )))
+                .thenReturn( CompletableFuture.completedFuture( objectMapper.readTree( messageString )));
+
+        when( this.mockEmbeddingService.getEmbedding( functionQuery )).thenReturn( queryEmbedding );
+        when( this.mockQdrantService.search( queryVector )).thenReturn( List.of( searchResult ));
+        when( this.mockEmbeddingCacheService.getInput( searchResult.id() )).thenReturn( expectedResponse );
+
+        assertEquals( expectedResponse, responseApiService.getResponseAsync( userQuery ).join() );
+    }
+
+    @Test
+    void getResponseAsync_functionCallExecutor()
+    {
+        List< Runnable > functionCallTasks = new ArrayList<>();
+        ResponseApiService responseApiService = new ResponseApiService(
+                this.testIterationLimit, false, false, false,
+                this.mockEmbeddingCacheService, this.mockEmbeddingService, this.mockQdrantService,
+                this.mockOpenAiApiCaller, this.mockOmegaCodexLogger, functionCallTasks::add );
+
+        String expectedResponse = "To seek the Holy Grail!";
+        String messageString = String.format(
+                """
+                {
+                  "output":
+                  [
+                    {
+                      "type": "message",
+                      "content": [ { "text": "%s" } ],
+                      "role": "assistant"
+                    }
+                  ]
+                }
+                """, expectedResponse );
+
+        when( this.mockOpenAiApiCaller.getResponseAsync(
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( CompletableFuture.completedFuture( new ObjectMapper().readTree( messageString )));
+
+        // the response is only handled once the executor runs it, never on the thread completing the API call
+        CompletableFuture< String > future = responseApiService.getResponseAsync( "What is your quest?" );
+        assertFalse( future.isDone() );
+        assertEquals( 1, functionCallTasks.size() );
+
+        functionCallTasks.getFirst().run();
+        assertEquals( expectedResponse, future.join() );
+    }
+
+    @Test
+    void getResponseAsync_nullQuery()
+    {
+        ResponseApiService responseApiService = new ResponseApiService(
+                this.testIterationLimit, false, false, false,
+                this.mockEmbeddingCacheService, this.mockEmbeddingService, this.mockQdrantService,
+                this.mockOpenAiApiCaller, this.mockOmegaCodexLogger );
+
+        CompletableFuture< String > future = responseApiService.getResponseAsync( null );
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+        assertInstanceOf( IllegalArgumentException.class, exception.getCause() );
+        assertEquals( "Query must not be null.", exception.getCause().getMessage() );
+    }
+
+    @Test
+    void getResponseAsync_iterationLimit()
+    {
+        ResponseApiService responseApiService = new ResponseApiService(
+                1, false, false, false,
+                this.mockEmbeddingCacheService, this.mockEmbeddingService, this.mockQdrantService,
+                this.mockOpenAiApiCaller, this.mockOmegaCodexLogger, Runnable::run );
+
+        String functionCallString =
+                """
+                {
+                  "output":
+                  [
+                    {
+                      "type" : "function_call",
+                      "arguments" : "{\\"query\\":\\"What is my quest?\\"}",
+                      "call_id" : "test_call_id",
+                      "name" : "search_readme"
+                    }
+                  ]
+                }
+                """;
+
+        ImmutableFloatArray queryVector = new ImmutableFloatArray( new float[] { 0.5f, 0.4f, 0.3f, 0.2f, 0.1f } );
+
+        when( this.mockOpenAiApiCaller.getResponseAsync(
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
+                .thenReturn( CompletableFuture.completedFuture( new ObjectMapper().readTree( functionCallString )));
+        when( this.mockEmbeddingService.getEmbedding( "What is my quest?" ))
+                .thenReturn( new Embedding( 42, queryVector ));
+        when( this.mockQdrantService.search( queryVector )).thenReturn( List.of() );
+
+        // the limit is reported through the future, so callers waiting on it are not left hanging
+        CompletableFuture< String > future = responseApiService.getResponseAsync( "What is your quest?" );
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+        assertInstanceOf( OmegaCodexException.class, exception.getCause() );
+        assertEquals( "Failed to get response within 1 iterations.", exception.getCause().getMessage() );
+    }
+
     @Test
     void handleOutput_noMessage_and_noFunctionCall()
     {
@@ -423,7 +577,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -448,7 +602,7 @@ class ResponseApiServiceTest
 
         String queryString = "What is your quest?";
         String testQuery = "Test Query";
-        ImmutableDoubleArray queryVector = new ImmutableDoubleArray( new double[] { 0.5, 0.4, 0.3, 0.2, 0.1 } );
+        ImmutableFloatArray queryVector = new ImmutableFloatArray( new float[] { 0.5f, 0.4f, 0.3f, 0.2f, 0.1f } );
         Embedding queryEmbedding = new Embedding( 42, queryVector );
         SearchResult searchResult = new SearchResult( 7, 0.5f );
         List< SearchResult > searchResults = List.of( searchResult );
@@ -489,7 +643,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         when( this.mockEmbeddingService.getEmbedding( testQuery )).thenReturn( queryEmbedding );
@@ -547,7 +701,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -611,7 +765,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -663,7 +817,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -713,7 +867,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -763,7 +917,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
@@ -813,7 +967,7 @@ class ResponseApiServiceTest
         JsonNode responseNode = objectMapper.readTree( responseString );
 
         when( this.mockOpenAiApiCaller.getResponse(
-                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any() ))
+                        any(), any(), any(), any(), anyBoolean(), anyBoolean(), any(), any(), any() ))
                 .thenReturn( responseNode );
 
         IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
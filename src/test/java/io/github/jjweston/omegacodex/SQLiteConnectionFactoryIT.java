@@ -0,0 +1,175 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteException;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQLiteConnectionFactoryIT
+{
+    @Test
+    void testCreatePool_pragmas( @TempDir Path tempDir ) throws Exception
+    {
+        SQLiteConnectionFactory sqLiteConnectionFactory =
+                new SQLiteConnectionFactory( tempDir, Path.of( "test.db" ), 2, "FULL", 1_048_576, -2_048, 1_234 );
+
+        try ( SQLiteConnectionPool connectionPool = sqLiteConnectionFactory.createPool() )
+        {
+            assertEquals( 2, connectionPool.getReaders().size(), "Reader Count" );
+
+            Connection writer = connectionPool.getWriter();
+            assertEquals( "wal", this.queryString( writer, "PRAGMA journal_mode" ), "Journal Mode" );
+            assertEquals( "2", this.queryString( writer, "PRAGMA synchronous" ), "Synchronous" );
+            assertEquals( "1048576", this.queryString( writer, "PRAGMA mmap_size" ), "Memory Map Size" );
+            assertEquals( "-2048", this.queryString( writer, "PRAGMA cache_size" ), "Cache Size" );
+            assertEquals( "1234", this.queryString( writer, "PRAGMA busy_timeout" ), "Busy Timeout" );
+            assertEquals( "0", this.queryString( writer, "PRAGMA query_only" ), "Writer Query Only" );
+
+            for ( Connection reader : connectionPool.getReaders() )
+            {
+                assertEquals( "wal", this.queryString( reader, "PRAGMA journal_mode" ), "Reader Journal Mode" );
+                assertEquals( "1", this.queryString( reader, "PRAGMA query_only" ), "Reader Query Only" );
+
+                assertThrowsExactly( SQLiteException.class, () ->
+                {
+                    try ( Statement statement = reader.createStatement() )
+                    {
+                        statement.execute( "CREATE TABLE Test ( Id INTEGER )" );
+                    }
+                } );
+            }
+        }
+    }
+
+    @Test
+    void testCreatePool_concurrentReads( @TempDir Path tempDir ) throws Exception
+    {
+        int inputCount  = 200;
+        int threadCount = 8;
+
+        Map< String, ImmutableFloatArray > testVectors = new LinkedHashMap<>();
+        for ( int i = 0; i < inputCount; i++ )
+        {
+            testVectors.put( "Test input " + i, new ImmutableFloatArray( new float[] { i, -i, 0.5f } ));
+        }
+
+        SQLiteConnectionFactory sqLiteConnectionFactory =
+                new SQLiteConnectionFactory( tempDir, Path.of( "test.db" ), 4, "NORMAL", 0, -2_048, 5_000 );
+
+        try ( SQLiteConnectionPool connectionPool = sqLiteConnectionFactory.createPool();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connectionPool, new EmbeddingModel( "test-model", 3 )))
+        {
+            Map< String, Long > ids = embeddingCacheService.cacheEmbeddings( testVectors );
+
+            try ( ExecutorService executorService = Executors.newFixedThreadPool( threadCount ))
+            {
+                List< Future< Integer >> futures = new ArrayList<>();
+
+                for ( int thread = 0; thread < threadCount; thread++ )
+                {
+                    int offset = thread;
+                    futures.add( executorService.submit( () ->
+                    {
+                        int found = 0;
+
+                        for ( int i = 0; i < inputCount; i++ )
+                        {
+                            String input = "Test input " + (( i + offset ) % inputCount );
+                            Embedding embedding = embeddingCacheService.getEmbedding( input );
+                            assertEquals( new Embedding( ids.get( input ), testVectors.get( input )), embedding );
+                            found++;
+                        }
+
+                        if ( offset == 0 )
+                        {
+                            embeddingCacheService.cacheEmbedding( "Concurrent", testVectors.get( "Test input 1" ));
+                        }
+
+                        return found;
+                    } ));
+                }
+
+                for ( Future< Integer > future : futures ) assertEquals( inputCount, future.get() );
+            }
+
+            Embedding concurrentEmbedding = embeddingCacheService.getEmbedding( "Concurrent" );
+            assertEquals( testVectors.get( "Test input 1" ), concurrentEmbedding.vector() );
+        }
+    }
+
+    @Test
+    void testCreatePool_incrementalVacuum( @TempDir Path tempDir ) throws Exception
+    {
+        float[] testValues = new float[ 256 ];
+        Arrays.fill( testValues, 0.5f );
+        ImmutableFloatArray testVector = new ImmutableFloatArray( testValues );
+
+        SQLiteConnectionFactory sqLiteConnectionFactory =
+                new SQLiteConnectionFactory( tempDir, Path.of( "test.db" ), 1, "NORMAL", 0, -2_048, 5_000 );
+
+        try ( SQLiteConnectionPool connectionPool = sqLiteConnectionFactory.createPool();
+              EmbeddingCacheService embeddingCacheService =
+                      new EmbeddingCacheService( connectionPool, new EmbeddingModel( "test-model", 256 )))
+        {
+            // the writer is already in WAL mode when the schema is created
+            assertEquals( "wal", this.queryString( connectionPool.getWriter(), "PRAGMA journal_mode" ));
+            assertEquals( "2", this.queryString( connectionPool.getWriter(), "PRAGMA auto_vacuum" ));
+
+            Map< String, ImmutableFloatArray > testVectors = new LinkedHashMap<>();
+            for ( int i = 1; i <= 200; i++ ) testVectors.put( "Input " + i, testVector );
+            embeddingCacheService.cacheEmbeddings( testVectors );
+
+            assertEquals( 200, embeddingCacheService.evictEmbeddings( Long.MAX_VALUE, 0, List.of() ).size() );
+
+            long freedPageCount = embeddingCacheService.incrementalVacuum( 1_000 );
+            assertTrue( freedPageCount > 0, "Freed Pages: " + freedPageCount );
+            assertEquals( "0", this.queryString( connectionPool.getWriter(), "PRAGMA freelist_count" ));
+        }
+    }
+
+    private String queryString( Connection connection, String sql ) throws SQLException
+    {
+        try ( Statement statement = connection.createStatement();
+              ResultSet result = statement.executeQuery( sql ))
+        {
+            result.next();
+            return result.getString( 1 );
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SimdVectorKernelTest
+{
+    @BeforeAll
+    static void checkVectorModule()
+    {
+        // the kernel can only run when the incubator module was added, as it is by the benchmark profile
+        assumeTrue( ModuleLayer.boot().findModule( "jdk.incubator.vector" ).isPresent() );
+    }
+
+    private final SimdVectorKernel   simdKernel   = new SimdVectorKernel();
+    private final ScalarVectorKernel scalarKernel = new ScalarVectorKernel();
+
+    @ParameterizedTest
+    @ValueSource( ints = { 0, 1, 7, 8, 15, 16, 17, 1_536, 1_539 } )
+    void testMatchesScalar( int length )
+    {
+        Random random = new Random( length );
+
+        try ( Arena arena = Arena.ofConfined() )
+        {
+            MemorySegment a = this.randomSegment( arena, random, length );
+            MemorySegment b = this.randomSegment( arena, random, length );
+
+            float expectedDot = this.scalarKernel.dot( a, b, length );
+            assertEquals( expectedDot, this.simdKernel.dot( a, b, length ), this.tolerance( expectedDot ), "Dot" );
+
+            float expectedSquares = this.scalarKernel.sumOfSquares( a, length );
+            assertEquals( expectedSquares, this.simdKernel.sumOfSquares( a, length ),
+                          this.tolerance( expectedSquares ), "Sum of Squares" );
+
+            float expectedCosine = this.scalarKernel.cosine( a, b, length );
+            assertEquals( expectedCosine, this.simdKernel.cosine( a, b, length ), 1e-5f, "Cosine" );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( ints = { 1, 17, 1_536 } )
+    void testCosine_zeroVector( int length )
+    {
+        try ( Arena arena = Arena.ofConfined() )
+        {
+            MemorySegment a    = this.randomSegment( arena, new Random( length ), length );
+            MemorySegment zero = this.allocate( arena, length );
+
+            assertEquals( 0.0f, this.simdKernel.cosine( a, zero, length ));
+        }
+    }
+
+    private MemorySegment randomSegment( Arena arena, Random random, int length )
+    {
+        MemorySegment segment = this.allocate( arena, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            segment.setAtIndex( ValueLayout.JAVA_FLOAT, i, (float) random.nextGaussian() );
+        }
+
+        return segment;
+    }
+
+    private MemorySegment allocate( Arena arena, int length )
+    {
+        return arena.allocate( (long) length * Float.BYTES, Float.BYTES );
+    }
+
+    private float tolerance( float expected )
+    {
+        return Math.max( 1.0f, Math.abs( expected )) * 1e-4f;
+    }
+}
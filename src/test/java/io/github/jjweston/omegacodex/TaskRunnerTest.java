@@ -25,10 +25,29 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -47,6 +66,33 @@ class TaskRunnerTest
         this.taskRunner = new TaskRunner( 5_000, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
     }
 
+    @Test
+    void constructor_negativeRateLimitDelay()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new TaskRunner( -1, 1, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Rate limit delay must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void constructor_invalidMaxInFlight()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new TaskRunner( 0, 0, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Max in flight must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void constructor_invalidReservedPermits()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new TaskRunner( 0, 2, 2, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger ));
+
+        assertEquals( "Reserved permits must be at least 0 and less than max in flight.", exception.getMessage() );
+    }
+
     @Test
     void get_nullTaskName()
     {
@@ -154,4 +200,358 @@ class TaskRunnerTest
         inOrder.verifyNoMoreInteractions();
         verifyNoMoreInteractions( this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
     }
+
+    @Test
+    void get_negativeTimeout()
+    {
+        String taskName = "get_negativeTimeout";
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> this.taskRunner.get( taskName, null, false, -1, () -> null ));
+
+        assertEquals( "Timeout must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void get_timeout_success()
+    {
+        String taskName = "get_timeout_success";
+
+        assertEquals( 42, this.taskRunner.get( taskName, null, false, 10_000, () -> 42 ));
+    }
+
+    @Test
+    void get_timeout_exception()
+    {
+        String taskName = "get_timeout_exception";
+        Exception innerException = new Exception( "Inner Exception" );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> this.taskRunner.get( taskName, null, false, 10_000, () -> { throw innerException; } ));
+
+        assertEquals( taskName + ", Exception Occurred", exception.getMessage() );
+        assertEquals( innerException, exception.getCause() );
+    }
+
+    @Test
+    void get_timeout_taskCancelled() throws Exception
+    {
+        String taskName = "get_timeout_taskCancelled";
+        CountDownLatch interrupted = new CountDownLatch( 1 );
+
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> this.taskRunner.get( taskName, null, false, 100, () ->
+                {
+                    try { Thread.sleep( 60_000 ); }
+                    catch ( InterruptedException e ) { interrupted.countDown(); }
+                    return null;
+                }));
+
+        assertEquals( taskName + ", Timed Out, Timeout: 100 ms", exception.getMessage() );
+        assertTrue( interrupted.await( 10, TimeUnit.SECONDS ));
+    }
+
+    @Test
+    void get_timeout_rateLimited() throws Exception
+    {
+        String taskName = "get_timeout_rateLimited";
+
+        assertNull( this.taskRunner.get( taskName, false, () -> null ));
+
+        // the next start slot is 5,000 ms away, which is past the deadline, so the task never starts
+        OmegaCodexException exception = assertThrowsExactly( OmegaCodexException.class,
+                () -> this.taskRunner.get( taskName, null, false, 1_000, () -> 42 ));
+
+        assertEquals( taskName + ", Timed Out, Timeout: 1,000 ms", exception.getMessage() );
+        verify( this.mockOmegaCodexUtil, never() ).sleepThread( anyLong() );
+    }
+
+    @Test
+    void get_maxInFlight() throws Exception
+    {
+        String taskName = "get_maxInFlight";
+        int maxInFlight = 2;
+        int threadCount = 8;
+
+        TaskRunner taskRunner = new TaskRunner( 0, maxInFlight, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        try ( ExecutorService executorService = Executors.newFixedThreadPool( threadCount ))
+        {
+            List< Future< ? >> futures = new ArrayList<>();
+            for ( int i = 0; i < threadCount; i++ )
+            {
+                futures.add( executorService.submit( () -> taskRunner.run( taskName, false, () ->
+                {
+                    peakInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+                    Thread.sleep( 20 );
+                    inFlight.decrementAndGet();
+                })));
+            }
+
+            for ( Future< ? > future : futures ) future.get();
+        }
+
+        assertEquals( maxInFlight, peakInFlight.get() );
+    }
+
+    @Test
+    void get_permitArrivalOrder() throws Exception
+    {
+        String taskName = "get_permitArrivalOrder";
+        CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+        List< String > startOrder = new CopyOnWriteArrayList<>();
+
+        TaskRunner taskRunner = new TaskRunner( 0, 1, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        CompletableFuture< Integer > future1 = taskRunner.getAsync( taskName, null, false, () -> taskFuture );
+
+        Thread syncThread = Thread.ofPlatform().start(
+                () -> taskRunner.run( taskName, false, () -> startOrder.add( "sync" )));
+        while ( syncThread.getState() != Thread.State.WAITING ) Thread.onSpinWait();
+
+        CompletableFuture< Integer > future2 = taskRunner.getAsync( taskName, null, false, () ->
+        {
+            startOrder.add( "async" );
+            return CompletableFuture.completedFuture( 43 );
+        });
+
+        // the blocked caller arrived first, so it gets the released permit before the later async caller
+        taskFuture.complete( 42 );
+        syncThread.join();
+
+        assertEquals( 42, future1.join() );
+        assertEquals( 43, future2.join() );
+        assertEquals( List.of( "sync", "async" ), startOrder );
+    }
+
+    @Test
+    void getAsync_nullTask()
+    {
+        String taskName = "getAsync_nullTask";
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> this.taskRunner.getAsync( taskName, null, false, null ));
+
+        assertEquals( "Task must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void getAsync_omegaCodexException()
+    {
+        String taskName = "getAsync_omegaCodexException";
+        OmegaCodexException innerException = new OmegaCodexException( "Test Message" );
+
+        CompletableFuture< Object > future = this.taskRunner.getAsync(
+                taskName, null, false, () -> CompletableFuture.failedFuture( innerException ));
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+
+        assertEquals( innerException, exception.getCause() );
+    }
+
+    @Test
+    void getAsync_exception()
+    {
+        String taskName = "getAsync_exception";
+        Exception innerException = new Exception( "Inner Exception" );
+
+        CompletableFuture< Object > future = this.taskRunner.getAsync(
+                taskName, null, false, () -> CompletableFuture.failedFuture( innerException ));
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+
+        assertInstanceOf( OmegaCodexException.class, exception.getCause() );
+        assertEquals( taskName + ", Exception Occurred", exception.getCause().getMessage() );
+        assertEquals( innerException, exception.getCause().getCause() );
+    }
+
+    @Test
+    void getAsync_maxInFlight()
+    {
+        String taskName = "getAsync_maxInFlight";
+
+        TaskRunner taskRunner = new TaskRunner( 0, 2, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        List< CompletableFuture< Integer >> taskFutures = new ArrayList<>();
+        List< CompletableFuture< Integer >> futures = new ArrayList<>();
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            futures.add( taskRunner.getAsync( taskName, null, false, () ->
+            {
+                CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+                taskFutures.add( taskFuture );
+                return taskFuture;
+            }));
+        }
+
+        // later tasks only start as earlier ones finish
+        assertEquals( 2, taskFutures.size() );
+        taskFutures.get( 0 ).complete( 42 );
+        assertEquals( 3, taskFutures.size() );
+        taskFutures.get( 1 ).complete( 43 );
+        assertEquals( 4, taskFutures.size() );
+        taskFutures.get( 2 ).complete( 44 );
+        taskFutures.get( 3 ).complete( 45 );
+
+        assertEquals( List.of( 42, 43, 44, 45 ), futures.stream().map( CompletableFuture::join ).toList() );
+    }
+
+    @Test
+    void getAsync_reservedPermits()
+    {
+        String taskName = "getAsync_reservedPermits";
+
+        TaskRunner taskRunner = new TaskRunner( 0, 2, 1, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        List< CompletableFuture< Integer >> taskFutures = new ArrayList<>();
+        Supplier< CompletableFuture< Integer >> task = () ->
+        {
+            CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+            taskFutures.add( taskFuture );
+            return taskFuture;
+        };
+
+        CompletableFuture< Integer > future1 = taskRunner.getAsync( taskName, null, false, ApiPriority.BULK, task );
+        CompletableFuture< Integer > future2 = taskRunner.getAsync( taskName, null, false, ApiPriority.BULK, task );
+
+        // the second bulk task leaves the reserved permit free, so an interactive task still starts straight away
+        assertEquals( 1, taskFutures.size() );
+        CompletableFuture< Integer > future3 =
+                taskRunner.getAsync( taskName, null, false, ApiPriority.INTERACTIVE, task );
+        assertEquals( 2, taskFutures.size() );
+
+        taskFutures.get( 0 ).complete( 42 );
+        assertEquals( 2, taskFutures.size() );
+        taskFutures.get( 1 ).complete( 44 );
+        assertEquals( 3, taskFutures.size() );
+        taskFutures.get( 2 ).complete( 43 );
+
+        assertEquals( 42, future1.join() );
+        assertEquals( 43, future2.join() );
+        assertEquals( 44, future3.join() );
+    }
+
+    @Test
+    void getAsync_interactiveBeforeBulk()
+    {
+        String taskName = "getAsync_interactiveBeforeBulk";
+        CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+        List< String > startOrder = new ArrayList<>();
+
+        TaskRunner taskRunner = new TaskRunner( 0, 1, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        CompletableFuture< Integer > future1 =
+                taskRunner.getAsync( taskName, null, false, ApiPriority.BULK, () -> taskFuture );
+        CompletableFuture< Integer > future2 = taskRunner.getAsync( taskName, null, false, ApiPriority.BULK, () ->
+        {
+            startOrder.add( "bulk" );
+            return CompletableFuture.completedFuture( 43 );
+        });
+        CompletableFuture< Integer > future3 = taskRunner.getAsync(
+                taskName, null, false, ApiPriority.INTERACTIVE, () ->
+        {
+            startOrder.add( "interactive" );
+            return CompletableFuture.completedFuture( 44 );
+        });
+
+        // the interactive task arrived last, but it still gets the released permit ahead of the waiting bulk task
+        taskFuture.complete( 42 );
+
+        assertEquals( 42, future1.join() );
+        assertEquals( 43, future2.join() );
+        assertEquals( 44, future3.join() );
+        assertEquals( List.of( "interactive", "bulk" ), startOrder );
+    }
+
+    @Test
+    void getAsync_timeout_taskCancelled()
+    {
+        String taskName = "getAsync_timeout_taskCancelled";
+        CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+
+        CompletableFuture< Integer > future = this.taskRunner.getAsync( taskName, null, false, 100, () -> taskFuture );
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future::join );
+
+        assertInstanceOf( OmegaCodexException.class, exception.getCause() );
+        assertEquals( taskName + ", Timed Out, Timeout: 100 ms", exception.getCause().getMessage() );
+        assertTrue( taskFuture.isCancelled() );
+    }
+
+    @Test
+    void getAsync_timeout_waitingForPermit()
+    {
+        String taskName = "getAsync_timeout_waitingForPermit";
+        CompletableFuture< Integer > taskFuture = new CompletableFuture<>();
+        AtomicInteger startCount = new AtomicInteger();
+
+        TaskRunner taskRunner = new TaskRunner( 0, 1, this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+        CompletableFuture< Integer > future1 = taskRunner.getAsync( taskName, null, false, () -> taskFuture );
+        CompletableFuture< Integer > future2 = taskRunner.getAsync( taskName, null, false, 100, () ->
+        {
+            startCount.incrementAndGet();
+            return CompletableFuture.completedFuture( 43 );
+        });
+
+        CompletionException exception = assertThrowsExactly( CompletionException.class, future2::join );
+        assertEquals( taskName + ", Timed Out, Timeout: 100 ms", exception.getCause().getMessage() );
+
+        // the timed out task never starts, and the permit goes on to the next task instead
+        taskFuture.complete( 42 );
+        CompletableFuture< Integer > future3 = taskRunner.getAsync(
+                taskName, null, false, () -> CompletableFuture.completedFuture( 44 ));
+
+        assertEquals( 42, future1.join() );
+        assertEquals( 44, future3.join() );
+        assertEquals( 0, startCount.get() );
+    }
+
+    @Test
+    void getAsync_success_rateLimited()
+    {
+        String taskName = "getAsync_success_rateLimited";
+
+        when( this.mockOmegaCodexUtil.nanoTime() )
+                .thenReturn(  1_000_000_000L )  // init  #1
+                .thenReturn(  1_000_000_000L )  // start #1
+                .thenReturn(  2_250_000_000L )  // stop  #1
+                .thenReturn(  3_000_000_000L )  // init  #2 (start is delayed until 6,000 ms)
+                .thenReturn(  3_500_000_000L )  // init  #3 (start is delayed until 11,000 ms)
+                .thenReturn(  6_000_000_000L )  // start #2
+                .thenReturn(  7_500_000_000L )  // stop  #2
+                .thenReturn( 11_000_000_000L )  // start #3
+                .thenReturn( 12_750_000_000L ); // stop  #3
+
+        // delayed tasks are queued, so they only run once both have been scheduled
+        List< Runnable > delayedTasks = new ArrayList<>();
+        when( this.mockOmegaCodexUtil.delayedExecutor( anyLong() )).thenReturn( delayedTasks::add );
+
+        CompletableFuture< Integer > future1 = this.taskRunner.getAsync(
+                taskName, null, true, () -> CompletableFuture.completedFuture( 42 ));
+        CompletableFuture< Integer > future2 = this.taskRunner.getAsync(
+                taskName, null, true, () -> CompletableFuture.completedFuture( 43 ));
+        CompletableFuture< Integer > future3 = this.taskRunner.getAsync(
+                taskName, "Start Message", true, () -> CompletableFuture.completedFuture( 44 ));
+
+        assertEquals( 42, future1.join() );
+        assertFalse( future2.isDone() );
+        assertFalse( future3.isDone() );
+
+        for ( Runnable delayedTask : delayedTasks ) delayedTask.run();
+
+        assertEquals( 43, future2.join() );
+        assertEquals( 44, future3.join() );
+
+        InOrder inOrder = inOrder( this.mockOmegaCodexUtil, this.mockOmegaCodexLogger );
+
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Starting" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Complete, Duration: 1,250 ms" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Sleeping, Duration: 3,000 ms" );
+        inOrder.verify( this.mockOmegaCodexUtil ).delayedExecutor( 3_000 );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Sleeping, Duration: 7,500 ms" );
+        inOrder.verify( this.mockOmegaCodexUtil ).delayedExecutor( 7_500 );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Starting" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Complete, Duration: 1,500 ms" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Starting, Start Message" );
+        inOrder.verify( this.mockOmegaCodexLogger ).println( taskName + ", Complete, Duration: 1,750 ms" );
+    }
 }
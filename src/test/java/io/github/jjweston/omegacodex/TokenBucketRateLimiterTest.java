@@ -0,0 +1,187 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.mockito.Mockito.when;
+
+@ExtendWith( MockitoExtension.class )
+class TokenBucketRateLimiterTest
+{
+    @Mock private OmegaCodexUtil mockOmegaCodexUtil;
+
+    @Test
+    void testConstructor_invalidRequestsPerMinute()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter( 0, 1_000, this.mockOmegaCodexUtil ));
+
+        assertEquals( "Requests per minute must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_invalidTokensPerMinute()
+    {
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter( 10, 0, this.mockOmegaCodexUtil ));
+
+        assertEquals( "Tokens per minute must be positive.", exception.getMessage() );
+    }
+
+    @Test
+    void testReserve_negativeTokens()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> tokenBucketRateLimiter.reserve( -1 ));
+
+        assertEquals( "Estimated tokens must not be negative.", exception.getMessage() );
+    }
+
+    @Test
+    void testReserve_requestLimit()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 2, 1_000, this.mockOmegaCodexUtil );
+
+        assertEquals( 0, tokenBucketRateLimiter.reserve( 10 ));
+        assertEquals( 0, tokenBucketRateLimiter.reserve( 10 ));
+        assertEquals( 30_000, tokenBucketRateLimiter.reserve( 10 ));
+        assertEquals( 60_000, tokenBucketRateLimiter.reserve( 10 ));
+    }
+
+    @Test
+    void testReserve_tokenLimit()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 100, 1_000, this.mockOmegaCodexUtil );
+
+        assertEquals( 0, tokenBucketRateLimiter.reserve( 900 ));
+        assertEquals( 6_000, tokenBucketRateLimiter.reserve( 200 ));
+        assertEquals( 126_000, tokenBucketRateLimiter.reserve( 2_000 ));
+    }
+
+    @Test
+    void testReserve_refill()
+    {
+        when( this.mockOmegaCodexUtil.nanoTime() )
+                .thenReturn(              0L )  // construction
+                .thenReturn(              0L )  // reserve #1
+                .thenReturn( 15_000_000_000L )  // reserve #2
+                .thenReturn( 90_000_000_000L ); // reserve #3
+
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 4, 1_000, this.mockOmegaCodexUtil );
+
+        // after a quarter minute, a quarter of the tokens are back, but never more than the capacity
+        assertEquals( 0, tokenBucketRateLimiter.reserve( 1_000 ));
+        assertEquals( 45_000, tokenBucketRateLimiter.reserve( 1_000 ));
+        assertEquals( 0, tokenBucketRateLimiter.reserve( 500 ));
+    }
+
+    @Test
+    void testGetDelayMs()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        tokenBucketRateLimiter.reserve( 600 );
+
+        // checking the delay never reserves anything, and oversized requests only wait for a full bucket
+        assertEquals( 0, tokenBucketRateLimiter.getDelayMs( 300, 0 ));
+        assertEquals( 6_000, tokenBucketRateLimiter.getDelayMs( 300, 0.2 ));
+        assertEquals( 36_000, tokenBucketRateLimiter.getDelayMs( 5_000, 0 ));
+        assertEquals( 400, tokenBucketRateLimiter.getAvailableTokens() );
+    }
+
+    @Test
+    void testGetDelayMs_invalidReserveFraction()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        IllegalArgumentException exception = assertThrowsExactly( IllegalArgumentException.class,
+                () -> tokenBucketRateLimiter.getDelayMs( 10, -0.1 ));
+
+        assertEquals( "Reserve fraction must be at least 0 and less than 1.", exception.getMessage() );
+    }
+
+    @Test
+    void testReconcile()
+    {
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 10, 1_000, this.mockOmegaCodexUtil );
+
+        tokenBucketRateLimiter.reserve( 600 );
+        tokenBucketRateLimiter.reconcile( 600, 200 );
+        assertEquals( 800, tokenBucketRateLimiter.getAvailableTokens() );
+
+        tokenBucketRateLimiter.reserve( 100 );
+        tokenBucketRateLimiter.reconcile( 100, 1_000 );
+        assertEquals( -200, tokenBucketRateLimiter.getAvailableTokens() );
+
+        tokenBucketRateLimiter.reconcile( 2_000, 0 );
+        assertEquals( 1_000, tokenBucketRateLimiter.getAvailableTokens() );
+    }
+
+    @Test
+    void testReserve_concurrent() throws Exception
+    {
+        int threadCount = 8;
+        int reserveCount = 1_000;
+
+        TokenBucketRateLimiter tokenBucketRateLimiter =
+                new TokenBucketRateLimiter( 1_000_000, 1_000_000, this.mockOmegaCodexUtil );
+
+        try ( ExecutorService executorService = Executors.newFixedThreadPool( threadCount ))
+        {
+            List< Future< ? >> futures = new ArrayList<>();
+            for ( int i = 0; i < threadCount; i++ )
+            {
+                futures.add( executorService.submit( () ->
+                {
+                    for ( int j = 0; j < reserveCount; j++ )
+                    {
+                        tokenBucketRateLimiter.reserve( 3 );
+                        tokenBucketRateLimiter.reconcile( 3, 2 );
+                    }
+                }));
+            }
+
+            for ( Future< ? > future : futures ) future.get();
+        }
+
+        assertEquals( 1_000_000 - ( threadCount * reserveCount ), tokenBucketRateLimiter.getAvailableRequests() );
+        assertEquals( 1_000_000 - ( threadCount * reserveCount * 2 ), tokenBucketRateLimiter.getAvailableTokens() );
+    }
+}
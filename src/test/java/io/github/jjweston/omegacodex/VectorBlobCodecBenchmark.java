@@ -0,0 +1,83 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public class VectorBlobCodecBenchmark
+{
+    private static final int vectorDimension = 1_536;
+
+    private final VectorTextCodec          vectorTextCodec          = new VectorTextCodec();
+    private final VectorBlobCodec          vectorBlobCodec          = new VectorBlobCodec();
+    private final QuantizedVectorBlobCodec quantizedVectorBlobCodec = new QuantizedVectorBlobCodec();
+
+    private String text;
+    private byte[] floatBlob;
+    private byte[] quantizedBlob;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random( 42 );
+        float[] array = new float[ vectorDimension ];
+        for ( int i = 0; i < vectorDimension; i++ ) array[ i ] = (float) ( random.nextGaussian() * 0.025 );
+        ImmutableFloatArray vector = new ImmutableFloatArray( array );
+
+        this.text          = this.vectorTextCodec.encode( vector );
+        this.floatBlob     = this.vectorBlobCodec.encode( vector );
+        this.quantizedBlob = this.quantizedVectorBlobCodec.encode( vector );
+    }
+
+    @Benchmark
+    public float[] decodeText()
+    {
+        return this.vectorTextCodec.decode( this.text );
+    }
+
+    @Benchmark
+    public ImmutableFloatArray decodeFloatBlob()
+    {
+        return this.vectorBlobCodec.decode( this.floatBlob );
+    }
+
+    @Benchmark
+    public ImmutableFloatArray decodeQuantizedBlob()
+    {
+        return this.quantizedVectorBlobCodec.decode( this.quantizedBlob );
+    }
+}
@@ -0,0 +1,88 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+class VectorBlobCodecTest
+{
+    private final VectorBlobCodec vectorBlobCodec = new VectorBlobCodec();
+
+    @Test
+    void testEncode_nullVector()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorBlobCodec.encode( null ));
+
+        assertEquals( "Vector must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testEncode_littleEndianFloats()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 1.0f, -2.0f } );
+
+        byte[] expectedBlob = { 0x00, 0x00, (byte) 0x80, 0x3F, 0x00, 0x00, 0x00, (byte) 0xC0 };
+
+        assertArrayEquals( expectedBlob, this.vectorBlobCodec.encode( vector ));
+    }
+
+    @Test
+    void testDecode_nullBlob()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorBlobCodec.decode( null ));
+
+        assertEquals( "Blob must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDecode_invalidLength()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorBlobCodec.decode( new byte[ 6 ] ));
+
+        assertEquals( "Blob length must be a multiple of 4. Actual Length: 6", exception.getMessage() );
+    }
+
+    @Test
+    void testRoundTrip()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { -0.75f, -0.5f, 0.0f, 0.5f, 0.75f } );
+
+        assertEquals( vector, this.vectorBlobCodec.decode( this.vectorBlobCodec.encode( vector )));
+    }
+
+    @Test
+    void testRoundTrip_floatPrecision()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 0.123456789012345f, -0.987654321f } );
+
+        float[] expectedArray = { 0.123456789012345f, -0.987654321f };
+        float[] actualArray = this.vectorBlobCodec.decode( this.vectorBlobCodec.encode( vector )).getArray();
+
+        assertArrayEquals( expectedArray, actualArray );
+    }
+}
@@ -0,0 +1,121 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector" )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public class VectorMathBenchmark
+{
+    private static final int vectorDimension = 1_536;
+    private static final int batchSize       = 1_000;
+
+    private final VectorMath simdVectorMath   = new VectorMath( new SimdVectorKernel() );
+    private final VectorMath scalarVectorMath = new VectorMath( new ScalarVectorKernel() );
+
+    private ImmutableFloatArray         query;
+    private ImmutableFloatArray         vector;
+    private List< ImmutableFloatArray > vectors;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random( 42 );
+        this.query   = this.randomVector( random );
+        this.vector  = this.randomVector( random );
+        this.vectors = new ArrayList<>( batchSize );
+        for ( int i = 0; i < batchSize; i++ ) this.vectors.add( this.randomVector( random ));
+    }
+
+    @Benchmark
+    public float dotSimd()
+    {
+        return this.simdVectorMath.dot( this.query, this.vector );
+    }
+
+    @Benchmark
+    public float dotScalar()
+    {
+        return this.scalarVectorMath.dot( this.query, this.vector );
+    }
+
+    @Benchmark
+    public float cosineSimd()
+    {
+        return this.simdVectorMath.cosine( this.query, this.vector );
+    }
+
+    @Benchmark
+    public float cosineScalar()
+    {
+        return this.scalarVectorMath.cosine( this.query, this.vector );
+    }
+
+    @Benchmark
+    public float normSimd()
+    {
+        return this.simdVectorMath.norm( this.vector );
+    }
+
+    @Benchmark
+    public float normScalar()
+    {
+        return this.scalarVectorMath.norm( this.vector );
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public float[] cosineBatchSimd()
+    {
+        return this.simdVectorMath.cosine( this.query, this.vectors );
+    }
+
+    @Benchmark
+    @OutputTimeUnit( TimeUnit.MICROSECONDS )
+    public float[] cosineBatchScalar()
+    {
+        return this.scalarVectorMath.cosine( this.query, this.vectors );
+    }
+
+    private ImmutableFloatArray randomVector( Random random )
+    {
+        float[] array = new float[ vectorDimension ];
+        for ( int i = 0; i < vectorDimension; i++ ) array[ i ] = (float) ( random.nextGaussian() * 0.05 );
+        return new ImmutableFloatArray( array );
+    }
+}
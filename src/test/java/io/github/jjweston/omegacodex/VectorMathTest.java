@@ -0,0 +1,167 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+class VectorMathTest
+{
+    private final VectorMath vectorMath = new VectorMath( new ScalarVectorKernel() );
+
+    private final ImmutableFloatArray vectorA    = new ImmutableFloatArray( new float[] { 1.0f, 2.0f, 3.0f } );
+    private final ImmutableFloatArray vectorB    = new ImmutableFloatArray( new float[] { 4.0f, -5.0f, 6.0f } );
+    private final ImmutableFloatArray zeroVector = new ImmutableFloatArray( new float[ 3 ] );
+
+    @Test
+    void testConstructor_nullKernel()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> new VectorMath( null ));
+
+        assertEquals( "Kernel must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testConstructor_defaultKernel()
+    {
+        VectorMath.Kernel kernel = new VectorMath().getKernel();
+
+        if ( ModuleLayer.boot().findModule( "jdk.incubator.vector" ).isPresent() )
+        {
+            assertInstanceOf( SimdVectorKernel.class, kernel );
+        }
+        else assertInstanceOf( ScalarVectorKernel.class, kernel );
+    }
+
+    @Test
+    void testDot()
+    {
+        assertEquals( 12.0f, this.vectorMath.dot( this.vectorA, this.vectorB ));
+    }
+
+    @Test
+    void testDot_nullVector()
+    {
+        ImmutableFloatArray nullVector = null;
+
+        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorMath.dot( this.vectorA, nullVector ));
+
+        assertEquals( "Vector must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDot_lengthMismatch()
+    {
+        ImmutableFloatArray shortVector = new ImmutableFloatArray( new float[] { 1.0f, 2.0f } );
+
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorMath.dot( this.vectorA, shortVector ));
+
+        assertEquals( "Vector lengths must match. Lengths: 3, 2", exception.getMessage() );
+    }
+
+    @Test
+    void testDot_batch()
+    {
+        float[] results = this.vectorMath.dot( this.vectorA, List.of( this.vectorA, this.vectorB, this.zeroVector ));
+
+        assertArrayEquals( new float[] { 14.0f, 12.0f, 0.0f }, results );
+    }
+
+    @Test
+    void testDot_batchNullQuery()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorMath.dot( null, List.of( this.vectorA )));
+
+        assertEquals( "Query must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDot_batchNullVectors()
+    {
+        List< ImmutableFloatArray > nullVectors = null;
+
+        @SuppressWarnings( { "ConstantValue", "DataFlowIssue" } )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorMath.dot( this.vectorA, nullVectors ));
+
+        assertEquals( "Vectors must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testCosine()
+    {
+        ImmutableFloatArray x        = new ImmutableFloatArray( new float[] { 1.0f, 0.0f } );
+        ImmutableFloatArray diagonal = new ImmutableFloatArray( new float[] { 1.0f, 1.0f } );
+
+        assertEquals( (float) Math.sqrt( 0.5 ), this.vectorMath.cosine( x, diagonal ), 1e-7f );
+        assertEquals( 1.0f, this.vectorMath.cosine( this.vectorA, this.vectorA ), 1e-7f );
+    }
+
+    @Test
+    void testCosine_zeroVector()
+    {
+        assertEquals( 0.0f, this.vectorMath.cosine( this.vectorA, this.zeroVector ));
+    }
+
+    @Test
+    void testCosine_batch()
+    {
+        float[] results = this.vectorMath.cosine( this.vectorA, List.of( this.vectorA, this.vectorB, this.zeroVector ));
+
+        float expectedCosine = (float) ( 12.0 / ( Math.sqrt( 14.0 ) * Math.sqrt( 77.0 )));
+        assertArrayEquals( new float[] { 1.0f, expectedCosine, 0.0f }, results, 1e-7f );
+    }
+
+    @Test
+    void testNorm()
+    {
+        assertEquals( 5.0f, this.vectorMath.norm( new ImmutableFloatArray( new float[] { 3.0f, -4.0f } )));
+    }
+
+    @Test
+    void testNormalize()
+    {
+        ImmutableFloatArray vector     = new ImmutableFloatArray( new float[] { 3.0f, 4.0f } );
+        ImmutableFloatArray normalized = this.vectorMath.normalize( vector );
+
+        assertArrayEquals( new float[] { 0.6f, 0.8f }, normalized.getArray(), 1e-7f );
+        assertEquals( 1.0f, this.vectorMath.norm( normalized ), 1e-7f );
+    }
+
+    @Test
+    void testNormalize_zeroVector()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorMath.normalize( this.zeroVector ));
+
+        assertEquals( "Vector must not be zero.", exception.getMessage() );
+    }
+}
@@ -0,0 +1,97 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+public class VectorTextCodecBenchmark
+{
+    private static final int vectorDimension = 1_536;
+
+    private final VectorTextCodec vectorTextCodec = new VectorTextCodec();
+    private final StringBuilder   builder         = new StringBuilder();
+
+    private ImmutableFloatArray vector;
+    private float[]             array;
+    private String              text;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random( 42 );
+        this.array = new float[ vectorDimension ];
+        for ( int i = 0; i < vectorDimension; i++ ) this.array[ i ] = (float) ( random.nextGaussian() * 0.05 );
+
+        this.vector = new ImmutableFloatArray( this.array );
+        this.text   = this.vectorTextCodec.encode( this.vector );
+    }
+
+    @Benchmark
+    public float[] decodeObjectMapper()
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return objectMapper.readValue( this.text, float[].class );
+    }
+
+    @Benchmark
+    public float[] decodeCodec()
+    {
+        return this.vectorTextCodec.decode( this.text );
+    }
+
+    @Benchmark
+    public String encodeObjectMapper()
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return objectMapper.writeValueAsString( this.array );
+    }
+
+    @Benchmark
+    public String encodeCodec()
+    {
+        return this.vectorTextCodec.encode( this.vector );
+    }
+
+    @Benchmark
+    public int encodeCodecReusedBuilder()
+    {
+        this.builder.setLength( 0 );
+        this.vectorTextCodec.encode( this.vector, this.builder );
+        return this.builder.length();
+    }
+}
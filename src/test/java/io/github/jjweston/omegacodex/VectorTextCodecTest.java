@@ -0,0 +1,197 @@
+/*
+
+Copyright 2026 Jeffrey J. Weston <jjweston@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+*/
+
+package io.github.jjweston.omegacodex;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+class VectorTextCodecTest
+{
+    private final VectorTextCodec vectorTextCodec = new VectorTextCodec();
+
+    @Test
+    void testEncode_nullVector()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorTextCodec.encode( null ));
+
+        assertEquals( "Vector must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testEncode_nullBuilder()
+    {
+        ImmutableFloatArray vector = new ImmutableFloatArray( new float[] { 1.0f } );
+
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorTextCodec.encode( vector, null ));
+
+        assertEquals( "Builder must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testEncode_matchesJackson()
+    {
+        float[] array = { 0.0f, -0.0f, 1.0f, -0.015625f, 1.0e-5f, 3.4028235e38f, 0.1f, -0.123456789f };
+
+        String expectedText = new ObjectMapper().writeValueAsString( array );
+
+        assertEquals( expectedText, this.vectorTextCodec.encode( new ImmutableFloatArray( array )));
+    }
+
+    @Test
+    void testEncode_reusedBuilder()
+    {
+        StringBuilder builder = new StringBuilder( "Vector: " );
+
+        this.vectorTextCodec.encode( new ImmutableFloatArray( new float[] { 0.5f, -2.0f } ), builder );
+
+        assertEquals( "Vector: [0.5,-2.0]", builder.toString() );
+    }
+
+    @Test
+    void testDecode_nullText()
+    {
+        @SuppressWarnings( "DataFlowIssue" )
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorTextCodec.decode( null ));
+
+        assertEquals( "Text must not be null.", exception.getMessage() );
+    }
+
+    @Test
+    void testDecode_empty()
+    {
+        assertArrayEquals( new float[ 0 ], this.vectorTextCodec.decode( " [ ] " ));
+    }
+
+    @Test
+    void testDecode_formats()
+    {
+        float[] expectedArray = { 1.0f, -0.5f, 0.0f, -0.0f, 1.5e-5f, 2.5e10f, 12.0f, 0.015625f };
+
+        float[] actualArray = this.vectorTextCodec.decode( "[ 1, -0.5, 0.0, -0, 1.5E-5, 2.5e+10 , 1.2e1,\n0.015625 ]" );
+
+        assertArrayEquals( expectedArray, actualArray );
+    }
+
+    @Test
+    void testDecode_floatMidpoint()
+    {
+        // rounds to the double halfway between 1.0f and the next float, while the exact value lies above it
+        String number = "1.00000005960464478";
+
+        float[] actualArray = this.vectorTextCodec.decode( "[" + number + "]" );
+
+        assertEquals( Float.parseFloat( number ), actualArray[ 0 ] );
+        assertEquals( Math.nextUp( 1.0f ), actualArray[ 0 ] );
+    }
+
+    @Test
+    void testDecode_longAndExtremeNumbers()
+    {
+        String[] numbers = { "0.000000000000000000000000000000000000000000001401298464324817",
+                             "123456789012345678901234567890", "1e-50", "-1e50", "3.4028235677973366e38",
+                             "0.1000000000000000055511151231257827021181583404541015625" };
+
+        float[] actualArray = this.vectorTextCodec.decode( "[" + String.join( ",", numbers ) + "]" );
+
+        for ( int i = 0; i < numbers.length; i++ )
+        {
+            assertEquals( Float.parseFloat( numbers[ i ] ), actualArray[ i ], "Number: " + numbers[ i ] );
+        }
+    }
+
+    @Test
+    void testDecode_nineteenDigitMantissa()
+    {
+        // 19 significant digits no longer fit in the long mantissa
+        String[] numbers = { "0.9999999999999999999", "9999999999999999999", "-9999999999999999999",
+                             "1234567890123456789e-10" };
+
+        float[] actualArray = this.vectorTextCodec.decode( "[" + String.join( ",", numbers ) + "]" );
+
+        for ( int i = 0; i < numbers.length; i++ )
+        {
+            assertEquals( Float.parseFloat( numbers[ i ] ), actualArray[ i ], "Number: " + numbers[ i ] );
+        }
+    }
+
+    @Test
+    void testDecode_legacyDoubleText()
+    {
+        Random random = new Random( 42 );
+        double[] legacyArray = new double[ 4_096 ];
+        for ( int i = 0; i < legacyArray.length; i++ ) legacyArray[ i ] = random.nextGaussian() * 0.05;
+
+        String legacyText = new ObjectMapper().writeValueAsString( legacyArray );
+        float[] actualArray = this.vectorTextCodec.decode( legacyText );
+
+        for ( int i = 0; i < legacyArray.length; i++ )
+        {
+            assertEquals( Float.parseFloat( Double.toString( legacyArray[ i ] )), actualArray[ i ], "Index: " + i );
+        }
+    }
+
+    @Test
+    void testRoundTrip()
+    {
+        Random random = new Random( 42 );
+        float[] array = new float[ 4_096 ];
+        for ( int i = 0; i < array.length; i++ )
+        {
+            float value = Float.intBitsToFloat( random.nextInt() );
+            array[ i ] = Float.isFinite( value ) ? value : 0.0f;
+        }
+
+        ImmutableFloatArray vector = new ImmutableFloatArray( array );
+
+        assertArrayEquals( array, this.vectorTextCodec.decode( this.vectorTextCodec.encode( vector )));
+    }
+
+    @Test
+    void testDecode_invalidText()
+    {
+        String[] invalidTexts = { "", "1.0", "[", "[1.0", "[1.0,]", "[,1.0]", "[1.0 2.0]", "[1.]", "[.5]", "[1e]",
+                                  "[-]", "[1.0]x", "[1.0,,2.0]", "[abc]" };
+
+        for ( String invalidText : invalidTexts )
+        {
+            assertThrowsExactly( IllegalArgumentException.class,
+                    () -> this.vectorTextCodec.decode( invalidText ), "Text: " + invalidText );
+        }
+    }
+
+    @Test
+    void testDecode_invalidTextPosition()
+    {
+        IllegalArgumentException exception = assertThrowsExactly(
+                IllegalArgumentException.class, () -> this.vectorTextCodec.decode( "[1.0, x]" ));
+
+        assertEquals( "Invalid vector text. Position: 6", exception.getMessage() );
+    }
+}